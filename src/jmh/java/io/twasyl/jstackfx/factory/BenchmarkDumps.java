@@ -0,0 +1,75 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import io.twasyl.jstackfx.beans.SourceRange;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides the dumps used by the benchmarks. A dump is either one of the samples of {@code src/test/resources}, or
+ * is generated by the {@link DumpGenerator} with a given number of threads, always from the same seed.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class BenchmarkDumps {
+    protected static final File SAMPLES = new File("src/test/resources");
+    protected static final long SEED = 42;
+    protected static final int STACK_DEPTH = 30;
+    protected static final double LOCK_DENSITY = 0.2;
+
+    /**
+     * Get the file of the given dump, generating it if needed. Generated dumps are deleted when the JVM exits.
+     *
+     * @param dump Either the name of a sample file or a number of threads.
+     * @return The file of the dump.
+     * @throws IOException If the dump can not be generated.
+     */
+    public static File fileOf(final String dump) throws IOException {
+        if (!dump.chars().allMatch(Character::isDigit)) return new File(SAMPLES, dump);
+
+        final File file = File.createTempFile("jstackfx-benchmark-" + dump + "-", ".txt");
+        file.deleteOnExit();
+
+        generate(Integer.parseInt(dump), file);
+        return file;
+    }
+
+    /**
+     * Get the lines of each thread of the given dump, as given to {@link ThreadElementFactory#build(List)}.
+     *
+     * @param dump Either the name of a sample file or a number of threads.
+     * @return The lines of each thread of the dump.
+     * @throws IOException If the dump can not be read.
+     */
+    public static List<List<String>> threadsOf(final String dump) throws IOException {
+        final List<List<String>> threads = new ArrayList<>();
+        final File file = fileOf(dump);
+
+        final JStackDumpParser<Dump> parser = new JStackDumpParser<Dump>(new InMemoryDump()) {
+            @Override
+            protected void threadClosed(final List<String> lines, final SourceRange range) {
+                threads.add(new ArrayList<>(lines));
+            }
+        };
+
+        Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).forEach(parser::parseLine);
+        parser.end();
+
+        return threads;
+    }
+
+    protected static void generate(final int numberOfThreads, final File file) throws IOException {
+        final DumpGenerator generator = new DumpGenerator(SEED);
+        generator.setNumberOfThreads(numberOfThreads);
+        generator.setStackDepth(STACK_DEPTH);
+        generator.setLockDensity(LOCK_DENSITY);
+        generator.write(file);
+    }
+}
@@ -0,0 +1,55 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the loading of a whole dump file, from reading its bytes to building all its
+ * {@link io.twasyl.jstackfx.beans.ThreadElement thread elements}. Run it with {@code gradlew jmh}, which also reports
+ * the allocation rate.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DumpReadingBenchmark {
+
+    /**
+     * Either the name of a sample file or the number of threads of a generated dump.
+     */
+    @Param({"blocked.txt", "intellij.txt", "1000", "10000", "100000"})
+    public String dump;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private File file;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.file = BenchmarkDumps.fileOf(this.dump);
+    }
+
+    @Benchmark
+    public Dump read() throws Exception {
+        return DumpFactory.read(this.file, this.parallel);
+    }
+}
@@ -0,0 +1,117 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.ThreadElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the extraction of thread elements from the lines of a dump, as a whole and extractor by extractor. Each
+ * invocation processes all threads of the dump, so the throughput is expressed in dumps per second.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadElementFactoryBenchmark {
+
+    /**
+     * Either the name of a sample file or the number of threads of a generated dump.
+     */
+    @Param({"intellij.txt", "1000", "10000", "100000"})
+    public String dump;
+
+    private List<List<String>> threads;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.threads = BenchmarkDumps.threadsOf(this.dump);
+    }
+
+    @Benchmark
+    public void build(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            final ThreadElement element = ThreadElementFactory.build(lines);
+            blackhole.consume(element);
+            blackhole.consume(element.getCallingStack());
+        }
+    }
+
+    @Benchmark
+    public void buildWithRegex(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            blackhole.consume(ThreadElementFactory.buildWithRegex(lines));
+        }
+    }
+
+    @Benchmark
+    public void extractHeader(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            final String header = lines.get(0);
+            blackhole.consume(ThreadElementFactory.extractNameFrom(header));
+            blackhole.consume(ThreadElementFactory.extractThreadNumberFrom(header));
+            blackhole.consume(ThreadElementFactory.extractPriorityFrom(header));
+            blackhole.consume(ThreadElementFactory.extractOsPriorityFrom(header));
+            blackhole.consume(ThreadElementFactory.extractThreadIdFrom(header));
+        }
+    }
+
+    @Benchmark
+    public void extractState(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            blackhole.consume(ThreadElementFactory.extractStateFrom(lines.get(1)));
+        }
+    }
+
+    @Benchmark
+    public void extractCallingStack(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            blackhole.consume(ThreadElementFactory.extractCallingStack(lines));
+        }
+    }
+
+    @Benchmark
+    public void extractHoldingLocks(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            blackhole.consume(ThreadElementFactory.extractHoldingLocks(lines));
+        }
+    }
+
+    @Benchmark
+    public void extractWaitingToLock(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            blackhole.consume(ThreadElementFactory.extractWaitingToLock(lines));
+        }
+    }
+
+    @Benchmark
+    public void extractParkingToWaitFor(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            blackhole.consume(ThreadElementFactory.extractParkingToWaitFor(lines));
+        }
+    }
+
+    @Benchmark
+    public void extractLockedSynchronizers(final Blackhole blackhole) {
+        for (final List<String> lines : this.threads) {
+            blackhole.consume(ThreadElementFactory.extractLockedSynchronizersFrom(lines));
+        }
+    }
+}
@@ -44,9 +44,9 @@ public class JStackFX extends Application {
         if (this.pidToDumpAtStartup != null) {
             final JStackFXController controller = loader.getController();
             try {
-                final long pid = Long.parseLong(this.pidToDumpAtStartup);
-                controller.dumpPID(pid);
-            } catch (Exception e) {
+                // The dump is captured in the background and displayed once captured
+                controller.dumpPID(Long.parseLong(this.pidToDumpAtStartup));
+            } catch (NumberFormatException e) {
                 final Alert errorDialog = new Alert(Alert.AlertType.ERROR, e.getMessage(), ButtonType.OK);
                 errorDialog.setTitle("Can create thread dump for process " + this.pidToDumpAtStartup);
                 errorDialog.showAndWait();
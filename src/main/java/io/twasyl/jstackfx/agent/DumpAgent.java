@@ -0,0 +1,308 @@
+package io.twasyl.jstackfx.agent;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.instrument.Instrumentation;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Java agent running inside the process to observe, which writes snapshots of its threads to a local spool directory,
+ * periodically or when a signal file is created. Snapshots are made using the {@link ThreadMXBean} of the process,
+ * without starting any other process, and written by a {@link SnapshotWriter} in the format of {@code jstack}
+ * compressed with gzip, one file per snapshot. The spool directory can then be opened as a timeline with
+ * {@link io.twasyl.jstackfx.factory.DumpFactory#readTimeline(File, boolean) DumpFactory}, for instance after a crash.
+ * <p>
+ * The agent uses a single daemon thread and stays within the budgets of its {@link DumpAgentOptions options}: a
+ * snapshot is delayed until the CPU time used by the previous one fits in the CPU budget, and the oldest snapshots are
+ * deleted once the spool exceeds its disk budget. The agent is started with:
+ * <pre>
+ * java -javaagent:jstackfx-agent-&lt;version&gt;.jar=spool=/var/spool/jstackfx,interval=30 ...
+ * </pre>
+ * This class and the classes of its package only depend on the JDK.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpAgent implements Runnable, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(DumpAgent.class.getName());
+
+    protected static final String SNAPSHOT_PREFIX = "threads-";
+    protected static final String SNAPSHOT_SUFFIX = ".txt.gz";
+    protected static final DateTimeFormatter SNAPSHOT_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    protected static final long POLL_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private static DumpAgent instance;
+
+    private final DumpAgentOptions options;
+    private final ThreadMXBean threads;
+    private final SnapshotWriter writer = new SnapshotWriter();
+    private final Deque<File> snapshots = new ArrayDeque<>();
+    private long spoolSize = 0;
+    private long notBefore = 0;
+    private long numberOfSnapshots = 0;
+    private long numberOfDelays = 0;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * Entry point of the agent when started with the {@code -javaagent} option.
+     *
+     * @param arguments       The arguments of the agent, parsed as {@link DumpAgentOptions options}.
+     * @param instrumentation Unused.
+     */
+    public static void premain(final String arguments, final Instrumentation instrumentation) {
+        start(arguments);
+    }
+
+    /**
+     * Entry point of the agent when loaded in a running process.
+     *
+     * @param arguments       The arguments of the agent, parsed as {@link DumpAgentOptions options}.
+     * @param instrumentation Unused.
+     */
+    public static void agentmain(final String arguments, final Instrumentation instrumentation) {
+        start(arguments);
+    }
+
+    /**
+     * Start the agent of this process, unless it is already started. Invalid arguments are logged and never prevent
+     * the process from starting.
+     *
+     * @param arguments The arguments of the agent.
+     */
+    protected static synchronized void start(final String arguments) {
+        if (instance != null) {
+            LOGGER.warning("The JStackFX agent is already started");
+            return;
+        }
+
+        try {
+            instance = new DumpAgent(DumpAgentOptions.parse(arguments, currentProcessId()));
+            instance.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "jstackfx-agent-shutdown"));
+        } catch (IllegalArgumentException | IOException e) {
+            instance = null;
+            LOGGER.log(Level.SEVERE, "Can not start the JStackFX agent", e);
+        }
+    }
+
+    public DumpAgent(final DumpAgentOptions options) {
+        if (options == null) throw new NullPointerException("The options can not be null");
+
+        this.options = options;
+        this.threads = ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Start the thread of the agent. Snapshots already present in the spool count in its disk budget.
+     *
+     * @throws IOException If the spool directory can not be created.
+     */
+    public synchronized void start() throws IOException {
+        if (this.running) throw new IllegalStateException("The agent is already started");
+
+        Files.createDirectories(this.options.getSpool().toPath());
+        this.loadSpool();
+
+        this.running = true;
+        this.thread = new Thread(this, "jstackfx-agent");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MIN_PRIORITY);
+        this.thread.start();
+    }
+
+    @Override
+    public void run() {
+        final boolean scheduled = !this.options.getInterval().isZero();
+        final long interval = this.options.getInterval().toNanos();
+        long nextScheduled = System.nanoTime() + interval;
+
+        try {
+            while (this.running) {
+                final long now = System.nanoTime();
+                final File signal = this.options.getSignal();
+                final boolean signalled = signal != null && signal.exists();
+
+                if (signalled || (scheduled && now - nextScheduled >= 0)) {
+                    if (now - this.notBefore < 0) {
+                        // The signal file is kept so that the snapshot is made as soon as the budget allows it
+                        this.numberOfDelays++;
+                    } else {
+                        if (signalled && !signal.delete()) {
+                            LOGGER.warning("Can not delete the signal file " + signal);
+                        }
+
+                        this.snapshot();
+                        if (scheduled) nextScheduled = System.nanoTime() + interval;
+                    }
+                }
+
+                final long wait = scheduled ? Math.min(POLL_INTERVAL, nextScheduled - System.nanoTime()) : POLL_INTERVAL;
+                if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        } catch (InterruptedException e) {
+            // The agent is closed
+        } finally {
+            this.writer.end();
+        }
+    }
+
+    /**
+     * Make a snapshot of the threads and write it to the spool. The next snapshot is delayed so that the CPU time used
+     * by this one stays within the CPU budget.
+     *
+     * @return The file of the snapshot, or {@code null} if it couldn't be written.
+     */
+    protected File snapshot() {
+        final boolean cpuTimeSupported = this.threads.isCurrentThreadCpuTimeSupported();
+        final long startTime = System.nanoTime();
+        final long startCpuTime = cpuTimeSupported ? this.threads.getCurrentThreadCpuTime() : 0;
+        File snapshot = null;
+
+        try {
+            final LocalDateTime now = LocalDateTime.now();
+            final ThreadInfo[] infos = this.threads.dumpAllThreads(this.threads.isObjectMonitorUsageSupported(),
+                    this.options.isSynchronizers() && this.threads.isSynchronizerUsageSupported());
+
+            snapshot = this.snapshotFile(now);
+            final File temporary = new File(snapshot.getParentFile(), "." + snapshot.getName() + ".tmp");
+
+            try (final OutputStream output = new BufferedOutputStream(new FileOutputStream(temporary))) {
+                this.writer.write(infos, now, output);
+            }
+
+            // A snapshot only appears in the spool once complete, even if the process dies while it is written
+            Files.move(temporary.toPath(), snapshot.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+            this.numberOfSnapshots++;
+            this.spoolSize += snapshot.length();
+            this.snapshots.addLast(snapshot);
+            this.enforceDiskBudget();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Can not write the snapshot of the threads", e);
+            snapshot = null;
+        }
+
+        final long endTime = System.nanoTime();
+        final long cost = cpuTimeSupported ? this.threads.getCurrentThreadCpuTime() - startCpuTime : endTime - startTime;
+        this.notBefore = endTime + (long) (cost * 100 / this.options.getCpuBudget());
+
+        return snapshot;
+    }
+
+    private File snapshotFile(final LocalDateTime dateTime) {
+        final String name = SNAPSHOT_PREFIX + SNAPSHOT_NAME_FORMATTER.format(dateTime);
+        File file = new File(this.options.getSpool(), name + SNAPSHOT_SUFFIX);
+
+        for (int index = 1; file.exists(); index++) {
+            file = new File(this.options.getSpool(), name + "-" + index + SNAPSHOT_SUFFIX);
+        }
+
+        return file;
+    }
+
+    /**
+     * Register the snapshots already in the spool, from the oldest to the most recent.
+     */
+    private void loadSpool() {
+        final File[] files = this.options.getSpool().listFiles((directory, name) -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX));
+
+        this.snapshots.clear();
+        this.spoolSize = 0;
+
+        if (files != null) {
+            Arrays.sort(files);
+
+            for (final File file : files) {
+                this.snapshots.addLast(file);
+                this.spoolSize += file.length();
+            }
+        }
+
+        this.enforceDiskBudget();
+    }
+
+    /**
+     * Delete the oldest snapshots until the spool fits in its disk budget. The most recent snapshot is always kept.
+     */
+    private void enforceDiskBudget() {
+        while (this.spoolSize > this.options.getDiskBudget() && this.snapshots.size() > 1) {
+            final File oldest = this.snapshots.removeFirst();
+            final long length = oldest.length();
+
+            // A snapshot which can't be deleted is forgotten, in order not to try again after each snapshot
+            if (!oldest.delete() && oldest.exists()) {
+                LOGGER.warning("Can not delete the snapshot " + oldest);
+            }
+
+            this.spoolSize -= length;
+        }
+    }
+
+    public DumpAgentOptions getOptions() {
+        return options;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getNumberOfSnapshots() {
+        return numberOfSnapshots;
+    }
+
+    /**
+     * @return The number of times a snapshot has been delayed in order to stay within the CPU budget.
+     */
+    public long getNumberOfDelays() {
+        return numberOfDelays;
+    }
+
+    public long getSpoolSize() {
+        return spoolSize;
+    }
+
+    /**
+     * Stop the thread of the agent. A snapshot being written is completed first.
+     */
+    @Override
+    public synchronized void close() {
+        if (!this.running) return;
+
+        this.running = false;
+        this.thread.interrupt();
+
+        try {
+            this.thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long currentProcessId() {
+        final String name = ManagementFactory.getRuntimeMXBean().getName();
+        final int at = name.indexOf('@');
+
+        try {
+            return Long.parseLong(at < 0 ? name : name.substring(0, at));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.twasyl.jstackfx.agent;
+
+import java.io.File;
+import java.time.Duration;
+
+/**
+ * Options of the {@link DumpAgent dump agent}, given as the arguments of the agent in the form
+ * {@code key=value,key=value}:
+ * <ul>
+ * <li>{@code spool}: the directory the snapshots are written to, by default {@code jstackfx-spool-<pid>} in the
+ * temporary directory;</li>
+ * <li>{@code interval}: the number of seconds between two scheduled snapshots, by default {@code 60}, {@code 0} to
+ * only make snapshots when signalled;</li>
+ * <li>{@code signal}: a file which, when it is created, triggers a snapshot and is deleted;</li>
+ * <li>{@code disk}: the maximum size of the spool in megabytes, by default {@code 64};</li>
+ * <li>{@code cpu}: the maximum share of one CPU used by the snapshots, in percent, by default {@code 1};</li>
+ * <li>{@code synchronizers}: indicates if the locked ownable synchronizers are written, by default {@code false}
+ * like {@code jstack} without {@code -l}.</li>
+ * </ul>
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpAgentOptions {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(60);
+    public static final long DEFAULT_DISK_BUDGET = 64L * 1024 * 1024;
+    public static final double DEFAULT_CPU_BUDGET = 1;
+
+    private File spool;
+    private Duration interval = DEFAULT_INTERVAL;
+    private File signal;
+    private long diskBudget = DEFAULT_DISK_BUDGET;
+    private double cpuBudget = DEFAULT_CPU_BUDGET;
+    private boolean synchronizers = false;
+
+    /**
+     * Parse the arguments of the agent.
+     *
+     * @param arguments The arguments of the agent, may be {@code null} or empty to use the default options.
+     * @param processId The ID of the current process, used in the default spool directory.
+     * @return The options of the agent.
+     * @throws IllegalArgumentException If an argument is unknown or invalid.
+     */
+    public static DumpAgentOptions parse(final String arguments, final long processId) {
+        final DumpAgentOptions options = new DumpAgentOptions();
+        options.setSpool(new File(System.getProperty("java.io.tmpdir"), "jstackfx-spool-" + processId));
+
+        if (arguments == null || arguments.trim().isEmpty()) return options;
+
+        for (final String argument : arguments.split(",")) {
+            final int equals = argument.indexOf('=');
+            if (equals < 0) throw new IllegalArgumentException("Missing value of the option " + argument);
+
+            final String key = argument.substring(0, equals).trim();
+            final String value = argument.substring(equals + 1).trim();
+
+            try {
+                switch (key) {
+                    case "spool":
+                        options.setSpool(new File(value));
+                        break;
+                    case "interval":
+                        options.setInterval(Duration.ofSeconds(Long.parseLong(value)));
+                        break;
+                    case "signal":
+                        options.setSignal(new File(value));
+                        break;
+                    case "disk":
+                        options.setDiskBudget(Long.parseLong(value) * 1024 * 1024);
+                        break;
+                    case "cpu":
+                        options.setCpuBudget(Double.parseDouble(value));
+                        break;
+                    case "synchronizers":
+                        options.setSynchronizers(Boolean.parseBoolean(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + key);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The value of the option " + key + " must be a number: " + value);
+            }
+        }
+
+        return options;
+    }
+
+    public File getSpool() { return spool; }
+
+    public void setSpool(File spool) {
+        if (spool == null) throw new NullPointerException("The spool can not be null");
+        this.spool = spool;
+    }
+
+    public Duration getInterval() { return interval; }
+
+    /**
+     * @param interval The duration between two scheduled snapshots, {@link Duration#ZERO} to only make snapshots when
+     *                 {@link #setSignal(File) signalled}.
+     */
+    public void setInterval(Duration interval) {
+        if (interval == null) throw new NullPointerException("The interval can not be null");
+        if (interval.isNegative()) throw new IllegalArgumentException("The interval can not be negative");
+        this.interval = interval;
+    }
+
+    public File getSignal() { return signal; }
+
+    public void setSignal(File signal) { this.signal = signal; }
+
+    public long getDiskBudget() { return diskBudget; }
+
+    /**
+     * @param diskBudget The maximum size of the spool in bytes. The oldest snapshots are deleted once it is exceeded.
+     */
+    public void setDiskBudget(long diskBudget) {
+        if (diskBudget <= 0) throw new IllegalArgumentException("The disk budget must be positive");
+        this.diskBudget = diskBudget;
+    }
+
+    public double getCpuBudget() { return cpuBudget; }
+
+    /**
+     * @param cpuBudget The maximum share of one CPU used by the snapshots, in percent. Snapshots are delayed when they
+     *                  would exceed it.
+     */
+    public void setCpuBudget(double cpuBudget) {
+        if (cpuBudget <= 0 || cpuBudget > 100) throw new IllegalArgumentException("The CPU budget must be between 0 and 100");
+        this.cpuBudget = cpuBudget;
+    }
+
+    public boolean isSynchronizers() { return synchronizers; }
+
+    public void setSynchronizers(boolean synchronizers) { this.synchronizers = synchronizers; }
+}
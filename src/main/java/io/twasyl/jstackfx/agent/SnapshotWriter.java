@@ -0,0 +1,201 @@
+package io.twasyl.jstackfx.agent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.LockInfo;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes snapshots of the threads of the current process in the format of {@code jstack}, preceded by their
+ * generation date and time, and compressed with gzip. Snapshots can then be read by
+ * {@link io.twasyl.jstackfx.factory.DumpFactory#readTimeline(java.io.File, boolean) DumpFactory}.
+ * <p>
+ * The text, the encoded bytes and the compressor are reused from one snapshot to the next, so that a snapshot only
+ * allocates when it is bigger than all previous ones. A writer isn't thread safe.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class SnapshotWriter {
+    protected static final DateTimeFormatter GENERATION_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final String header;
+    private final StringBuilder text = new StringBuilder(64 * 1024);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer encoded = ByteBuffer.allocate(64 * 1024);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    private final byte[] deflated = new byte[16 * 1024];
+    private final CRC32 crc = new CRC32();
+
+    public SnapshotWriter() {
+        this.header = "Full thread dump " + System.getProperty("java.vm.name") + " (" + System.getProperty("java.vm.version")
+                + " " + System.getProperty("java.vm.info") + "):";
+    }
+
+    /**
+     * Write a snapshot of the given threads.
+     *
+     * @param threads  The threads of the snapshot.
+     * @param dateTime The generation date and time of the snapshot.
+     * @param output   The output to write the compressed snapshot to.
+     * @throws IOException If the snapshot can not be written.
+     */
+    public void write(final ThreadInfo[] threads, final LocalDateTime dateTime, final OutputStream output) throws IOException {
+        this.text.setLength(0);
+        GENERATION_DATE_TIME_FORMATTER.formatTo(dateTime, this.text);
+        this.text.append('\n').append(this.header).append("\n\n");
+
+        for (final ThreadInfo thread : threads) {
+            if (thread != null) this.appendThread(thread);
+        }
+
+        this.encode();
+        this.compress(output);
+    }
+
+    /**
+     * Append the given thread like {@code jstack} does.
+     */
+    protected void appendThread(final ThreadInfo thread) {
+        final StackTraceElement[] frames = thread.getStackTrace();
+        final LockInfo lock = thread.getLockInfo();
+        final Thread.State state = thread.getThreadState();
+        final boolean inObjectWait = frames.length > 0 && "java.lang.Object".equals(frames[0].getClassName()) && "wait".equals(frames[0].getMethodName());
+
+        this.text.append('"').append(thread.getThreadName()).append("\" #").append(thread.getThreadId())
+                .append(" nid=0x").append(Long.toHexString(thread.getThreadId())).append(' ');
+
+        if (state == Thread.State.RUNNABLE) {
+            this.text.append("runnable");
+        } else if (state == Thread.State.BLOCKED) {
+            this.text.append("waiting for monitor entry");
+        } else if (inObjectWait) {
+            this.text.append("in Object.wait()");
+        } else {
+            this.text.append("waiting on condition");
+        }
+
+        this.text.append("\n   java.lang.Thread.State: ").append(state).append('\n');
+
+        final MonitorInfo[] monitors = thread.getLockedMonitors();
+
+        for (int depth = 0; depth < frames.length; depth++) {
+            this.appendFrame(frames[depth]);
+
+            if (depth == 0 && lock != null) {
+                if (state == Thread.State.BLOCKED) {
+                    this.appendLock("\t- waiting to lock ", lock);
+                } else if (inObjectWait) {
+                    this.appendLock("\t- waiting on ", lock);
+                } else {
+                    this.appendLock("\t- parking to wait for  ", lock);
+                }
+            }
+
+            for (final MonitorInfo monitor : monitors) {
+                if (monitor.getLockedStackDepth() == depth) this.appendLock("\t- locked ", monitor);
+            }
+        }
+
+        final LockInfo[] synchronizers = thread.getLockedSynchronizers();
+
+        if (synchronizers.length > 0) {
+            this.text.append("\n   Locked ownable synchronizers:\n");
+            for (final LockInfo synchronizer : synchronizers) {
+                this.appendLock("\t- ", synchronizer);
+            }
+        }
+
+        this.text.append('\n');
+    }
+
+    private void appendFrame(final StackTraceElement frame) {
+        this.text.append("\tat ").append(frame.getClassName()).append('.').append(frame.getMethodName()).append('(');
+
+        if (frame.isNativeMethod()) {
+            this.text.append("Native Method");
+        } else if (frame.getFileName() == null) {
+            this.text.append("Unknown Source");
+        } else {
+            this.text.append(frame.getFileName());
+            if (frame.getLineNumber() >= 0) this.text.append(':').append(frame.getLineNumber());
+        }
+
+        this.text.append(")\n");
+    }
+
+    private void appendLock(final String prefix, final LockInfo lock) {
+        this.text.append(prefix).append("<0x").append(Integer.toHexString(lock.getIdentityHashCode()))
+                .append("> (a ").append(lock.getClassName()).append(")\n");
+    }
+
+    /**
+     * Encode the text in UTF-8 into the reused buffer, which is grown when the text doesn't fit.
+     */
+    private void encode() {
+        final CharBuffer chars = CharBuffer.wrap(this.text);
+
+        while (true) {
+            this.encoder.reset();
+            this.encoded.clear();
+
+            final CoderResult result = this.encoder.encode(chars, this.encoded, true);
+
+            if (!result.isOverflow() && !this.encoder.flush(this.encoded).isOverflow()) break;
+
+            this.encoded = ByteBuffer.allocate(this.encoded.capacity() * 2);
+            chars.rewind();
+        }
+
+        this.encoded.flip();
+    }
+
+    /**
+     * Write the encoded text as a gzip member, reusing the same compressor for every snapshot.
+     */
+    private void compress(final OutputStream output) throws IOException {
+        final byte[] bytes = this.encoded.array();
+        final int length = this.encoded.limit();
+
+        this.crc.reset();
+        this.crc.update(bytes, 0, length);
+        this.deflater.reset();
+        this.deflater.setInput(bytes, 0, length);
+        this.deflater.finish();
+
+        output.write(GZIP_HEADER);
+
+        while (!this.deflater.finished()) {
+            final int count = this.deflater.deflate(this.deflated);
+            output.write(this.deflated, 0, count);
+        }
+
+        writeInt(output, (int) this.crc.getValue());
+        writeInt(output, length);
+    }
+
+    private static void writeInt(final OutputStream output, final int value) throws IOException {
+        output.write(value & 0xff);
+        output.write((value >> 8) & 0xff);
+        output.write((value >> 16) & 0xff);
+        output.write((value >> 24) & 0xff);
+    }
+
+    /**
+     * Release the compressor of this writer.
+     */
+    public void end() {
+        this.deflater.end();
+    }
+}
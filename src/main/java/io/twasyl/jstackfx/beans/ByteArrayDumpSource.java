@@ -0,0 +1,123 @@
+package io.twasyl.jstackfx.beans;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * An implementation of {@link DumpSource} keeping the raw content of a dump in memory, as bytes. The content is
+ * typically {@link #capture(InputStream) captured} while the dump is parsed, so that it is read only once and kept
+ * only once: the text of each {@link ThreadElement} is read from it when requested.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class ByteArrayDumpSource implements DumpSource {
+    protected static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private byte[] content;
+    private int size = 0;
+
+    public ByteArrayDumpSource() {
+        this.content = new byte[INITIAL_CAPACITY];
+    }
+
+    public ByteArrayDumpSource(final byte[] content) {
+        if (content == null) throw new NullPointerException("The content can not be null");
+
+        this.content = content;
+        this.size = content.length;
+    }
+
+    /**
+     * Get the number of bytes of the content.
+     *
+     * @return The size of the content.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append bytes to the content.
+     *
+     * @param bytes  The bytes to append.
+     * @param offset The index of the first byte to append.
+     * @param length The number of bytes to append.
+     */
+    public void append(final byte[] bytes, final int offset, final int length) {
+        if (this.size + length > this.content.length) {
+            this.content = Arrays.copyOf(this.content, Math.max(this.size + length, this.content.length * 2));
+        }
+
+        System.arraycopy(bytes, offset, this.content, this.size, length);
+        this.size += length;
+    }
+
+    /**
+     * Releases the memory allocated for content which has never been appended.
+     */
+    public void trim() {
+        if (this.content.length != this.size) {
+            this.content = Arrays.copyOf(this.content, this.size);
+        }
+    }
+
+    /**
+     * Get an input reading the given one and appending every byte it reads to the content.
+     *
+     * @param input The input to capture.
+     * @return The capturing input.
+     */
+    public InputStream capture(final InputStream input) {
+        if (input == null) throw new NullPointerException("The input can not be null");
+
+        return new FilterInputStream(input) {
+            @Override
+            public int read() throws IOException {
+                final int read = super.read();
+                if (read >= 0) append(new byte[]{(byte) read}, 0, 1);
+                return read;
+            }
+
+            @Override
+            public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                final int read = super.read(buffer, offset, length);
+                if (read > 0) append(buffer, offset, read);
+                return read;
+            }
+
+            @Override
+            public long skip(final long count) throws IOException {
+                // Skipped bytes are read so that they are captured too
+                if (count <= 0) return 0;
+                return Math.max(0, this.read(new byte[(int) Math.min(count, 8192)]));
+            }
+
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Write the content to the given output.
+     *
+     * @param output The output to write the content to.
+     * @throws IOException If the content can not be written.
+     */
+    public void writeTo(final OutputStream output) throws IOException {
+        output.write(this.content, 0, this.size);
+    }
+
+    @Override
+    public byte[] read(final long start, final long end) throws IOException {
+        if (end > this.size) throw new EOFException("The range [" + start + ", " + end + "] exceeds the content");
+
+        return Arrays.copyOfRange(this.content, (int) start, (int) end);
+    }
+}
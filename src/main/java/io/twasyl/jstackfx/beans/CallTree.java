@@ -0,0 +1,150 @@
+package io.twasyl.jstackfx.beans;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A call tree aggregating the calling stacks of threads sampled over time. Each path from the root of the tree to one
+ * of its {@link Node nodes} is a calling stack, from its bottom to its top. Each node counts the samples whose calling
+ * stack contains its path, and the samples whose calling stack ends with it. Only the frames of the sampled threads are
+ * kept: dumps can be discarded once they have been {@link #add(Dump) added}.
+ * <p>
+ * Only threads in one of the {@link #getStates() states} of the tree are added, by default the runnable ones in order
+ * to find the code paths consuming CPU. This class isn't thread safe.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class CallTree {
+    private final Node root = new Node(null, null);
+    private final Set<Thread.State> states;
+    private long numberOfDumps = 0;
+
+    public CallTree() {
+        this(EnumSet.of(Thread.State.RUNNABLE));
+    }
+
+    /**
+     * Creates a call tree of the threads in the given states.
+     *
+     * @param states The states of the threads to add to the tree.
+     */
+    public CallTree(final Set<Thread.State> states) {
+        if (states == null) throw new NullPointerException("The states can not be null");
+        this.states = EnumSet.noneOf(Thread.State.class);
+        this.states.addAll(states);
+    }
+
+    /**
+     * Add the calling stacks of the threads of the given dump which are in one of the states of this tree.
+     *
+     * @param dump The dump to add.
+     */
+    public void add(final Dump dump) {
+        if (dump == null) throw new NullPointerException("The dump can not be null");
+
+        for (final ThreadElement thread : dump.getElements()) {
+            if (this.states.contains(thread.getState())) {
+                this.add(thread);
+            }
+        }
+
+        this.numberOfDumps++;
+    }
+
+    /**
+     * Add the calling stack of the given thread, whatever its state. Threads without frames are ignored.
+     *
+     * @param thread The thread to add.
+     */
+    public void add(final ThreadElement thread) {
+        final FrameDictionary frameDictionary = thread.getFrameDictionary();
+        final int[] frames = thread.getFrames();
+
+        if (frameDictionary == null || frames == null || frames.length == 0) return;
+
+        Node node = this.root;
+        node.total++;
+
+        for (int index = frames.length - 1; index >= 0; index--) {
+            node = node.child(frameDictionary.frameOf(frames[index]));
+            node.total++;
+        }
+
+        node.self++;
+    }
+
+    public Node getRoot() { return root; }
+
+    public Set<Thread.State> getStates() { return EnumSet.copyOf(states); }
+
+    public long getNumberOfDumps() { return numberOfDumps; }
+
+    /**
+     * @return The number of calling stacks added to this tree.
+     */
+    public long getNumberOfSamples() { return root.total; }
+
+    /**
+     * A frame of the call tree, reached from the root by a given path.
+     */
+    public static class Node {
+        private final Node parent;
+        private final String frame;
+        private final Map<String, Node> children = new HashMap<>();
+        private long total = 0;
+        private long self = 0;
+
+        protected Node(final Node parent, final String frame) {
+            this.parent = parent;
+            this.frame = frame;
+        }
+
+        protected Node child(final String frame) {
+            Node child = this.children.get(frame);
+
+            if (child == null) {
+                child = new Node(this, frame);
+                this.children.put(frame, child);
+            }
+
+            return child;
+        }
+
+        public Node getParent() { return parent; }
+
+        /**
+         * @return The frame of this node, as written in thread dumps, or {@code null} for the root of the tree.
+         */
+        public String getFrame() { return frame; }
+
+        /**
+         * @return The number of samples whose calling stack contains this node.
+         */
+        public long getTotal() { return total; }
+
+        /**
+         * @return The number of samples whose calling stack ends with this node.
+         */
+        public long getSelf() { return self; }
+
+        /**
+         * @return The children of this node, the most sampled first.
+         */
+        public List<Node> getChildren() {
+            final List<Node> result = new ArrayList<>(this.children.values());
+            result.sort(Comparator.comparingLong(Node::getTotal).reversed());
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return frame == null ? "All threads" : frame;
+        }
+    }
+}
@@ -1,12 +1,5 @@
 package io.twasyl.jstackfx.beans;
 
-import javafx.beans.property.*;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
-import javafx.scene.text.Text;
-
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -24,36 +17,63 @@ import java.util.stream.Collectors;
 public abstract class Dump {
     public static final DateTimeFormatter DATE_TIME_FORMATTER_OUTPUT = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss");
 
-    protected final ObjectProperty<LocalDateTime> generationDateTime = new SimpleObjectProperty<>();
-    protected final StringProperty description = new SimpleStringProperty();
-    protected final ListProperty<ThreadElement> elements = new SimpleListProperty<>(FXCollections.observableArrayList());
-    protected final IntegerProperty numberOfJNIRefs = new SimpleIntegerProperty(0);
+    protected LocalDateTime generationDateTime;
+    protected String description;
+    protected List<ThreadElement> elements = new ArrayList<>();
+    protected int numberOfJNIRefs = 0;
+    protected List<ThreadContainer> threadContainers = new ArrayList<>();
+    protected long processId = -1;
+    protected String processName;
+    protected FrameDictionary frameDictionary = new FrameDictionary();
+    protected LoadStatistics loadStatistics;
+
+    public LocalDateTime getGenerationDateTime() { return generationDateTime; }
+    public void setGenerationDateTime(LocalDateTime generationDateTime) { this.generationDateTime = generationDateTime; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public List<ThreadElement> getElements() { return elements; }
+    public void setElements(List<ThreadElement> elements) { this.elements = elements; }
+
+    public int getNumberOfJNIRefs() { return numberOfJNIRefs; }
+    public void setNumberOfJNIRefs(int numberOfJNIRefs) { this.numberOfJNIRefs = numberOfJNIRefs; }
+
+    public List<ThreadContainer> getThreadContainers() { return threadContainers; }
+    public void setThreadContainers(List<ThreadContainer> threadContainers) { this.threadContainers = threadContainers; }
 
-    public ObjectProperty<LocalDateTime> generationDateTimeProperty() { return generationDateTime; }
-    public LocalDateTime getGenerationDateTime() { return generationDateTime.get(); }
-    public void setGenerationDateTime(LocalDateTime generationDateTime) { this.generationDateTime.set(generationDateTime); }
+    /**
+     * Get the ID of the process this dump has been captured from.
+     * @return The ID of the process, or {@code -1} if unknown.
+     */
+    public long getProcessId() { return processId; }
+    public void setProcessId(long processId) { this.processId = processId; }
 
-    public StringProperty descriptionProperty() { return description; }
-    public String getDescription() { return description.get(); }
-    public void setDescription(String description) { this.description.set(description); }
+    public String getProcessName() { return processName; }
+    public void setProcessName(String processName) { this.processName = processName; }
 
-    public ListProperty<ThreadElement> elementsProperty() { return elements; }
-    public ObservableList<ThreadElement> getElements() { return elements.get(); }
-    public void setElements(ObservableList<ThreadElement> elements) { this.elements.set(elements); }
+    /**
+     * Get the dictionary of the frames of the calling stacks of this dump's threads. The dictionary may be shared with
+     * other dumps of the same {@link DumpTimeline}.
+     * @return The dictionary of frames used by this dump.
+     */
+    public FrameDictionary getFrameDictionary() { return frameDictionary; }
+    public void setFrameDictionary(FrameDictionary frameDictionary) { this.frameDictionary = frameDictionary; }
 
-    public IntegerProperty numberOfJNIRefsProperty() { return numberOfJNIRefs; }
-    public int getNumberOfJNIRefs() { return numberOfJNIRefs.get(); }
-    public void setNumberOfJNIRefs(int numberOfJNIRefs) { this.numberOfJNIRefs.set(numberOfJNIRefs); }
+    /**
+     * Get the statistics of the loading of this dump. The statistics may be shared with other dumps loaded from the
+     * same file.
+     * @return The statistics of the loading of this dump, or {@code null} if its loading hasn't been measured.
+     */
+    public LoadStatistics getLoadStatistics() { return loadStatistics; }
+    public void setLoadStatistics(LoadStatistics loadStatistics) { this.loadStatistics = loadStatistics; }
 
     /**
      * Count the number of threads that haven't a stack.
      * @return The number of threads without a stack.
      */
     public long countThreadsWithoutStack() {
-        return this.getElements().stream().filter(thread -> {
-            final String callingStack = thread.getCallingStack();
-            return callingStack == null || callingStack.isEmpty();
-        }).count();
+        return this.getElements().stream().filter(thread -> !thread.hasCallingStack()).count();
     }
 
     /**
@@ -79,46 +99,4 @@ public abstract class Dump {
                                 ThreadElement::getState,
                                 Collectors.counting()));
     }
-
-    public List<Text> asText() {
-        final List<Text> texts = new ArrayList<>();
-
-        final Font bold = Font.font("Helvetica", FontWeight.BOLD, 12);
-        final Font normal = Font.font("Helvetica", FontWeight.NORMAL, 12);
-        final Font code = Font.font("Courier New", FontWeight.NORMAL, 12);
-
-        Text text = new Text("Generated at " + DATE_TIME_FORMATTER_OUTPUT.format(this.getGenerationDateTime()));
-        text.setFont(bold);
-        texts.add(text);
-
-        text = new Text("\n" + this.getDescription() + "\n\n");
-        text.setFont(normal);
-        texts.add(text);
-
-        text = new Text("# of threads:");
-        text.setFont(bold);
-        texts.add(text);
-
-        text = new Text(" " + this.getElements().size() + "\n");
-        text.setFont(normal);
-        texts.add(text);
-
-        text = new Text("# of threads w/o stack:");
-        text.setFont(bold);
-        texts.add(text);
-
-        text = new Text(" " + this.countThreadsWithoutStack() + "\n");
-        text.setFont(normal);
-        texts.add(text);
-
-        text = new Text("# of JNI references:");
-        text.setFont(bold);
-        texts.add(text);
-
-        text = new Text(" " + this.getNumberOfJNIRefs() + "\n");
-        text.setFont(normal);
-        texts.add(text);
-
-        return texts;
-    }
 }
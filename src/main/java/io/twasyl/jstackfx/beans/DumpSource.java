@@ -0,0 +1,23 @@
+package io.twasyl.jstackfx.beans;
+
+import java.io.IOException;
+
+/**
+ * The raw content a {@link Dump} has been parsed from. It allows to read a part of a dump again, when needed, instead
+ * of keeping the text of each {@link ThreadElement} in memory.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public interface DumpSource {
+
+    /**
+     * Read the bytes of the content between the two given offsets.
+     *
+     * @param start The offset of the first byte to read.
+     * @param end   The offset following the last byte to read.
+     * @return The bytes located between the two offsets.
+     * @throws IOException If the content can not be read.
+     */
+    byte[] read(long start, long end) throws IOException;
+}
@@ -1,10 +1,5 @@
 package io.twasyl.jstackfx.beans;
 
-import javafx.beans.property.ListProperty;
-import javafx.beans.property.SimpleListProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,18 +9,95 @@ import java.util.List;
  */
 public class DumpTimeline {
 
-    private final ListProperty<Dump> dumps = new SimpleListProperty<>(FXCollections.observableArrayList());
+    private final List<Dump> dumps;
+    private final FrameDictionary frameDictionary = new FrameDictionary();
+    private LoadStatistics loadStatistics;
+    private int maximumNumberOfDumps = 0;
+
+    public DumpTimeline() {
+        this(new ArrayList<>());
+    }
 
-    public ObservableList<Dump> getDumps() {
-        return dumps.get();
+    /**
+     * Creates a timeline keeping its dumps in the given list, for instance an observable list so that a UI is notified
+     * of the dumps added to and removed from the timeline.
+     *
+     * @param dumps The list of the dumps of the timeline.
+     */
+    public DumpTimeline(final List<Dump> dumps) {
+        if (dumps == null) throw new NullPointerException("The list of dumps can not be null");
+        this.dumps = dumps;
     }
 
-    public ListProperty<Dump> dumpsProperty() {
+    public List<Dump> getDumps() {
         return dumps;
     }
 
-    public void setDumps(ObservableList<Dump> dumps) {
-        this.dumps.set(dumps);
+    /**
+     * Get the dictionary of frames that can be shared by all dumps of this timeline, so that a frame appearing in
+     * several dumps is stored only once.
+     *
+     * @return The dictionary of frames of this timeline.
+     */
+    public FrameDictionary getFrameDictionary() {
+        return frameDictionary;
+    }
+
+    /**
+     * Get the statistics of the loading of all dumps of this timeline.
+     *
+     * @return The statistics of the loading of this timeline, or {@code null} if its loading hasn't been measured.
+     */
+    public LoadStatistics getLoadStatistics() {
+        return loadStatistics;
+    }
+
+    public void setLoadStatistics(LoadStatistics loadStatistics) {
+        this.loadStatistics = loadStatistics;
+    }
+
+    /**
+     * Get the maximum number of dumps this timeline keeps when dumps are {@link #addDump(Dump) added} to it.
+     *
+     * @return The maximum number of dumps, or {@code 0} if the timeline is unbounded.
+     */
+    public int getMaximumNumberOfDumps() {
+        return maximumNumberOfDumps;
+    }
+
+    /**
+     * Bound this timeline to the given number of dumps. If the timeline contains more dumps, the oldest ones are
+     * removed.
+     *
+     * @param maximumNumberOfDumps The maximum number of dumps, or {@code 0} for an unbounded timeline.
+     */
+    public void setMaximumNumberOfDumps(int maximumNumberOfDumps) {
+        if (maximumNumberOfDumps < 0) throw new IllegalArgumentException("The maximum number of dumps can not be negative");
+
+        this.maximumNumberOfDumps = maximumNumberOfDumps;
+        this.removeOldestDumps();
+    }
+
+    /**
+     * Add a dump at the end of this timeline. When the timeline is bounded and full, it behaves like a ring buffer:
+     * the oldest dumps are removed so that the timeline keeps its {@link #getMaximumNumberOfDumps() maximum number of
+     * dumps}.
+     *
+     * @param dump The dump to add.
+     */
+    public void addDump(final Dump dump) {
+        if (dump == null) throw new NullPointerException("The dump can not be null");
+
+        this.getDumps().add(dump);
+        this.removeOldestDumps();
+    }
+
+    private void removeOldestDumps() {
+        final int excess = this.maximumNumberOfDumps == 0 ? 0 : this.getDumps().size() - this.maximumNumberOfDumps;
+
+        if (excess > 0) {
+            this.getDumps().subList(0, excess).clear();
+        }
     }
 
     public List<ThreadElement> findThreads(final String threadId) {
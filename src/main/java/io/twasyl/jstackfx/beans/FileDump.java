@@ -1,8 +1,5 @@
 package io.twasyl.jstackfx.beans;
 
-import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleObjectProperty;
-
 import java.io.File;
 
 /**
@@ -12,9 +9,8 @@ import java.io.File;
  * @since JStackFX 1.0
  */
 public class FileDump extends Dump {
-    private ObjectProperty<File> file = new SimpleObjectProperty<>();
+    private File file;
 
-    public ObjectProperty<File> fileProperty() { return file; }
-    public File getFile() { return file.get(); }
-    public void setFile(File file) { this.file.set(file); }
+    public File getFile() { return file; }
+    public void setFile(File file) { this.file = file; }
 }
@@ -0,0 +1,42 @@
+package io.twasyl.jstackfx.beans;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An implementation of {@link DumpSource} reading the content of a file. The file is only opened when a range is read.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class FileDumpSource implements DumpSource {
+    private final File file;
+
+    public FileDumpSource(final File file) {
+        if (file == null) throw new NullPointerException("The file can not be null");
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public byte[] read(final long start, final long end) throws IOException {
+        final ByteBuffer content = ByteBuffer.allocate((int) (end - start));
+
+        try (final FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+            while (content.hasRemaining()) {
+                if (channel.read(content, start + content.position()) < 0) {
+                    throw new EOFException("The file " + this.file.getName() + " has been truncated");
+                }
+            }
+        }
+
+        return content.array();
+    }
+}
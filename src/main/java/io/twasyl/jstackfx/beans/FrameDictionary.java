@@ -0,0 +1,97 @@
+package io.twasyl.jstackfx.beans;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of the distinct frames of calling stacks. Each distinct frame is stored once and identified by an
+ * {@code int}, so that {@link ThreadElement threads} only keep the identifiers of the frames of their calling stack.
+ * Two frames are equal if and only if their identifiers in the same dictionary are equal. Each distinct frame is also
+ * parsed once into a {@link StackFrame} when it is added to the dictionary.
+ * <p>
+ * A dictionary is typically owned by a {@link Dump} but can be shared by all dumps of a {@link DumpTimeline}. It can be
+ * safely used by several threads at the same time.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class FrameDictionary {
+    private final Map<String, Integer> identifiers = new ConcurrentHashMap<>();
+    private volatile String[] frames = new String[256];
+    private volatile StackFrame[] stackFrames = new StackFrame[256];
+    private int size = 0;
+
+    /**
+     * Get the identifier of the given frame, adding the frame to the dictionary if it isn't present yet.
+     *
+     * @param frame The frame to get the identifier of.
+     * @return The identifier of the frame.
+     */
+    public int idOf(final String frame) {
+        if (frame == null) throw new NullPointerException("The frame can not be null");
+
+        final Integer identifier = this.identifiers.get(frame);
+        return identifier != null ? identifier : this.add(frame);
+    }
+
+    /**
+     * Get the frame identified by the given identifier.
+     *
+     * @param identifier The identifier of the frame.
+     * @return The frame having the given identifier.
+     */
+    public String frameOf(final int identifier) {
+        final String[] currentFrames = this.frames;
+
+        if (identifier < 0 || identifier >= currentFrames.length || currentFrames[identifier] == null) {
+            throw new IllegalArgumentException("Unknown frame identifier: " + identifier);
+        }
+
+        return currentFrames[identifier];
+    }
+
+    /**
+     * Get the parsed frame identified by the given identifier.
+     *
+     * @param identifier The identifier of the frame.
+     * @return The parsed frame having the given identifier, or {@code null} if the frame couldn't be parsed.
+     */
+    public StackFrame stackFrameOf(final int identifier) {
+        // Validates the identifier; the parsed frames are published before the frames
+        this.frameOf(identifier);
+        return this.stackFrames[identifier];
+    }
+
+    /**
+     * Get the number of distinct frames in the dictionary.
+     *
+     * @return The number of distinct frames.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int add(final String frame) {
+        final Integer existing = this.identifiers.get(frame);
+        if (existing != null) return existing;
+
+        final int identifier = this.size;
+        String[] currentFrames = this.frames;
+        StackFrame[] currentStackFrames = this.stackFrames;
+
+        if (identifier == currentFrames.length) {
+            currentFrames = Arrays.copyOf(currentFrames, currentFrames.length * 2);
+            currentStackFrames = Arrays.copyOf(currentStackFrames, currentStackFrames.length * 2);
+        }
+
+        currentFrames[identifier] = frame;
+        currentStackFrames[identifier] = StackFrame.parse(frame);
+        this.stackFrames = currentStackFrames;
+        this.frames = currentFrames;
+        this.size++;
+        this.identifiers.put(frame, identifier);
+
+        return identifier;
+    }
+}
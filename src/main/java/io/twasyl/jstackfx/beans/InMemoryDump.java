@@ -1,21 +1,28 @@
 package io.twasyl.jstackfx.beans;
 
-import javafx.beans.property.ListProperty;
-import javafx.beans.property.SimpleListProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * An implementation of {@link Dump} for thread dumps realized in memory and which results haven't been stored within
- * a file.
+ * a file. The raw content of the dump is kept once, as bytes, and is the {@link DumpSource source} of its threads.
  *
  * @author Thierry Wasylczenko
  * @since JStackFX 1.0
  */
 public class InMemoryDump extends Dump {
-    private final ListProperty<String> lines = new SimpleListProperty<>(FXCollections.observableArrayList());
+    private ByteArrayDumpSource content = new ByteArrayDumpSource(new byte[0]);
 
-    public ListProperty<String> linesProperty() { return lines; }
-    public ObservableList<String> getLines() { return lines.get(); }
-    public void setLines(ObservableList<String> lines) { this.lines.set(lines); }
+    public ByteArrayDumpSource getContent() { return content; }
+    public void setContent(ByteArrayDumpSource content) { this.content = content; }
+
+    /**
+     * Write the raw content of this dump to the given output.
+     *
+     * @param output The output to write the dump to.
+     * @throws IOException If the dump can not be written.
+     */
+    public void writeTo(final OutputStream output) throws IOException {
+        this.content.writeTo(output);
+    }
 }
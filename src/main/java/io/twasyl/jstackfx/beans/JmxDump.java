@@ -0,0 +1,11 @@
+package io.twasyl.jstackfx.beans;
+
+/**
+ * An implementation of {@link Dump} for thread dumps captured through JMX. Such dumps are built from the structured
+ * thread information of the virtual machine and have no raw content: their threads have no source.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JmxDump extends Dump {
+}
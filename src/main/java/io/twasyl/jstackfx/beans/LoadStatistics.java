@@ -0,0 +1,173 @@
+package io.twasyl.jstackfx.beans;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the loading of dumps: the amount of content read and parsed, and the time spent in each
+ * {@link Phase phase} of the loading. The same instance is shared by all dumps loaded from the same file. It can be
+ * updated concurrently when threads are built in parallel, in which case the time of the phases performed in parallel
+ * is the time cumulated over all threads and can exceed the {@link #getTotalNanos() total time} of the loading.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class LoadStatistics {
+
+    /**
+     * Phases of the loading of dumps.
+     */
+    public enum Phase {
+        /**
+         * Reading the content, including its decompression.
+         */
+        READING("I/O"),
+        /**
+         * Decoding the content into lines and splitting them into blocks of threads. When threads are built in
+         * parallel, it includes the time waiting for them to be built.
+         */
+        SPLITTING("Block splitting"),
+        /**
+         * Extracting the information of each thread from its lines.
+         */
+        EXTRACTING("Extraction"),
+        /**
+         * Creating the thread elements, setting their fields and adding them to their dump.
+         */
+        MODEL("Model");
+
+        private final String label;
+
+        Phase(final String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final LongAdder[] nanos = new LongAdder[Phase.values().length];
+    private final LongAdder loadingThreadNanos = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder threads = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder locks = new LongAdder();
+    private volatile Thread loadingThread;
+    private volatile long startNanos;
+    private volatile long totalNanos = -1;
+
+    public LoadStatistics() {
+        for (int index = 0; index < this.nanos.length; index++) {
+            this.nanos[index] = new LongAdder();
+        }
+    }
+
+    /**
+     * Indicates the loading starts in the current thread.
+     */
+    public void start() {
+        this.loadingThread = Thread.currentThread();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Indicates the loading is finished. The time spent splitting blocks is the time of the loading which hasn't been
+     * spent by the loading thread in the other phases.
+     */
+    public void end() {
+        this.totalNanos = System.nanoTime() - this.startNanos;
+
+        final long splitting = this.totalNanos - this.getNanos(Phase.READING) - this.loadingThreadNanos.sum();
+        this.nanos[Phase.SPLITTING.ordinal()].reset();
+        this.nanos[Phase.SPLITTING.ordinal()].add(Math.max(0, splitting));
+    }
+
+    /**
+     * Add the given time to a phase.
+     *
+     * @param phase The phase.
+     * @param nanos The time spent in the phase, in nanoseconds.
+     */
+    public void addNanos(final Phase phase, final long nanos) {
+        this.nanos[phase.ordinal()].add(nanos);
+
+        if (phase != Phase.READING && Thread.currentThread() == this.loadingThread) {
+            this.loadingThreadNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Add content read from the input.
+     *
+     * @param bytes The number of bytes read.
+     * @param lines The number of lines read.
+     * @param nanos The time spent reading, in nanoseconds.
+     */
+    public void addRead(final long bytes, final long lines, final long nanos) {
+        this.bytes.add(bytes);
+        this.lines.add(lines);
+        this.nanos[Phase.READING.ordinal()].add(nanos);
+    }
+
+    /**
+     * Add a thread built from the input, with the frames of its calling stack and the locks and synchronizers it
+     * holds, waits for or parks for.
+     *
+     * @param thread The thread.
+     */
+    public void addThread(final ThreadElement thread) {
+        this.threads.increment();
+        this.frames.add(thread.getStackDepth());
+        this.locks.add(thread.getLockedSynchronizers().size() + thread.getHoldingLocks().size()
+                + thread.getWaitingToLock().size() + thread.getParkingReasons().size());
+    }
+
+    public long getNanos(final Phase phase) {
+        return this.nanos[phase.ordinal()].sum();
+    }
+
+    /**
+     * Get the time spent loading.
+     *
+     * @return The time of the loading in nanoseconds, or {@code -1} if the loading isn't finished.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getBytes() { return bytes.sum(); }
+
+    public long getLines() { return lines.sum(); }
+
+    public long getThreads() { return threads.sum(); }
+
+    public long getFrames() { return frames.sum(); }
+
+    public long getLocks() { return locks.sum(); }
+
+    private static String milliseconds(final long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000d);
+    }
+
+    /**
+     * Get a report of the statistics, which can be attached to a performance ticket.
+     *
+     * @return The report.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder();
+
+        report.append("Loaded ").append(this.getBytes()).append(" bytes, ").append(this.getLines()).append(" lines, ")
+                .append(this.getThreads()).append(" threads, ").append(this.getFrames()).append(" frames, ")
+                .append(this.getLocks()).append(" locks in ").append(milliseconds(this.getTotalNanos()));
+
+        for (final Phase phase : Phase.values()) {
+            report.append(String.format(Locale.ROOT, "%n  %-16s %s", phase.getLabel(), milliseconds(this.getNanos(phase))));
+        }
+
+        return report.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package io.twasyl.jstackfx.beans;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A range of bytes within a {@link DumpSource}. It typically locates the text of a {@link ThreadElement} in the dump it
+ * has been parsed from.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class SourceRange {
+    private final DumpSource source;
+    private final long start;
+    private final long end;
+
+    public SourceRange(final DumpSource source, final long start, final long end) {
+        if (source == null) throw new NullPointerException("The source can not be null");
+        if (start < 0 || end < start) throw new IllegalArgumentException("Invalid range [" + start + ", " + end + "]");
+
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    public DumpSource getSource() { return source; }
+    public long getStart() { return start; }
+    public long getEnd() { return end; }
+
+    /**
+     * Read and decode the text located in this range. Lines are separated by {@code \n}.
+     *
+     * @return The text located in this range.
+     * @throws IOException If the source can not be read.
+     */
+    public String read() throws IOException {
+        return new String(this.source.read(this.start, this.end), StandardCharsets.UTF_8).replace("\r\n", "\n");
+    }
+}
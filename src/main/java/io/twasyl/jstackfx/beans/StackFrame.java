@@ -0,0 +1,185 @@
+package io.twasyl.jstackfx.beans;
+
+import java.util.Objects;
+
+/**
+ * A frame of a calling stack, i.e. a line like {@code at java.base@17.0.1/java.lang.Thread.sleep(Native Method)}
+ * decomposed into its module, class, method, file and line number. Instances are immutable and are created once per
+ * distinct frame by the {@link FrameDictionary dictionary of frames}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class StackFrame {
+    protected static final String FRAME_START = "at ";
+    protected static final String NATIVE_METHOD = "Native Method";
+    protected static final String UNKNOWN_SOURCE = "Unknown Source";
+
+    private final String classLoaderName;
+    private final String moduleName;
+    private final String className;
+    private final String methodName;
+    private final String fileName;
+    private final int lineNumber;
+    private final boolean nativeMethod;
+
+    public StackFrame(final String classLoaderName, final String moduleName, final String className, final String methodName,
+                      final String fileName, final int lineNumber, final boolean nativeMethod) {
+        if (className == null) throw new NullPointerException("The class name can not be null");
+        if (methodName == null) throw new NullPointerException("The method name can not be null");
+
+        this.classLoaderName = classLoaderName;
+        this.moduleName = moduleName;
+        this.className = className;
+        this.methodName = methodName;
+        this.fileName = fileName;
+        this.lineNumber = lineNumber;
+        this.nativeMethod = nativeMethod;
+    }
+
+    /**
+     * Parse a frame of a calling stack. The frame can start with {@code at } and follows the format of
+     * {@link StackTraceElement#toString()}: {@code [loader/][module@version/]class.method(location)}.
+     *
+     * @param frame The frame to parse.
+     * @return The parsed frame or {@code null} if the given text isn't a frame.
+     */
+    public static StackFrame parse(final String frame) {
+        if (frame == null) throw new NullPointerException("The frame can not be null");
+
+        final String text = frame.trim();
+        final int start = text.startsWith(FRAME_START) ? FRAME_START.length() : 0;
+        final int locationStart = text.indexOf('(', start);
+
+        if (locationStart < 0 || !text.endsWith(")")) return null;
+
+        final String qualifiedMethod = text.substring(start, locationStart);
+        final String location = text.substring(locationStart + 1, text.length() - 1);
+
+        final int classStart = classStartOf(qualifiedMethod);
+        final int methodStart = qualifiedMethod.lastIndexOf('.');
+
+        if (methodStart <= classStart || methodStart == qualifiedMethod.length() - 1) return null;
+
+        String classLoaderName = null;
+        String moduleName = null;
+
+        if (classStart > 0) {
+            final String[] prefix = qualifiedMethod.substring(0, classStart - 1).split("/", -1);
+
+            if (prefix.length == 1) {
+                moduleName = emptyToNull(prefix[0]);
+            } else {
+                classLoaderName = emptyToNull(prefix[0]);
+                moduleName = emptyToNull(prefix[1]);
+            }
+        }
+
+        final String className = qualifiedMethod.substring(classStart, methodStart);
+        final String methodName = qualifiedMethod.substring(methodStart + 1);
+
+        if (NATIVE_METHOD.equals(location)) {
+            return new StackFrame(classLoaderName, moduleName, className, methodName, null, -1, true);
+        } else if (UNKNOWN_SOURCE.equals(location)) {
+            return new StackFrame(classLoaderName, moduleName, className, methodName, null, -1, false);
+        }
+
+        final int lineSeparator = location.lastIndexOf(':');
+        int lineNumber = -1;
+        String fileName = location;
+
+        if (lineSeparator > 0) {
+            try {
+                lineNumber = Integer.parseInt(location.substring(lineSeparator + 1));
+                fileName = location.substring(0, lineSeparator);
+            } catch (NumberFormatException e) {
+                lineNumber = -1;
+            }
+        }
+
+        return new StackFrame(classLoaderName, moduleName, className, methodName, emptyToNull(fileName), lineNumber, false);
+    }
+
+    /**
+     * Determine where the class name starts in the given {@code [loader/][module@version/]class.method}. The name of
+     * anonymous and hidden classes, like lambdas, contains a {@code /} followed by a number which is part of the class
+     * name, e.g. {@code Main$$Lambda$14/0x0000000800066840}. A package can't start with a digit.
+     *
+     * @param qualifiedMethod The method prefixed by its class, module and class loader.
+     * @return The index of the first character of the class name.
+     */
+    private static int classStartOf(final String qualifiedMethod) {
+        int separator = qualifiedMethod.lastIndexOf('/');
+
+        while (separator >= 0 && separator + 1 < qualifiedMethod.length() && Character.isDigit(qualifiedMethod.charAt(separator + 1))) {
+            separator = qualifiedMethod.lastIndexOf('/', separator - 1);
+        }
+
+        return separator + 1;
+    }
+
+    private static String emptyToNull(final String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    public String getClassLoaderName() { return classLoaderName; }
+
+    public String getModuleName() { return moduleName; }
+
+    public String getClassName() { return className; }
+
+    public String getMethodName() { return methodName; }
+
+    public String getFileName() { return fileName; }
+
+    /**
+     * Get the line number of this frame in its file.
+     *
+     * @return The line number or {@code -1} if it is unknown.
+     */
+    public int getLineNumber() { return lineNumber; }
+
+    public boolean isNativeMethod() { return nativeMethod; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final StackFrame that = (StackFrame) o;
+        return lineNumber == that.lineNumber &&
+                nativeMethod == that.nativeMethod &&
+                Objects.equals(classLoaderName, that.classLoaderName) &&
+                Objects.equals(moduleName, that.moduleName) &&
+                className.equals(that.className) &&
+                methodName.equals(that.methodName) &&
+                Objects.equals(fileName, that.fileName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classLoaderName, moduleName, className, methodName, fileName, lineNumber, nativeMethod);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+
+        if (classLoaderName != null) builder.append(classLoaderName).append('/');
+        if (moduleName != null) builder.append(moduleName);
+        if (classLoaderName != null || moduleName != null) builder.append('/');
+
+        builder.append(className).append('.').append(methodName).append('(');
+
+        if (nativeMethod) {
+            builder.append(NATIVE_METHOD);
+        } else if (fileName == null) {
+            builder.append(UNKNOWN_SOURCE);
+        } else {
+            builder.append(fileName);
+            if (lineNumber >= 0) builder.append(':').append(lineNumber);
+        }
+
+        return builder.append(')').toString();
+    }
+}
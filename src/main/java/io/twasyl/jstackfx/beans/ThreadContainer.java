@@ -0,0 +1,32 @@
+package io.twasyl.jstackfx.beans;
+
+/**
+ * Represents a thread container present in a thread dump produced by {@code jcmd <pid> Thread.dump_to_file}. A
+ * container groups threads, typically the virtual threads started by an executor or a structured task scope. Containers
+ * form a tree whose root is named {@code <root>}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class ThreadContainer {
+    protected String name;
+    protected String parent;
+    protected String owner;
+    protected long threadCount;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getParent() { return parent; }
+    public void setParent(String parent) { this.parent = parent; }
+
+    /**
+     * The ID of the thread owning this container, if any.
+     * @return The ID of the owner thread.
+     */
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public long getThreadCount() { return threadCount; }
+    public void setThreadCount(long threadCount) { this.threadCount = threadCount; }
+}
@@ -1,198 +1,420 @@
 package io.twasyl.jstackfx.beans;
 
-import javafx.beans.property.*;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableSet;
-import javafx.scene.control.ContextMenu;
-import javafx.scene.control.MenuItem;
-import javafx.scene.input.Clipboard;
-import javafx.scene.input.DataFormat;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
-import javafx.scene.text.Text;
+import io.twasyl.jstackfx.factory.ThreadElementFactory;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A thread element is a part in the thread dump that gives information about a thread. It typically has a number,
  * various IDs and priorities, a name, a state among others.
+ * <p>
+ * When the element has a {@link #getSourceRange() source range}, its source isn't kept in memory after parsing: it is
+ * read from the {@link DumpSource source} of the dump the first time it is requested. In the same way, when the
+ * element has {@link #getFrames() frames}, its calling stack is only built from the {@link FrameDictionary dictionary}
+ * of frames when requested.
+ * <p>
+ * The information of a thread is kept in plain fields, its locks being kept in arrays, so that parsing and analysing
+ * large dumps is cheap and doesn't require JavaFX. The UI displays threads through
+ * {@link io.twasyl.jstackfx.ui.ThreadElementProperties JavaFX properties} which are only created for the threads it
+ * shows.
  *
  * @author Thierry Wasylczenko
  * @since JStackFX 1.0
  */
 public class ThreadElement {
-    final static Font bold = Font.font("Helvetica", FontWeight.BOLD, 12);
-    final static Font normal = Font.font("Helvetica", FontWeight.NORMAL, 12);
-    final static Font code = Font.font("Courier New", FontWeight.NORMAL, 12);
-
-    protected final ObjectProperty<Dump> dump = new SimpleObjectProperty<>();
-    protected final StringProperty name = new SimpleStringProperty();
-    protected final LongProperty number = new SimpleLongProperty();
-    protected final ObjectProperty<Thread.State> state = new SimpleObjectProperty<>();
-    protected final StringProperty callingStack = new SimpleStringProperty();
-    protected final IntegerProperty priority = new SimpleIntegerProperty();
-    protected final IntegerProperty osPriority = new SimpleIntegerProperty();
-    protected final StringProperty threadId = new SimpleStringProperty();
-    protected final SetProperty<ThreadReference> lockedSynchronizers = new SimpleSetProperty<>(FXCollections.observableSet());
-    protected final SetProperty<ThreadReference> holdingLocks = new SimpleSetProperty<>(FXCollections.observableSet());
-    protected final SetProperty<ThreadReference> waitingToLock = new SimpleSetProperty<>(FXCollections.observableSet());
-    protected final SetProperty<ThreadReference> parkingReasons = new SimpleSetProperty<>(FXCollections.observableSet());
-    protected final StringProperty source = new SimpleStringProperty();
-
-    public ObjectProperty<Dump> dumpProperty() {
-        return dump;
-    }
+    private static final Logger LOGGER = Logger.getLogger(ThreadElement.class.getName());
+    private static final ThreadReference[] NO_REFERENCES = new ThreadReference[0];
+
+    protected Dump dump;
+    protected String name;
+    protected long number;
+    protected Thread.State state;
+    protected String callingStack;
+    protected int priority;
+    protected int osPriority;
+    protected String threadId;
+    protected ThreadReference[] lockedSynchronizers = NO_REFERENCES;
+    protected ThreadReference[] holdingLocks = NO_REFERENCES;
+    protected ThreadReference[] waitingToLock = NO_REFERENCES;
+    protected ThreadReference[] parkingReasons = NO_REFERENCES;
+    protected String source;
+    protected boolean virtual = false;
+    protected String container;
+    protected long carrierNumber = -1;
+    protected SourceRange sourceRange;
+    protected int stackDepth;
+    protected FrameDictionary frameDictionary;
+    protected int[] frames;
 
     public Dump getDump() {
-        return dump.get();
+        return dump;
     }
 
     public void setDump(Dump dump) {
-        this.dump.set(dump);
-    }
-
-    public StringProperty nameProperty() {
-        return name;
+        this.dump = dump;
     }
 
     public String getName() {
-        return name.get();
+        return name;
     }
 
     public void setName(String name) {
-        this.name.set(name);
-    }
-
-    public LongProperty numberProperty() {
-        return number;
+        this.name = name;
     }
 
     public long getNumber() {
-        return number.get();
+        return number;
     }
 
     public void setNumber(long number) {
-        this.number.set(number);
-    }
-
-    public ObjectProperty<Thread.State> stateProperty() {
-        return state;
+        this.number = number;
     }
 
     public Thread.State getState() {
-        return state.get();
+        return state;
     }
 
     public void setState(Thread.State state) {
-        this.state.set(state);
-    }
-
-    public StringProperty callingStackProperty() {
-        return callingStack;
+        this.state = state;
     }
 
     public String getCallingStack() {
-        return callingStack.get();
+        this.loadCallingStack();
+        return callingStack;
     }
 
     public void setCallingStack(String callingStack) {
-        this.callingStack.set(callingStack);
-    }
-
-    public IntegerProperty priorityProperty() {
-        return priority;
+        this.callingStack = callingStack;
     }
 
     public int getPriority() {
-        return priority.get();
+        return priority;
     }
 
     public void setPriority(int priority) {
-        this.priority.set(priority);
-    }
-
-    public IntegerProperty osPriorityProperty() {
-        return osPriority;
+        this.priority = priority;
     }
 
     public int getOsPriority() {
-        return osPriority.get();
+        return osPriority;
     }
 
     public void setOsPriority(int osPriority) {
-        this.osPriority.set(osPriority);
-    }
-
-    public StringProperty threadIdProperty() {
-        return threadId;
+        this.osPriority = osPriority;
     }
 
     public String getThreadId() {
-        return threadId.get();
+        return threadId;
     }
 
     public void setThreadId(String threadId) {
-        this.threadId.set(threadId);
+        this.threadId = threadId;
     }
 
-    public SetProperty<ThreadReference> lockedSynchronizersProperty() {
-        return lockedSynchronizers;
+    /**
+     * @return The synchronizers locked by this thread. The returned set can't be modified.
+     */
+    public Set<ThreadReference> getLockedSynchronizers() {
+        return asSet(lockedSynchronizers);
     }
 
-    public ObservableSet<ThreadReference> getLockedSynchronizers() {
-        return lockedSynchronizers.get();
+    public void setLockedSynchronizers(Set<ThreadReference> lockedSynchronizers) {
+        this.lockedSynchronizers = toArray(lockedSynchronizers);
     }
 
-    public void setLockedSynchronizers(ObservableSet<ThreadReference> lockedSynchronizers) {
-        this.lockedSynchronizers.set(lockedSynchronizers);
+    public void addLockedSynchronizer(ThreadReference lockedSynchronizer) {
+        this.lockedSynchronizers = add(this.lockedSynchronizers, lockedSynchronizer);
     }
 
-    public SetProperty<ThreadReference> holdingLocksProperty() {
-        return holdingLocks;
+    /**
+     * @return The locks held by this thread. The returned set can't be modified.
+     */
+    public Set<ThreadReference> getHoldingLocks() {
+        return asSet(holdingLocks);
     }
 
-    public ObservableSet<ThreadReference> getHoldingLocks() {
-        return holdingLocks.get();
+    public void setHoldingLocks(Set<ThreadReference> holdingLocks) {
+        this.holdingLocks = toArray(holdingLocks);
     }
 
-    public void setHoldingLocks(ObservableSet<ThreadReference> holdingLocks) {
-        this.holdingLocks.set(holdingLocks);
+    public void addHoldingLock(ThreadReference holdingLock) {
+        this.holdingLocks = add(this.holdingLocks, holdingLock);
     }
 
-    public SetProperty<ThreadReference> waitingToLockProperty() {
-        return waitingToLock;
+    /**
+     * @return The locks this thread waits to acquire. The returned set can't be modified.
+     */
+    public Set<ThreadReference> getWaitingToLock() {
+        return asSet(waitingToLock);
     }
 
-    public ObservableSet<ThreadReference> getWaitingToLock() {
-        return waitingToLock.get();
+    public void setWaitingToLock(Set<ThreadReference> waitingToLock) {
+        this.waitingToLock = toArray(waitingToLock);
     }
 
-    public void setWaitingToLock(ObservableSet<ThreadReference> waitingToLock) {
-        this.waitingToLock.set(waitingToLock);
+    public void addWaitingToLock(ThreadReference waitingToLock) {
+        this.waitingToLock = add(this.waitingToLock, waitingToLock);
     }
 
-    public SetProperty<ThreadReference> parkingReasonsProperty() {
-        return parkingReasons;
+    /**
+     * @return The synchronizers this thread is parked on. The returned set can't be modified.
+     */
+    public Set<ThreadReference> getParkingReasons() {
+        return asSet(parkingReasons);
     }
 
-    public ObservableSet<ThreadReference> getParkingReasons() {
-        return parkingReasons.get();
+    public void setParkingReasons(Set<ThreadReference> parkingReasons) {
+        this.parkingReasons = toArray(parkingReasons);
     }
 
-    public void setParkingReasons(ObservableSet<ThreadReference> parkingReasons) {
-        this.parkingReasons.set(parkingReasons);
+    public void addParkingReason(ThreadReference parkingReason) {
+        this.parkingReasons = add(this.parkingReasons, parkingReason);
     }
 
     public String getSource() {
-        return source.get();
-    }
-
-    public StringProperty sourceProperty() {
+        this.loadSource();
         return source;
     }
 
     public void setSource(String source) {
-        this.source.set(source);
+        this.source = source;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public void setVirtual(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    /**
+     * The name of the {@link ThreadContainer container} of this thread, only known for dumps produced by
+     * {@code jcmd <pid> Thread.dump_to_file}.
+     *
+     * @return The name of the container.
+     */
+    public String getContainer() {
+        return container;
+    }
+
+    public void setContainer(String container) {
+        this.container = container;
+    }
+
+    /**
+     * The number of the platform thread a virtual thread is mounted on.
+     *
+     * @return The number of the carrier thread, {@code -1} if the thread isn't mounted.
+     */
+    public long getCarrierNumber() {
+        return carrierNumber;
+    }
+
+    public void setCarrierNumber(long carrierNumber) {
+        this.carrierNumber = carrierNumber;
+    }
+
+    public SourceRange getSourceRange() {
+        return sourceRange;
+    }
+
+    public void setSourceRange(SourceRange sourceRange) {
+        this.sourceRange = sourceRange;
+    }
+
+    /**
+     * Get the number of elements of the calling stack of this thread.
+     *
+     * @return The number of elements in the calling stack.
+     */
+    public int getStackDepth() {
+        return stackDepth;
+    }
+
+    public void setStackDepth(int stackDepth) {
+        this.stackDepth = stackDepth;
+    }
+
+    /**
+     * Get the identifiers of the frames of the calling stack of this thread, from the top of the stack. The identifiers
+     * refer to the {@link #getFrameDictionary() dictionary of frames} of this thread. The returned array must not be
+     * modified.
+     *
+     * @return The identifiers of the frames, or {@code null} if the frames of this thread aren't known.
+     */
+    public int[] getFrames() {
+        return frames;
+    }
+
+    public FrameDictionary getFrameDictionary() {
+        return frameDictionary;
+    }
+
+    /**
+     * Defines the frames of the calling stack of this thread.
+     *
+     * @param frameDictionary The dictionary the frames refer to.
+     * @param frames          The identifiers of the frames, from the top of the stack.
+     */
+    public void setFrames(FrameDictionary frameDictionary, int[] frames) {
+        this.frameDictionary = frameDictionary;
+        this.frames = frames;
+        this.stackDepth = frames == null ? 0 : frames.length;
+    }
+
+    /**
+     * Get the parsed frames of the calling stack of this thread, from the top of the stack. When the thread has
+     * {@link #getFrames() frames}, the parsed frames are the ones of the {@link FrameDictionary dictionary} and no
+     * parsing occurs. Frames that can't be parsed are not part of the returned list.
+     *
+     * @return The parsed frames of the calling stack of this thread.
+     */
+    public List<StackFrame> getStackFrames() {
+        final List<StackFrame> stackFrames = new ArrayList<>(this.stackDepth);
+
+        if (this.frames != null) {
+            for (final int frame : this.frames) {
+                final StackFrame stackFrame = this.frameDictionary.stackFrameOf(frame);
+                if (stackFrame != null) stackFrames.add(stackFrame);
+            }
+        } else if (this.hasCallingStack()) {
+            for (final String frame : this.getCallingStack().split("\n")) {
+                final StackFrame stackFrame = StackFrame.parse(frame);
+                if (stackFrame != null) stackFrames.add(stackFrame);
+            }
+        }
+
+        return stackFrames;
+    }
+
+    /**
+     * Indicates if this thread has the same calling stack than the given one. When both threads share the same
+     * {@link FrameDictionary dictionary}, only the frames identifiers are compared.
+     *
+     * @param other The thread to compare the calling stack with.
+     * @return {@code true} if both threads have the same calling stack, {@code false} otherwise.
+     */
+    public boolean hasSameCallingStack(final ThreadElement other) {
+        if (other == null) return false;
+
+        if (this.frames != null && other.frames != null && this.frameDictionary == other.frameDictionary) {
+            return Arrays.equals(this.frames, other.frames);
+        }
+
+        return Objects.equals(this.getCallingStack(), other.getCallingStack());
+    }
+
+    /**
+     * Indicates if this thread has a calling stack. This doesn't require the calling stack to be loaded.
+     *
+     * @return {@code true} if the thread has a calling stack, {@code false} otherwise.
+     */
+    public boolean hasCallingStack() {
+        if (this.stackDepth > 0) return true;
+
+        return this.callingStack != null && !this.callingStack.isEmpty();
+    }
+
+    /**
+     * Reads the source of this thread from its {@link #getSourceRange() source range} if it hasn't been loaded yet.
+     */
+    protected void loadSource() {
+        if (this.source == null && this.sourceRange != null) {
+            try {
+                this.setSource(this.sourceRange.read());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Can not read the source of thread " + this.getName(), e);
+            }
+        } else if (this.source == null && this.frames != null) {
+            this.setSource(this.buildSource());
+        }
+    }
+
+    /**
+     * Builds a source in the {@code jstack} format for a thread which has been read from another format, like the
+     * JSON format of {@code jcmd}.
+     *
+     * @return The source of this thread.
+     */
+    protected String buildSource() {
+        final StringBuilder builder = new StringBuilder();
+
+        builder.append('"').append(this.getName()).append("\" #").append(this.getNumber());
+        if (this.isVirtual()) builder.append(" virtual");
+        if (this.getCarrierNumber() >= 0) builder.append(" carrier=#").append(this.getCarrierNumber());
+
+        if (this.getState() != null) {
+            builder.append("\n   java.lang.Thread.State: ").append(this.getState());
+        }
+
+        for (final int frame : this.frames) {
+            builder.append("\n\t").append(this.frameDictionary.frameOf(frame));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Builds the calling stack of this thread from its frames, or extracts it from its source, if it hasn't been loaded
+     * yet.
+     */
+    protected void loadCallingStack() {
+        if (this.callingStack == null && this.frames != null) {
+            final StringJoiner stack = new StringJoiner("\n");
+
+            for (final int frame : this.frames) {
+                stack.add(this.frameDictionary.frameOf(frame));
+            }
+
+            this.setCallingStack(stack.toString());
+        } else if (this.callingStack == null && this.sourceRange != null) {
+            final String threadSource = this.getSource();
+
+            if (threadSource != null) {
+                this.setCallingStack(ThreadElementFactory.buildCallingStack(Arrays.asList(threadSource.split("\n"))));
+            }
+        }
+    }
+
+    private static Set<ThreadReference> asSet(final ThreadReference[] references) {
+        if (references.length == 0) return Collections.emptySet();
+
+        return new AbstractSet<ThreadReference>() {
+            @Override
+            public Iterator<ThreadReference> iterator() {
+                return Arrays.asList(references).iterator();
+            }
+
+            @Override
+            public int size() {
+                return references.length;
+            }
+        };
+    }
+
+    private static ThreadReference[] toArray(final Set<ThreadReference> references) {
+        if (references == null || references.isEmpty()) return NO_REFERENCES;
+        return references.toArray(new ThreadReference[references.size()]);
+    }
+
+    /**
+     * Add a reference to the given ones, unless it is already present. Threads rarely have more than a few references,
+     * so the array is copied each time.
+     */
+    private static ThreadReference[] add(final ThreadReference[] references, final ThreadReference reference) {
+        if (reference == null) throw new NullPointerException("The reference can not be null");
+
+        for (final ThreadReference existing : references) {
+            if (existing.equals(reference)) return references;
+        }
+
+        final ThreadReference[] added = Arrays.copyOf(references, references.length + 1);
+        added[references.length] = reference;
+        return added;
     }
 
     /**
@@ -246,132 +468,4 @@ public class ThreadElement {
 
         return blockedThreads;
     }
-
-    public List<Text> asText() {
-        final List<Text> texts = new ArrayList<>();
-
-        appendThreadNumberText(texts);
-        appendThreadName(texts);
-        appendThreadId(texts);
-
-        Text text;
-
-        text = new Text("Priority:");
-        text.setFont(bold);
-        texts.add(text);
-
-        text = new Text(" " + this.getPriority() + " ");
-        text.setFont(normal);
-        texts.add(text);
-
-        text = new Text("OS priority:");
-        text.setFont(bold);
-        texts.add(text);
-
-        text = new Text(" " + this.getOsPriority() + "\n\n");
-        text.setFont(normal);
-        texts.add(text);
-
-        this.appendThreadReferences(texts, "Parking to wait for:", this.parkingReasons);
-        this.appendThreadReferences(texts, "Locked synchronizers:", this.lockedSynchronizers);
-        this.appendThreadReferences(texts, "Wait to acquire locks:", this.waitingToLock);
-        this.appendThreadReferences(texts, "Holding locks on:", this.holdingLocks);
-
-        if (this.callingStack.isNotNull().and(this.callingStack.isNotEmpty()).get()) {
-            text = new Text("Calling stack:\n\n");
-            text.setFont(bold);
-            texts.add(text);
-
-            text = new Text(this.getCallingStack());
-            text.setFont(code);
-            defineContextMenu(text);
-            texts.add(text);
-        }
-        return texts;
-    }
-
-    protected void appendThreadNumberText(List<Text> texts) {
-        Text text = new Text("#");
-        text.setFont(bold);
-        texts.add(text);
-
-        text = new Text("" + this.getNumber());
-        text.setFont(bold);
-        defineContextMenu(text);
-        texts.add(text);
-    }
-
-    protected void appendThreadName(List<Text> texts) {
-        Text text = new Text(" ");
-        text.setFont(normal);
-        texts.add(text);
-
-        text = new Text(this.getName());
-        text.setFont(normal);
-        defineContextMenu(text);
-        texts.add(text);
-
-        text = new Text(" ");
-        text.setFont(normal);
-        texts.add(text);
-    }
-
-    protected void appendThreadId(List<Text> texts) {
-        Text text = new Text("(");
-        text.setFont(normal);
-        texts.add(text);
-
-        text = new Text(this.getThreadId());
-        text.setFont(normal);
-        defineContextMenu(text);
-        texts.add(text);
-
-        text = new Text(")\n\n");
-        text.setFont(normal);
-        texts.add(text);
-    }
-
-    protected void appendThreadReferences(final List<Text> texts, final String label, final Collection<ThreadReference> references) {
-        if (!references.isEmpty()) {
-            Text text = new Text(label + "\n\n");
-            text.setFont(bold);
-            texts.add(text);
-
-            for (final ThreadReference reference : references) {
-                text = new Text(reference.getThreadId());
-                text.setFont(normal);
-                defineContextMenu(text);
-                texts.add(text);
-
-                text = new Text(" (");
-                text.setFont(normal);
-                texts.add(text);
-
-                text = new Text(reference.getClassName());
-                text.setFont(code);
-                defineContextMenu(text);
-                texts.add(text);
-
-                text = new Text(")\n");
-                text.setFont(normal);
-                texts.add(text);
-            }
-
-            text = new Text("\n");
-            text.setFont(normal);
-            texts.add(text);
-        }
-    }
-
-    protected void defineContextMenu(final Text text) {
-        final MenuItem copy = new MenuItem("Copy");
-        copy.setOnAction(event -> {
-            Clipboard.getSystemClipboard().setContent(Collections.singletonMap(DataFormat.PLAIN_TEXT, text.getText()));
-        });
-        final ContextMenu menu = new ContextMenu(copy);
-
-        text.setOnContextMenuRequested(event -> {
-            menu.show(text, event.getScreenX(), event.getScreenY());
-        });
-    }
 }
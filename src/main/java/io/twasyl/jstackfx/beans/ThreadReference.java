@@ -1,26 +1,32 @@
 package io.twasyl.jstackfx.beans;
 
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
-
 /**
  * Represents a thread reference present in a thread dump. A reference is known as a thread ID and a class name.
  * It typically appears as locked synchronizers, locks and so on in a thread dump.
+ * <p>
+ * References are immutable, so that they can safely be shared and used as keys.
  *
  * @author Thierry Wasylczenko
  * @since JStackFX 1.0
  */
-public class ThreadReference {
-    protected final StringProperty threadId = new SimpleStringProperty();
-    protected final StringProperty className = new SimpleStringProperty();
+public final class ThreadReference {
+    private final String threadId;
+    private final String className;
+
+    /**
+     * Creates a reference.
+     *
+     * @param threadId  The ID of the referenced object, like {@code 0x000000076ab62208}.
+     * @param className The class name of the referenced object.
+     */
+    public ThreadReference(final String threadId, final String className) {
+        this.threadId = threadId;
+        this.className = className;
+    }
 
-    public StringProperty threadIdProperty() { return threadId; }
-    public String getThreadId() { return threadId.get(); }
-    public void setThreadId(String threadId) { this.threadId.set(threadId); }
+    public String getThreadId() { return threadId; }
 
-    public StringProperty classNameProperty() { return className; }
-    public String getClassName() { return className.get(); }
-    public void setClassName(String className) { this.className.set(className); }
+    public String getClassName() { return className; }
 
     @Override
     public boolean equals(Object o) {
@@ -29,11 +35,16 @@ public class ThreadReference {
 
         ThreadReference that = (ThreadReference) o;
 
-        return getThreadId() != null ? getThreadId().equals(that.getThreadId()) : that.getThreadId() == null;
+        return threadId != null ? threadId.equals(that.threadId) : that.threadId == null;
     }
 
     @Override
     public int hashCode() {
-        return getThreadId() != null ? getThreadId().hashCode() : 0;
+        return threadId != null ? threadId.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + threadId + "> (a " + className + ")";
     }
 }
@@ -0,0 +1,203 @@
+package io.twasyl.jstackfx.cli;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.beans.ThreadReference;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Text reports of a thread dump, written without any UI: the number of threads per state, the chains of threads
+ * blocked by other threads and the most common calling stacks.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpReport {
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int DEFAULT_DEPTH = 10;
+
+    private int limit = DEFAULT_LIMIT;
+    private int depth = DEFAULT_DEPTH;
+    private Set<Thread.State> states = EnumSet.allOf(Thread.State.class);
+
+    public int getLimit() { return limit; }
+
+    /**
+     * @param limit The maximum number of calling stacks in the {@link #printTopStacks(Dump, PrintWriter) top stacks}.
+     */
+    public void setLimit(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("The limit must be at least 1");
+        this.limit = limit;
+    }
+
+    public int getDepth() { return depth; }
+
+    /**
+     * @param depth The maximum number of frames printed for each calling stack.
+     */
+    public void setDepth(int depth) {
+        if (depth < 1) throw new IllegalArgumentException("The depth must be at least 1");
+        this.depth = depth;
+    }
+
+    public Set<Thread.State> getStates() { return states; }
+
+    /**
+     * @param states The states of the threads taken into account in the
+     *               {@link #printTopStacks(Dump, PrintWriter) top stacks}.
+     */
+    public void setStates(Set<Thread.State> states) {
+        if (states == null) throw new NullPointerException("The states can not be null");
+        this.states = EnumSet.noneOf(Thread.State.class);
+        this.states.addAll(states);
+    }
+
+    /**
+     * Print all reports of the given dump.
+     *
+     * @param dump   The dump to report.
+     * @param output The output to print the reports to.
+     */
+    public void printReport(final Dump dump, final PrintWriter output) {
+        this.printSummary(dump, output);
+        output.println();
+        this.printBlockedChains(dump, output);
+        output.println();
+        this.printTopStacks(dump, output);
+    }
+
+    /**
+     * Print the description of the dump and its number of threads per state.
+     *
+     * @param dump   The dump to report.
+     * @param output The output to print the report to.
+     */
+    public void printSummary(final Dump dump, final PrintWriter output) {
+        output.println(dump.getDescription() == null ? "Thread dump" : dump.getDescription());
+
+        if (dump.getGenerationDateTime() != null) {
+            output.println("Generated:    " + Dump.DATE_TIME_FORMATTER_OUTPUT.format(dump.getGenerationDateTime()));
+        }
+
+        if (dump.getProcessId() >= 0) {
+            output.println("Process:      " + dump.getProcessId() + (dump.getProcessName() == null ? "" : " " + dump.getProcessName()));
+        }
+
+        output.println("Threads:      " + dump.getElements().size());
+
+        dump.countNumberOfThreadsByState().forEach((state, count) -> {
+            if (count > 0) output.printf("  %-13s %d%n", state, count);
+        });
+
+        final long withoutStack = dump.countThreadsWithoutStack();
+        if (withoutStack > 0) output.printf("  %-13s %d%n", "no stack", withoutStack);
+    }
+
+    /**
+     * Print the chains of threads waiting for a lock or a synchronizer held by another thread. Each chain starts with
+     * a waiting thread and follows the owners of the locks, up to a thread which doesn't wait or to a deadlock.
+     *
+     * @param dump   The dump to report.
+     * @param output The output to print the report to.
+     */
+    public void printBlockedChains(final Dump dump, final PrintWriter output) {
+        final Map<ThreadReference, ThreadElement> owners = new HashMap<>();
+
+        for (final ThreadElement thread : dump.getElements()) {
+            thread.getHoldingLocks().forEach(lock -> owners.putIfAbsent(lock, thread));
+            thread.getLockedSynchronizers().forEach(lock -> owners.putIfAbsent(lock, thread));
+        }
+
+        int numberOfChains = 0;
+        output.println("Blocked threads:");
+
+        for (final ThreadElement thread : dump.getElements()) {
+            if (waitedLock(thread, owners) == null) continue;
+
+            numberOfChains++;
+            final Set<ThreadElement> chain = new LinkedHashSet<>();
+            ThreadElement current = thread;
+
+            output.println("  " + describe(thread));
+
+            while (current != null && chain.add(current)) {
+                final ThreadReference lock = waitedLock(current, owners);
+                if (lock == null) break;
+
+                final ThreadElement owner = owners.get(lock);
+                output.println("    waits for <" + lock.getThreadId() + "> (a " + lock.getClassName() + ") held by " + describe(owner));
+
+                if (chain.contains(owner)) {
+                    output.println("    DEADLOCK");
+                }
+
+                current = owner;
+            }
+        }
+
+        if (numberOfChains == 0) output.println("  None");
+    }
+
+    /**
+     * Get the first lock the given thread waits for and which is held by another thread.
+     */
+    private static ThreadReference waitedLock(final ThreadElement thread, final Map<ThreadReference, ThreadElement> owners) {
+        for (final ThreadReference lock : thread.getWaitingToLock()) {
+            final ThreadElement owner = owners.get(lock);
+            if (owner != null && owner != thread) return lock;
+        }
+
+        for (final ThreadReference lock : thread.getParkingReasons()) {
+            final ThreadElement owner = owners.get(lock);
+            if (owner != null && owner != thread) return lock;
+        }
+
+        return null;
+    }
+
+    /**
+     * Print the most common calling stacks among the threads in the states of this report, the most common first.
+     *
+     * @param dump   The dump to report.
+     * @param output The output to print the report to.
+     */
+    public void printTopStacks(final Dump dump, final PrintWriter output) {
+        final Map<String, List<ThreadElement>> threadsByStack = new HashMap<>();
+
+        for (final ThreadElement thread : dump.getElements()) {
+            if (this.states.contains(thread.getState()) && thread.hasCallingStack()) {
+                threadsByStack.computeIfAbsent(thread.getCallingStack(), stack -> new ArrayList<>()).add(thread);
+            }
+        }
+
+        final List<Map.Entry<String, List<ThreadElement>>> stacks = new ArrayList<>(threadsByStack.entrySet());
+        stacks.sort((first, second) -> Integer.compare(second.getValue().size(), first.getValue().size()));
+
+        output.println("Top calling stacks:");
+        if (stacks.isEmpty()) output.println("  None");
+
+        for (final Map.Entry<String, List<ThreadElement>> stack : stacks.subList(0, Math.min(this.limit, stacks.size()))) {
+            final List<ThreadElement> threads = stack.getValue();
+            output.println("  " + threads.size() + " thread(s), e.g. " + describe(threads.get(0)));
+
+            final String[] frames = stack.getKey().split("\n");
+            for (int index = 0; index < Math.min(this.depth, frames.length); index++) {
+                output.println("      " + frames[index].trim());
+            }
+
+            if (frames.length > this.depth) output.println("      ... " + (frames.length - this.depth) + " more");
+        }
+    }
+
+    private static String describe(final ThreadElement thread) {
+        return "\"" + thread.getName() + "\" #" + thread.getNumber() + " " + thread.getState();
+    }
+}
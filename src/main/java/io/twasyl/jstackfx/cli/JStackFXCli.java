@@ -0,0 +1,261 @@
+package io.twasyl.jstackfx.cli;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpTimeline;
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import io.twasyl.jstackfx.exceptions.DumpException;
+import io.twasyl.jstackfx.factory.AsyncDumpCapture;
+import io.twasyl.jstackfx.factory.DumpFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Command line entry point of JStackFX, capturing and analysing thread dumps without any UI. This class and the
+ * classes it uses never initialize the JavaFX toolkit, so that it can be used on hosts without any display:
+ * <pre>
+ * java -cp jstackfx-&lt;version&gt;.jar io.twasyl.jstackfx.cli.JStackFXCli &lt;command&gt; [options] [files...]
+ * </pre>
+ * The dumps to analyse are read from the given files, which can contain several dumps, or captured from the process
+ * given with {@code --pid}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JStackFXCli {
+    protected static final int SUCCESS = 0;
+    protected static final int FAILURE = 1;
+    protected static final int USAGE = 2;
+
+    protected static final String USAGE_TEXT = String.join(System.lineSeparator(),
+            "Usage: JStackFXCli <command> [options] [files...]",
+            "",
+            "Commands:",
+            "  capture   Write the thread dump of the process given with --pid",
+            "  summary   Print the number of threads per state",
+            "  blocked   Print the chains of blocked threads and the deadlocks",
+            "  top       Print the most common calling stacks",
+            "  report    Print all of the above",
+            "",
+            "Options:",
+            "  --pid=<pid>          Capture the thread dump of the given process instead of reading files",
+            "  --output=<file>      Write to the given file instead of the standard output",
+            "  --timeout=<seconds>  Maximum duration of a capture (default: " + AsyncDumpCapture.DEFAULT_TIMEOUT.getSeconds() + ")",
+            "  --limit=<n>          Number of calling stacks printed by top (default: " + DumpReport.DEFAULT_LIMIT + ")",
+            "  --depth=<n>          Number of frames printed per calling stack (default: " + DumpReport.DEFAULT_DEPTH + ")",
+            "  --state=<states>     Comma separated states of the threads considered by top (default: all)");
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public JStackFXCli(final PrintStream out, final PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        System.exit(new JStackFXCli(System.out, System.err).run(args));
+    }
+
+    /**
+     * Run the given command line.
+     *
+     * @param args The arguments of the command line.
+     * @return The exit code of the command: {@code 0} on success, {@code 1} on failure and {@code 2} if the command
+     * line is invalid.
+     */
+    public int run(final String... args) {
+        if (args.length == 0 || "--help".equals(args[0]) || "help".equals(args[0])) {
+            this.out.println(USAGE_TEXT);
+            return args.length == 0 ? USAGE : SUCCESS;
+        }
+
+        final String command = args[0];
+        final Map<String, String> options = new HashMap<>();
+        final List<File> files = new ArrayList<>();
+
+        for (int index = 1; index < args.length; index++) {
+            final String arg = args[index];
+
+            if (arg.startsWith("--")) {
+                final int equals = arg.indexOf('=');
+                if (equals < 0) return this.usage("Missing value of the option " + arg);
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            } else {
+                files.add(new File(arg));
+            }
+        }
+
+        try {
+            switch (command) {
+                case "capture":
+                    return this.capture(options);
+                case "summary":
+                case "blocked":
+                case "top":
+                case "report":
+                    return this.analyse(command, options, files);
+                default:
+                    return this.usage("Unknown command " + command);
+            }
+        } catch (IllegalArgumentException e) {
+            return this.usage(e.getMessage());
+        } catch (IOException | DumpException e) {
+            this.err.println("Error: " + e.getMessage());
+            return FAILURE;
+        }
+    }
+
+    /**
+     * Capture the thread dump of the process given with {@code --pid} and write its raw content.
+     */
+    protected int capture(final Map<String, String> options) throws IOException, DumpException {
+        if (!options.containsKey("pid")) return this.usage("The capture command requires --pid");
+
+        final Dump dump = this.captureDump(options);
+
+        if (!(dump instanceof InMemoryDump)) throw new DumpException("The dump of the process has no content");
+
+        try (final OutputStream output = this.openOutput(options)) {
+            ((InMemoryDump) dump).writeTo(output);
+        }
+
+        return SUCCESS;
+    }
+
+    /**
+     * Print the given report of the dumps of the given files, or of the process given with {@code --pid}.
+     */
+    protected int analyse(final String command, final Map<String, String> options, final List<File> files) throws IOException, DumpException {
+        final DumpReport report = new DumpReport();
+
+        if (options.containsKey("limit")) report.setLimit(parseNumber("limit", options.get("limit")));
+        if (options.containsKey("depth")) report.setDepth(parseNumber("depth", options.get("depth")));
+        if (options.containsKey("state")) report.setStates(parseStates(options.get("state")));
+
+        final List<Dump> dumps = new ArrayList<>();
+
+        if (options.containsKey("pid")) {
+            dumps.add(this.captureDump(options));
+        } else if (files.isEmpty()) {
+            return this.usage("No file to analyse");
+        }
+
+        try (final PrintWriter output = new PrintWriter(new OutputStreamWriter(this.openOutput(options), StandardCharsets.UTF_8))) {
+            for (final Dump dump : dumps) {
+                this.print(command, report, dump, output);
+            }
+
+            for (final File file : files) {
+                // Dumps are read one file at a time and sequentially, in order to keep the memory usage low
+                final DumpTimeline timeline = DumpFactory.readTimeline(file, false);
+
+                if (timeline.getDumps().isEmpty()) {
+                    this.err.println("No thread dump found in " + file);
+                }
+
+                for (final Dump dump : timeline.getDumps()) {
+                    if (files.size() > 1) output.println("== " + file.getName());
+                    this.print(command, report, dump, output);
+                }
+            }
+        }
+
+        return SUCCESS;
+    }
+
+    private void print(final String command, final DumpReport report, final Dump dump, final PrintWriter output) {
+        switch (command) {
+            case "summary":
+                report.printSummary(dump, output);
+                break;
+            case "blocked":
+                report.printBlockedChains(dump, output);
+                break;
+            case "top":
+                report.printTopStacks(dump, output);
+                break;
+            default:
+                report.printReport(dump, output);
+        }
+
+        output.println();
+    }
+
+    protected Dump captureDump(final Map<String, String> options) throws DumpException {
+        final long pid = parseNumber("pid", options.get("pid"));
+        final Duration timeout = options.containsKey("timeout") ?
+                Duration.ofSeconds(parseNumber("timeout", options.get("timeout"))) : AsyncDumpCapture.DEFAULT_TIMEOUT;
+
+        final AsyncDumpCapture.Task task = new AsyncDumpCapture().capture(pid, timeout, null);
+
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof DumpException ? (DumpException) e.getCause() : new DumpException(e.getCause());
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DumpException("The capture of the process " + pid + " has been interrupted", e);
+        }
+    }
+
+    private OutputStream openOutput(final Map<String, String> options) throws IOException {
+        if (options.containsKey("output")) {
+            return new BufferedOutputStream(new FileOutputStream(options.get("output")));
+        }
+
+        // The standard output must not be closed with the writer
+        return new BufferedOutputStream(this.out) {
+            @Override
+            public void close() throws IOException {
+                this.flush();
+            }
+        };
+    }
+
+    private int usage(final String message) {
+        this.err.println("Error: " + message);
+        this.err.println(USAGE_TEXT);
+        return USAGE;
+    }
+
+    protected static int parseNumber(final String option, final String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value of --" + option + " must be a number: " + value);
+        }
+    }
+
+    protected static Set<Thread.State> parseStates(final String value) {
+        final Set<Thread.State> states = EnumSet.noneOf(Thread.State.class);
+
+        for (final String state : value.split(",")) {
+            try {
+                states.add(Thread.State.valueOf(state.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown thread state " + state);
+            }
+        }
+
+        return states;
+    }
+}
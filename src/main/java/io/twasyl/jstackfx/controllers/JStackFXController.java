@@ -1,30 +1,61 @@
 package io.twasyl.jstackfx.controllers;
 
+import io.twasyl.jstackfx.beans.CallTree;
 import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpTimeline;
 import io.twasyl.jstackfx.beans.InMemoryDump;
 import io.twasyl.jstackfx.beans.ThreadElement;
 import io.twasyl.jstackfx.exceptions.DumpException;
+import io.twasyl.jstackfx.factory.AsyncDumpCapture;
 import io.twasyl.jstackfx.factory.DumpFactory;
+import io.twasyl.jstackfx.factory.DumpFileTail;
+import io.twasyl.jstackfx.factory.DumpSampler;
+import io.twasyl.jstackfx.factory.DumpWatcher;
+import io.twasyl.jstackfx.factory.JmxDumpCapture;
+import io.twasyl.jstackfx.factory.LocalJvmDiscovery;
+import io.twasyl.jstackfx.factory.MultiDumpCapture;
+import io.twasyl.jstackfx.factory.SamplingProfiler;
+import io.twasyl.jstackfx.factory.WatchRule;
 import io.twasyl.jstackfx.ui.SearchField;
+import io.twasyl.jstackfx.ui.TextUtils;
 import io.twasyl.jstackfx.ui.charts.LockedSynchronizersRepartitionChart;
 import io.twasyl.jstackfx.ui.charts.StateRepartitionChart;
+import io.twasyl.jstackfx.ui.charts.StateRepartitionTimelineChart;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
 import javafx.stage.FileChooser;
+import javafx.util.StringConverter;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.net.URL;
+import java.time.Duration;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.StringJoiner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static io.twasyl.jstackfx.beans.Dump.DATE_TIME_FORMATTER_OUTPUT;
+
 /**
  * Controller of the {@code jstack.fxml} file.
  *
@@ -32,6 +63,7 @@ import java.util.logging.Logger;
  * @since JStackFX 1.0
  */
 public class JStackFXController implements Initializable {
+    protected static final int MAXIMUM_NUMBER_OF_SAMPLES = 600;
 
     private static Logger LOGGER = Logger.getLogger(JStackFXController.class.getName());
 
@@ -42,17 +74,52 @@ public class JStackFXController implements Initializable {
     @FXML
     private TextFlow threadElementDetails;
     @FXML
+    private TextFlow loadStatistics;
+    @FXML
     private TextArea threadElementSource;
     @FXML
     private StateRepartitionChart threadsRepartition;
     @FXML
+    private StateRepartitionTimelineChart threadsRepartitionTimeline;
+    @FXML
     private LockedSynchronizersRepartitionChart mostLockedSynchronizers;
     @FXML
     private Button saveDumpButton;
     @FXML
     private SearchField searchField;
+    @FXML
+    private ComboBox<Dump> dumpSelector;
+    @FXML
+    private Label samplingStatus;
+    @FXML
+    private Label profilingStatus;
+    @FXML
+    private Label watchingStatus;
+    @FXML
+    private Button showBurstButton;
+    @FXML
+    private Label captureStatus;
+    @FXML
+    private Button cancelCaptureButton;
+    @FXML
+    private Label localJvmsCaptureStatus;
+    @FXML
+    private Button cancelLocalJvmsCaptureButton;
+    @FXML
+    private TreeTableView<CallTree.Node> callTree;
+    @FXML
+    private Tab callTreeTab;
 
     private final ObjectProperty<Dump> dump = new SimpleObjectProperty<>(null);
+    private final ObjectProperty<DumpTimeline> timeline = new SimpleObjectProperty<>(null);
+    private DumpFileTail dumpFileTail;
+    private DumpSampler dumpSampler;
+    private final AsyncDumpCapture asyncDumpCapture = new AsyncDumpCapture();
+    private AsyncDumpCapture.Task dumpCapture;
+    private Thread localJvmsCapture;
+    private SamplingProfiler profiler;
+    private DumpWatcher watcher;
+    private DumpTimeline lastBurst;
 
     @FXML
     private void chooseDumpToOpen(final ActionEvent event) {
@@ -63,6 +130,15 @@ public class JStackFXController implements Initializable {
         }
     }
 
+    @FXML
+    private void chooseDumpToFollow(final ActionEvent event) {
+        try {
+            this.chooseDumpToFollow();
+        } catch (Exception e) {
+            showError(e);
+        }
+    }
+
     @FXML
     private void saveThreadDump(final ActionEvent event) {
         final FileChooser fileSaver = new FileChooser();
@@ -86,21 +162,148 @@ public class JStackFXController implements Initializable {
         final String userAnswer = dialog.showAndWait().orElse(null);
 
         if (userAnswer != null && !userAnswer.isEmpty()) {
-            final long pid = Long.parseLong(userAnswer);
             try {
-                this.dumpPID(pid);
-            } catch (DumpException e) {
+                this.dumpPID(Long.parseLong(userAnswer.trim()));
+            } catch (NumberFormatException e) {
+                showError(e);
+            }
+        }
+    }
+
+    @FXML
+    private void cancelCapture(final ActionEvent event) {
+        this.cancelCapture();
+    }
+
+    @FXML
+    private void showLastBurst(final ActionEvent event) {
+        this.showLastBurst();
+    }
+
+    @FXML
+    private void captureLocalJvms(final ActionEvent event) {
+        this.captureLocalJvms();
+    }
+
+    @FXML
+    private void cancelLocalJvmsCapture(final ActionEvent event) {
+        this.cancelLocalJvmsCapture();
+    }
+
+    @FXML
+    private void sampleThreads(final ActionEvent event) {
+        final TextField pid = new TextField();
+        final TextField interval = new TextField("1000");
+        final TextField duration = new TextField("60");
+
+        final GridPane fields = new GridPane();
+        fields.setHgap(5);
+        fields.setVgap(5);
+        fields.addRow(0, new Label("Process ID:"), pid);
+        fields.addRow(1, new Label("Interval (ms):"), interval);
+        fields.addRow(2, new Label("Duration (s):"), duration);
+
+        final Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setHeaderText("Sample the threads of a process:");
+        dialog.getDialogPane().setContent(fields);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        if (dialog.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK && !pid.getText().isEmpty()) {
+            try {
+                this.samplePID(Long.parseLong(pid.getText().trim()),
+                        Duration.ofMillis(Long.parseLong(interval.getText().trim())),
+                        Duration.ofSeconds(Long.parseLong(duration.getText().trim())));
+            } catch (IllegalArgumentException e) {
+                showError(e);
+            }
+        }
+    }
+
+    @FXML
+    private void profileProcess(final ActionEvent event) {
+        final TextField pid = new TextField();
+        final TextField frequency = new TextField("50");
+        final TextField duration = new TextField("30");
+
+        final GridPane fields = new GridPane();
+        fields.setHgap(5);
+        fields.setVgap(5);
+        fields.addRow(0, new Label("Process ID:"), pid);
+        fields.addRow(1, new Label("Samples per second:"), frequency);
+        fields.addRow(2, new Label("Duration (s):"), duration);
+
+        final Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setHeaderText("Profile the runnable threads of a process:");
+        dialog.getDialogPane().setContent(fields);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        if (dialog.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK && !pid.getText().isEmpty()) {
+            try {
+                this.profilePID(Long.parseLong(pid.getText().trim()),
+                        Integer.parseInt(frequency.getText().trim()),
+                        Duration.ofSeconds(Long.parseLong(duration.getText().trim())));
+            } catch (IllegalArgumentException e) {
+                showError(e);
+            }
+        }
+    }
+
+    @FXML
+    private void watchProcess(final ActionEvent event) {
+        final TextField pid = new TextField();
+        final TextField maximumThreads = new TextField();
+        final TextField maximumBlockedThreads = new TextField("0");
+        final CheckBox deadlock = new CheckBox("Deadlocked threads");
+        final TextField burstSize = new TextField(String.valueOf(DumpWatcher.DEFAULT_BURST_SIZE));
+        final TextField burstInterval = new TextField(String.valueOf(DumpWatcher.DEFAULT_BURST_INTERVAL.toMillis()));
+        deadlock.setSelected(true);
+
+        final GridPane fields = new GridPane();
+        fields.setHgap(5);
+        fields.setVgap(5);
+        fields.addRow(0, new Label("Process ID:"), pid);
+        fields.addRow(1, new Label("More threads than:"), maximumThreads);
+        fields.addRow(2, new Label("More blocked threads than:"), maximumBlockedThreads);
+        fields.addRow(3, new Label("Or:"), deadlock);
+        fields.addRow(4, new Label("Dumps per burst:"), burstSize);
+        fields.addRow(5, new Label("Interval (ms):"), burstInterval);
+
+        final Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setHeaderText("Capture a burst of dumps of a process when:");
+        dialog.getDialogPane().setContent(fields);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        if (dialog.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK && !pid.getText().isEmpty()) {
+            try {
+                WatchRule rule = deadlock.isSelected() ? WatchRule.deadlock() : indicators -> false;
+
+                if (!maximumThreads.getText().trim().isEmpty()) {
+                    rule = WatchRule.threadCountAbove(Integer.parseInt(maximumThreads.getText().trim())).or(rule);
+                }
+
+                if (!maximumBlockedThreads.getText().trim().isEmpty()) {
+                    rule = rule.or(WatchRule.blockedThreadsAbove(Integer.parseInt(maximumBlockedThreads.getText().trim())));
+                }
+
+                this.watchPID(Long.parseLong(pid.getText().trim()), rule,
+                        Integer.parseInt(burstSize.getText().trim()),
+                        Duration.ofMillis(Long.parseLong(burstInterval.getText().trim())));
+            } catch (IllegalArgumentException e) {
                 showError(e);
             }
         }
     }
 
     /**
-     * Opens a file chooser and open the dump file in the UI.
+     * Opens a file chooser and open the dump file in the UI. Files compressed with gzip and zip archives are accepted.
      */
     protected void chooseDumpToOpen() throws IOException, InstantiationException, IllegalAccessException {
         final FileChooser chooser = new FileChooser();
         chooser.setTitle("Open dump file");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Thread dumps", "*.txt", "*.log", "*.tdump", "*.json", "*.gz", "*.zip"),
+                new FileChooser.ExtensionFilter("Compressed thread dumps", "*.gz", "*.zip"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
         final File fileToOpen = chooser.showOpenDialog(null);
 
         if (fileToOpen != null) {
@@ -109,30 +312,522 @@ public class JStackFXController implements Initializable {
     }
 
     /**
-     * Loads the dump file and update the UI.
+     * Opens a file chooser and follow the chosen dump file in the UI.
+     */
+    protected void chooseDumpToFollow() throws IOException {
+        final FileChooser chooser = new FileChooser();
+        chooser.setTitle("Follow dump file");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Thread dumps", "*.txt", "*.log", "*.tdump", "*.out"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        final File fileToFollow = chooser.showOpenDialog(null);
+
+        if (fileToFollow != null) {
+            this.followDumpFile(fileToFollow);
+        }
+    }
+
+    /**
+     * Follows a dump file still being written, like {@code tail -f} does. Each dump appended to the file is added to
+     * the displayed {@link DumpTimeline timeline} as soon as it is complete. When the last dump of the timeline is
+     * displayed, the new dump is displayed instead.
+     *
+     * @param file The dump file to follow.
+     * @see DumpFileTail
+     */
+    public void followDumpFile(final File file) throws IOException {
+        if (file == null) throw new NullPointerException("The file to follow is null");
+        if (!file.exists()) throw new FileNotFoundException("The file doesn't exist");
+
+        final DumpTimeline timeline = new DumpTimeline(FXCollections.observableArrayList());
+        final DumpFileTail tail = new DumpFileTail(file, timeline.getFrameDictionary(), dump -> Platform.runLater(() -> {
+            if (this.timeline.get() == timeline) {
+                final boolean showLastDump = this.dumpSelector.getSelectionModel().getSelectedIndex() >= timeline.getDumps().size() - 1;
+                timeline.getDumps().add(dump);
+
+                if (showLastDump) {
+                    this.dumpSelector.getSelectionModel().selectLast();
+                }
+            }
+        }));
+
+        this.showTimeline(timeline);
+        this.dumpFileTail = tail;
+        tail.start(DumpFileTail.DEFAULT_POLLING_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops following the dump file currently followed, if any.
+     */
+    public void stopFollowingDumpFile() {
+        if (this.dumpFileTail != null) {
+            this.dumpFileTail.close();
+            this.dumpFileTail = null;
+        }
+    }
+
+    /**
+     * Loads the dump file and update the UI. If the file contains several dumps, all of them are loaded in a
+     * {@link DumpTimeline timeline} and the first one is displayed.
      *
      * @param file The dump file to open.
+     * @throws IOException If the file can not be read or doesn't contain any thread dump.
      */
     public void loadDumpFile(final File file) throws IOException, IllegalAccessException, InstantiationException {
         if (file == null) throw new NullPointerException("The file to open is null");
         if (!file.exists()) throw new FileNotFoundException("The file doesn't exist");
 
-        final Dump dump = DumpFactory.read(file);
+        final DumpTimeline timeline = DumpFactory.readTimeline(file, true);
 
-        this.updateUI(dump);
-        this.dump.set(dump);
+        if (timeline.getDumps().isEmpty()) throw new IOException("No thread dump found in " + file.getName());
+
+        this.showTimeline(timeline);
     }
 
     /**
-     * Create a thread dump for the given PID.
+     * Create a thread dump for the given PID in the background. The progress of the capture is displayed and the
+     * capture can be {@link #cancelCapture() cancelled}. The dump is displayed once captured, and the failure is
+     * reported otherwise. A capture already running is cancelled.
      *
      * @param pid The PID of the process to dump.
-     * @throws DumpException
+     * @return The capture of the dump.
+     * @see AsyncDumpCapture
+     */
+    public CompletableFuture<Dump> dumpPID(final long pid) {
+        this.cancelCapture();
+
+        final AsyncDumpCapture.Task task = this.asyncDumpCapture.capture(pid, AsyncDumpCapture.DEFAULT_TIMEOUT,
+                (capture, stage) -> Platform.runLater(() -> this.updateCaptureStatus(capture)));
+
+        this.dumpCapture = task;
+        this.updateCaptureStatus(task);
+
+        task.whenComplete((dump, error) -> Platform.runLater(() -> {
+            if (this.dumpCapture == task) {
+                this.dumpCapture = null;
+                this.updateCaptureStatus(task);
+            }
+
+            if (dump != null) {
+                final DumpTimeline timeline = new DumpTimeline();
+                timeline.getDumps().add(dump);
+                this.showTimeline(timeline);
+            } else if (!(error instanceof CancellationException)) {
+                showError(error instanceof Exception ? (Exception) error : new DumpException(error));
+            }
+        }));
+
+        return task;
+    }
+
+    /**
+     * Cancel the capture of a thread dump, if any.
+     */
+    public void cancelCapture() {
+        final AsyncDumpCapture.Task task = this.dumpCapture;
+
+        if (task != null) {
+            this.dumpCapture = null;
+            task.cancel(true);
+            this.updateCaptureStatus(task);
+        }
+    }
+
+    protected void updateCaptureStatus(final AsyncDumpCapture.Task task) {
+        if (this.dumpCapture == task) {
+            this.captureStatus.setText(String.format("Capturing %d: %s...", task.getProcessId(), task.getStage().getLabel()));
+            this.cancelCaptureButton.setVisible(true);
+        } else {
+            this.captureStatus.setText("");
+            this.cancelCaptureButton.setVisible(false);
+        }
+    }
+
+    /**
+     * Captures the thread dumps of all Java virtual machines running on the local host at the same moment, in the
+     * background. The progress of the capture is displayed and the capture can be
+     * {@link #cancelLocalJvmsCapture() cancelled}. The dumps are displayed in a {@link DumpTimeline timeline} grouping
+     * them per process, and the processes which couldn't be captured are reported. A capture already running is
+     * cancelled.
+     *
+     * @see LocalJvmDiscovery
+     * @see MultiDumpCapture
+     */
+    public void captureLocalJvms() {
+        this.cancelLocalJvmsCapture();
+
+        final Thread capture = new Thread(() -> {
+            final Thread current = Thread.currentThread();
+
+            try {
+                final List<MultiDumpCapture.Result> results = new MultiDumpCapture().captureAll(LocalJvmDiscovery.discover());
+
+                Platform.runLater(() -> {
+                    if (this.endLocalJvmsCapture(current)) this.showCaptures(results);
+                });
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Can not capture the local Java virtual machines", e);
+
+                Platform.runLater(() -> {
+                    if (this.endLocalJvmsCapture(current)) showError(e);
+                });
+            }
+        }, "jstackfx-capture-local-jvms");
+
+        capture.setDaemon(true);
+        this.localJvmsCapture = capture;
+        this.updateLocalJvmsCaptureStatus();
+        capture.start();
+    }
+
+    /**
+     * Cancel the capture of the local Java virtual machines, if any. The captures still running are aborted and none
+     * of the dumps is displayed.
+     */
+    public void cancelLocalJvmsCapture() {
+        final Thread capture = this.localJvmsCapture;
+
+        if (capture != null) {
+            this.localJvmsCapture = null;
+            capture.interrupt();
+            this.updateLocalJvmsCaptureStatus();
+        }
+    }
+
+    /**
+     * Ends the given capture of the local Java virtual machines if it is the current one.
+     *
+     * @param capture The thread of the capture.
+     * @return {@code true} if the capture was the current one, {@code false} if it has been cancelled or replaced.
+     */
+    private boolean endLocalJvmsCapture(final Thread capture) {
+        if (this.localJvmsCapture != capture) return false;
+
+        this.localJvmsCapture = null;
+        this.updateLocalJvmsCaptureStatus();
+        return true;
+    }
+
+    protected void updateLocalJvmsCaptureStatus() {
+        final boolean capturing = this.localJvmsCapture != null;
+
+        this.localJvmsCaptureStatus.setText(capturing ? "Capturing the local virtual machines..." : "");
+        this.cancelLocalJvmsCaptureButton.setVisible(capturing);
+    }
+
+    /**
+     * Display the dumps captured from several processes, one after the other in the order of the processes, and
+     * report the processes which couldn't be captured.
+     *
+     * @param results The results of the captures.
+     */
+    protected void showCaptures(final List<MultiDumpCapture.Result> results) {
+        final DumpTimeline timeline = new DumpTimeline();
+        final StringJoiner failures = new StringJoiner("\n");
+
+        for (final MultiDumpCapture.Result result : results) {
+            if (result.isSuccessful()) {
+                timeline.addDump(result.getDump());
+            } else {
+                failures.add(result.getJvm() + ": " + result.getError().getMessage());
+            }
+        }
+
+        if (results.isEmpty()) {
+            showError(new DumpException("No Java virtual machine found on the local host"));
+        } else if (failures.length() > 0) {
+            showError(new DumpException(failures.toString()));
+        }
+
+        if (!timeline.getDumps().isEmpty()) {
+            this.showTimeline(timeline);
+        }
+    }
+
+    /**
+     * Samples the threads of the given process: dumps are captured in the background at the given interval during
+     * the given duration and added to the displayed {@link DumpTimeline timeline} as soon as they are captured. The
+     * timeline keeps the last {@link #MAXIMUM_NUMBER_OF_SAMPLES} dumps. When the last dump of the timeline is displayed,
+     * the new dump is displayed instead.
+     * <p>
+     * Dumps are captured {@link JmxDumpCapture through JMX}, reusing the same connection for all samples. If the
+     * process can't be captured through JMX, thread dumps are made using {@link DumpFactory#make(long)} instead.
+     *
+     * @param pid      The PID of the process to sample.
+     * @param interval The delay between the beginning of two captures.
+     * @param duration The duration of the sampling.
+     * @see DumpSampler
+     */
+    public void samplePID(final long pid, final Duration interval, final Duration duration) {
+        final DumpTimeline timeline = new DumpTimeline(FXCollections.observableArrayList());
+        timeline.setMaximumNumberOfDumps(MAXIMUM_NUMBER_OF_SAMPLES);
+
+        final JmxDumpCapture jmxCapture = new JmxDumpCapture(pid);
+
+        final DumpSampler sampler = new DumpSampler(pid, jmxCapture.orElse(DumpFactory::make), new DumpSampler.Listener() {
+            @Override
+            public void dumpCaptured(final Dump dump) {
+                Platform.runLater(() -> {
+                    if (JStackFXController.this.timeline.get() == timeline) {
+                        final boolean showLastDump = dumpSelector.getSelectionModel().getSelectedIndex() >= timeline.getDumps().size() - 1;
+                        timeline.addDump(dump);
+
+                        if (showLastDump) {
+                            dumpSelector.getSelectionModel().selectLast();
+                        }
+                    }
+
+                    updateSamplingStatus();
+                });
+            }
+
+            @Override
+            public void overrun(final long numberOfOverruns) {
+                Platform.runLater(JStackFXController.this::updateSamplingStatus);
+            }
+
+            @Override
+            public void captureFailed(final DumpException exception) {
+                Platform.runLater(JStackFXController.this::updateSamplingStatus);
+            }
+
+            @Override
+            public void finished() {
+                jmxCapture.close();
+                Platform.runLater(JStackFXController.this::updateSamplingStatus);
+            }
+        });
+
+        this.showTimeline(timeline);
+        this.dumpSampler = sampler;
+        this.updateSamplingStatus();
+        sampler.start(interval, duration);
+    }
+
+    /**
+     * Stops sampling the threads of a process, if any.
      */
-    public void dumpPID(final long pid) throws DumpException {
-        final Dump dump = DumpFactory.make(pid);
-        this.updateUI(dump);
-        this.dump.set(dump);
+    public void stopSampling() {
+        if (this.dumpSampler != null) {
+            this.dumpSampler.close();
+            this.dumpSampler = null;
+        }
+
+        this.updateSamplingStatus();
+    }
+
+    /**
+     * Profiles the runnable threads of the given process: their calling stacks are sampled in the background at the
+     * given frequency during the given duration and aggregated in a call tree, displayed once the profiling is
+     * finished. No dump is kept.
+     *
+     * @param pid       The PID of the process to profile.
+     * @param frequency The number of samples per second.
+     * @param duration  The duration of the profiling.
+     * @see SamplingProfiler
+     */
+    public void profilePID(final long pid, final int frequency, final Duration duration) {
+        this.stopProfiling();
+
+        final SamplingProfiler newProfiler = new SamplingProfiler(pid, new SamplingProfiler.Listener() {
+            @Override
+            public void finished(final CallTree tree) {
+                Platform.runLater(() -> {
+                    showCallTree(tree);
+                    updateProfilingStatus();
+                });
+            }
+
+            @Override
+            public void sampled(final SamplingProfiler profiler) {
+                Platform.runLater(JStackFXController.this::updateProfilingStatus);
+            }
+
+            @Override
+            public void captureFailed(final DumpException exception) {
+                Platform.runLater(JStackFXController.this::updateProfilingStatus);
+            }
+        });
+
+        this.profiler = newProfiler;
+        this.updateProfilingStatus();
+        newProfiler.start(frequency, duration);
+    }
+
+    /**
+     * Stops profiling a process, if any. The call tree of the profiling is displayed.
+     */
+    public void stopProfiling() {
+        if (this.profiler != null) {
+            this.profiler.close();
+        }
+    }
+
+    /**
+     * Watches the given process: its indicators are polled every second and a burst of dumps is captured each time the
+     * given rule fires. Each burst is displayed as a timeline, unless a dump file is followed or a process is sampled:
+     * the burst is then kept and {@link #showLastBurst() displayed on demand}, so that these activities aren't stopped.
+     * The process previously watched, if any, isn't watched anymore.
+     *
+     * @param pid           The PID of the process to watch.
+     * @param rule          The rule triggering a burst.
+     * @param burstSize     The number of dumps of a burst.
+     * @param burstInterval The delay between two dumps of a burst.
+     * @see DumpWatcher
+     */
+    public void watchPID(final long pid, final WatchRule rule, final int burstSize, final Duration burstInterval) {
+        this.stopWatching();
+
+        final DumpWatcher newWatcher = new DumpWatcher(pid, rule, new DumpWatcher.Listener() {
+            @Override
+            public void burstCaptured(final WatchRule.Indicators indicators, final DumpTimeline burst) {
+                Platform.runLater(() -> {
+                    if (watcher != null && watcher.getProcessId() == pid) {
+                        if (dumpFileTail != null || (dumpSampler != null && dumpSampler.isRunning())) {
+                            lastBurst = burst;
+                        } else {
+                            lastBurst = null;
+                            showTimeline(burst);
+                        }
+                    }
+
+                    updateWatchingStatus();
+                });
+            }
+
+            @Override
+            public void polled(final DumpWatcher watcher) {
+                Platform.runLater(JStackFXController.this::updateWatchingStatus);
+            }
+
+            @Override
+            public void pollFailed(final DumpException exception) {
+                Platform.runLater(JStackFXController.this::updateWatchingStatus);
+            }
+        });
+        newWatcher.setBurstSize(burstSize);
+        newWatcher.setBurstInterval(burstInterval);
+
+        this.watcher = newWatcher;
+        this.updateWatchingStatus();
+        newWatcher.start();
+    }
+
+    /**
+     * Stops watching a process, if any. The burst which hasn't been displayed, if any, is discarded.
+     */
+    public void stopWatching() {
+        if (this.watcher != null) {
+            this.watcher.close();
+            this.watcher = null;
+        }
+
+        this.lastBurst = null;
+        this.updateWatchingStatus();
+    }
+
+    /**
+     * Display the last burst of dumps of the watched process which hasn't been displayed yet, if any. Like any other
+     * {@link #showTimeline(DumpTimeline) displayed timeline}, the dump file followed and the process sampled aren't
+     * followed nor sampled anymore.
+     */
+    public void showLastBurst() {
+        final DumpTimeline burst = this.lastBurst;
+        this.lastBurst = null;
+
+        if (burst != null) {
+            this.showTimeline(burst);
+        }
+
+        this.updateWatchingStatus();
+    }
+
+    /**
+     * Display the given call tree. Only the root of the tree is expanded.
+     *
+     * @param tree The call tree to display.
+     */
+    protected void showCallTree(final CallTree tree) {
+        final TreeItem<CallTree.Node> root = treeItemOf(tree.getRoot());
+        root.setExpanded(true);
+
+        this.callTree.setRoot(root);
+        this.callTreeTab.getTabPane().getSelectionModel().select(this.callTreeTab);
+    }
+
+    private static TreeItem<CallTree.Node> treeItemOf(final CallTree.Node node) {
+        final TreeItem<CallTree.Node> item = new TreeItem<>(node);
+        node.getChildren().forEach(child -> item.getChildren().add(treeItemOf(child)));
+        return item;
+    }
+
+    protected void updateProfilingStatus() {
+        final SamplingProfiler current = this.profiler;
+
+        if (current == null) {
+            this.profilingStatus.setText("");
+        } else {
+            this.profilingStatus.setText(String.format("%s %d: %d samples, %d overruns, %d failures",
+                    current.isRunning() ? "Profiling" : "Profiled", current.getProcessId(), current.getNumberOfSamples(),
+                    current.getNumberOfOverruns(), current.getNumberOfFailures()));
+        }
+    }
+
+    protected void updateWatchingStatus() {
+        final DumpWatcher current = this.watcher;
+
+        if (current == null) {
+            this.watchingStatus.setText("");
+        } else {
+            this.watchingStatus.setText(String.format("%s %d: %d polls (last %d us), %d bursts%s",
+                    current.isRunning() ? "Watching" : "Watched", current.getProcessId(), current.getNumberOfPolls(),
+                    TimeUnit.NANOSECONDS.toMicros(current.getLastPollNanos()), current.getNumberOfBursts(),
+                    this.lastBurst == null ? "" : ", last one not shown"));
+        }
+
+        this.showBurstButton.setVisible(this.lastBurst != null);
+    }
+
+    protected void updateSamplingStatus() {
+        final DumpSampler sampler = this.dumpSampler;
+
+        if (sampler == null) {
+            this.samplingStatus.setText("");
+        } else {
+            this.samplingStatus.setText(String.format("%s %d: %d dumps, %d overruns, %d failures",
+                    sampler.isRunning() ? "Sampling" : "Sampled", sampler.getProcessId(), sampler.getNumberOfSamples(),
+                    sampler.getNumberOfOverruns(), sampler.getNumberOfFailures()));
+        }
+    }
+
+    /**
+     * Display the given timeline and its first dump. The dump file currently followed and the process currently
+     * sampled, if any, aren't followed nor sampled anymore.
+     *
+     * @param timeline The timeline to display.
+     */
+    public void showTimeline(final DumpTimeline timeline) {
+        this.stopFollowingDumpFile();
+        this.stopSampling();
+        this.timeline.set(timeline);
+
+        if (timeline != null && !timeline.getDumps().isEmpty()) {
+            this.dumpSelector.getSelectionModel().selectFirst();
+        }
+    }
+
+    /**
+     * Get the dumps of the given timeline as an observable list. The timelines which get new dumps while they are
+     * displayed, like the ones of a followed file or of a sampling, keep their dumps in an observable list. The dumps of
+     * the other timelines are wrapped.
+     *
+     * @param timeline The timeline.
+     * @return The observable dumps of the timeline.
+     */
+    @SuppressWarnings("unchecked")
+    private static ObservableList<Dump> observableDumpsOf(final DumpTimeline timeline) {
+        if (timeline.getDumps() instanceof ObservableList) return (ObservableList<Dump>) timeline.getDumps();
+        return FXCollections.observableList(timeline.getDumps());
     }
 
     public void updateUI(final Dump dump) {
@@ -141,6 +836,7 @@ public class JStackFXController implements Initializable {
             this.updateSearchField(dump);
             this.updateThreadInformationsTable(dump);
             this.updateDumpInformations(dump);
+            this.updateLoadStatistics(dump);
             this.threadsRepartition.setDump(dump);
             this.mostLockedSynchronizers.setDump(dump);
         }
@@ -151,9 +847,8 @@ public class JStackFXController implements Initializable {
         if (dump == null) throw new NullPointerException("The dump to save can not be null");
         if (!(dump instanceof InMemoryDump)) throw new IllegalArgumentException("The dump is not an in-memory dump");
 
-        try (final PrintWriter output = new PrintWriter(dumpFile)) {
-            ((InMemoryDump) dump).getLines().forEach(output::println);
-            output.flush();
+        try (final OutputStream output = new BufferedOutputStream(new FileOutputStream(dumpFile))) {
+            ((InMemoryDump) dump).writeTo(output);
         }
     }
 
@@ -164,7 +859,7 @@ public class JStackFXController implements Initializable {
     }
 
     protected void updateSearchField(final Dump dump) {
-        this.searchField.setDataSet(dump.getElements());
+        this.searchField.setDataSet(FXCollections.observableList(dump.getElements()));
     }
 
     protected void updateThreadInformationsTable(final Dump dump) {
@@ -173,7 +868,17 @@ public class JStackFXController implements Initializable {
 
     protected void updateDumpInformations(final Dump dump) {
         this.dumpInformations.getChildren().clear();
-        this.dumpInformations.getChildren().addAll(dump.asText());
+        this.dumpInformations.getChildren().addAll(TextUtils.asText(dump));
+    }
+
+    protected void updateLoadStatistics(final Dump dump) {
+        this.loadStatistics.getChildren().clear();
+
+        if (dump.getLoadStatistics() != null) {
+            this.loadStatistics.getChildren().addAll(TextUtils.asText(dump.getLoadStatistics()));
+        } else {
+            this.loadStatistics.getChildren().add(new Text("The loading of this dump hasn't been measured"));
+        }
     }
 
     /**
@@ -191,7 +896,7 @@ public class JStackFXController implements Initializable {
         this.threadElements.getSelectionModel().selectedItemProperty().addListener((value, oldItem, newItem) -> {
             this.threadElementDetails.getChildren().clear();
             if (newItem != null) {
-                this.threadElementDetails.getChildren().addAll(newItem.asText());
+                this.threadElementDetails.getChildren().addAll(TextUtils.asText(newItem));
                 this.threadElementSource.setText(newItem.getSource());
             }
         });
@@ -201,5 +906,46 @@ public class JStackFXController implements Initializable {
         this.dump.addListener((value, oldDump, newDump) -> {
             this.saveDumpButton.setDisable(newDump == null || !(newDump instanceof InMemoryDump));
         });
+
+        this.initializeDumpSelector();
+    }
+
+    protected void initializeDumpSelector() {
+        this.dumpSelector.setConverter(new StringConverter<Dump>() {
+            @Override
+            public String toString(final Dump dump) {
+                if (dump == null || dump.getGenerationDateTime() == null) return null;
+
+                final String generationDateTime = DATE_TIME_FORMATTER_OUTPUT.format(dump.getGenerationDateTime());
+                return dump.getProcessId() < 0 ? generationDateTime : dump.getProcessId() + " - " + generationDateTime;
+            }
+
+            @Override
+            public Dump fromString(final String string) {
+                return null;
+            }
+        });
+
+        this.dumpSelector.valueProperty().addListener((value, oldDump, newDump) -> {
+            if (newDump != null) {
+                this.updateUI(newDump);
+                this.dump.set(newDump);
+            }
+        });
+
+        this.timeline.addListener((value, oldTimeline, newTimeline) -> {
+            this.dumpSelector.disableProperty().unbind();
+
+            if (newTimeline == null) {
+                this.dumpSelector.setItems(FXCollections.observableArrayList());
+                this.dumpSelector.setDisable(true);
+            } else {
+                final ObservableList<Dump> dumps = observableDumpsOf(newTimeline);
+                this.dumpSelector.setItems(dumps);
+                this.dumpSelector.disableProperty().bind(Bindings.size(dumps).lessThan(2));
+            }
+
+            this.threadsRepartitionTimeline.setDumpTimeline(newTimeline);
+        });
     }
 }
@@ -0,0 +1,303 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.exceptions.DumpException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Captures thread dumps in the background. Each capture is a {@link Task task}, which is a {@link CompletableFuture}
+ * completed with the dump, and is given a deadline: a process which doesn't answer in time makes the task fail with a
+ * {@link DumpException}. Cancelling a task, or reaching its deadline, aborts the capture: the {@code jstack} process is
+ * killed, or the reply of the virtual machine is closed when the {@link AttachDumpCapture Attach API} is used. The
+ * {@link Listener listener} of a task is notified of each {@link Stage stage} of the capture.
+ * <p>
+ * Like {@link DumpFactory#make(long)}, the Attach API is used when available and {@code jstack} otherwise.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class AsyncDumpCapture {
+    private static final Logger LOGGER = Logger.getLogger(AsyncDumpCapture.class.getName());
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final ScheduledThreadPoolExecutor DEADLINES = new ScheduledThreadPoolExecutor(1, threadFactory("jstackfx-capture-deadline-"));
+
+    static {
+        DEADLINES.setRemoveOnCancelPolicy(true);
+    }
+
+    private final Executor executor;
+
+    /**
+     * Creates a capture running each capture in its own daemon thread, reused for later captures.
+     */
+    public AsyncDumpCapture() {
+        this(Executors.newCachedThreadPool(threadFactory("jstackfx-async-capture-")));
+    }
+
+    /**
+     * Creates a capture running the captures with the given executor.
+     *
+     * @param executor Runs the captures.
+     */
+    public AsyncDumpCapture(final Executor executor) {
+        if (executor == null) throw new NullPointerException("The executor can not be null");
+        this.executor = executor;
+    }
+
+    /**
+     * Capture a thread dump of the given process in the background, within {@link #DEFAULT_TIMEOUT}.
+     *
+     * @param processId The ID of the process to make a thread dump for.
+     * @return The task of the capture.
+     */
+    public Task capture(final long processId) {
+        return this.capture(processId, DEFAULT_TIMEOUT, null);
+    }
+
+    /**
+     * Capture a thread dump of the given process in the background.
+     *
+     * @param processId The ID of the process to make a thread dump for.
+     * @param timeout   The maximum duration of the capture, measured from now.
+     * @param listener  Notified of each stage of the capture, may be {@code null}.
+     * @return The task of the capture.
+     */
+    public Task capture(final long processId, final Duration timeout, final Listener listener) {
+        if (timeout == null) throw new NullPointerException("The timeout can not be null");
+        if (timeout.isNegative() || timeout.isZero()) throw new IllegalArgumentException("The timeout must be positive");
+
+        final Task task = new Task(processId, listener);
+
+        final ScheduledFuture<?> deadline = DEADLINES.schedule(() -> task.abort(
+                new DumpException("The process " + processId + " didn't answer within " + timeout.toMillis() + " ms")),
+                timeout.toNanos(), TimeUnit.NANOSECONDS);
+        task.whenComplete((dump, error) -> deadline.cancel(false));
+
+        this.executor.execute(() -> task.run(this));
+
+        return task;
+    }
+
+    /**
+     * Capture a thread dump for the given task. Each blocking step registers the way to abort it on the task.
+     *
+     * @param task The task of the capture.
+     * @return The thread dump.
+     * @throws DumpException If the thread dump can not be captured.
+     */
+    protected Dump captureDump(final Task task) throws DumpException {
+        final long processId = task.getProcessId();
+        Dump dump = null;
+
+        if (AttachDumpCapture.isAvailable()) {
+            task.setStage(Stage.ATTACHING);
+
+            try {
+                dump = AttachDumpCapture.capture(processId, reply -> {
+                    task.onAbort(() -> {
+                        try {
+                            reply.close();
+                        } catch (IOException e) {
+                            LOGGER.log(Level.FINE, "Can not close the reply of the process " + processId, e);
+                        }
+                    });
+                    task.setStage(Stage.READING);
+                    return DumpFactory.read(reply);
+                });
+            } catch (DumpException e) {
+                if (task.isDone()) throw e;
+                LOGGER.log(Level.FINE, "Can not dump the threads of the process " + processId + " using the Attach API, using jstack", e);
+            }
+        }
+
+        if (dump == null && !task.isDone()) {
+            task.setStage(Stage.STARTING_JSTACK);
+            final Process jstack = DumpFactory.startJStack(processId);
+            task.onAbort(jstack::destroyForcibly);
+
+            task.setStage(Stage.READING);
+            dump = DumpFactory.readJStack(jstack);
+        }
+
+        if (dump != null) {
+            dump.setProcessId(processId);
+        }
+
+        return dump;
+    }
+
+    private static ThreadFactory threadFactory(final String prefix) {
+        final AtomicInteger number = new AtomicInteger(0);
+
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The stages of a capture.
+     */
+    public enum Stage {
+        QUEUED("Waiting"),
+        ATTACHING("Attaching"),
+        STARTING_JSTACK("Starting jstack"),
+        READING("Reading the dump");
+
+        private final String label;
+
+        Stage(final String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Notified of the stages of a capture, from the thread running the capture.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called each time a capture enters a new stage.
+         *
+         * @param task  The task of the capture.
+         * @param stage The new stage of the capture.
+         */
+        void stageChanged(Task task, Stage stage);
+    }
+
+    /**
+     * A capture running in the background, completed with the thread dump or the reason of the failure.
+     * {@link #cancel(boolean) Cancelling} the task aborts the capture.
+     */
+    public static class Task extends CompletableFuture<Dump> {
+        private final long processId;
+        private final Listener listener;
+        private final List<Runnable> abortActions = new ArrayList<>();
+        private volatile Stage stage = Stage.QUEUED;
+        private Thread worker;
+
+        protected Task(final long processId, final Listener listener) {
+            this.processId = processId;
+            this.listener = listener;
+        }
+
+        public long getProcessId() {
+            return processId;
+        }
+
+        public Stage getStage() {
+            return stage;
+        }
+
+        protected void setStage(final Stage stage) {
+            this.stage = stage;
+
+            if (this.listener != null) {
+                this.listener.stageChanged(this, stage);
+            }
+        }
+
+        protected void run(final AsyncDumpCapture capture) {
+            synchronized (this) {
+                if (this.isDone()) return;
+                this.worker = Thread.currentThread();
+            }
+
+            try {
+                final Dump dump = capture.captureDump(this);
+
+                if (dump == null) {
+                    this.completeExceptionally(new DumpException("The process " + this.processId + " returned an empty thread dump"));
+                } else {
+                    this.complete(dump);
+                }
+            } catch (DumpException e) {
+                this.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                this.completeExceptionally(new DumpException(e));
+            } catch (Error e) {
+                this.completeExceptionally(e);
+                throw e;
+            } finally {
+                synchronized (this) {
+                    this.worker = null;
+                    // An abort may have interrupted the thread, which may run other captures
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        /**
+         * Register the way to abort the current step of the capture. The action is run immediately if the task is
+         * already completed.
+         *
+         * @param action Aborts the current step of the capture.
+         */
+        protected void onAbort(final Runnable action) {
+            synchronized (this.abortActions) {
+                if (!this.isDone()) {
+                    this.abortActions.add(action);
+                    return;
+                }
+            }
+
+            action.run();
+        }
+
+        /**
+         * Complete this task with the given reason and abort the capture, unless it is already completed.
+         *
+         * @param reason The reason of the abort.
+         * @return {@code true} if the capture has been aborted, {@code false} if it was already completed.
+         */
+        protected boolean abort(final Throwable reason) {
+            final boolean aborted = this.completeExceptionally(reason);
+            if (aborted) this.abortCapture();
+            return aborted;
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) this.abortCapture();
+            return cancelled;
+        }
+
+        private void abortCapture() {
+            final List<Runnable> actions;
+
+            synchronized (this.abortActions) {
+                actions = new ArrayList<>(this.abortActions);
+                this.abortActions.clear();
+            }
+
+            actions.forEach(Runnable::run);
+
+            synchronized (this) {
+                if (this.worker != null) this.worker.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.exceptions.DumpException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Capture of thread dumps using the HotSpot Attach API. The application attaches to the target virtual machine and
+ * requests the thread dump directly, like {@code jstack} does, without starting a new virtual machine for each capture.
+ * <p>
+ * The Attach API is accessed by reflection so that the application doesn't depend on it at compile time. It is looked
+ * up in the running virtual machine and, for a Java 8 runtime, in the {@code tools.jar} of its JDK. On Java 9 and
+ * later, the {@code jdk.attach} module must be resolved and the {@code sun.tools.attach} package exported to the
+ * application, i.e. {@code --add-modules jdk.attach --add-exports jdk.attach/sun.tools.attach=ALL-UNNAMED}. The jar of
+ * the application exports it in its manifest, so that it is exported when the application is started with
+ * {@code java -jar}. When it isn't exported, the Attach API is reported as not available for capturing thread dumps.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class AttachDumpCapture {
+    private static final Logger LOGGER = Logger.getLogger(AttachDumpCapture.class.getName());
+
+    protected static final String VIRTUAL_MACHINE_CLASS = "com.sun.tools.attach.VirtualMachine";
+    protected static final String HOTSPOT_VIRTUAL_MACHINE_CLASS = "sun.tools.attach.HotSpotVirtualMachine";
+
+    protected static final String HOTSPOT_ATTACH_PACKAGE = "sun.tools.attach";
+
+    private static volatile Class<?> virtualMachineClass;
+    private static volatile boolean dumpAvailable = false;
+    private static volatile boolean lookedUp = false;
+
+    private AttachDumpCapture() {
+    }
+
+    /**
+     * Indicates if thread dumps can be captured using the Attach API in the running virtual machine. The Attach API must
+     * be available and, on Java 9 and later, its {@code sun.tools.attach} package must be exported to the application.
+     *
+     * @return {@code true} if thread dumps can be captured using the Attach API, {@code false} otherwise.
+     */
+    public static boolean isAvailable() {
+        getVirtualMachineClass();
+        return dumpAvailable;
+    }
+
+    /**
+     * Attach to the given process, request its thread dump and give the reply to the given reader. The process is
+     * detached once the reply has been read.
+     *
+     * @param processId The ID of the process to make a thread dump for.
+     * @param reader    Reads the thread dump.
+     * @param <T>       The type of the result of the reader.
+     * @return The result of the reader.
+     * @throws DumpException If the Attach API isn't available or the thread dump can't be captured.
+     */
+    public static <T> T capture(final long processId, final ReplyReader<T> reader) throws DumpException {
+        if (reader == null) throw new NullPointerException("The reader can not be null");
+
+        final Class<?> vmClass = getVirtualMachineClass();
+        if (vmClass == null) throw new DumpException("The Attach API is not available");
+        if (!dumpAvailable) throw new DumpException("The package " + HOTSPOT_ATTACH_PACKAGE + " is not exported to the application");
+
+        final Object vm = attach(vmClass, processId);
+
+        try {
+            final Method remoteDataDump = vmClass.getClassLoader().loadClass(HOTSPOT_VIRTUAL_MACHINE_CLASS)
+                    .getMethod("remoteDataDump", Object[].class);
+
+            try (final InputStream reply = (InputStream) remoteDataDump.invoke(vm, (Object) new Object[]{""})) {
+                return reader.read(reply);
+            }
+        } catch (InvocationTargetException e) {
+            throw new DumpException("Can not dump the threads of the process " + processId, e.getCause());
+        } catch (ReflectiveOperationException | RuntimeException | IOException e) {
+            throw new DumpException("Can not dump the threads of the process " + processId, e);
+        } finally {
+            detach(vmClass, vm);
+        }
+    }
+
+    /**
+     * Attach to the given process and get the address of its local JMX connector. The local management agent of the
+     * process is started if it isn't already.
+     *
+     * @param processId The ID of the process to get the JMX connector address of.
+     * @return The address of the local JMX connector of the process.
+     * @throws DumpException If the Attach API isn't available or the management agent can't be started.
+     */
+    public static String localConnectorAddress(final long processId) throws DumpException {
+        final Class<?> vmClass = getVirtualMachineClass();
+        if (vmClass == null) throw new DumpException("The Attach API is not available");
+
+        final Object vm = attach(vmClass, processId);
+
+        try {
+            return (String) vmClass.getMethod("startLocalManagementAgent").invoke(vm);
+        } catch (InvocationTargetException e) {
+            throw new DumpException("Can not start the management agent of the process " + processId, e.getCause());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new DumpException("Can not start the management agent of the process " + processId, e);
+        } finally {
+            detach(vmClass, vm);
+        }
+    }
+
+    private static Object attach(final Class<?> vmClass, final long processId) throws DumpException {
+        try {
+            return vmClass.getMethod("attach", String.class).invoke(null, String.valueOf(processId));
+        } catch (InvocationTargetException e) {
+            throw new DumpException("Can not attach to the process " + processId, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new DumpException("Can not attach to the process " + processId, e);
+        }
+    }
+
+    private static void detach(final Class<?> vmClass, final Object vm) {
+        try {
+            vmClass.getMethod("detach").invoke(vm);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.FINE, "Can not detach from the virtual machine", e);
+        }
+    }
+
+    /**
+     * Get the {@code com.sun.tools.attach.VirtualMachine} class of the Attach API.
+     *
+     * @return The class, or {@code null} if the Attach API isn't available.
+     */
+    protected static Class<?> getVirtualMachineClass() {
+        if (!lookedUp) {
+            synchronized (AttachDumpCapture.class) {
+                if (!lookedUp) {
+                    virtualMachineClass = lookUpVirtualMachineClass();
+                    dumpAvailable = virtualMachineClass != null && isHotSpotAttachExported(virtualMachineClass);
+                    lookedUp = true;
+                }
+            }
+        }
+
+        return virtualMachineClass;
+    }
+
+    private static Class<?> lookUpVirtualMachineClass() {
+        try {
+            return Class.forName(VIRTUAL_MACHINE_CLASS);
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.log(Level.FINE, "The Attach API is not in the classpath, looking for the tools.jar of the JDK");
+        }
+
+        final File toolsJar = new File(System.getProperty("java.home"), "../lib/tools.jar");
+
+        if (toolsJar.exists()) {
+            try {
+                final ClassLoader loader = new URLClassLoader(new URL[]{toolsJar.toURI().toURL()}, AttachDumpCapture.class.getClassLoader());
+                return Class.forName(VIRTUAL_MACHINE_CLASS, true, loader);
+            } catch (IOException | ClassNotFoundException | LinkageError e) {
+                LOGGER.log(Level.FINE, "Can not load the Attach API from " + toolsJar, e);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Indicates if the {@code sun.tools.attach} package, containing the class requesting thread dumps, is exported to
+     * the application. Modules are accessed by reflection because the application is compiled for Java 8, where the
+     * package is always accessible.
+     *
+     * @param vmClass The {@code com.sun.tools.attach.VirtualMachine} class.
+     * @return {@code true} if the package is exported to the application, {@code false} otherwise.
+     */
+    private static boolean isHotSpotAttachExported(final Class<?> vmClass) {
+        final Method getModule;
+
+        try {
+            getModule = Class.class.getMethod("getModule");
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+
+        try {
+            final Object attachModule = getModule.invoke(vmClass);
+            final Object applicationModule = getModule.invoke(AttachDumpCapture.class);
+            final Method isExported = attachModule.getClass().getMethod("isExported", String.class, getModule.getReturnType());
+            final boolean exported = (Boolean) isExported.invoke(attachModule, HOTSPOT_ATTACH_PACKAGE, applicationModule);
+
+            if (!exported) {
+                LOGGER.log(Level.FINE, "The package " + HOTSPOT_ATTACH_PACKAGE + " is not exported to the application, jstack will be used");
+            }
+
+            return exported;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Can not determine if the package " + HOTSPOT_ATTACH_PACKAGE + " is exported", e);
+            return false;
+        }
+    }
+
+    /**
+     * Reads the reply of a virtual machine to a thread dump request.
+     *
+     * @param <T> The type of the result of the reading.
+     */
+    @FunctionalInterface
+    public interface ReplyReader<T> {
+        T read(InputStream reply) throws IOException;
+    }
+}
@@ -0,0 +1,86 @@
+package io.twasyl.jstackfx.factory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Compression formats supported for thread dump files. The format of a file is determined by its first bytes and not
+ * by its extension. Compressed content is always decompressed while it is read, never on disk nor completely in
+ * memory.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public enum Compression {
+    /**
+     * The file isn't compressed.
+     */
+    NONE,
+    /**
+     * The file is compressed with gzip and contains a single file.
+     */
+    GZIP,
+    /**
+     * The file is a zip archive which can contain several files.
+     */
+    ZIP;
+
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Determine the compression of the given file.
+     *
+     * @param file The file to determine the compression of.
+     * @return The compression of the file.
+     * @throws IOException If the file can not be read.
+     */
+    public static Compression of(final File file) throws IOException {
+        final byte[] header = new byte[4];
+        int length = 0;
+
+        try (final InputStream input = Files.newInputStream(file.toPath())) {
+            int read;
+            while (length < header.length && (read = input.read(header, length, header.length - length)) > 0) {
+                length += read;
+            }
+        }
+
+        if (length >= 2 && (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b) {
+            return GZIP;
+        } else if (length == 4 && header[0] == 'P' && header[1] == 'K' && header[2] == 3 && header[3] == 4) {
+            return ZIP;
+        } else {
+            return NONE;
+        }
+    }
+
+    /**
+     * Open the given file and decompress its content while it is read. For zip archives, the returned stream is a
+     * {@link ZipInputStream} positioned before the first entry.
+     *
+     * @param file The file to open.
+     * @return The decompressed content of the file.
+     * @throws IOException If the file can not be opened.
+     */
+    public InputStream open(final File file) throws IOException {
+        final InputStream input = Files.newInputStream(file.toPath());
+
+        try {
+            switch (this) {
+                case GZIP:
+                    return new GZIPInputStream(input, BUFFER_SIZE);
+                case ZIP:
+                    return new ZipInputStream(input);
+                default:
+                    return input;
+            }
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+}
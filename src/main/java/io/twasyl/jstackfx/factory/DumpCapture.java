@@ -0,0 +1,53 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.exceptions.DumpException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Captures a thread dump of a running process. {@link DumpFactory#make(long)} is the default capture.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+@FunctionalInterface
+public interface DumpCapture {
+
+    /**
+     * Capture a thread dump of the given process.
+     *
+     * @param processId The ID of the process to make a thread dump for.
+     * @return The thread dump.
+     * @throws DumpException If the thread dump can not be captured.
+     */
+    Dump capture(long processId) throws DumpException;
+
+    /**
+     * Get a capture using this capture until it fails once, and the given capture from then on. The failed capture is
+     * retried with the given capture.
+     *
+     * @param fallback The capture to use once this capture has failed.
+     * @return The capture falling back to the given one.
+     */
+    default DumpCapture orElse(final DumpCapture fallback) {
+        if (fallback == null) throw new NullPointerException("The fallback can not be null");
+
+        final AtomicBoolean failed = new AtomicBoolean(false);
+
+        return processId -> {
+            if (!failed.get()) {
+                try {
+                    return this.capture(processId);
+                } catch (DumpException e) {
+                    failed.set(true);
+                    Logger.getLogger(DumpCapture.class.getName()).log(Level.FINE, "Can not capture the process " + processId + ", falling back to another capture", e);
+                }
+            }
+
+            return fallback.capture(processId);
+        };
+    }
+}
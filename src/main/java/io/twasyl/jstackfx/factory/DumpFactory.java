@@ -1,23 +1,29 @@
 package io.twasyl.jstackfx.factory;
 
+import io.twasyl.jstackfx.beans.ByteArrayDumpSource;
 import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpSource;
+import io.twasyl.jstackfx.beans.DumpTimeline;
 import io.twasyl.jstackfx.beans.FileDump;
+import io.twasyl.jstackfx.beans.FileDumpSource;
 import io.twasyl.jstackfx.beans.InMemoryDump;
-import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.beans.LoadStatistics;
 import io.twasyl.jstackfx.exceptions.DumpException;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.StringJoiner;
-import java.util.regex.Matcher;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
-import static io.twasyl.jstackfx.beans.Dump.DATE_TIME_FORMATTER_OUTPUT;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * This class is responsible for creating correctly {@link Dump dumps} instances. {@link Dump Dumps} can be instantiated
@@ -27,28 +33,181 @@ import static io.twasyl.jstackfx.beans.Dump.DATE_TIME_FORMATTER_OUTPUT;
  * @since JStackFX 1.0
  */
 public class DumpFactory {
+    private static final Logger LOGGER = Logger.getLogger(DumpFactory.class.getName());
 
     protected static final String BEGINNING_OF_THREAD = "\"";
     protected static final Pattern VM_THREAD_PATTERN = Pattern.compile("^\\\"VM Thread\\\".+$");
     protected static final Pattern GC_TASK_THREAD_PATTERN = Pattern.compile("\\\"GC task thread#.+");
     protected static final Pattern VM_PERIODIC_TASK_THREAD_PATTERN = Pattern.compile("\\\"VM Periodic Task Thread\\\".+");
-    protected static final Pattern JNI_REFERENCES_PATTERN = Pattern.compile("^JNI global references: ([0-9]*)$");
+    /**
+     * Trailer of a thread dump: {@code JNI global references: N} up to Java 8, {@code JNI global refs: N, weak refs: M}
+     * since Java 11.
+     */
+    protected static final Pattern JNI_REFERENCES_PATTERN = Pattern.compile("^JNI global (?:references|refs): ([0-9]+)(?:, weak refs: [0-9]+)?$");
 
     /**
-     * Reads a given jstack file and create the associated {@link Dump} object.
+     * Reads a given jstack file and create the associated {@link Dump} object. The file is read only once and parsed
+     * while it is read, so only the lines of the thread being parsed are kept in memory. The text of each thread is
+     * read again from the file when it is requested.
      *
      * @param file The thread dump file to read.
      * @return A dump object.
      */
     public static Dump read(final File file) throws IOException, InstantiationException, IllegalAccessException {
+        return read(file, false);
+    }
+
+    /**
+     * Reads a given jstack file and create the associated {@link Dump} object. In parallel mode, the file is still read
+     * once but the {@link io.twasyl.jstackfx.beans.ThreadElement thread elements} are built in parallel.
+     * Files compressed with gzip are decompressed while they are read. For zip archives, the first dump of the archive is
+     * returned. The format of the file is determined by the first {@link DumpParser parser} accepting its first bytes,
+     * which allows to read the output of {@code jstack} or {@code jcmd}, javacores of OpenJ9 and any format for which a
+     * parser is available on the classpath. When the file contains several dumps, the first one is returned and the
+     * reading stops once it has been parsed.
+     * The loading is measured and its {@link Dump#getLoadStatistics() statistics} are available from the dump.
+     *
+     * @param file     The thread dump file to read.
+     * @param parallel Indicates if the thread elements are built in parallel.
+     * @return A dump object, or {@code null} if the file doesn't contain any dump.
+     * @see ParallelJStackDumpParser
+     * @see DumpParsers
+     * @see Compression
+     * @see #readTimeline(File, boolean)
+     */
+    public static Dump read(final File file, final boolean parallel) throws IOException, InstantiationException, IllegalAccessException {
         if (file == null) throw new NullPointerException("The file can not be null");
         if (!file.exists()) throw new FileNotFoundException("The file doesn't exist");
 
-        final List<String> lines = Files.lines(file.toPath()).collect(Collectors.toList());
-        final FileDump dump = createDumpInstance(FileDump.class, lines);
-        dump.setFile(file);
+        final Compression compression = Compression.of(file);
+        final LoadStatistics statistics = new LoadStatistics();
+        final AtomicReference<FileDump> firstDump = new AtomicReference<>();
+        final Supplier<FileDump> dumpSupplier = () -> {
+            final FileDump dump = new FileDump();
+            dump.setFile(file);
+            // The dumps following the first one are only parsed from what has already been read, and then ignored
+            dump.setLoadStatistics(firstDump.get() == null ? statistics : new LoadStatistics());
+            return dump;
+        };
+        final Consumer<FileDump> dumpConsumer = dump -> firstDump.compareAndSet(null, dump);
 
-        return dump;
+        statistics.start();
+
+        if (compression == Compression.ZIP) {
+            try (final ZipInputStream archive = (ZipInputStream) compression.open(file)) {
+                ZipEntry entry;
+
+                while (firstDump.get() == null && (entry = archive.getNextEntry()) != null) {
+                    if (!entry.isDirectory()) {
+                        // The entry isn't closed in order to keep the archive open
+                        final InputStream input = new BufferedInputStream(new MeasuredInputStream(new FirstDumpInputStream(archive, firstDump), statistics));
+                        DumpParsers.sniff(input).parse(input, dumpSupplier, null, parallel, dumpConsumer);
+                    }
+                }
+            }
+        } else {
+            final DumpSource source = compression == Compression.NONE ? new FileDumpSource(file) : null;
+
+            try (final InputStream input = new BufferedInputStream(new MeasuredInputStream(new FirstDumpInputStream(compression.open(file), firstDump), statistics))) {
+                DumpParsers.sniff(input).parse(input, dumpSupplier, source, parallel, dumpConsumer);
+            }
+        }
+
+        statistics.end();
+
+        return firstDump.get();
+    }
+
+    /**
+     * Reads a file containing several thread dumps, each one starting with its generation date and time, and create
+     * the associated {@link DumpTimeline}. The file is read only once and each dump is parsed while the file is read.
+     * Files compressed with gzip are decompressed while they are read. Each entry of a zip archive is read in turn,
+     * without being extracted, and its dumps are added to the timeline. The format of the file, or of each entry of an
+     * archive, is determined by the first {@link DumpParser parser} accepting its first bytes. All dumps share the
+     * {@link DumpTimeline#getFrameDictionary() dictionary of frames} and the
+     * {@link DumpTimeline#getLoadStatistics() statistics of the loading} of the timeline.
+     * <p>
+     * When the file is a directory, like the spool of the {@link io.twasyl.jstackfx.agent.DumpAgent dump agent}, each
+     * of its files is read in the order of their names. Hidden files are ignored.
+     *
+     * @param file     The file, or directory, containing the thread dumps.
+     * @param parallel Indicates if the thread elements of each dump are built in parallel.
+     * @return The timeline containing all dumps of the file, in the order they appear in the file.
+     * @see DumpParsers
+     * @see Compression
+     */
+    public static DumpTimeline readTimeline(final File file, final boolean parallel) throws IOException {
+        if (file == null) throw new NullPointerException("The file can not be null");
+        if (!file.exists()) throw new FileNotFoundException("The file doesn't exist");
+
+        final DumpTimeline timeline = new DumpTimeline();
+        final LoadStatistics statistics = new LoadStatistics();
+
+        timeline.setLoadStatistics(statistics);
+        statistics.start();
+
+        if (file.isDirectory()) {
+            final File[] files = file.listFiles(child -> child.isFile() && !child.getName().startsWith("."));
+
+            if (files != null) {
+                Arrays.sort(files);
+
+                for (final File child : files) {
+                    readTimeline(child, parallel, statistics, timeline);
+                }
+            }
+        } else {
+            readTimeline(file, parallel, statistics, timeline);
+        }
+
+        statistics.end();
+
+        return timeline;
+    }
+
+    private static void readTimeline(final File file, final boolean parallel, final LoadStatistics statistics, final DumpTimeline timeline) throws IOException {
+        final Compression compression = Compression.of(file);
+        final Supplier<FileDump> dumpSupplier = () -> {
+            final FileDump dump = new FileDump();
+            dump.setFile(file);
+            dump.setFrameDictionary(timeline.getFrameDictionary());
+            dump.setLoadStatistics(statistics);
+            return dump;
+        };
+
+        if (compression == Compression.ZIP) {
+            try (final ZipInputStream archive = (ZipInputStream) compression.open(file)) {
+                ZipEntry entry;
+
+                while ((entry = archive.getNextEntry()) != null) {
+                    if (!entry.isDirectory()) {
+                        // The entry isn't closed in order to keep the archive open
+                        readTimeline(new BufferedInputStream(new MeasuredInputStream(archive, statistics)), dumpSupplier, null, parallel, timeline);
+                    }
+                }
+            }
+        } else {
+            final DumpSource source = compression == Compression.NONE ? new FileDumpSource(file) : null;
+
+            try (final InputStream input = new BufferedInputStream(new MeasuredInputStream(compression.open(file), statistics))) {
+                readTimeline(input, dumpSupplier, source, parallel, timeline);
+            }
+        }
+    }
+
+    /**
+     * Reads the dumps provided by the given input and add them to the timeline. The input is parsed by the
+     * {@link DumpParsers#sniff(InputStream) parser accepting its first bytes}.
+     *
+     * @param input        The input providing the dumps, which must support marks.
+     * @param dumpSupplier Creates a new dump each time one is found.
+     * @param source       The source of the dumps, or {@code null} to keep the text of each thread in memory.
+     * @param parallel     Indicates if the threads of each dump are built in parallel.
+     * @param timeline     The timeline to add the dumps to.
+     */
+    protected static void readTimeline(final InputStream input, final Supplier<FileDump> dumpSupplier, final DumpSource source,
+                                       final boolean parallel, final DumpTimeline timeline) throws IOException {
+        DumpParsers.sniff(input).parse(input, dumpSupplier, source, parallel, timeline.getDumps()::add);
     }
 
     /**
@@ -58,122 +217,178 @@ public class DumpFactory {
      * @return A dump object.
      */
     public static Dump read(final List<String> lines) throws IOException, InstantiationException, IllegalAccessException {
-        final InMemoryDump dump = createDumpInstance(InMemoryDump.class, lines);
-        dump.getLines().addAll(lines);
+        if (lines.isEmpty()) return null;
 
-        return dump;
+        final StringJoiner text = new StringJoiner("\n", "", "\n");
+        lines.forEach(text::add);
+
+        return read(new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)));
     }
 
-    private static <D extends Dump> D createDumpInstance(Class<D> dumpClass, final List<String> lines) throws IllegalAccessException, InstantiationException {
-        final D dump;
+    /**
+     * Reads a thread dump in the format of {@code jstack} from the given input and create the associated
+     * {@link InMemoryDump}. The input is parsed while it is read. Its raw content is kept once in the dump, as bytes,
+     * and the text of each thread is read from it when requested.
+     *
+     * @param input The input providing the thread dump.
+     * @return A dump object, or {@code null} if the input is empty.
+     */
+    public static InMemoryDump read(final InputStream input) throws IOException {
+        final ByteArrayDumpSource content = new ByteArrayDumpSource();
+        final InMemoryDump dump = read(input, content);
 
-        if (!lines.isEmpty()) {
-            dump = dumpClass.newInstance();
+        return content.size() == 0 ? null : dump;
+    }
+
+    /**
+     * Reads a thread dump in the format of {@code jstack} from the given input while capturing its raw content.
+     *
+     * @param input   The input providing the thread dump.
+     * @param content Receives the raw content of the input, which is the source of the dump's threads.
+     * @return The dump, which may be empty.
+     */
+    protected static InMemoryDump read(final InputStream input, final ByteArrayDumpSource content) throws IOException {
+        if (input == null) throw new NullPointerException("The input can not be null");
+        if (content == null) throw new NullPointerException("The content can not be null");
 
-            dump.setGenerationDateTime(LocalDateTime.parse(lines.get(0), DATE_TIME_FORMATTER_OUTPUT));
-            dump.setDescription(lines.get(1));
+        final InMemoryDump dump = new InMemoryDump();
+        dump.setContent(content);
 
-            int beginningOfThreadIndex = 3;
-            int endOfThreadIndex = 0;
-            boolean beginningOfThreadFound = false;
-            boolean endOfThreadFound = false;
-            boolean jniReferencesFound = false;
+        final JStackDumpParser<InMemoryDump> parser = new JStackDumpParser<>(dump, content);
+        final LineReader reader = new LineReader(content.capture(input));
+        String line;
 
-            for (int index = beginningOfThreadIndex; index < lines.size(); index++) {
-                final String line = lines.get(index);
+        while ((line = reader.readLine()) != null) {
+            parser.parseLine(line, reader.getLineStart(), reader.getLineEnd());
+        }
 
-                if (line.startsWith(BEGINNING_OF_THREAD)) {
-                    if (!beginningOfThreadFound) {
-                        beginningOfThreadFound = true;
-                        beginningOfThreadIndex = index;
-                    } else if (!endOfThreadFound) {
-                        endOfThreadFound = true;
-                        endOfThreadIndex = index - 1;
-                    }
-                } else if (JNI_REFERENCES_PATTERN.matcher(line).matches()) {
-                    endOfThreadFound = true;
-                    jniReferencesFound = true;
-                    endOfThreadIndex = index - 1;
-                }
+        content.trim();
 
-                if (beginningOfThreadFound && endOfThreadFound) {
-                    if (isSingleLine(beginningOfThreadIndex, endOfThreadIndex)) {
-                        if (jniReferencesFound) {
-                            final Matcher result = JNI_REFERENCES_PATTERN.matcher(line);
-                            if (result.matches()) {
-                                dump.setNumberOfJNIRefs(Integer.parseInt(result.group(1)));
-                            }
-                        }
-                    } else {
-                        final ThreadElement thread = ThreadElementFactory.build(lines.subList(beginningOfThreadIndex, endOfThreadIndex));
-                        thread.setDump(dump);
-                        dump.getElements().add(thread);
-                    }
+        return parser.end();
+    }
 
-                    beginningOfThreadFound = true;
-                    endOfThreadFound = false;
-                    beginningOfThreadIndex = index;
-                }
+    /**
+     * Take a thread dump for a given process. The thread dump is requested using the
+     * {@link AttachDumpCapture HotSpot Attach API} when it is available, which avoids to start a {@code jstack} process
+     * for each thread dump. Otherwise the {@code jstack} tool should be in the {@code PATH} in order to be launched by
+     * the application.
+     *
+     * @param processId The ID of the process to make a thread dump for.
+     * @return The thread dump.
+     */
+    public static Dump make(final long processId) throws DumpException {
+        Dump dump = null;
+
+        if (AttachDumpCapture.isAvailable()) {
+            try {
+                dump = AttachDumpCapture.capture(processId, DumpFactory::read);
+            } catch (DumpException e) {
+                LOGGER.log(Level.FINE, "Can not dump the threads of the process " + processId + " using the Attach API, using jstack", e);
             }
-        } else {
-            dump = null;
+        }
+
+        if (dump == null) {
+            dump = makeWithJStack(processId);
+        }
+
+        if (dump != null) {
+            dump.setProcessId(processId);
         }
 
         return dump;
     }
 
     /**
-     * Take a thread dump for a given process. The {@code jstack} tool should be in the {@code PATH} in order to be
-     * launched by the application.
+     * Take a thread dump for a given process by launching the {@code jstack} tool, which should be in the
+     * {@code PATH}.
      *
      * @param processId The ID of the process to make a thread dump for.
      * @return The thread dump.
      */
-    public static Dump make(final long processId) throws DumpException {
-        final Process jstack;
+    protected static Dump makeWithJStack(final long processId) throws DumpException {
+        return readJStack(startJStack(processId));
+    }
+
+    /**
+     * Launch the {@code jstack} tool, which should be in the {@code PATH}, for the given process.
+     *
+     * @param processId The ID of the process to make a thread dump for.
+     * @return The {@code jstack} process.
+     * @throws DumpException If {@code jstack} can not be launched.
+     */
+    protected static Process startJStack(final long processId) throws DumpException {
         try {
-            jstack = new ProcessBuilder("jstack", String.valueOf(processId))
+            return new ProcessBuilder("jstack", String.valueOf(processId))
                     .redirectErrorStream(true)
                     .start();
+        } catch (IOException e) {
+            throw new DumpException(e);
+        }
+    }
+
+    /**
+     * Parse the thread dump written by the given {@code jstack} process while it is written, and wait for the end of
+     * the process.
+     *
+     * @param jstack The {@code jstack} process.
+     * @return The thread dump.
+     * @throws DumpException If the output can not be read or {@code jstack} failed.
+     */
+    protected static Dump readJStack(final Process jstack) throws DumpException {
+        try {
+            final ByteArrayDumpSource content = new ByteArrayDumpSource();
+            final InMemoryDump dump;
 
-            final List<String> lines = getLinesFrom(jstack);
+            try (final InputStream output = jstack.getInputStream()) {
+                dump = read(output, content);
+            }
 
             if (jstack.waitFor() == 0) {
-                return read(lines);
+                return dump;
             } else {
-                final StringJoiner error = new StringJoiner("\n");
-                lines.forEach(error::add);
-                throw new DumpException(error.toString());
+                throw new DumpException(new String(content.read(0, content.size()), StandardCharsets.UTF_8).trim());
             }
-        } catch (IOException | InterruptedException | IllegalAccessException | InstantiationException e) {
+        } catch (IOException | InterruptedException e) {
             throw new DumpException(e);
         }
     }
 
     /**
-     * Reads a {@link Process} input and create a collection of lines from it.
-     *
-     * @param process The process to capture the input.
-     * @return A collection of lines corresponding to the process' output.
-     * @throws DumpException If something went wrong.
+     * Input stream reaching its end once the first dump of its content has been parsed, so that the parsing of a file
+     * containing several dumps stops after the first one. Only the content already buffered by the parser is parsed
+     * beyond the first dump.
      */
-    protected static List<String> getLinesFrom(final Process process) throws DumpException {
-        final List<String> lines = new ArrayList<>();
+    private static final class FirstDumpInputStream extends FilterInputStream {
+        private final AtomicReference<?> firstDump;
 
-        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
+        private FirstDumpInputStream(final InputStream input, final AtomicReference<?> firstDump) {
+            super(input);
+            this.firstDump = firstDump;
+        }
 
-            while ((line = reader.readLine()) != null) {
-                lines.add(line);
-            }
-        } catch (IOException e) {
-            throw new DumpException(e);
+        @Override
+        public int read() throws IOException {
+            return this.firstDump.get() == null ? super.read() : -1;
         }
 
-        return lines;
-    }
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            return this.firstDump.get() == null ? super.read(buffer, offset, length) : -1;
+        }
+
+        @Override
+        public long skip(final long count) throws IOException {
+            return this.firstDump.get() == null ? super.skip(count) : 0;
+        }
 
-    protected static boolean isSingleLine(int firstLine, int secondLine) {
-        return secondLine - firstLine == 1;
+        @Override
+        public int available() throws IOException {
+            return this.firstDump.get() == null ? super.available() : 0;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
     }
 }
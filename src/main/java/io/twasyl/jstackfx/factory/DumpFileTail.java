@@ -0,0 +1,156 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.FileDump;
+import io.twasyl.jstackfx.beans.FileDumpSource;
+import io.twasyl.jstackfx.beans.FrameDictionary;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Follows a dump file still being written, like {@code tail -f} does. This is typically the case of a file to which a
+ * script appends the output of {@code jstack} in a loop, or of the standard output of a process receiving
+ * {@code kill -3} signals.
+ * <p>
+ * The size of the file is polled and only the bytes appended since the previous poll are read and parsed. Each dump
+ * is given to the consumer as soon as it is complete. Lines not terminated yet are read again at the next poll, once
+ * completely written. If the file gets truncated, it is followed from its beginning again.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpFileTail implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(DumpFileTail.class.getName());
+
+    public static final long DEFAULT_POLLING_INTERVAL = 1000;
+
+    private final File file;
+    private final FrameDictionary frameDictionary;
+    private final Consumer<? super FileDump> dumpConsumer;
+    private ScheduledExecutorService executor;
+    private DumpTimelineParser<FileDump> parser;
+    private long position = 0;
+
+    /**
+     * Creates a tail of the given file. The file isn't read until it is {@link #poll() polled}.
+     *
+     * @param file            The file to follow.
+     * @param frameDictionary The dictionary of frames shared by all dumps of the file.
+     * @param dumpConsumer    Receives each dump once completely written, from the thread polling the file.
+     * @throws IOException If the file is compressed or can not be read.
+     */
+    public DumpFileTail(final File file, final FrameDictionary frameDictionary, final Consumer<? super FileDump> dumpConsumer) throws IOException {
+        if (file == null) throw new NullPointerException("The file can not be null");
+        if (frameDictionary == null) throw new NullPointerException("The frame dictionary can not be null");
+        if (dumpConsumer == null) throw new NullPointerException("The dump consumer can not be null");
+        if (!file.exists()) throw new FileNotFoundException("The file doesn't exist");
+        if (Compression.of(file) != Compression.NONE) throw new IllegalArgumentException("A compressed file can not be followed");
+
+        this.file = file;
+        this.frameDictionary = frameDictionary;
+        this.dumpConsumer = dumpConsumer;
+        this.parser = this.createParser();
+    }
+
+    /**
+     * Starts polling the file periodically in a background thread.
+     *
+     * @param interval The delay between the end of a poll and the beginning of the next one.
+     * @param unit     The unit of the interval.
+     */
+    public synchronized void start(final long interval, final TimeUnit unit) {
+        if (this.executor != null) throw new IllegalStateException("The tail of the file is already started");
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jstackfx-tail-" + this.file.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.executor.scheduleWithFixedDelay(() -> {
+            try {
+                this.poll();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Can not read the followed file " + this.file.getName(), e);
+            }
+        }, 0, interval, unit);
+    }
+
+    /**
+     * Reads and parses the bytes appended to the file since the previous poll.
+     *
+     * @return The number of dumps completed by this poll.
+     * @throws IOException If the file can not be read.
+     */
+    public synchronized int poll() throws IOException {
+        try (final FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size < this.position) {
+                LOGGER.log(Level.INFO, "The followed file " + this.file.getName() + " has been truncated, following it from its beginning");
+                this.position = 0;
+                this.parser = this.createParser();
+            }
+
+            if (size == this.position) return 0;
+
+            final int numberOfDumps = this.parser.getNumberOfDumps();
+            final LineReader reader = new LineReader(Channels.newInputStream(channel.position(this.position)), StandardCharsets.UTF_8, this.position);
+            String line;
+
+            while ((line = reader.readLine()) != null && reader.isLineTerminated()) {
+                this.parser.parseLine(line, reader.getLineStart(), reader.getLineEnd());
+                this.position = reader.getOffset();
+            }
+
+            return this.parser.getNumberOfDumps() - numberOfDumps;
+        }
+    }
+
+    /**
+     * Get the offset in the file of the first byte which hasn't been parsed yet.
+     *
+     * @return The offset of the next byte to parse.
+     */
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Stops polling the file. A dump which isn't complete yet is discarded.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    protected DumpTimelineParser<FileDump> createParser() {
+        final FileDumpSource source = new FileDumpSource(this.file);
+
+        return new DumpTimelineParser<>(() -> {
+            final FileDump dump = new FileDump();
+            dump.setFile(this.file);
+            dump.setFrameDictionary(this.frameDictionary);
+            return dump;
+        }, source, false, this.dumpConsumer);
+    }
+}
@@ -0,0 +1,58 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Service parsing thread dumps of a given format. Implementations are discovered using {@link java.util.ServiceLoader}
+ * by being listed in {@code META-INF/services/io.twasyl.jstackfx.factory.DumpParser}, and the parser of a content is
+ * selected by {@link DumpParsers#sniff(InputStream)} from the first {@link #SNIFF_LENGTH} bytes of the content only.
+ * <p>
+ * Parsers read the content once, while it is read, and fill the same model whatever the format: each dump is created
+ * by the given supplier, filled with its {@link io.twasyl.jstackfx.beans.ThreadElement thread elements} and given to
+ * the consumer as soon as it is complete.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public interface DumpParser {
+
+    /**
+     * The maximum number of bytes given to {@link #accepts(String)}.
+     */
+    int SNIFF_LENGTH = 8 * 1024;
+
+    /**
+     * Get the name of the format parsed by this parser.
+     *
+     * @return The name of the format.
+     */
+    String getName();
+
+    /**
+     * Determine if this parser can parse a content starting with the given text.
+     *
+     * @param head The beginning of the content, decoded as UTF-8, which is at most {@link #SNIFF_LENGTH} bytes long.
+     * @return {@code true} if this parser can parse the content, {@code false} otherwise.
+     */
+    boolean accepts(String head);
+
+    /**
+     * Parses the dumps provided by the given input.
+     *
+     * @param input        The input providing the dumps.
+     * @param dumpSupplier Creates a new dump each time one is found.
+     * @param source       The source of the input, or {@code null} to keep the text of each thread in memory.
+     * @param parallel     Indicates if the threads of each dump can be built in parallel.
+     * @param dumpConsumer Receives each dump once completely parsed.
+     * @param <D>          The type of dumps.
+     * @throws IOException If the input can not be read or isn't in the format of this parser.
+     */
+    <D extends Dump> void parse(InputStream input, Supplier<D> dumpSupplier, DumpSource source, boolean parallel,
+                                Consumer<? super D> dumpConsumer) throws IOException;
+}
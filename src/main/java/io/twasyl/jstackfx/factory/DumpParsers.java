@@ -0,0 +1,87 @@
+package io.twasyl.jstackfx.factory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Gives access to the {@link DumpParser parsers} available on the classpath and selects the one able to parse a given
+ * content. Parsers are tried in the order they are discovered and the first one accepting the content is selected.
+ * When none accepts it, the content is parsed as the output of {@code jstack}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpParsers {
+
+    private static volatile List<DumpParser> parsers;
+
+    private DumpParsers() {
+    }
+
+    /**
+     * Get the parsers available on the classpath. They are discovered once, the first time this method is called.
+     *
+     * @return The parsers, in the order they are tried.
+     */
+    public static List<DumpParser> getParsers() {
+        if (parsers == null) {
+            synchronized (DumpParsers.class) {
+                if (parsers == null) {
+                    final List<DumpParser> discovered = new ArrayList<>();
+                    ServiceLoader.load(DumpParser.class, DumpParser.class.getClassLoader()).forEach(discovered::add);
+                    parsers = Collections.unmodifiableList(discovered);
+                }
+            }
+        }
+
+        return parsers;
+    }
+
+    /**
+     * Select the parser of the given input by looking at its first {@link DumpParser#SNIFF_LENGTH} bytes. The input
+     * must support {@link InputStream#mark(int) marks} and is reset to its initial position.
+     *
+     * @param input The input to select the parser of.
+     * @return The parser of the input.
+     * @throws IOException If the input can not be read.
+     */
+    public static DumpParser sniff(final InputStream input) throws IOException {
+        if (input == null) throw new NullPointerException("The input can not be null");
+        if (!input.markSupported()) throw new IllegalArgumentException("The input must support marks");
+
+        final byte[] head = new byte[DumpParser.SNIFF_LENGTH];
+        int length = 0;
+
+        input.mark(head.length);
+
+        try {
+            int read;
+            while (length < head.length && (read = input.read(head, length, head.length - length)) > 0) {
+                length += read;
+            }
+        } finally {
+            input.reset();
+        }
+
+        return select(new String(head, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Select the parser of a content starting with the given text.
+     *
+     * @param head The beginning of the content.
+     * @return The parser of the content.
+     */
+    public static DumpParser select(final String head) {
+        for (final DumpParser parser : getParsers()) {
+            if (parser.accepts(head)) return parser;
+        }
+
+        return new TextDumpParser();
+    }
+}
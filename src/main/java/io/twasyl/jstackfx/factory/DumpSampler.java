@@ -0,0 +1,216 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.exceptions.DumpException;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Samples the threads of a process: thread dumps are captured at a fixed rate during a given duration. Dumps are
+ * captured and parsed in a background thread and given to the {@link Listener listener} from this thread.
+ * <p>
+ * Only one capture runs at a time. When a capture isn't finished when the next one is due, the next one is skipped and
+ * reported as an {@link Listener#overrun(long) overrun}, so that slow captures never accumulate pending work.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpSampler implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(DumpSampler.class.getName());
+
+    public static final Duration MINIMUM_INTERVAL = Duration.ofMillis(10);
+
+    private final long processId;
+    private final DumpCapture capture;
+    private final Listener listener;
+    private final AtomicBoolean capturing = new AtomicBoolean(false);
+    private final AtomicLong numberOfSamples = new AtomicLong(0);
+    private final AtomicLong numberOfOverruns = new AtomicLong(0);
+    private final AtomicLong numberOfFailures = new AtomicLong(0);
+    private ScheduledExecutorService scheduler;
+    private ExecutorService captureExecutor;
+
+    /**
+     * Creates a sampler capturing dumps with {@link DumpFactory#make(long)}.
+     *
+     * @param processId The ID of the process to sample.
+     * @param listener  Receives the dumps and the events of the sampling.
+     */
+    public DumpSampler(final long processId, final Listener listener) {
+        this(processId, DumpFactory::make, listener);
+    }
+
+    /**
+     * Creates a sampler capturing dumps with the given capture.
+     *
+     * @param processId The ID of the process to sample.
+     * @param capture   Captures a dump of the process.
+     * @param listener  Receives the dumps and the events of the sampling.
+     */
+    public DumpSampler(final long processId, final DumpCapture capture, final Listener listener) {
+        if (capture == null) throw new NullPointerException("The capture can not be null");
+        if (listener == null) throw new NullPointerException("The listener can not be null");
+
+        this.processId = processId;
+        this.capture = capture;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts sampling the process in the background. The first dump is captured immediately.
+     *
+     * @param interval The delay between the beginning of two captures, at least {@link #MINIMUM_INTERVAL}.
+     * @param duration The duration of the sampling.
+     */
+    public synchronized void start(final Duration interval, final Duration duration) {
+        if (interval == null) throw new NullPointerException("The interval can not be null");
+        if (duration == null) throw new NullPointerException("The duration can not be null");
+        if (interval.compareTo(MINIMUM_INTERVAL) < 0) throw new IllegalArgumentException("The interval can not be less than " + MINIMUM_INTERVAL.toMillis() + " ms");
+        if (duration.isNegative()) throw new IllegalArgumentException("The duration can not be negative");
+        if (this.scheduler != null) throw new IllegalStateException("The sampling is already started");
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(this.threadFactory("jstackfx-sampler-"));
+        this.captureExecutor = Executors.newSingleThreadExecutor(this.threadFactory("jstackfx-capture-"));
+
+        final long numberOfTicks = duration.toNanos() / interval.toNanos() + 1;
+        final AtomicLong ticks = new AtomicLong(0);
+
+        this.scheduler.scheduleAtFixedRate(() -> {
+            if (ticks.incrementAndGet() > numberOfTicks) {
+                this.close();
+            } else {
+                this.tick();
+            }
+        }, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Captures a dump in the background, unless a capture is still running.
+     */
+    protected synchronized void tick() {
+        if (this.captureExecutor.isShutdown()) return;
+
+        if (this.capturing.compareAndSet(false, true)) {
+            this.captureExecutor.execute(() -> {
+                try {
+                    this.captureDump();
+                } finally {
+                    this.capturing.set(false);
+                }
+            });
+        } else {
+            this.listener.overrun(this.numberOfOverruns.incrementAndGet());
+        }
+    }
+
+    protected void captureDump() {
+        final LocalDateTime captureDateTime = LocalDateTime.now();
+
+        try {
+            final Dump dump = this.capture.capture(this.processId);
+
+            if (dump != null) {
+                // The date of a dump only has a precision of a second, not enough to locate samples
+                dump.setGenerationDateTime(captureDateTime);
+                this.numberOfSamples.incrementAndGet();
+                this.listener.dumpCaptured(dump);
+            }
+        } catch (DumpException e) {
+            this.numberOfFailures.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Can not dump the threads of the process " + this.processId, e);
+            this.listener.captureFailed(e);
+        }
+    }
+
+    public long getProcessId() {
+        return processId;
+    }
+
+    /**
+     * Indicates if the sampling is started and not finished yet.
+     *
+     * @return {@code true} if the sampling is running, {@code false} otherwise.
+     */
+    public synchronized boolean isRunning() {
+        return this.scheduler != null && !this.scheduler.isShutdown();
+    }
+
+    public long getNumberOfSamples() {
+        return numberOfSamples.get();
+    }
+
+    public long getNumberOfOverruns() {
+        return numberOfOverruns.get();
+    }
+
+    public long getNumberOfFailures() {
+        return numberOfFailures.get();
+    }
+
+    /**
+     * Stops the sampling. A capture already running isn't interrupted and its dump is still given to the listener,
+     * which is then notified that the sampling is {@link Listener#finished() finished}.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null && !this.scheduler.isShutdown()) {
+            this.scheduler.shutdown();
+            this.captureExecutor.execute(this.listener::finished);
+            this.captureExecutor.shutdown();
+        }
+    }
+
+    private ThreadFactory threadFactory(final String prefix) {
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + this.processId);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Receives the dumps and the events of a sampling. All methods are called from the threads of the sampler.
+     */
+    public interface Listener {
+
+        /**
+         * Called each time a dump has been captured.
+         *
+         * @param dump The captured dump.
+         */
+        void dumpCaptured(Dump dump);
+
+        /**
+         * Called each time a capture is skipped because the previous one isn't finished.
+         *
+         * @param numberOfOverruns The number of captures skipped since the beginning of the sampling.
+         */
+        default void overrun(long numberOfOverruns) {
+        }
+
+        /**
+         * Called each time a capture fails.
+         *
+         * @param exception The reason of the failure.
+         */
+        default void captureFailed(DumpException exception) {
+        }
+
+        /**
+         * Called once the sampling is finished, after the last dump has been captured.
+         */
+        default void finished() {
+        }
+    }
+}
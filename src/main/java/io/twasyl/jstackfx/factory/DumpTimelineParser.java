@@ -0,0 +1,153 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpSource;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming parser of files containing several thread dumps, typically produced by appending the output of
+ * {@code jstack} to the same file in a loop. Each dump starts with a line starting with {@code Full thread dump},
+ * usually preceded by a line containing its generation date and time. Lines between dumps, like the lines of a log
+ * in which dumps are printed, are ignored. Each section of the file is parsed into its own
+ * {@link Dump} which is given to a consumer as soon as its JNI global references are parsed, the next section starts
+ * or the end of the file is reached.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpTimelineParser<D extends Dump> {
+
+    protected static final Pattern GENERATION_DATE_TIME_PATTERN = Pattern.compile("^[0-9]{4}-[0-9]{2}-[0-9]{2} [0-9]{2}:[0-9]{2}:[0-9]{2}$");
+    protected static final String FULL_THREAD_DUMP_LINE_START = "Full thread dump";
+
+    private final Supplier<D> dumpSupplier;
+    private final DumpSource source;
+    private final boolean parallel;
+    private final Consumer<? super D> dumpConsumer;
+
+    private JStackDumpParser<D> currentParser;
+    private String pendingLine;
+    private long pendingLineStart = -1;
+    private long pendingLineEnd = -1;
+    private int numberOfDumps = 0;
+
+    /**
+     * Creates a parser.
+     *
+     * @param dumpSupplier Creates a new dump each time one is found.
+     * @param source       The source of the dumps, or {@code null} to keep the text of each thread in memory.
+     * @param parallel     Indicates if the threads of each dump are built in parallel.
+     * @param dumpConsumer Receives each dump once completely parsed.
+     */
+    public DumpTimelineParser(final Supplier<D> dumpSupplier, final DumpSource source, final boolean parallel, final Consumer<? super D> dumpConsumer) {
+        if (dumpSupplier == null) throw new NullPointerException("The dump supplier can not be null");
+        if (dumpConsumer == null) throw new NullPointerException("The dump consumer can not be null");
+
+        this.dumpSupplier = dumpSupplier;
+        this.source = source;
+        this.parallel = parallel;
+        this.dumpConsumer = dumpConsumer;
+    }
+
+    /**
+     * Parses all lines provided by the given reader.
+     *
+     * @param reader The reader providing the lines.
+     * @throws IOException If the reader can not be read.
+     */
+    public void parse(final LineReader reader) throws IOException {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            this.parseLine(line, reader.getLineStart(), reader.getLineEnd());
+        }
+
+        this.end();
+    }
+
+    /**
+     * Parses the next line.
+     *
+     * @param line  The line to parse.
+     * @param start The offset of the first byte of the line in the source, or {@code -1} if unknown.
+     * @param end   The offset following the last byte of the line in the source, or {@code -1} if unknown.
+     */
+    public void parseLine(final String line, final long start, final long end) {
+        if (this.pendingLine != null) {
+            if (line.startsWith(FULL_THREAD_DUMP_LINE_START)) {
+                this.endCurrentDump();
+                this.currentParser = this.createParser();
+            }
+
+            this.forward(this.pendingLine, this.pendingLineStart, this.pendingLineEnd);
+            this.pendingLine = null;
+        } else if (line.startsWith(FULL_THREAD_DUMP_LINE_START)) {
+            // A dump which isn't preceded by its generation date and time
+            this.endCurrentDump();
+            this.currentParser = this.createParser();
+        }
+
+        if (isGenerationDateTime(line)) {
+            this.pendingLine = line;
+            this.pendingLineStart = start;
+            this.pendingLineEnd = end;
+        } else {
+            this.forward(line, start, end);
+        }
+    }
+
+    /**
+     * Indicates the end of the content has been reached. The dump being parsed, if any, is given to the consumer.
+     */
+    public void end() {
+        if (this.pendingLine != null) {
+            this.forward(this.pendingLine, this.pendingLineStart, this.pendingLineEnd);
+            this.pendingLine = null;
+        }
+
+        this.endCurrentDump();
+    }
+
+    /**
+     * Get the number of dumps given to the consumer so far.
+     *
+     * @return The number of parsed dumps.
+     */
+    public int getNumberOfDumps() {
+        return numberOfDumps;
+    }
+
+    protected static boolean isGenerationDateTime(final String line) {
+        return line.length() == 19 && line.charAt(4) == '-' && GENERATION_DATE_TIME_PATTERN.matcher(line).matches();
+    }
+
+    protected JStackDumpParser<D> createParser() {
+        final D dump = this.dumpSupplier.get();
+        return this.parallel ? new ParallelJStackDumpParser<>(dump, this.source, ForkJoinPool.commonPool()) :
+                new JStackDumpParser<>(dump, this.source);
+    }
+
+    private void forward(final String line, final long start, final long end) {
+        if (this.currentParser != null) {
+            this.currentParser.parseLine(line, start, end);
+
+            if (this.currentParser.isComplete()) {
+                this.endCurrentDump();
+            }
+        }
+    }
+
+    private void endCurrentDump() {
+        if (this.currentParser != null) {
+            final D dump = this.currentParser.end();
+            this.currentParser = null;
+            this.numberOfDumps++;
+            this.dumpConsumer.accept(dump);
+        }
+    }
+}
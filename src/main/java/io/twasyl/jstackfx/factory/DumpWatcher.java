@@ -0,0 +1,330 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpTimeline;
+import io.twasyl.jstackfx.exceptions.DumpException;
+
+import java.io.Closeable;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches a virtual machine and captures a burst of thread dumps when a {@link WatchRule rule} is fulfilled, so that
+ * the dumps are captured at the moment an incident happens. The {@link WatchRule.Indicators indicators} of the virtual
+ * machine are polled through its {@link ThreadMXBean}, which is cheap: only the indicators read by the rule are
+ * requested and no stack is walked. Full thread dumps are only captured when the rule fires.
+ * <p>
+ * Once a burst has been captured, the rule isn't evaluated again during a {@link #setCooldown(Duration) cooldown}, so
+ * that a lasting incident doesn't produce a burst at each poll. Polls and bursts run in a single background thread.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpWatcher implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(DumpWatcher.class.getName());
+
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(1);
+    public static final int DEFAULT_BURST_SIZE = 5;
+    public static final Duration DEFAULT_BURST_INTERVAL = Duration.ofMillis(500);
+    public static final Duration DEFAULT_COOLDOWN = Duration.ofMinutes(1);
+
+    private final long processId;
+    private final JmxDumpCapture capture;
+    private final boolean ownsCapture;
+    private final WatchRule rule;
+    private final Listener listener;
+    private Duration pollInterval = DEFAULT_POLL_INTERVAL;
+    private int burstSize = DEFAULT_BURST_SIZE;
+    private Duration burstInterval = DEFAULT_BURST_INTERVAL;
+    private Duration cooldown = DEFAULT_COOLDOWN;
+    private final AtomicLong numberOfPolls = new AtomicLong(0);
+    private final AtomicLong numberOfBursts = new AtomicLong(0);
+    private final AtomicLong lastPollNanos = new AtomicLong(0);
+    private long cooldownEnd;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> polls;
+
+    /**
+     * Creates a watcher of the given local process, polling and capturing it {@link JmxDumpCapture through JMX}.
+     *
+     * @param processId The ID of the process to watch.
+     * @param rule      The rule triggering a burst.
+     * @param listener  Receives the bursts and the events of the watching.
+     */
+    public DumpWatcher(final long processId, final WatchRule rule, final Listener listener) {
+        this(processId, new JmxDumpCapture(processId), true, rule, listener);
+    }
+
+    /**
+     * Creates a watcher polling and capturing the virtual machine of the given capture, which isn't closed by the
+     * watcher.
+     *
+     * @param processId The ID of the process the virtual machine of the capture runs in.
+     * @param capture   The capture of the virtual machine to watch.
+     * @param rule      The rule triggering a burst.
+     * @param listener  Receives the bursts and the events of the watching.
+     */
+    public DumpWatcher(final long processId, final JmxDumpCapture capture, final WatchRule rule, final Listener listener) {
+        this(processId, capture, false, rule, listener);
+    }
+
+    private DumpWatcher(final long processId, final JmxDumpCapture capture, final boolean ownsCapture, final WatchRule rule, final Listener listener) {
+        if (capture == null) throw new NullPointerException("The capture can not be null");
+        if (rule == null) throw new NullPointerException("The rule can not be null");
+        if (listener == null) throw new NullPointerException("The listener can not be null");
+
+        this.processId = processId;
+        this.capture = capture;
+        this.ownsCapture = ownsCapture;
+        this.rule = rule;
+        this.listener = listener;
+        this.cooldownEnd = System.nanoTime();
+    }
+
+    /**
+     * Starts watching the virtual machine in the background. The first poll happens immediately.
+     */
+    public synchronized void start() {
+        if (this.scheduler != null) throw new IllegalStateException("The watching is already started");
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jstackfx-watcher-" + this.processId);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.polls = this.scheduler.scheduleWithFixedDelay(this::poll, 0, this.pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Poll the indicators of the virtual machine and capture a burst if the rule fires.
+     */
+    protected void poll() {
+        if (System.nanoTime() - this.cooldownEnd < 0) return;
+
+        final WatchRule.Indicators indicators;
+        final boolean fired;
+
+        try {
+            final ThreadMXBean threads;
+
+            synchronized (this.capture) {
+                threads = this.capture.connect();
+            }
+
+            final long start = System.nanoTime();
+            indicators = new WatchRule.Indicators(threads);
+            fired = this.rule.fires(indicators);
+
+            this.lastPollNanos.set(System.nanoTime() - start);
+            this.numberOfPolls.incrementAndGet();
+        } catch (DumpException e) {
+            this.listener.pollFailed(e);
+            return;
+        } catch (RuntimeException e) {
+            // Remote calls failing because of the connection are wrapped in runtime exceptions
+            synchronized (this.capture) {
+                this.capture.disconnect();
+            }
+
+            LOGGER.log(Level.FINE, "Can not poll the process " + this.processId, e);
+            this.listener.pollFailed(new DumpException("Can not poll the process " + this.processId, e));
+            return;
+        }
+
+        this.listener.polled(this);
+
+        if (fired) {
+            LOGGER.info("Capturing a burst of thread dumps of the process " + this.processId + ": " + indicators);
+            this.listener.burstStarted(indicators);
+
+            final DumpTimeline burst = this.captureBurst();
+            this.cooldownEnd = System.nanoTime() + this.cooldown.toNanos();
+
+            if (!burst.getDumps().isEmpty()) {
+                this.numberOfBursts.incrementAndGet();
+                this.listener.burstCaptured(indicators, burst);
+            }
+        }
+    }
+
+    /**
+     * Capture {@link #getBurstSize() a burst} of thread dumps. The burst stops early when the watcher is closed.
+     *
+     * @return The timeline of the captured dumps.
+     */
+    protected DumpTimeline captureBurst() {
+        final DumpTimeline burst = new DumpTimeline();
+
+        for (int index = 0; index < this.burstSize; index++) {
+            if (index > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(this.burstInterval.toNanos());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            try {
+                final Dump dump = this.capture.capture(this.processId);
+                if (dump != null) burst.addDump(dump);
+            } catch (DumpException e) {
+                LOGGER.log(Level.WARNING, "Can not dump the threads of the process " + this.processId, e);
+                this.listener.captureFailed(e);
+            }
+        }
+
+        return burst;
+    }
+
+    public long getProcessId() {
+        return processId;
+    }
+
+    public WatchRule getRule() {
+        return rule;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * @param pollInterval The delay between two polls of the indicators, taken into account at the next start.
+     */
+    public void setPollInterval(Duration pollInterval) {
+        if (pollInterval == null) throw new NullPointerException("The poll interval can not be null");
+        if (pollInterval.isNegative() || pollInterval.isZero()) throw new IllegalArgumentException("The poll interval must be positive");
+        this.pollInterval = pollInterval;
+    }
+
+    public int getBurstSize() {
+        return burstSize;
+    }
+
+    /**
+     * @param burstSize The number of thread dumps captured when the rule fires.
+     */
+    public void setBurstSize(int burstSize) {
+        if (burstSize < 1) throw new IllegalArgumentException("The burst size must be at least 1");
+        this.burstSize = burstSize;
+    }
+
+    public Duration getBurstInterval() {
+        return burstInterval;
+    }
+
+    /**
+     * @param burstInterval The delay between two thread dumps of a burst.
+     */
+    public void setBurstInterval(Duration burstInterval) {
+        if (burstInterval == null) throw new NullPointerException("The burst interval can not be null");
+        if (burstInterval.isNegative()) throw new IllegalArgumentException("The burst interval can not be negative");
+        this.burstInterval = burstInterval;
+    }
+
+    public Duration getCooldown() {
+        return cooldown;
+    }
+
+    /**
+     * @param cooldown The duration after a burst during which the rule isn't evaluated.
+     */
+    public void setCooldown(Duration cooldown) {
+        if (cooldown == null) throw new NullPointerException("The cooldown can not be null");
+        if (cooldown.isNegative()) throw new IllegalArgumentException("The cooldown can not be negative");
+        this.cooldown = cooldown;
+    }
+
+    public long getNumberOfPolls() {
+        return numberOfPolls.get();
+    }
+
+    public long getNumberOfBursts() {
+        return numberOfBursts.get();
+    }
+
+    /**
+     * @return The duration of the last poll of the indicators, in nanoseconds.
+     */
+    public long getLastPollNanos() {
+        return lastPollNanos.get();
+    }
+
+    /**
+     * Indicates if the watching is started and not stopped yet.
+     *
+     * @return {@code true} if the watching is running, {@code false} otherwise.
+     */
+    public synchronized boolean isRunning() {
+        return this.scheduler != null && !this.scheduler.isShutdown();
+    }
+
+    /**
+     * Stops the watching without waiting for it. A burst being captured is stopped after its current dump. The capture
+     * owned by the watcher is closed from the thread of the watcher once the current poll is over, since connecting
+     * to an unresponsive virtual machine may block it for a long time.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null && !this.scheduler.isShutdown()) {
+            this.polls.cancel(true);
+            if (this.ownsCapture) this.scheduler.execute(this.capture::close);
+            this.scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Receives the bursts and the events of a watching. All methods are called from the thread of the watcher.
+     */
+    public interface Listener {
+
+        /**
+         * Called once a burst of thread dumps has been captured.
+         *
+         * @param indicators The indicators which fulfilled the rule.
+         * @param burst      The timeline of the captured dumps.
+         */
+        void burstCaptured(WatchRule.Indicators indicators, DumpTimeline burst);
+
+        /**
+         * Called when the rule fires, before capturing the burst.
+         *
+         * @param indicators The indicators which fulfilled the rule.
+         */
+        default void burstStarted(WatchRule.Indicators indicators) {
+        }
+
+        /**
+         * Called after each successful poll of the indicators.
+         *
+         * @param watcher The watcher.
+         */
+        default void polled(DumpWatcher watcher) {
+        }
+
+        /**
+         * Called each time the indicators can not be polled.
+         *
+         * @param exception The reason of the failure.
+         */
+        default void pollFailed(DumpException exception) {
+        }
+
+        /**
+         * Called each time a thread dump of a burst can not be captured.
+         *
+         * @param exception The reason of the failure.
+         */
+        default void captureFailed(DumpException exception) {
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpSource;
+import io.twasyl.jstackfx.beans.LoadStatistics;
+import io.twasyl.jstackfx.beans.SourceRange;
+import io.twasyl.jstackfx.beans.ThreadElement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+
+import static io.twasyl.jstackfx.beans.Dump.DATE_TIME_FORMATTER_OUTPUT;
+import static io.twasyl.jstackfx.factory.DumpFactory.BEGINNING_OF_THREAD;
+import static io.twasyl.jstackfx.factory.DumpFactory.JNI_REFERENCES_PATTERN;
+import static io.twasyl.jstackfx.factory.DumpTimelineParser.FULL_THREAD_DUMP_LINE_START;
+
+/**
+ * Streaming parser of thread dumps produced by the {@code jstack} tool. Lines are pushed one by one to the parser
+ * using {@link #parseLine(String)} and each {@link ThreadElement thread element} is created and added to the
+ * {@link Dump dump} as soon as its block of lines is closed. Only the lines of the thread currently being parsed are
+ * kept in memory.
+ * <p>
+ * When the parser is given the {@link DumpSource source} of the dump and the offsets of each line, the text of the
+ * threads isn't kept in the {@link ThreadElement thread elements} but only their {@link SourceRange range} in the
+ * source. The frames of the calling stacks are stored in the {@link Dump#getFrameDictionary() dictionary} of the dump.
+ * <p>
+ * The header of the dump is recognized by its content rather than by its position, so that lines preceding it, like
+ * the {@code <pid>:} line printed by {@code jcmd <pid> Thread.print} or the lines of a log, are ignored.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JStackDumpParser<D extends Dump> {
+
+    private enum State {
+        HEADER, BETWEEN_THREADS, IN_THREAD, AFTER_JNI_REFERENCES
+    }
+
+    protected final D dump;
+    protected final DumpSource source;
+    protected final List<String> threadLines = new ArrayList<>();
+    private State state = State.HEADER;
+    private long threadStart = -1;
+    private long threadEnd = -1;
+
+    public JStackDumpParser(final D dump) {
+        this(dump, null);
+    }
+
+    /**
+     * Creates a parser filling the given dump.
+     *
+     * @param dump   The dump to fill.
+     * @param source The source of the dump, or {@code null} to keep the text of each thread in memory.
+     */
+    public JStackDumpParser(final D dump, final DumpSource source) {
+        if (dump == null) throw new NullPointerException("The dump can not be null");
+        this.dump = dump;
+        this.source = source;
+    }
+
+    /**
+     * Parses all lines provided by the given reader and returns the populated dump.
+     *
+     * @param reader The reader providing the lines of the thread dump.
+     * @return The dump populated with the content of the reader.
+     * @throws IOException If the reader can not be read.
+     */
+    public D parse(final BufferedReader reader) throws IOException {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            this.parseLine(line);
+        }
+
+        return this.end();
+    }
+
+    /**
+     * Parses all lines provided by the given reader and returns the populated dump. The offsets of each line are
+     * tracked in order to locate the threads in the {@link DumpSource source} of the dump.
+     *
+     * @param reader The reader providing the lines of the thread dump.
+     * @return The dump populated with the content of the reader.
+     * @throws IOException If the reader can not be read.
+     */
+    public D parse(final LineReader reader) throws IOException {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            this.parseLine(line, reader.getLineStart(), reader.getLineEnd());
+        }
+
+        return this.end();
+    }
+
+    /**
+     * Parses the next line of the thread dump.
+     *
+     * @param line The line to parse.
+     */
+    public void parseLine(final String line) {
+        this.parseLine(line, -1, -1);
+    }
+
+    /**
+     * Parses the next line of the thread dump located at the given offsets of the source.
+     *
+     * @param line  The line to parse.
+     * @param start The offset of the first byte of the line in the source, or {@code -1} if unknown.
+     * @param end   The offset following the last byte of the line in the source, or {@code -1} if unknown.
+     */
+    public void parseLine(final String line, final long start, final long end) {
+        if (this.state == State.HEADER && !line.startsWith(BEGINNING_OF_THREAD)) {
+            this.parseHeaderLine(line);
+        } else if (this.state == State.AFTER_JNI_REFERENCES) {
+            // The dump is complete, the following lines are not part of it
+        } else if (line.startsWith(BEGINNING_OF_THREAD)) {
+            this.closeThread();
+            this.state = State.IN_THREAD;
+            this.threadLines.add(line);
+            this.threadStart = start;
+            this.threadEnd = end;
+        } else {
+            final Matcher jniReferences = JNI_REFERENCES_PATTERN.matcher(line);
+
+            if (jniReferences.matches()) {
+                this.closeThread();
+                this.state = State.AFTER_JNI_REFERENCES;
+                this.dump.setNumberOfJNIRefs(Integer.parseInt(jniReferences.group(1)));
+            } else if (this.state == State.IN_THREAD) {
+                this.threadLines.add(line);
+
+                if (!line.trim().isEmpty()) {
+                    this.threadEnd = end;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indicates the end of the thread dump has been reached. The thread currently being parsed, if any, is closed.
+     *
+     * @return The dump populated with all parsed lines.
+     */
+    public D end() {
+        this.closeThread();
+        this.state = State.AFTER_JNI_REFERENCES;
+        return this.dump;
+    }
+
+    /**
+     * Indicates if the end of the thread dump has been reached, either because the JNI global references have been
+     * parsed or because {@link #end()} has been called. Further lines don't add any thread to the dump.
+     *
+     * @return {@code true} if the dump is complete, {@code false} otherwise.
+     */
+    public boolean isComplete() {
+        return this.state == State.AFTER_JNI_REFERENCES;
+    }
+
+    /**
+     * Parses a line preceding the first thread. The generation date and time and the description of the dump are
+     * extracted from the lines which contain them, other lines are ignored.
+     *
+     * @param line The line to parse.
+     */
+    protected void parseHeaderLine(final String line) {
+        if (DumpTimelineParser.isGenerationDateTime(line)) {
+            this.dump.setGenerationDateTime(LocalDateTime.parse(line, DATE_TIME_FORMATTER_OUTPUT));
+        } else if (line.startsWith(FULL_THREAD_DUMP_LINE_START)) {
+            this.dump.setDescription(line);
+            this.state = State.BETWEEN_THREADS;
+        }
+    }
+
+    /**
+     * Closes the thread currently being parsed. Trailing blank lines separating threads are not part of the thread.
+     * Threads only made of a single line, like VM or GC threads, are ignored.
+     */
+    protected void closeThread() {
+        if (this.state == State.IN_THREAD) {
+            int size = this.threadLines.size();
+
+            while (size > 0 && this.threadLines.get(size - 1).trim().isEmpty()) {
+                size--;
+            }
+
+            if (size > 1) {
+                final SourceRange range = this.source != null && this.threadStart >= 0 && this.threadEnd >= this.threadStart ?
+                        new SourceRange(this.source, this.threadStart, this.threadEnd) : null;
+
+                this.threadClosed(this.threadLines.subList(0, size), range);
+            }
+
+            this.threadLines.clear();
+            this.state = State.BETWEEN_THREADS;
+        }
+    }
+
+    /**
+     * Called each time the lines of a thread have all been parsed. The default implementation builds the
+     * {@link ThreadElement thread element} and adds it to the dump. The given lines are only valid during the call.
+     *
+     * @param lines The lines of the thread.
+     * @param range The location of the thread in the source of the dump, or {@code null} if not available.
+     */
+    protected void threadClosed(final List<String> lines, final SourceRange range) {
+        final LoadStatistics statistics = this.dump.getLoadStatistics();
+        final ThreadElement thread = ThreadElementFactory.build(lines, range, this.dump.getFrameDictionary(), statistics);
+        final long start = statistics == null ? 0 : System.nanoTime();
+
+        thread.setDump(this.dump);
+        this.dump.getElements().add(thread);
+
+        if (statistics != null) statistics.addNanos(LoadStatistics.Phase.MODEL, System.nanoTime() - start);
+    }
+}
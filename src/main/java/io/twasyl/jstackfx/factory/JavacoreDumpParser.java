@@ -0,0 +1,291 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpSource;
+import io.twasyl.jstackfx.beans.FrameDictionary;
+import io.twasyl.jstackfx.beans.LoadStatistics;
+import io.twasyl.jstackfx.beans.SourceRange;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.beans.ThreadReference;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link DumpParser Parser} of javacores, the thread dumps produced by IBM J9 and Eclipse OpenJ9 virtual machines.
+ * A javacore is made of sections whose lines all start with a tag, like {@code 3XMTHREADINFO} for the first line of a
+ * thread or {@code 4XESTACKTRACE} for a frame of its calling stack. Only the title, the Java version and the threads
+ * are read, each thread being added to the dump as soon as its lines have been read.
+ * <p>
+ * Frames are converted to the format of {@code jstack}, i.e. {@code at java/lang/Object.wait(Object.java:167(Compiled Code))}
+ * becomes {@code at java.lang.Object.wait(Object.java:167)}, so that threads can be compared whatever the format of
+ * their dump. The {@link ThreadElement#getState() state} of a thread waiting on a condition is inferred from the top
+ * of its calling stack as javacores don't distinguish waiting and timed waiting threads.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JavacoreDumpParser implements DumpParser {
+
+    protected static final Pattern TITLE_SECTION_PATTERN = Pattern.compile("(?m)^0SECTION\\s+TITLE\\b");
+    protected static final Pattern DATE_TIME_PATTERN = Pattern.compile("([0-9]{4})/([0-9]{2})/([0-9]{2}) at ([0-9]{2}):([0-9]{2}):([0-9]{2})");
+    protected static final Pattern THREAD_INFO_PATTERN = Pattern.compile("^\"(.*)\" J9VMThread:(0x[0-9A-Fa-f]+),.*\\bstate:([A-Z]+), prio=([0-9]+)");
+    protected static final Pattern JAVA_THREAD_PATTERN = Pattern.compile("getId:0x([0-9A-Fa-f]+)");
+    protected static final Pattern NATIVE_PRIORITY_PATTERN = Pattern.compile("native priority:0x([0-9A-Fa-f]+)");
+    protected static final Pattern LOCK_PATTERN = Pattern.compile("([^\\s@]+)@(0x[0-9A-Fa-f]+)");
+
+    protected static final String TITLE_SECTION_TAG = "0SECTION";
+    protected static final String DATE_TIME_TAG = "1TIDATETIME";
+    protected static final String JAVA_VERSION_TAG = "1CIJAVAVERSION";
+    protected static final String THREAD_INFO_TAG = "3XMTHREADINFO";
+    protected static final String JAVA_THREAD_TAG = "3XMJAVALTHREAD";
+    protected static final String NATIVE_THREAD_INFO_TAG = "3XMTHREADINFO1";
+    protected static final String THREAD_BLOCK_TAG = "3XMTHREADBLOCK";
+    protected static final String STACK_TRACE_TAG = "4XESTACKTRACE";
+    protected static final String STACK_TRACE_DETAIL_TAG = "5XESTACKTRACE";
+    protected static final String NULL_TAG = "NULL";
+
+    @Override
+    public String getName() {
+        return "javacore";
+    }
+
+    @Override
+    public boolean accepts(final String head) {
+        return TITLE_SECTION_PATTERN.matcher(head).find();
+    }
+
+    @Override
+    public <D extends Dump> void parse(final InputStream input, final Supplier<D> dumpSupplier, final DumpSource source,
+                                       final boolean parallel, final Consumer<? super D> dumpConsumer) throws IOException {
+        final JavacoreReader<D> reader = new JavacoreReader<>(dumpSupplier, source, dumpConsumer);
+        final LineReader lines = new LineReader(input);
+        String line;
+
+        while ((line = lines.readLine()) != null) {
+            reader.parseLine(line, lines.getLineStart(), lines.getLineEnd());
+        }
+
+        reader.end();
+    }
+
+    /**
+     * Get the tag of a line of a javacore, which is its first word.
+     *
+     * @param line The line.
+     * @return The tag of the line.
+     */
+    protected static String tagOf(final String line) {
+        final int end = line.indexOf(' ');
+        return end < 0 ? line : line.substring(0, end);
+    }
+
+    /**
+     * Converts a frame of a javacore to the format of {@code jstack}.
+     *
+     * @param frame The frame, without its tag.
+     * @return The converted frame, starting with {@code at }.
+     */
+    protected static String convertFrame(final String frame) {
+        final String text = frame.trim();
+        final int start = text.startsWith(JsonThreadDumpParser.FRAME_PREFIX) ? JsonThreadDumpParser.FRAME_PREFIX.length() : 0;
+        final int locationStart = text.indexOf('(', start);
+        final String method = locationStart < 0 ? text.substring(start) : text.substring(start, locationStart);
+        final StringBuilder converted = new StringBuilder(text.length()).append(JsonThreadDumpParser.FRAME_PREFIX);
+
+        for (int index = 0; index < method.length(); index++) {
+            final char character = method.charAt(index);
+            final boolean packageSeparator = character == '/' && (index + 1 == method.length() || !Character.isDigit(method.charAt(index + 1)));
+            converted.append(packageSeparator ? '.' : character);
+        }
+
+        if (locationStart >= 0) {
+            // Drops details like (Compiled Code) or (Bytecode PC:12) following the location
+            final int detailsStart = text.indexOf('(', locationStart + 1);
+            final int locationEnd = detailsStart < 0 ? text.lastIndexOf(')') : detailsStart;
+            converted.append(text, locationStart, Math.max(locationStart + 1, locationEnd)).append(')');
+        }
+
+        return converted.toString();
+    }
+
+    protected static Thread.State stateOf(final String state, final FrameDictionary frameDictionary, final int[] frames) {
+        switch (state) {
+            case "R":
+                return Thread.State.RUNNABLE;
+            case "B":
+                return Thread.State.BLOCKED;
+            case "CW":
+            case "P":
+                final Thread.State inferred = JsonThreadDumpParser.inferState(frameDictionary, frames);
+                return inferred == Thread.State.RUNNABLE ? Thread.State.WAITING : inferred;
+            case "Z":
+            case "D":
+                return Thread.State.TERMINATED;
+            default:
+                return Thread.State.RUNNABLE;
+        }
+    }
+
+    protected static void addReference(final Consumer<ThreadReference> references, final String text) {
+        final Matcher matcher = LOCK_PATTERN.matcher(text);
+
+        if (matcher.find()) {
+            references.accept(new ThreadReference(matcher.group(2).toLowerCase(), matcher.group(1).replace('/', '.')));
+        }
+    }
+
+    /**
+     * Push parser of the lines of a javacore.
+     */
+    private static class JavacoreReader<D extends Dump> {
+        private final Supplier<D> dumpSupplier;
+        private final DumpSource source;
+        private final Consumer<? super D> dumpConsumer;
+
+        private D dump;
+        private final List<String> threadLines = new ArrayList<>();
+        private long threadStart = -1;
+        private long threadEnd = -1;
+        private int[] frames = new int[64];
+
+        private JavacoreReader(final Supplier<D> dumpSupplier, final DumpSource source, final Consumer<? super D> dumpConsumer) {
+            this.dumpSupplier = dumpSupplier;
+            this.source = source;
+            this.dumpConsumer = dumpConsumer;
+        }
+
+        private void parseLine(final String line, final long start, final long end) {
+            final String tag = tagOf(line);
+
+            if (THREAD_INFO_TAG.equals(tag)) {
+                this.closeThread();
+                this.threadLines.add(line);
+                this.threadStart = start;
+                this.threadEnd = end;
+            } else if (!this.threadLines.isEmpty() && (tag.startsWith("3") || tag.startsWith("4") || tag.startsWith("5"))) {
+                this.threadLines.add(line);
+                this.threadEnd = end;
+            } else if (!NULL_TAG.equals(tag)) {
+                this.closeThread();
+
+                if (TITLE_SECTION_TAG.equals(tag) && TITLE_SECTION_PATTERN.matcher(line).find()) {
+                    this.end();
+                    this.dump = this.dumpSupplier.get();
+                } else if (this.dump != null && DATE_TIME_TAG.equals(tag)) {
+                    final Matcher matcher = DATE_TIME_PATTERN.matcher(line);
+
+                    if (matcher.find()) {
+                        this.dump.setGenerationDateTime(LocalDateTime.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                                Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)), Integer.parseInt(matcher.group(5)),
+                                Integer.parseInt(matcher.group(6))));
+                    }
+                } else if (this.dump != null && JAVA_VERSION_TAG.equals(tag)) {
+                    this.dump.setDescription("Full thread dump " + line.substring(tag.length()).trim() + ":");
+                }
+            }
+        }
+
+        private void end() {
+            this.closeThread();
+
+            if (this.dump != null) {
+                if (this.dump.getDescription() == null) this.dump.setDescription("Full thread dump:");
+                this.dumpConsumer.accept(this.dump);
+                this.dump = null;
+            }
+        }
+
+        private void closeThread() {
+            if (this.threadLines.isEmpty()) return;
+
+            if (this.dump != null) {
+                final LoadStatistics statistics = this.dump.getLoadStatistics();
+                final long start = statistics == null ? 0 : System.nanoTime();
+                final ThreadElement thread = this.buildThread();
+                final long built = statistics == null ? 0 : System.nanoTime();
+
+                if (thread != null) {
+                    thread.setDump(this.dump);
+                    this.dump.getElements().add(thread);
+                }
+
+                if (statistics != null) {
+                    statistics.addNanos(LoadStatistics.Phase.EXTRACTING, built - start);
+
+                    if (thread != null) {
+                        statistics.addNanos(LoadStatistics.Phase.MODEL, System.nanoTime() - built);
+                        statistics.addThread(thread);
+                    }
+                }
+            }
+
+            this.threadLines.clear();
+        }
+
+        private ThreadElement buildThread() {
+            final Matcher info = THREAD_INFO_PATTERN.matcher(this.threadLines.get(0).substring(THREAD_INFO_TAG.length()).trim());
+
+            // Anonymous native threads aren't Java threads
+            if (!info.find()) return null;
+
+            final ThreadElement thread = new ThreadElement();
+            final FrameDictionary frameDictionary = this.dump.getFrameDictionary();
+            int stackDepth = 0;
+
+            thread.setName(info.group(1));
+            thread.setThreadId(info.group(2).toLowerCase());
+            thread.setPriority(Integer.parseInt(info.group(4)));
+
+            for (final String line : this.threadLines) {
+                final String tag = tagOf(line);
+                final String content = line.substring(tag.length()).trim();
+
+                if (JAVA_THREAD_TAG.equals(tag)) {
+                    final Matcher id = JAVA_THREAD_PATTERN.matcher(content);
+                    if (id.find()) thread.setNumber(Long.parseLong(id.group(1), 16));
+                } else if (NATIVE_THREAD_INFO_TAG.equals(tag)) {
+                    final Matcher priority = NATIVE_PRIORITY_PATTERN.matcher(content);
+                    if (priority.find()) thread.setOsPriority(Integer.parseInt(priority.group(1), 16));
+                } else if (THREAD_BLOCK_TAG.equals(tag)) {
+                    if (content.startsWith("Blocked on:")) {
+                        addReference(thread::addWaitingToLock, content);
+                    } else if (content.startsWith("Parked on:")) {
+                        addReference(thread::addParkingReason, content);
+                    }
+                } else if (STACK_TRACE_TAG.equals(tag)) {
+                    if (stackDepth == this.frames.length) {
+                        this.frames = Arrays.copyOf(this.frames, this.frames.length * 2);
+                    }
+
+                    this.frames[stackDepth++] = frameDictionary.idOf(convertFrame(content));
+                } else if (STACK_TRACE_DETAIL_TAG.equals(tag) && content.startsWith("(entered lock:")) {
+                    addReference(thread::addHoldingLock, content);
+                }
+            }
+
+            final int[] threadFrames = Arrays.copyOf(this.frames, stackDepth);
+            thread.setFrames(frameDictionary, threadFrames);
+            thread.setState(stateOf(info.group(3), frameDictionary, threadFrames));
+
+            if (this.source != null && this.threadStart >= 0 && this.threadEnd >= this.threadStart) {
+                thread.setSourceRange(new SourceRange(this.source, this.threadStart, this.threadEnd));
+            } else {
+                final StringJoiner text = new StringJoiner("\n");
+                this.threadLines.forEach(text::add);
+                thread.setSource(text.toString());
+            }
+
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.FrameDictionary;
+import io.twasyl.jstackfx.beans.JmxDump;
+import io.twasyl.jstackfx.beans.LoadStatistics;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.beans.ThreadReference;
+import io.twasyl.jstackfx.exceptions.DumpException;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.MalformedURLException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Capture of thread dumps through JMX. The {@link ThreadMXBean} of the virtual machine returns the threads as
+ * structured {@link ThreadInfo} objects, with the owners of their locks already resolved, and the threads of the dump
+ * are built directly from them: no text is produced nor parsed. Captured dumps are {@link JmxDump JMX dumps}.
+ * <p>
+ * The connection to the virtual machine is established at the first capture and reused by the next ones, as well as
+ * the {@link FrameDictionary dictionary} of the frames which is shared by all captured dumps. This makes repeated
+ * captures of the same virtual machine, like a {@link DumpSampler sampling}, much cheaper than with
+ * {@link DumpFactory#make(long)}. When a capture fails because of the connection, the connection is closed and
+ * established again at the next capture.
+ * <p>
+ * Like {@code jstack} without {@code -l}, the ownable synchronizers locked by the threads aren't captured by default:
+ * finding them requires the virtual machine to walk its heap, which makes each capture several times slower.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JmxDumpCapture implements DumpCapture, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(JmxDumpCapture.class.getName());
+
+    protected static final String FRAME_PREFIX = "at ";
+    protected static final String PARK_METHOD = "park";
+
+    private final long processId;
+    private final JMXServiceURL url;
+    private final FrameDictionary frameDictionary = new FrameDictionary();
+    private MBeanServerConnection connection;
+    private JMXConnector connector;
+    private ThreadMXBean threadMXBean;
+    private String description;
+    private boolean lockedMonitors;
+    private boolean lockedSynchronizersSupported;
+    private volatile boolean lockedSynchronizers = false;
+
+    /**
+     * Creates a capture of the given local process. The local management agent of the process is started, if it isn't
+     * already, using the {@link AttachDumpCapture Attach API}.
+     *
+     * @param processId The ID of the process to capture.
+     */
+    public JmxDumpCapture(final long processId) {
+        this.processId = processId;
+        this.url = null;
+    }
+
+    /**
+     * Creates a capture of the virtual machine exposing the given JMX connector.
+     *
+     * @param url The address of the JMX connector of the virtual machine.
+     */
+    public JmxDumpCapture(final JMXServiceURL url) {
+        if (url == null) throw new NullPointerException("The URL can not be null");
+
+        this.processId = -1;
+        this.url = url;
+    }
+
+    /**
+     * Creates a capture using the given connection, which is not closed by this capture. The
+     * {@link ManagementFactory#getPlatformMBeanServer() platform MBean server} can be given to capture the running
+     * virtual machine.
+     *
+     * @param connection The connection to the virtual machine to capture.
+     */
+    public JmxDumpCapture(final MBeanServerConnection connection) {
+        if (connection == null) throw new NullPointerException("The connection can not be null");
+
+        this.processId = -1;
+        this.url = null;
+        this.connection = connection;
+    }
+
+    /**
+     * Capture a thread dump of the virtual machine of this capture.
+     *
+     * @return The thread dump.
+     * @throws DumpException If the thread dump can not be captured.
+     */
+    public Dump capture() throws DumpException {
+        return this.capture(this.processId);
+    }
+
+    /**
+     * Capture a thread dump of the virtual machine of this capture. The given process ID is only set on the dump.
+     *
+     * @param processId The ID of the process the virtual machine of this capture runs in.
+     * @return The thread dump.
+     * @throws DumpException If the thread dump can not be captured.
+     */
+    @Override
+    public synchronized Dump capture(final long processId) throws DumpException {
+        final ThreadMXBean threads = this.connect();
+        final LoadStatistics statistics = new LoadStatistics();
+        final ThreadInfo[] threadInfos;
+
+        statistics.start();
+
+        try {
+            final long start = System.nanoTime();
+            threadInfos = threads.dumpAllThreads(this.lockedMonitors, this.lockedSynchronizers && this.lockedSynchronizersSupported);
+            statistics.addRead(0, 0, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            this.disconnect();
+            throw new DumpException("Can not dump the threads through JMX", e);
+        }
+
+        final JmxDump dump = new JmxDump();
+        dump.setGenerationDateTime(LocalDateTime.now());
+        dump.setDescription(this.description);
+        dump.setProcessId(processId);
+        dump.setFrameDictionary(this.frameDictionary);
+        dump.setLoadStatistics(statistics);
+
+        for (final ThreadInfo threadInfo : threadInfos) {
+            // Threads which have terminated since their IDs have been collected are null
+            if (threadInfo == null) continue;
+
+            final long start = System.nanoTime();
+            final ThreadElement thread = this.buildThread(threadInfo);
+            thread.setDump(dump);
+            dump.getElements().add(thread);
+
+            statistics.addNanos(LoadStatistics.Phase.MODEL, System.nanoTime() - start);
+            statistics.addThread(thread);
+        }
+
+        statistics.end();
+
+        return dump;
+    }
+
+    /**
+     * Build a thread of a dump from the information returned by the {@link ThreadMXBean}. Objects are referenced
+     * by their class name and identity hash code, like in {@link LockInfo#toString()}, so that the locks a thread waits
+     * for can be matched with the ones held by other threads.
+     *
+     * @param threadInfo The information of the thread.
+     * @return The thread.
+     */
+    protected ThreadElement buildThread(final ThreadInfo threadInfo) {
+        final ThreadElement thread = new ThreadElement();
+        thread.setName(threadInfo.getThreadName());
+        thread.setNumber(threadInfo.getThreadId());
+        thread.setThreadId(String.valueOf(threadInfo.getThreadId()));
+        thread.setState(threadInfo.getThreadState());
+
+        final StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+        final int[] frames = new int[stackTrace.length];
+
+        for (int index = 0; index < stackTrace.length; index++) {
+            frames[index] = this.frameDictionary.idOf(FRAME_PREFIX + stackTrace[index]);
+        }
+
+        thread.setFrames(this.frameDictionary, frames);
+
+        final LockInfo lock = threadInfo.getLockInfo();
+
+        if (lock != null) {
+            if (threadInfo.getThreadState() == Thread.State.BLOCKED) {
+                addReference(thread::addWaitingToLock, lock);
+            } else if (stackTrace.length > 0 && PARK_METHOD.equals(stackTrace[0].getMethodName())) {
+                addReference(thread::addParkingReason, lock);
+            }
+        }
+
+        for (final MonitorInfo monitor : threadInfo.getLockedMonitors()) {
+            addReference(thread::addHoldingLock, monitor);
+        }
+
+        for (final LockInfo synchronizer : threadInfo.getLockedSynchronizers()) {
+            addReference(thread::addLockedSynchronizer, synchronizer);
+        }
+
+        return thread;
+    }
+
+    private static void addReference(final Consumer<ThreadReference> references, final LockInfo lock) {
+        references.accept(new ThreadReference(lock.getClassName() + "@" + Integer.toHexString(lock.getIdentityHashCode()), lock.getClassName()));
+    }
+
+    /**
+     * Get the {@link ThreadMXBean} of the virtual machine, connecting to it if necessary.
+     *
+     * @return The {@link ThreadMXBean} of the virtual machine.
+     * @throws DumpException If the connection can not be established.
+     */
+    protected ThreadMXBean connect() throws DumpException {
+        if (this.threadMXBean != null) return this.threadMXBean;
+
+        try {
+            if (this.connection == null) {
+                final JMXServiceURL address = this.url != null ? this.url : new JMXServiceURL(AttachDumpCapture.localConnectorAddress(this.processId));
+                this.connector = JMXConnectorFactory.connect(address);
+                this.connection = this.connector.getMBeanServerConnection();
+            }
+
+            final ThreadMXBean threads = ManagementFactory.newPlatformMXBeanProxy(this.connection, ManagementFactory.THREAD_MXBEAN_NAME, ThreadMXBean.class);
+            final RuntimeMXBean runtime = ManagementFactory.newPlatformMXBeanProxy(this.connection, ManagementFactory.RUNTIME_MXBEAN_NAME, RuntimeMXBean.class);
+
+            this.lockedMonitors = threads.isObjectMonitorUsageSupported();
+            this.lockedSynchronizersSupported = threads.isSynchronizerUsageSupported();
+            this.description = "Full thread dump " + runtime.getVmName() + " (" + runtime.getVmVersion() + "):";
+            this.threadMXBean = threads;
+        } catch (MalformedURLException e) {
+            throw new DumpException("The JMX connector address of the process " + this.processId + " is not valid", e);
+        } catch (IOException | RuntimeException e) {
+            this.disconnect();
+            throw new DumpException("Can not connect to the virtual machine through JMX", e);
+        }
+
+        return this.threadMXBean;
+    }
+
+    /**
+     * Close the connection opened by this capture, if any. A connection given to this capture is only forgotten
+     * when it has been established by this capture.
+     */
+    protected void disconnect() {
+        this.threadMXBean = null;
+
+        if (this.connector != null) {
+            try {
+                this.connector.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Can not close the JMX connection", e);
+            }
+
+            this.connector = null;
+            this.connection = null;
+        }
+    }
+
+    public long getProcessId() {
+        return processId;
+    }
+
+    public boolean isLockedSynchronizers() {
+        return lockedSynchronizers;
+    }
+
+    /**
+     * Define if the ownable synchronizers locked by the threads are captured, when the virtual machine supports it.
+     *
+     * @param lockedSynchronizers {@code true} to capture the locked synchronizers, {@code false} otherwise.
+     */
+    public void setLockedSynchronizers(boolean lockedSynchronizers) {
+        this.lockedSynchronizers = lockedSynchronizers;
+    }
+
+    @Override
+    public synchronized void close() {
+        this.disconnect();
+    }
+}
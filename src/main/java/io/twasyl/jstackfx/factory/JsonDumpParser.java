@@ -0,0 +1,45 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link DumpParser Parser} of thread dumps produced by {@code jcmd <pid> Thread.dump_to_file -format=json}. The
+ * content contains a single dump.
+ *
+ * @author Thierry Wasylczenko
+ * @see JsonThreadDumpParser
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JsonDumpParser implements DumpParser {
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public boolean accepts(final String head) {
+        // A byte order mark may precede the document
+        for (int index = head.startsWith("\uFEFF") ? 1 : 0; index < head.length(); index++) {
+            final char character = head.charAt(index);
+
+            if (!Character.isWhitespace(character)) {
+                return character == '{';
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public <D extends Dump> void parse(final InputStream input, final Supplier<D> dumpSupplier, final DumpSource source,
+                                       final boolean parallel, final Consumer<? super D> dumpConsumer) throws IOException {
+        dumpConsumer.accept(new JsonThreadDumpParser<>(dumpSupplier.get()).parse(input));
+    }
+}
@@ -0,0 +1,401 @@
+package io.twasyl.jstackfx.factory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Pull parser of JSON documents. The document is read token by token and no tree is built: the caller asks for the
+ * next token and decides what to do with it, for instance {@link #skipValue() skipping} values it isn't interested in.
+ * Only the nesting of the current token and the value of the last read string are kept in memory, whatever the size
+ * of the document.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JsonReader implements Closeable {
+    protected static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Tokens of a JSON document.
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final Reader input;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private long offset = 0;
+
+    private int[] scopes = new int[32];
+    private int depth = 1;
+    private Token peeked;
+    private final StringBuilder value = new StringBuilder();
+
+    public JsonReader(final Reader input) {
+        if (input == null) throw new NullPointerException("The input can not be null");
+
+        this.input = input;
+        this.scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Get the type of the next token without consuming it.
+     *
+     * @return The type of the next token.
+     * @throws IOException If the input can not be read or isn't a valid JSON document.
+     */
+    public Token peek() throws IOException {
+        if (this.peeked != null) return this.peeked;
+
+        int character;
+
+        switch (this.scopes[this.depth - 1]) {
+            case EMPTY_DOCUMENT:
+                this.scopes[this.depth - 1] = NONEMPTY_DOCUMENT;
+                // A byte order mark may precede the document
+                if (this.peekCharacter() == '\uFEFF') this.read();
+                character = this.nextNonWhitespace();
+                break;
+            case NONEMPTY_DOCUMENT:
+                character = this.nextNonWhitespace();
+                if (character == -1) return this.peeked = Token.END_DOCUMENT;
+                throw this.syntaxError("Unexpected content after the end of the document");
+            case EMPTY_ARRAY:
+                this.scopes[this.depth - 1] = NONEMPTY_ARRAY;
+                character = this.nextNonWhitespace();
+                if (character == ']') return this.peeked = Token.END_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                character = this.nextNonWhitespace();
+                if (character == ']') return this.peeked = Token.END_ARRAY;
+                if (character != ',') throw this.syntaxError("Expected ',' or ']'");
+                character = this.nextNonWhitespace();
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                character = this.nextNonWhitespace();
+                if (character == '}') return this.peeked = Token.END_OBJECT;
+
+                if (this.scopes[this.depth - 1] == NONEMPTY_OBJECT) {
+                    if (character != ',') throw this.syntaxError("Expected ',' or '}'");
+                    character = this.nextNonWhitespace();
+                }
+
+                if (character != '"') throw this.syntaxError("Expected a name");
+
+                this.scopes[this.depth - 1] = DANGLING_NAME;
+                this.readString();
+                return this.peeked = Token.NAME;
+            case DANGLING_NAME:
+                if (this.nextNonWhitespace() != ':') throw this.syntaxError("Expected ':'");
+
+                this.scopes[this.depth - 1] = NONEMPTY_OBJECT;
+                character = this.nextNonWhitespace();
+                break;
+            default:
+                throw new IllegalStateException("Unknown scope");
+        }
+
+        return this.peeked = this.readValue(character);
+    }
+
+    /**
+     * Indicates if the current object or array has another element.
+     *
+     * @return {@code true} if there is another element, {@code false} otherwise.
+     * @throws IOException If the input can not be read or isn't a valid JSON document.
+     */
+    public boolean hasNext() throws IOException {
+        final Token token = this.peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() throws IOException {
+        this.consume(Token.BEGIN_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        this.consume(Token.END_OBJECT);
+        this.depth--;
+    }
+
+    public void beginArray() throws IOException {
+        this.consume(Token.BEGIN_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        this.consume(Token.END_ARRAY);
+        this.depth--;
+    }
+
+    public String nextName() throws IOException {
+        this.consume(Token.NAME);
+        return this.value.toString();
+    }
+
+    /**
+     * Consumes the next value which must be a string or a number and returns it as a string.
+     *
+     * @return The value as a string.
+     * @throws IOException If the input can not be read or the next token isn't a string or a number.
+     */
+    public String nextString() throws IOException {
+        final Token token = this.peek();
+        if (token != Token.STRING && token != Token.NUMBER) throw this.syntaxError("Expected a string but was " + token);
+
+        this.peeked = null;
+        return this.value.toString();
+    }
+
+    /**
+     * Consumes the next value which must be a number or a string containing a number.
+     *
+     * @return The value as a long.
+     * @throws IOException If the input can not be read or the next token isn't a number.
+     */
+    public long nextLong() throws IOException {
+        final String number = this.nextString();
+
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw this.syntaxError("Expected a number but was " + number);
+        }
+    }
+
+    public boolean nextBoolean() throws IOException {
+        this.consume(Token.BOOLEAN);
+        return this.value.charAt(0) == 't';
+    }
+
+    public void nextNull() throws IOException {
+        this.consume(Token.NULL);
+    }
+
+    /**
+     * Consumes the next value which can be a string or {@code null}.
+     *
+     * @return The value as a string, or {@code null}.
+     * @throws IOException If the input can not be read or the next token isn't a string, a number or {@code null}.
+     */
+    public String nextStringOrNull() throws IOException {
+        if (this.peek() == Token.NULL) {
+            this.nextNull();
+            return null;
+        }
+
+        return this.nextString();
+    }
+
+    /**
+     * Consumes the next value, including all nested values if it is an object or an array.
+     *
+     * @throws IOException If the input can not be read or isn't a valid JSON document.
+     */
+    public void skipValue() throws IOException {
+        int nesting = 0;
+
+        do {
+            switch (this.peek()) {
+                case BEGIN_OBJECT:
+                    this.beginObject();
+                    nesting++;
+                    break;
+                case BEGIN_ARRAY:
+                    this.beginArray();
+                    nesting++;
+                    break;
+                case END_OBJECT:
+                    this.endObject();
+                    nesting--;
+                    break;
+                case END_ARRAY:
+                    this.endArray();
+                    nesting--;
+                    break;
+                case END_DOCUMENT:
+                    throw this.syntaxError("Unexpected end of the document");
+                default:
+                    this.peeked = null;
+            }
+        } while (nesting > 0);
+    }
+
+    private void consume(final Token expected) throws IOException {
+        final Token token = this.peek();
+        if (token != expected) throw this.syntaxError("Expected " + expected + " but was " + token);
+        this.peeked = null;
+    }
+
+    private Token readValue(final int character) throws IOException {
+        switch (character) {
+            case '{':
+                this.push(EMPTY_OBJECT);
+                return Token.BEGIN_OBJECT;
+            case '[':
+                this.push(EMPTY_ARRAY);
+                return Token.BEGIN_ARRAY;
+            case '"':
+                this.readString();
+                return Token.STRING;
+            case 't':
+                this.readLiteral(character, "true");
+                return Token.BOOLEAN;
+            case 'f':
+                this.readLiteral(character, "false");
+                return Token.BOOLEAN;
+            case 'n':
+                this.readLiteral(character, "null");
+                return Token.NULL;
+            case -1:
+                throw this.syntaxError("Unexpected end of the document");
+            default:
+                if (character == '-' || (character >= '0' && character <= '9')) {
+                    this.readNumber(character);
+                    return Token.NUMBER;
+                }
+
+                throw this.syntaxError("Unexpected character '" + (char) character + "'");
+        }
+    }
+
+    private void push(final int scope) {
+        if (this.depth == this.scopes.length) {
+            this.scopes = Arrays.copyOf(this.scopes, this.scopes.length * 2);
+        }
+
+        this.scopes[this.depth++] = scope;
+    }
+
+    private void readString() throws IOException {
+        this.value.setLength(0);
+
+        while (true) {
+            int index = this.position;
+
+            while (index < this.limit && this.buffer[index] != '"' && this.buffer[index] != '\\') index++;
+
+            this.value.append(this.buffer, this.position, index - this.position);
+            this.offset += index - this.position;
+            this.position = index;
+
+            if (index == this.limit) {
+                if (!this.fill()) throw this.syntaxError("Unterminated string");
+                continue;
+            }
+
+            final char character = this.buffer[this.position++];
+            this.offset++;
+
+            if (character == '"') return;
+
+            final int escaped = this.read();
+
+            switch (escaped) {
+                case 'b': this.value.append('\b'); break;
+                case 'f': this.value.append('\f'); break;
+                case 'n': this.value.append('\n'); break;
+                case 'r': this.value.append('\r'); break;
+                case 't': this.value.append('\t'); break;
+                case 'u': this.value.append(this.readUnicodeEscape()); break;
+                case '"':
+                case '\\':
+                case '/':
+                    this.value.append((char) escaped);
+                    break;
+                default:
+                    throw this.syntaxError("Invalid escape sequence");
+            }
+        }
+    }
+
+    private char readUnicodeEscape() throws IOException {
+        int code = 0;
+
+        for (int index = 0; index < 4; index++) {
+            final int digit = Character.digit(this.read(), 16);
+            if (digit < 0) throw this.syntaxError("Invalid unicode escape sequence");
+            code = (code << 4) + digit;
+        }
+
+        return (char) code;
+    }
+
+    private void readNumber(final int first) throws IOException {
+        this.value.setLength(0);
+        this.value.append((char) first);
+
+        int character;
+        while ((character = this.peekCharacter()) != -1 && isNumberCharacter((char) character)) {
+            this.value.append((char) this.read());
+        }
+    }
+
+    private void readLiteral(final int first, final String literal) throws IOException {
+        for (int index = 1; index < literal.length(); index++) {
+            if (this.read() != literal.charAt(index)) throw this.syntaxError("Expected " + literal);
+        }
+
+        this.value.setLength(0);
+        this.value.append(literal);
+    }
+
+    private static boolean isNumberCharacter(final char character) {
+        return (character >= '0' && character <= '9') || character == '.' || character == '-' || character == '+' || character == 'e' || character == 'E';
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int character;
+
+        do {
+            character = this.read();
+        } while (character == ' ' || character == '\t' || character == '\n' || character == '\r');
+
+        return character;
+    }
+
+    private int read() throws IOException {
+        if (this.position == this.limit && !this.fill()) return -1;
+
+        this.offset++;
+        return this.buffer[this.position++];
+    }
+
+    private int peekCharacter() throws IOException {
+        if (this.position == this.limit && !this.fill()) return -1;
+        return this.buffer[this.position];
+    }
+
+    private boolean fill() throws IOException {
+        final int read = this.input.read(this.buffer);
+
+        if (read <= 0) {
+            return false;
+        } else {
+            this.position = 0;
+            this.limit = read;
+            return true;
+        }
+    }
+
+    private IOException syntaxError(final String message) {
+        return new IOException(message + " at character " + this.offset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.input.close();
+    }
+}
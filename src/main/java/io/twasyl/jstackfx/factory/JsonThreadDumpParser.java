@@ -0,0 +1,393 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.FrameDictionary;
+import io.twasyl.jstackfx.beans.LoadStatistics;
+import io.twasyl.jstackfx.beans.StackFrame;
+import io.twasyl.jstackfx.beans.ThreadContainer;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.beans.ThreadReference;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser of thread dumps produced by {@code jcmd <pid> Thread.dump_to_file -format=json}. This format lists
+ * platform and virtual threads grouped by {@link ThreadContainer thread containers} and can contain millions of
+ * virtual threads. The document is read with a {@link JsonReader pull parser}: each thread is added to the dump as
+ * soon as it has been read and only the thread being read is kept in memory besides the dump itself.
+ * <p>
+ * Frames are stored in the {@link Dump#getFrameDictionary() dictionary} of the dump and threads having the same
+ * calling stack, which is common for virtual threads, share the same array of frames. Up to JDK 21, only the ID, the
+ * name and the calling stack of each thread are part of the dump: the state of a thread is then inferred from the top
+ * of its calling stack, and a thread is virtual when its calling stack starts from {@code java.lang.VirtualThread.run}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JsonThreadDumpParser<D extends Dump> {
+    protected static final String FRAME_PREFIX = "at ";
+    protected static final String VIRTUAL_THREAD_CLASS = "java.lang.VirtualThread";
+
+    private final D dump;
+    private final Map<CallingStack, int[]> callingStacks = new HashMap<>();
+    private int[] frames = new int[64];
+    private String processId;
+    private String runtimeVersion;
+
+    public JsonThreadDumpParser(final D dump) {
+        if (dump == null) throw new NullPointerException("The dump can not be null");
+        this.dump = dump;
+    }
+
+    /**
+     * Parses the JSON document provided by the given input and returns the populated dump.
+     *
+     * @param input The input providing the JSON document, encoded in UTF-8.
+     * @return The dump populated with the content of the input.
+     * @throws IOException If the input can not be read or isn't a valid thread dump.
+     */
+    public D parse(final InputStream input) throws IOException {
+        final JsonReader reader = new JsonReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            if ("threadDump".equals(reader.nextName())) {
+                this.parseThreadDump(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        this.dump.setDescription("Full thread dump of process " + this.processId + (this.runtimeVersion == null ? "" : " (" + this.runtimeVersion + ")") + ":");
+        this.callingStacks.clear();
+
+        return this.dump;
+    }
+
+    protected void parseThreadDump(final JsonReader reader) throws IOException {
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "processId":
+                    this.processId = reader.nextStringOrNull();
+                    break;
+                case "time":
+                    this.dump.setGenerationDateTime(parseTime(reader.nextStringOrNull()));
+                    break;
+                case "runtimeVersion":
+                    this.runtimeVersion = reader.nextStringOrNull();
+                    break;
+                case "threadContainers":
+                    reader.beginArray();
+                    while (reader.hasNext()) this.parseThreadContainer(reader);
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+    }
+
+    protected void parseThreadContainer(final JsonReader reader) throws IOException {
+        final ThreadContainer container = new ThreadContainer();
+        final LoadStatistics statistics = this.dump.getLoadStatistics();
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "container":
+                    container.setName(reader.nextStringOrNull());
+                    break;
+                case "parent":
+                    container.setParent(reader.nextStringOrNull());
+                    break;
+                case "owner":
+                    container.setOwner(reader.nextStringOrNull());
+                    break;
+                case "threadCount":
+                    container.setThreadCount(reader.nextLong());
+                    break;
+                case "threads":
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        final long start = statistics == null ? 0 : System.nanoTime();
+                        final ThreadElement thread = this.parseThread(reader);
+                        final long parsed = statistics == null ? 0 : System.nanoTime();
+
+                        thread.setContainer(container.getName());
+                        thread.setDump(this.dump);
+                        this.dump.getElements().add(thread);
+
+                        if (statistics != null) {
+                            statistics.addNanos(LoadStatistics.Phase.EXTRACTING, parsed - start);
+                            statistics.addNanos(LoadStatistics.Phase.MODEL, System.nanoTime() - parsed);
+                            statistics.addThread(thread);
+                        }
+                    }
+
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+        this.dump.getThreadContainers().add(container);
+    }
+
+    protected ThreadElement parseThread(final JsonReader reader) throws IOException {
+        final ThreadElement thread = new ThreadElement();
+        boolean virtualKnown = false;
+        int stackDepth = 0;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "tid":
+                    thread.setNumber(reader.nextLong());
+                    thread.setThreadId(String.valueOf(thread.getNumber()));
+                    break;
+                case "name":
+                    thread.setName(reader.nextStringOrNull());
+                    break;
+                case "state":
+                    thread.setState(parseState(reader.nextStringOrNull()));
+                    break;
+                case "virtual":
+                    thread.setVirtual(reader.nextBoolean());
+                    virtualKnown = true;
+                    break;
+                case "carrier":
+                    thread.setCarrierNumber(reader.nextLong());
+                    break;
+                case "stack":
+                    stackDepth = this.parseStack(reader);
+                    break;
+                case "parkBlocker":
+                    this.parseParkBlocker(reader, thread);
+                    break;
+                case "blockedOn":
+                    addReference(thread::addWaitingToLock, reader.nextStringOrNull());
+                    break;
+                case "monitorsOwned":
+                    this.parseMonitorsOwned(reader, thread);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        final FrameDictionary frameDictionary = this.dump.getFrameDictionary();
+        thread.setFrames(frameDictionary, this.share(stackDepth));
+
+        if (thread.getState() == null) {
+            thread.setState(inferState(frameDictionary, thread.getFrames()));
+        }
+
+        if (!virtualKnown) {
+            thread.setVirtual(inferVirtual(frameDictionary, thread.getFrames()));
+        }
+
+        return thread;
+    }
+
+    /**
+     * Parses the frames of a calling stack into the buffer of frames.
+     *
+     * @param reader The reader positioned on the array of frames.
+     * @return The number of frames.
+     */
+    protected int parseStack(final JsonReader reader) throws IOException {
+        final FrameDictionary frameDictionary = this.dump.getFrameDictionary();
+        int stackDepth = 0;
+
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            if (stackDepth == this.frames.length) {
+                this.frames = Arrays.copyOf(this.frames, this.frames.length * 2);
+            }
+
+            this.frames[stackDepth++] = frameDictionary.idOf(FRAME_PREFIX + reader.nextString());
+        }
+
+        reader.endArray();
+
+        return stackDepth;
+    }
+
+    protected void parseParkBlocker(final JsonReader reader, final ThreadElement thread) throws IOException {
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            if ("object".equals(reader.nextName())) {
+                addReference(thread::addParkingReason, reader.nextStringOrNull());
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+    }
+
+    protected void parseMonitorsOwned(final JsonReader reader, final ThreadElement thread) throws IOException {
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if ("locks".equals(reader.nextName())) {
+                    reader.beginArray();
+                    while (reader.hasNext()) addReference(thread::addHoldingLock, reader.nextStringOrNull());
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+        }
+
+        reader.endArray();
+    }
+
+    /**
+     * Get an array containing the frames currently in the buffer, shared with all threads having the same frames.
+     *
+     * @param stackDepth The number of frames in the buffer.
+     * @return The array of frames.
+     */
+    private int[] share(final int stackDepth) {
+        final int[] stack = Arrays.copyOf(this.frames, stackDepth);
+        final CallingStack key = new CallingStack(stack);
+        final int[] shared = this.callingStacks.putIfAbsent(key, stack);
+
+        return shared == null ? stack : shared;
+    }
+
+    /**
+     * Add a reference to an object, represented as {@code class.Name@hash} in the dump.
+     */
+    private static void addReference(final Consumer<ThreadReference> references, final String object) {
+        if (object == null || object.isEmpty()) return;
+
+        final int hashStart = object.lastIndexOf('@');
+        references.accept(new ThreadReference(object, hashStart > 0 ? object.substring(0, hashStart) : object));
+    }
+
+    protected static LocalDateTime parseTime(final String time) {
+        if (time == null) return null;
+
+        try {
+            return LocalDateTime.ofInstant(Instant.parse(time), ZoneId.systemDefault());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    protected static Thread.State parseState(final String state) {
+        if (state == null) return null;
+
+        try {
+            return Thread.State.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Infer the state of a thread from the top of its calling stack: threads sleeping or parked with a timeout are
+     * timed waiting, threads parked or waiting on a monitor are waiting, others are runnable.
+     *
+     * @param frameDictionary The dictionary of the frames.
+     * @param frames          The frames of the thread.
+     * @return The inferred state of the thread.
+     */
+    protected static Thread.State inferState(final FrameDictionary frameDictionary, final int[] frames) {
+        if (frames.length == 0) return Thread.State.RUNNABLE;
+
+        final StackFrame top = frameDictionary.stackFrameOf(frames[0]);
+        if (top == null) return Thread.State.RUNNABLE;
+
+        final String method = top.getMethodName();
+
+        if (method.startsWith("sleep")) {
+            return Thread.State.TIMED_WAITING;
+        } else if (method.equals("park") || method.equals("parkNanos") || method.equals("wait") || method.equals("wait0")) {
+            for (int index = 0; index < Math.min(frames.length, 4); index++) {
+                final StackFrame frame = frameDictionary.stackFrameOf(frames[index]);
+
+                if (frame != null && (frame.getMethodName().endsWith("Nanos") || frame.getMethodName().endsWith("Until"))) {
+                    return Thread.State.TIMED_WAITING;
+                }
+            }
+
+            return Thread.State.WAITING;
+        }
+
+        return Thread.State.RUNNABLE;
+    }
+
+    /**
+     * Infer if a thread is virtual from the bottom of its calling stack: the calling stack of a virtual thread starts
+     * from {@code java.lang.VirtualThread.run}.
+     *
+     * @param frameDictionary The dictionary of the frames.
+     * @param frames          The frames of the thread.
+     * @return {@code true} if the thread is virtual, {@code false} otherwise.
+     */
+    protected static boolean inferVirtual(final FrameDictionary frameDictionary, final int[] frames) {
+        if (frames.length == 0) return false;
+
+        final StackFrame bottom = frameDictionary.stackFrameOf(frames[frames.length - 1]);
+
+        return bottom != null && VIRTUAL_THREAD_CLASS.equals(bottom.getClassName()) && "run".equals(bottom.getMethodName());
+    }
+
+    /**
+     * Key of a calling stack in the map of shared calling stacks.
+     */
+    private static final class CallingStack {
+        private final int[] frames;
+        private final int hash;
+
+        private CallingStack(final int[] frames) {
+            this.frames = frames;
+            this.hash = Arrays.hashCode(frames);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof CallingStack && Arrays.equals(this.frames, ((CallingStack) o).frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
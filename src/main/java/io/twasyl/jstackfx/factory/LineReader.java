@@ -0,0 +1,176 @@
+package io.twasyl.jstackfx.factory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads lines from a stream of bytes while keeping track of the position of each line in the stream. Lines are
+ * terminated by {@code \n} or {@code \r\n}. Contrary to a {@link java.io.BufferedReader} the byte offsets of the last
+ * read line are known, which allows to read again a range of lines afterwards without keeping them in memory.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class LineReader implements Closeable {
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream input;
+    private final Charset charset;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private byte[] pendingLine = new byte[256];
+    private int pendingLineLength = 0;
+
+    private long offset;
+    private long lineStart = -1;
+    private long lineEnd = -1;
+    private boolean lineTerminated = false;
+
+    public LineReader(final InputStream input) {
+        this(input, StandardCharsets.UTF_8, 0);
+    }
+
+    /**
+     * Creates a reader for the given input.
+     *
+     * @param input         The input to read lines from.
+     * @param charset       The charset used to decode lines.
+     * @param initialOffset The offset of the first byte of the input, used when the input doesn't start at the
+     *                      beginning of the underlying content.
+     */
+    public LineReader(final InputStream input, final Charset charset, final long initialOffset) {
+        if (input == null) throw new NullPointerException("The input can not be null");
+        if (charset == null) throw new NullPointerException("The charset can not be null");
+
+        this.input = input;
+        this.charset = charset;
+        this.offset = initialOffset;
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return The next line without its terminator, or {@code null} if the end of the input has been reached.
+     * @throws IOException If the input can not be read.
+     */
+    public String readLine() throws IOException {
+        this.pendingLineLength = 0;
+        final long start = this.offset;
+        boolean bytesRead = false;
+
+        while (true) {
+            if (this.position == this.limit && !this.fill()) {
+                if (!bytesRead) return null;
+                this.lineTerminated = false;
+                return this.pendingLine(start);
+            }
+
+            bytesRead = true;
+            int index = this.position;
+
+            while (index < this.limit && this.buffer[index] != '\n') index++;
+
+            if (index < this.limit) {
+                final int length = index - this.position;
+                final String line;
+
+                if (this.pendingLineLength == 0) {
+                    line = this.decode(this.buffer, this.position, length, start);
+                } else {
+                    this.appendToPendingLine(this.position, length);
+                    line = this.pendingLine(start);
+                }
+
+                this.offset += length + 1;
+                this.position = index + 1;
+                this.lineTerminated = true;
+                return line;
+            } else {
+                this.appendToPendingLine(this.position, this.limit - this.position);
+                this.offset += this.limit - this.position;
+                this.position = this.limit;
+            }
+        }
+    }
+
+    /**
+     * Get the offset of the first byte of the last read line.
+     *
+     * @return The offset of the beginning of the last read line.
+     */
+    public long getLineStart() {
+        return lineStart;
+    }
+
+    /**
+     * Get the offset following the last byte of the last read line, its terminator excluded.
+     *
+     * @return The offset of the end of the last read line.
+     */
+    public long getLineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Indicates if the last read line was followed by a terminator. The last line of the input may not be, for
+     * instance when the input is a file still being written.
+     *
+     * @return {@code true} if the last read line is terminated, {@code false} otherwise.
+     */
+    public boolean isLineTerminated() {
+        return lineTerminated;
+    }
+
+    /**
+     * Get the offset of the next byte to be read.
+     *
+     * @return The offset of the next byte to be read.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    private boolean fill() throws IOException {
+        final int read = this.input.read(this.buffer);
+
+        if (read <= 0) {
+            return false;
+        } else {
+            this.position = 0;
+            this.limit = read;
+            return true;
+        }
+    }
+
+    private void appendToPendingLine(final int from, final int length) {
+        if (this.pendingLineLength + length > this.pendingLine.length) {
+            this.pendingLine = Arrays.copyOf(this.pendingLine, Math.max(this.pendingLine.length * 2, this.pendingLineLength + length));
+        }
+
+        System.arraycopy(this.buffer, from, this.pendingLine, this.pendingLineLength, length);
+        this.pendingLineLength += length;
+    }
+
+    private String pendingLine(final long start) {
+        return this.decode(this.pendingLine, 0, this.pendingLineLength, start);
+    }
+
+    private String decode(final byte[] bytes, final int from, final int length, final long start) {
+        final int lineLength = length > 0 && bytes[from + length - 1] == '\r' ? length - 1 : length;
+
+        this.lineStart = start;
+        this.lineEnd = start + lineLength;
+
+        return new String(bytes, from, lineLength, this.charset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.input.close();
+    }
+}
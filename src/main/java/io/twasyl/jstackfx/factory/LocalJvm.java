@@ -0,0 +1,48 @@
+package io.twasyl.jstackfx.factory;
+
+/**
+ * A Java virtual machine running on the local host, as found by {@link LocalJvmDiscovery}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class LocalJvm {
+    private final long processId;
+    private final String displayName;
+
+    public LocalJvm(final long processId, final String displayName) {
+        this.processId = processId;
+        this.displayName = displayName == null ? "" : displayName;
+    }
+
+    public long getProcessId() {
+        return processId;
+    }
+
+    /**
+     * Get the name of the virtual machine, which is usually its main class or jar followed by its arguments.
+     *
+     * @return The name of the virtual machine, or an empty string if unknown.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return processId == ((LocalJvm) o).processId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(processId);
+    }
+
+    @Override
+    public String toString() {
+        return this.displayName.isEmpty() ? String.valueOf(this.processId) : this.processId + " " + this.displayName;
+    }
+}
@@ -0,0 +1,175 @@
+package io.twasyl.jstackfx.factory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Finds the Java virtual machines running on the local host. The attach provider of the
+ * {@link AttachDumpCapture Attach API} is used when available. Otherwise the {@code hsperfdata_<user>} directories of
+ * the temporary directory are scanned: each HotSpot virtual machine creates a file named after its process ID in such
+ * a directory, unless it has been started with {@code -XX:-UsePerfData}. The running virtual machine isn't part of
+ * the discovered ones.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class LocalJvmDiscovery {
+    private static final Logger LOGGER = Logger.getLogger(LocalJvmDiscovery.class.getName());
+
+    protected static final String VIRTUAL_MACHINE_DESCRIPTOR_CLASS = "com.sun.tools.attach.VirtualMachineDescriptor";
+    protected static final String HSPERFDATA_DIRECTORY_PREFIX = "hsperfdata_";
+    protected static final String JAVA_COMMAND_COUNTER = "sun.rt.javaCommand";
+
+    private LocalJvmDiscovery() {
+    }
+
+    /**
+     * Find the Java virtual machines running on the local host.
+     *
+     * @return The virtual machines, sorted by process ID.
+     */
+    public static List<LocalJvm> discover() {
+        final Map<Long, LocalJvm> jvms = new LinkedHashMap<>();
+
+        listFromAttachProvider().forEach(jvm -> jvms.put(jvm.getProcessId(), jvm));
+
+        if (jvms.isEmpty()) {
+            listFromPerfData(new File(System.getProperty("java.io.tmpdir"))).forEach(jvm -> jvms.putIfAbsent(jvm.getProcessId(), jvm));
+        }
+
+        jvms.remove(currentProcessId());
+
+        final List<LocalJvm> result = new ArrayList<>(jvms.values());
+        result.sort(Comparator.comparingLong(LocalJvm::getProcessId));
+        return result;
+    }
+
+    /**
+     * List the virtual machines known by the attach provider.
+     *
+     * @return The virtual machines, or an empty list if the Attach API isn't available.
+     */
+    protected static List<LocalJvm> listFromAttachProvider() {
+        final List<LocalJvm> jvms = new ArrayList<>();
+        final Class<?> vmClass = AttachDumpCapture.getVirtualMachineClass();
+
+        if (vmClass == null) return jvms;
+
+        try {
+            final Class<?> descriptorClass = vmClass.getClassLoader().loadClass(VIRTUAL_MACHINE_DESCRIPTOR_CLASS);
+            final Method idMethod = descriptorClass.getMethod("id");
+            final Method displayNameMethod = descriptorClass.getMethod("displayName");
+
+            for (final Object descriptor : (List<?>) vmClass.getMethod("list").invoke(null)) {
+                final String id = (String) idMethod.invoke(descriptor);
+                final String displayName = (String) displayNameMethod.invoke(descriptor);
+
+                try {
+                    jvms.add(new LocalJvm(Long.parseLong(id), displayName));
+                } catch (NumberFormatException e) {
+                    LOGGER.log(Level.FINE, "Ignoring the virtual machine " + id + " which is not a local process");
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Can not list the virtual machines using the Attach API", e);
+        }
+
+        return jvms;
+    }
+
+    /**
+     * List the virtual machines having a performance data file in a {@code hsperfdata_<user>} directory of the given
+     * temporary directory. Files of processes which aren't running anymore are ignored when it can be determined.
+     *
+     * @param temporaryDirectory The temporary directory containing the {@code hsperfdata_<user>} directories.
+     * @return The virtual machines.
+     */
+    protected static List<LocalJvm> listFromPerfData(final File temporaryDirectory) {
+        final List<LocalJvm> jvms = new ArrayList<>();
+        final File[] directories = temporaryDirectory.listFiles(file -> file.isDirectory() && file.getName().startsWith(HSPERFDATA_DIRECTORY_PREFIX));
+
+        if (directories == null) return jvms;
+
+        final File processes = new File("/proc");
+
+        for (final File directory : directories) {
+            final File[] files = directory.listFiles();
+            if (files == null) continue;
+
+            for (final File file : files) {
+                final long processId;
+
+                try {
+                    processId = Long.parseLong(file.getName());
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+
+                if (processes.isDirectory() && !new File(processes, file.getName()).exists()) continue;
+
+                jvms.add(new LocalJvm(processId, javaCommandOf(file)));
+            }
+        }
+
+        return jvms;
+    }
+
+    /**
+     * Extract the command of a virtual machine from its performance data file. The command is the value of the
+     * {@code sun.rt.javaCommand} string counter, which directly follows its name in the file.
+     *
+     * @param perfData The performance data file.
+     * @return The command of the virtual machine, or {@code null} if it can not be found.
+     */
+    protected static String javaCommandOf(final File perfData) {
+        try {
+            final byte[] content = Files.readAllBytes(perfData.toPath());
+            final byte[] name = JAVA_COMMAND_COUNTER.getBytes(StandardCharsets.US_ASCII);
+            int index = indexOf(content, name);
+
+            if (index < 0) return null;
+
+            index += name.length;
+            while (index < content.length && content[index] == 0) index++;
+
+            final int start = index;
+            while (index < content.length && content[index] != 0) index++;
+
+            return new String(content, start, index - start, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Can not read the performance data file " + perfData, e);
+            return null;
+        }
+    }
+
+    private static int indexOf(final byte[] content, final byte[] searched) {
+        for (int index = 0; index <= content.length - searched.length; index++) {
+            int matched = 0;
+            while (matched < searched.length && content[index + matched] == searched[matched]) matched++;
+            if (matched == searched.length) return index;
+        }
+
+        return -1;
+    }
+
+    protected static long currentProcessId() {
+        final String name = ManagementFactory.getRuntimeMXBean().getName();
+
+        try {
+            return Long.parseLong(name.substring(0, name.indexOf('@')));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
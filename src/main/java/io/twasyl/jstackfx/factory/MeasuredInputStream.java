@@ -0,0 +1,72 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.LoadStatistics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream measuring the content read from another one: the number of bytes and lines read and the time spent
+ * reading them are added to {@link LoadStatistics statistics}. It is meant to wrap the raw input, below any buffering,
+ * so that reads are made by chunks and measuring them doesn't slow the reading down.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class MeasuredInputStream extends FilterInputStream {
+
+    private final LoadStatistics statistics;
+
+    public MeasuredInputStream(final InputStream input, final LoadStatistics statistics) {
+        super(input);
+
+        if (input == null) throw new NullPointerException("The input can not be null");
+        if (statistics == null) throw new NullPointerException("The statistics can not be null");
+
+        this.statistics = statistics;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final long start = System.nanoTime();
+        final int read = super.read();
+        final long nanos = System.nanoTime() - start;
+
+        if (read >= 0) {
+            this.statistics.addRead(1, read == '\n' ? 1 : 0, nanos);
+        } else {
+            this.statistics.addRead(0, 0, nanos);
+        }
+
+        return read;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        final long start = System.nanoTime();
+        final int read = super.read(buffer, offset, length);
+        final long nanos = System.nanoTime() - start;
+        int lines = 0;
+
+        for (int index = offset; index < offset + read; index++) {
+            if (buffer[index] == '\n') lines++;
+        }
+
+        this.statistics.addRead(Math.max(0, read), lines, nanos);
+        return read;
+    }
+
+    @Override
+    public long skip(final long count) throws IOException {
+        final long start = System.nanoTime();
+        final long skipped = super.skip(count);
+        this.statistics.addRead(skipped, 0, System.nanoTime() - start);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+}
@@ -0,0 +1,184 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.exceptions.DumpException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Captures thread dumps of several processes at the same moment. Captures run concurrently on a bounded pool whose
+ * threads are started before any capture is submitted, so that all captures start within a short delay of each other
+ * when there are no more processes than threads. Each capture is given a timeout, measured from its start: a process
+ * which doesn't answer in time is reported as failed without delaying the results of the other ones, and its capture
+ * is aborted like the ones of an {@link AsyncDumpCapture}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class MultiDumpCapture {
+
+    public static final int DEFAULT_PARALLELISM = 16;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final AsyncDumpCapture capture;
+    private final int parallelism;
+    private final Duration timeout;
+
+    /**
+     * Creates a capture of several processes using the Attach API when available and {@code jstack} otherwise. The
+     * {@code jstack} process or the reply of a virtual machine which doesn't answer in time is released.
+     */
+    public MultiDumpCapture() {
+        this(new AsyncDumpCapture(Runnable::run), DEFAULT_PARALLELISM, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a capture of several processes. A capture which doesn't answer in time is interrupted.
+     *
+     * @param capture     Captures the dump of one process.
+     * @param parallelism The maximum number of captures running at the same time.
+     * @param timeout     The maximum duration of the capture of one process.
+     */
+    public MultiDumpCapture(final DumpCapture capture, final int parallelism, final Duration timeout) {
+        this(asyncCapture(capture), parallelism, timeout);
+    }
+
+    private MultiDumpCapture(final AsyncDumpCapture capture, final int parallelism, final Duration timeout) {
+        if (timeout == null) throw new NullPointerException("The timeout can not be null");
+        if (parallelism < 1) throw new IllegalArgumentException("The parallelism must be at least 1");
+        if (timeout.isNegative() || timeout.isZero()) throw new IllegalArgumentException("The timeout must be positive");
+
+        this.capture = capture;
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Capture the thread dumps of the given virtual machines. The {@link Dump#getGenerationDateTime() generation date}
+     * of each dump is the moment all captures have been started, and its {@link Dump#getProcessId() process} is set.
+     *
+     * @param jvms The virtual machines to capture.
+     * @return The result of the capture of each virtual machine, in the order of the given ones.
+     */
+    public List<Result> captureAll(final List<LocalJvm> jvms) {
+        if (jvms == null) throw new NullPointerException("The virtual machines can not be null");
+
+        final List<Result> results = new ArrayList<>(jvms.size());
+        if (jvms.isEmpty()) return results;
+
+        final int threads = Math.min(this.parallelism, jvms.size());
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("jstackfx-capture-"));
+
+        try {
+            executor.prestartAllCoreThreads();
+
+            final List<CompletableFuture<Dump>> captures = new ArrayList<>(jvms.size());
+            final LocalDateTime captureDateTime = LocalDateTime.now();
+
+            for (final LocalJvm jvm : jvms) {
+                final CompletableFuture<Dump> capture = new CompletableFuture<>();
+
+                // The capture runs in the thread of the pool and its deadline starts now
+                executor.execute(() -> this.capture.capture(jvm.getProcessId(), this.timeout, null).whenComplete((dump, error) -> {
+                    if (error == null) capture.complete(dump);
+                    else capture.completeExceptionally(error);
+                }));
+
+                captures.add(capture);
+            }
+
+            for (int index = 0; index < jvms.size(); index++) {
+                results.add(this.resultOf(jvms.get(index), captures.get(index), captureDateTime));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return results;
+    }
+
+    private Result resultOf(final LocalJvm jvm, final CompletableFuture<Dump> capture, final LocalDateTime captureDateTime) {
+        try {
+            final Dump dump = capture.get();
+
+            dump.setGenerationDateTime(captureDateTime);
+            dump.setProcessId(jvm.getProcessId());
+            dump.setProcessName(jvm.getDisplayName());
+            return new Result(jvm, dump, null);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            return new Result(jvm, null, cause instanceof DumpException ? (DumpException) cause : new DumpException(cause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(jvm, null, new DumpException("The capture of the process " + jvm.getProcessId() + " has been interrupted", e));
+        }
+    }
+
+    /**
+     * Get an asynchronous capture running the given capture in the calling thread, which is interrupted when the
+     * capture is aborted.
+     *
+     * @param capture Captures the dump of one process.
+     * @return The asynchronous capture.
+     */
+    private static AsyncDumpCapture asyncCapture(final DumpCapture capture) {
+        if (capture == null) throw new NullPointerException("The capture can not be null");
+
+        return new AsyncDumpCapture(Runnable::run) {
+            @Override
+            protected Dump captureDump(final Task task) throws DumpException {
+                return capture.capture(task.getProcessId());
+            }
+        };
+    }
+
+    private static ThreadFactory threadFactory(final String prefix) {
+        final AtomicInteger number = new AtomicInteger(0);
+
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The result of the capture of one virtual machine: either its dump or the reason of the failure.
+     */
+    public static class Result {
+        private final LocalJvm jvm;
+        private final Dump dump;
+        private final DumpException error;
+
+        protected Result(final LocalJvm jvm, final Dump dump, final DumpException error) {
+            this.jvm = jvm;
+            this.dump = dump;
+            this.error = error;
+        }
+
+        public LocalJvm getJvm() { return jvm; }
+
+        /**
+         * @return The dump of the virtual machine, or {@code null} if the capture failed.
+         */
+        public Dump getDump() { return dump; }
+
+        /**
+         * @return The reason of the failure, or {@code null} if the capture succeeded.
+         */
+        public DumpException getError() { return error; }
+
+        public boolean isSuccessful() { return dump != null; }
+    }
+}
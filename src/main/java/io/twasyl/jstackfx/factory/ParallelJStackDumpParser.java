@@ -0,0 +1,119 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpSource;
+import io.twasyl.jstackfx.beans.FrameDictionary;
+import io.twasyl.jstackfx.beans.LoadStatistics;
+import io.twasyl.jstackfx.beans.SourceRange;
+import io.twasyl.jstackfx.beans.ThreadElement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Implementation of {@link JStackDumpParser} building the {@link ThreadElement thread elements} in parallel. The lines
+ * are still read in a single pass in order to find the boundaries of each thread, but threads are grouped in batches
+ * that are built on a {@link ForkJoinPool}. The number of batches waiting to be built is bounded so that the memory
+ * used stays proportional to the number of threads being built and not to the size of the dump.
+ * The order of the threads in {@link Dump#getElements()} is the order of the threads in the dump, and the
+ * {@link ThreadElement#getDump() dump} of each element is set once all threads have been built.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class ParallelJStackDumpParser<D extends Dump> extends JStackDumpParser<D> {
+
+    protected static final int BATCH_SIZE = 64;
+
+    private final ForkJoinPool pool;
+    private final int maximumPendingBatches;
+    private final Deque<ForkJoinTask<List<ThreadElement>>> pendingBatches = new ArrayDeque<>();
+    private List<String[]> currentBatch = new ArrayList<>(BATCH_SIZE);
+    private List<SourceRange> currentBatchRanges = new ArrayList<>(BATCH_SIZE);
+
+    public ParallelJStackDumpParser(final D dump) {
+        this(dump, null, ForkJoinPool.commonPool());
+    }
+
+    public ParallelJStackDumpParser(final D dump, final ForkJoinPool pool) {
+        this(dump, null, pool);
+    }
+
+    public ParallelJStackDumpParser(final D dump, final DumpSource source, final ForkJoinPool pool) {
+        super(dump, source);
+        if (pool == null) throw new NullPointerException("The pool can not be null");
+
+        this.pool = pool;
+        this.maximumPendingBatches = Math.max(2, pool.getParallelism() * 2);
+    }
+
+    @Override
+    protected void threadClosed(final List<String> lines, final SourceRange range) {
+        this.currentBatch.add(lines.toArray(new String[lines.size()]));
+        this.currentBatchRanges.add(range);
+
+        if (this.currentBatch.size() == BATCH_SIZE) {
+            this.submitCurrentBatch();
+
+            while (this.pendingBatches.size() > this.maximumPendingBatches) {
+                this.joinOldestBatch();
+            }
+        }
+    }
+
+    @Override
+    public D end() {
+        super.end();
+
+        if (!this.currentBatch.isEmpty()) {
+            this.submitCurrentBatch();
+        }
+
+        while (!this.pendingBatches.isEmpty()) {
+            this.joinOldestBatch();
+        }
+
+        final LoadStatistics statistics = this.dump.getLoadStatistics();
+        final long start = statistics == null ? 0 : System.nanoTime();
+
+        this.dump.getElements().forEach(thread -> thread.setDump(this.dump));
+
+        if (statistics != null) statistics.addNanos(LoadStatistics.Phase.MODEL, System.nanoTime() - start);
+
+        return this.dump;
+    }
+
+    protected void submitCurrentBatch() {
+        final List<String[]> batch = this.currentBatch;
+        final List<SourceRange> ranges = this.currentBatchRanges;
+        final FrameDictionary frameDictionary = this.dump.getFrameDictionary();
+        final LoadStatistics statistics = this.dump.getLoadStatistics();
+        this.currentBatch = new ArrayList<>(BATCH_SIZE);
+        this.currentBatchRanges = new ArrayList<>(BATCH_SIZE);
+
+        this.pendingBatches.addLast(this.pool.submit(() -> {
+            final List<ThreadElement> threads = new ArrayList<>(batch.size());
+
+            for (int index = 0; index < batch.size(); index++) {
+                threads.add(ThreadElementFactory.build(Arrays.asList(batch.get(index)), ranges.get(index), frameDictionary, statistics));
+            }
+
+            return threads;
+        }));
+    }
+
+    protected void joinOldestBatch() {
+        final List<ThreadElement> threads = this.pendingBatches.removeFirst().join();
+        final LoadStatistics statistics = this.dump.getLoadStatistics();
+        final long start = statistics == null ? 0 : System.nanoTime();
+
+        this.dump.getElements().addAll(threads);
+
+        if (statistics != null) statistics.addNanos(LoadStatistics.Phase.MODEL, System.nanoTime() - start);
+    }
+}
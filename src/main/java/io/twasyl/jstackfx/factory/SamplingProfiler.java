@@ -0,0 +1,157 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.CallTree;
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.exceptions.DumpException;
+
+import java.io.Closeable;
+import java.time.Duration;
+
+/**
+ * Profiles a process by sampling the calling stacks of its threads at a high frequency, typically from 20 to 100
+ * samples per second. Each captured dump is folded into a {@link CallTree call tree} and discarded, so that the memory
+ * used by a profiling doesn't depend on its duration. Dumps are captured by a {@link DumpSampler sampler}.
+ * <p>
+ * By default, dumps are captured {@link JmxDumpCapture through JMX}, keeping the same connection for the whole
+ * profiling. If the process can't be captured through JMX, thread dumps are made using {@link DumpFactory#make(long)}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class SamplingProfiler implements Closeable {
+
+    private final CallTree callTree;
+    private final DumpSampler sampler;
+    private JmxDumpCapture jmxCapture;
+
+    /**
+     * Creates a profiler of the runnable threads of the given process, capturing dumps through JMX.
+     *
+     * @param processId The ID of the process to profile.
+     * @param listener  Receives the events of the profiling.
+     */
+    public SamplingProfiler(final long processId, final Listener listener) {
+        this(processId, new JmxDumpCapture(processId), listener);
+    }
+
+    private SamplingProfiler(final long processId, final JmxDumpCapture jmxCapture, final Listener listener) {
+        this(processId, jmxCapture.orElse(DumpFactory::make), new CallTree(), listener);
+        this.jmxCapture = jmxCapture;
+    }
+
+    /**
+     * Creates a profiler capturing dumps with the given capture.
+     *
+     * @param processId The ID of the process to profile.
+     * @param capture   Captures a dump of the process.
+     * @param callTree  The call tree the dumps are added to.
+     * @param listener  Receives the events of the profiling.
+     */
+    public SamplingProfiler(final long processId, final DumpCapture capture, final CallTree callTree, final Listener listener) {
+        if (capture == null) throw new NullPointerException("The capture can not be null");
+        if (callTree == null) throw new NullPointerException("The call tree can not be null");
+        if (listener == null) throw new NullPointerException("The listener can not be null");
+
+        this.callTree = callTree;
+        this.sampler = new DumpSampler(processId, capture, new DumpSampler.Listener() {
+            @Override
+            public void dumpCaptured(final Dump dump) {
+                synchronized (callTree) {
+                    callTree.add(dump);
+                }
+                listener.sampled(SamplingProfiler.this);
+            }
+
+            @Override
+            public void captureFailed(final DumpException exception) {
+                listener.captureFailed(exception);
+            }
+
+            @Override
+            public void finished() {
+                if (jmxCapture != null) jmxCapture.close();
+                listener.finished(callTree);
+            }
+        });
+    }
+
+    /**
+     * Starts profiling the process in the background.
+     *
+     * @param frequency The number of samples per second, at most the one allowed by {@link DumpSampler#MINIMUM_INTERVAL}.
+     * @param duration  The duration of the profiling.
+     */
+    public void start(final int frequency, final Duration duration) {
+        if (frequency < 1) throw new IllegalArgumentException("The frequency must be at least 1");
+
+        this.sampler.start(Duration.ofNanos(Duration.ofSeconds(1).toNanos() / frequency), duration);
+    }
+
+    public long getProcessId() {
+        return this.sampler.getProcessId();
+    }
+
+    public boolean isRunning() {
+        return this.sampler.isRunning();
+    }
+
+    public long getNumberOfSamples() {
+        return this.sampler.getNumberOfSamples();
+    }
+
+    public long getNumberOfOverruns() {
+        return this.sampler.getNumberOfOverruns();
+    }
+
+    public long getNumberOfFailures() {
+        return this.sampler.getNumberOfFailures();
+    }
+
+    /**
+     * Get the call tree of the profiling. The call tree is modified while the profiling is running: it must only be
+     * read while synchronized on it, or once the profiling is {@link Listener#finished(CallTree) finished}.
+     *
+     * @return The call tree of the profiling.
+     */
+    public CallTree getCallTree() {
+        return callTree;
+    }
+
+    /**
+     * Stops the profiling. The listener is then notified that the profiling is
+     * {@link Listener#finished(CallTree) finished}.
+     */
+    @Override
+    public void close() {
+        this.sampler.close();
+    }
+
+    /**
+     * Receives the events of a profiling. All methods are called from the threads of the profiler.
+     */
+    public interface Listener {
+
+        /**
+         * Called once the profiling is finished.
+         *
+         * @param callTree The call tree of the profiling.
+         */
+        void finished(CallTree callTree);
+
+        /**
+         * Called each time a dump has been added to the call tree.
+         *
+         * @param profiler The profiler.
+         */
+        default void sampled(SamplingProfiler profiler) {
+        }
+
+        /**
+         * Called each time a capture fails.
+         *
+         * @param exception The reason of the failure.
+         */
+        default void captureFailed(DumpException exception) {
+        }
+    }
+}
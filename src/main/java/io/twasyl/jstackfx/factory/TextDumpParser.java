@@ -0,0 +1,38 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link DumpParser Parser} of thread dumps in the text format of HotSpot, as printed by {@code jstack},
+ * {@code jcmd <pid> Thread.print} or a {@code kill -3} signal. The content can contain several dumps as well as lines
+ * which aren't part of any dump, like the lines of a log.
+ *
+ * @author Thierry Wasylczenko
+ * @see DumpTimelineParser
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class TextDumpParser implements DumpParser {
+
+    @Override
+    public String getName() {
+        return "jstack";
+    }
+
+    @Override
+    public boolean accepts(final String head) {
+        return head.startsWith(DumpTimelineParser.FULL_THREAD_DUMP_LINE_START) ||
+                head.contains("\n" + DumpTimelineParser.FULL_THREAD_DUMP_LINE_START);
+    }
+
+    @Override
+    public <D extends Dump> void parse(final InputStream input, final Supplier<D> dumpSupplier, final DumpSource source,
+                                       final boolean parallel, final Consumer<? super D> dumpConsumer) throws IOException {
+        new DumpTimelineParser<>(dumpSupplier, source, parallel, dumpConsumer).parse(new LineReader(input));
+    }
+}
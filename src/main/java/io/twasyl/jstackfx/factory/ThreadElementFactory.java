@@ -1,5 +1,8 @@
 package io.twasyl.jstackfx.factory;
 
+import io.twasyl.jstackfx.beans.FrameDictionary;
+import io.twasyl.jstackfx.beans.LoadStatistics;
+import io.twasyl.jstackfx.beans.SourceRange;
 import io.twasyl.jstackfx.beans.ThreadElement;
 import io.twasyl.jstackfx.beans.ThreadReference;
 
@@ -21,37 +24,301 @@ public class ThreadElementFactory {
     protected static final Pattern THREAD_PRIORITY_PATTERN = Pattern.compile("(\\sprio=([0-9]+))");
     protected static final Pattern THREAD_OS_PRIORITY_PATTERN = Pattern.compile("(os_prio=([0-9]+))");
     protected static final Pattern THREAD_ID_PATTERN = Pattern.compile("(tid=(0x[0-9a-f]+))");
-    protected static final Pattern CALLING_STACK_LINE_MATCHER = Pattern.compile("^\\sat ([a-zA-Z\\.\\$]+)\\([a-zA-Z0-9 \\.:\\$]+\\)");
+    protected static final Pattern CALLING_STACK_LINE_MATCHER = Pattern.compile("^\\sat ([^\\s()]+)\\([^()]+\\)");
     protected static final Pattern LOCKED_OWNALBLE_SYNCHRONIZERS_START = Pattern.compile("^\\s+Locked ownable synchronizers:");
     protected static final Pattern LOCKED_SYNCHRONIZER_PATTERN = Pattern.compile("^\\s+-\\s<(0x[0-9a-f]+)>\\s\\(a ([a-zA-Z\\.\\$]+)\\)$");
     protected static final Pattern HOLDING_LOCKS_PATTERN = Pattern.compile("^\\s+- locked <(0x[0-9a-f]+)>\\s\\(a ([a-zA-Z\\.\\$]+)\\)$");
     protected static final Pattern WAITING_TO_LOCK_PATTERN = Pattern.compile("^\\s+- waiting to lock <(0x[0-9a-f]+)>\\s\\(a ([a-zA-Z\\.\\$]+)\\)$");
     protected static final Pattern PARKING_TO_WAIT_FOR_PATTERN = Pattern.compile("^\\s+- parking to wait for\\s+<(0x[0-9a-f]+)>\\s\\(a ([a-zA-Z\\.\\$]+)\\)$");
 
+    protected static final String CALLING_STACK_LINE_START = "at ";
+    protected static final String HOLDING_LOCK_LINE_START = "- locked <";
+    protected static final String WAITING_TO_LOCK_LINE_START = "- waiting to lock <";
+    protected static final String PARKING_TO_WAIT_FOR_LINE_START = "- parking to wait for";
+    protected static final String LOCKED_OWNABLE_SYNCHRONIZERS_LINE = "Locked ownable synchronizers:";
+
+    /**
+     * Build a {@link ThreadElement} from the lines of a thread. The calling stack, locks and synchronizers are
+     * extracted in a single pass over the lines, each line being classified by its first characters.
+     *
+     * @param lines The lines of the thread.
+     * @return The thread element built from the given lines.
+     */
     public static ThreadElement build(final List<String> lines) {
+        return build(lines, null, null);
+    }
+
+    /**
+     * Build a {@link ThreadElement} from the lines of a thread located at the given range of its dump. When a range is
+     * given, the source isn't kept in the element: it will be read from the range when requested. When a dictionary
+     * is given, the frames of the calling stack are stored in the dictionary and the element only keeps their
+     * identifiers.
+     *
+     * @param lines           The lines of the thread.
+     * @param sourceRange     The location of the lines in the source of the dump, or {@code null} to keep the source
+     *                        in memory.
+     * @param frameDictionary The dictionary storing the frames of the calling stack, or {@code null} to keep the
+     *                        calling stack in memory.
+     * @return The thread element built from the given lines.
+     */
+    public static ThreadElement build(final List<String> lines, final SourceRange sourceRange, final FrameDictionary frameDictionary) {
+        return build(lines, sourceRange, frameDictionary, null);
+    }
+
+    /**
+     * Build a {@link ThreadElement} from the lines of a thread like {@link #build(List, SourceRange, FrameDictionary)}
+     * and measure it. The time spent extracting the information from the lines and the time spent creating the element
+     * and setting its properties are added to the given statistics, as well as the thread, its frames and its locks.
+     *
+     * @param lines           The lines of the thread.
+     * @param sourceRange     The location of the lines in the source of the dump, or {@code null} to keep the source
+     *                        in memory.
+     * @param frameDictionary The dictionary storing the frames of the calling stack, or {@code null} to keep the
+     *                        calling stack in memory.
+     * @param statistics      The statistics to update, or {@code null} if the build isn't measured.
+     * @return The thread element built from the given lines.
+     */
+    public static ThreadElement build(final List<String> lines, final SourceRange sourceRange, final FrameDictionary frameDictionary,
+                                      final LoadStatistics statistics) {
+        final long start = statistics == null ? 0 : System.nanoTime();
+
+        final ExtractedThread thread = new ExtractedThread();
+        extractHeader(thread, lines, sourceRange == null);
+        extractLines(thread, lines, sourceRange == null, frameDictionary);
+
+        final long extracted = statistics == null ? 0 : System.nanoTime();
+
+        final ThreadElement element = new ThreadElement();
+        thread.applyHeaderTo(element);
+        element.setSourceRange(sourceRange);
+        thread.applyLinesTo(element);
+
+        if (statistics != null) {
+            statistics.addNanos(LoadStatistics.Phase.EXTRACTING, extracted - start);
+            statistics.addNanos(LoadStatistics.Phase.MODEL, System.nanoTime() - extracted);
+            statistics.addThread(element);
+        }
+
+        return element;
+    }
+
+    /**
+     * Build the calling stack of a thread from its lines.
+     *
+     * @param lines The lines of the thread.
+     * @return The calling stack of the thread.
+     */
+    public static String buildCallingStack(final List<String> lines) {
+        final StringJoiner callingStack = new StringJoiner("\n");
+
+        for (final String line : lines) {
+            if (indentationOf(line) == 1 && line.startsWith(CALLING_STACK_LINE_START, 1) && isCallingStackLine(line)) {
+                callingStack.add(line.trim());
+            }
+        }
+
+        return callingStack.toString();
+    }
+
+    /**
+     * Build a {@link ThreadElement} from the lines of a thread using a regular expression pass over all lines for each
+     * information to extract. This is the reference implementation of {@link #build(List)}.
+     *
+     * @param lines The lines of the thread.
+     * @return The thread element built from the given lines.
+     */
+    protected static ThreadElement buildWithRegex(final List<String> lines) {
+        final ThreadElement element = buildHeader(lines, true);
+
+        element.setCallingStack(extractCallingStack(lines));
+        element.setLockedSynchronizers(extractLockedSynchronizersFrom(lines));
+        element.setHoldingLocks(extractHoldingLocks(lines));
+        element.setWaitingToLock(extractWaitingToLock(lines));
+        element.setParkingReasons(extractParkingToWaitFor(lines));
+
+        return element;
+    }
+
+    protected static ThreadElement buildHeader(final List<String> lines, final boolean keepSource) {
+        final ExtractedThread thread = new ExtractedThread();
+        extractHeader(thread, lines, keepSource);
+
         final ThreadElement element = new ThreadElement();
+        thread.applyHeaderTo(element);
+        return element;
+    }
 
-        element.setSource(buildSource(lines));
+    protected static void extractHeader(final ExtractedThread thread, final List<String> lines, final boolean keepSource) {
+        if (keepSource) {
+            thread.source = buildSource(lines);
+        }
 
         String line = lines.get(0);
-        element.setName(extractNameFrom(line));
-        element.setNumber(extractThreadNumberFrom(line));
-        element.setPriority(extractPriorityFrom(line));
-        element.setOsPriority(extractOsPriorityFrom(line));
-        element.setThreadId(extractThreadIdFrom(line));
+        thread.name = extractNameFrom(line);
+        thread.number = extractThreadNumberFrom(line);
+        thread.priority = extractPriorityFrom(line);
+        thread.osPriority = extractOsPriorityFrom(line);
+        thread.threadId = extractThreadIdFrom(line);
 
         if(lines.size() > 1) {
             line = lines.get(1);
-            element.setState(extractStateFrom(line));
+            thread.state = extractStateFrom(line);
         }
+    }
 
-        element.setCallingStack(extractCallingStack(lines));
-        element.getLockedSynchronizers().addAll(extractLockedSynchronizersFrom(lines));
-        element.getHoldingLocks().addAll(extractHoldingLocks(lines));
-        element.getWaitingToLock().addAll(extractWaitingToLock(lines));
-        element.getParkingReasons().addAll(extractParkingToWaitFor(lines));
+    /**
+     * Extract the calling stack, the locked synchronizers, the holding locks, the locks the thread is waiting for and
+     * the parking reasons of a thread in a single pass over its lines, without setting them to an element. The result
+     * is the same as the one of the {@code extract*} methods and is set to an element by
+     * {@link ExtractedThread#applyLinesTo(ThreadElement)}.
+     *
+     * @param thread           The extracted information to fill.
+     * @param lines            The lines of the thread.
+     * @param keepCallingStack Indicates if the calling stack is kept or only counted.
+     * @param frameDictionary  The dictionary storing the frames of the calling stack, or {@code null}.
+     */
+    protected static void extractLines(final ExtractedThread thread, final List<String> lines, final boolean keepCallingStack, final FrameDictionary frameDictionary) {
+        final StringJoiner callingStack = new StringJoiner("\n");
 
-        return element;
+        int stackDepth = 0;
+        int[] frames = frameDictionary == null ? null : new int[lines.size()];
+        boolean synchronizersStartFound = false;
+        boolean inSynchronizers = false;
+
+        for (final String line : lines) {
+            final int indentation = indentationOf(line);
+            final boolean indentedDash = indentation > 0 && indentation < line.length() - 1 && line.charAt(indentation) == '-';
+
+            if (inSynchronizers) {
+                inSynchronizers = indentedDash;
+
+                if (inSynchronizers && isWhitespace(line, indentation + 1)) {
+                    addReference(thread.synchronizers, line, indentation + 2);
+                }
+            }
+
+            if (indentation == 0 || indentation == line.length()) continue;
+
+            if (indentedDash) {
+                if (line.startsWith(HOLDING_LOCK_LINE_START, indentation)) {
+                    addReference(thread.holdingLocks, line, indentation + HOLDING_LOCK_LINE_START.length() - 1);
+                } else if (line.startsWith(WAITING_TO_LOCK_LINE_START, indentation)) {
+                    addReference(thread.waitingToLock, line, indentation + WAITING_TO_LOCK_LINE_START.length() - 1);
+                } else if (line.startsWith(PARKING_TO_WAIT_FOR_LINE_START, indentation)) {
+                    int index = indentation + PARKING_TO_WAIT_FOR_LINE_START.length();
+
+                    if (isWhitespace(line, index)) {
+                        while (isWhitespace(line, index)) index++;
+                        addReference(thread.parkingReasons, line, index);
+                    }
+                }
+            } else if (indentation == 1 && line.startsWith(CALLING_STACK_LINE_START, indentation)) {
+                if (isCallingStackLine(line)) {
+                    if (frames != null) {
+                        frames[stackDepth] = frameDictionary.idOf(line.trim());
+                    } else if (keepCallingStack) {
+                        callingStack.add(line.trim());
+                    }
+
+                    stackDepth++;
+                }
+            } else if (!synchronizersStartFound && line.startsWith(LOCKED_OWNABLE_SYNCHRONIZERS_LINE, indentation)
+                    && line.length() == indentation + LOCKED_OWNABLE_SYNCHRONIZERS_LINE.length()) {
+                synchronizersStartFound = true;
+                inSynchronizers = true;
+            }
+        }
+
+        if (frames != null) {
+            thread.frameDictionary = frameDictionary;
+            thread.frames = Arrays.copyOf(frames, stackDepth);
+        } else if (keepCallingStack) {
+            thread.callingStack = callingStack.toString();
+        }
+
+        thread.stackDepth = stackDepth;
+    }
+
+    /**
+     * Determine if the given line is a line of a calling stack, i.e. {@code at class.method(location)}. The method can
+     * be prefixed by a class loader and a module, like in {@code at java.base@17/java.lang.Thread.sleep(Native Method)}.
+     *
+     * @param line The line to test.
+     * @return {@code true} if the line is an element of a calling stack, {@code false} otherwise.
+     */
+    protected static boolean isCallingStackLine(final String line) {
+        int index = 1 + CALLING_STACK_LINE_START.length();
+        final int methodStart = index;
+
+        while (index < line.length() && isFrameNameCharacter(line.charAt(index))) index++;
+
+        if (index == methodStart || index == line.length() || line.charAt(index) != '(') return false;
+
+        final int locationStart = ++index;
+
+        while (index < line.length() && isFrameLocationCharacter(line.charAt(index))) index++;
+
+        return index > locationStart && index == line.length() - 1 && line.charAt(index) == ')';
+    }
+
+    /**
+     * Parse a reference of the form {@code <0x...> (a class.Name)} ending the line and add it to the given
+     * references.
+     *
+     * @param references The references to add the parsed reference to.
+     * @param line       The line containing the reference.
+     * @param start      The index of the {@code <} starting the reference in the line.
+     */
+    protected static void addReference(final Set<ThreadReference> references, final String line, final int start) {
+        if (!line.startsWith("<0x", start)) return;
+
+        int index = start + 3;
+        final int idStart = index;
+
+        while (index < line.length() && isHexadecimalCharacter(line.charAt(index))) index++;
+
+        if (index == idStart || !line.startsWith(">", index) || !isWhitespace(line, index + 1) || !line.startsWith("(a ", index + 2)) return;
+
+        final String threadId = line.substring(start + 1, index);
+
+        index += 5;
+        final int classNameStart = index;
+
+        while (index < line.length() && isClassNameCharacter(line.charAt(index))) index++;
+
+        if (index > classNameStart && index == line.length() - 1 && line.charAt(index) == ')') {
+            final ThreadReference reference = new ThreadReference(threadId, line.substring(classNameStart, index));
+            references.add(reference);
+        }
+    }
+
+    protected static int indentationOf(final String line) {
+        int index = 0;
+        while (isWhitespace(line, index)) index++;
+        return index;
+    }
+
+    protected static boolean isWhitespace(final String line, final int index) {
+        if (index >= line.length()) return false;
+
+        final char character = line.charAt(index);
+        return character == ' ' || character == '\t' || character == '\n' || character == '\u000B' || character == '\f' || character == '\r';
+    }
+
+    protected static boolean isClassNameCharacter(final char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') || character == '.' || character == '$';
+    }
+
+    protected static boolean isFrameNameCharacter(final char character) {
+        return character != '(' && character != ')' && !Character.isWhitespace(character);
+    }
+
+    protected static boolean isFrameLocationCharacter(final char character) {
+        return character != '(' && character != ')';
+    }
+
+    protected static boolean isHexadecimalCharacter(final char character) {
+        return (character >= '0' && character <= '9') || (character >= 'a' && character <= 'f');
     }
 
     protected static String buildSource(final List<String> lines) {
@@ -157,9 +424,7 @@ public class ThreadElementFactory {
                     final Matcher synchronizerMatcher = LOCKED_SYNCHRONIZER_PATTERN.matcher(line);
 
                     if (synchronizerMatcher.matches()) {
-                        final ThreadReference synchronizer = new ThreadReference();
-                        synchronizer.setThreadId(synchronizerMatcher.group(1));
-                        synchronizer.setClassName(synchronizerMatcher.group(2));
+                        final ThreadReference synchronizer = new ThreadReference(synchronizerMatcher.group(1), synchronizerMatcher.group(2));
                         synchronizers.add(synchronizer);
                     }
                 }
@@ -178,9 +443,7 @@ public class ThreadElementFactory {
             final Matcher waitingToLockMatcher = WAITING_TO_LOCK_PATTERN.matcher(line);
 
             if(waitingToLockMatcher.matches()) {
-                final ThreadReference synchronizer = new ThreadReference();
-                synchronizer.setThreadId(waitingToLockMatcher.group(1));
-                synchronizer.setClassName(waitingToLockMatcher.group(2));
+                final ThreadReference synchronizer = new ThreadReference(waitingToLockMatcher.group(1), waitingToLockMatcher.group(2));
                 waitingToLock.add(synchronizer);
             }
         }
@@ -195,9 +458,7 @@ public class ThreadElementFactory {
             final Matcher holdingLocksMatcher = HOLDING_LOCKS_PATTERN.matcher(line);
 
             if(holdingLocksMatcher.matches()) {
-                final ThreadReference synchronizer = new ThreadReference();
-                synchronizer.setThreadId(holdingLocksMatcher.group(1));
-                synchronizer.setClassName(holdingLocksMatcher.group(2));
+                final ThreadReference synchronizer = new ThreadReference(holdingLocksMatcher.group(1), holdingLocksMatcher.group(2));
                 holdingLocks.add(synchronizer);
             }
         }
@@ -212,13 +473,63 @@ public class ThreadElementFactory {
             final Matcher parkingMatcher = PARKING_TO_WAIT_FOR_PATTERN.matcher(line);
 
             if(parkingMatcher.matches()) {
-                final ThreadReference synchronizer = new ThreadReference();
-                synchronizer.setThreadId(parkingMatcher.group(1));
-                synchronizer.setClassName(parkingMatcher.group(2));
+                final ThreadReference synchronizer = new ThreadReference(parkingMatcher.group(1), parkingMatcher.group(2));
                 parkingReasons.add(synchronizer);
             }
         }
 
         return parkingReasons;
     }
+
+    /**
+     * Information extracted from the lines of a thread, before it is set to a {@link ThreadElement}. Extracting the
+     * information and setting the properties of the element are separated so that each can be measured.
+     */
+    protected static class ExtractedThread {
+        private String source;
+        private String name;
+        private long number;
+        private int priority;
+        private int osPriority;
+        private String threadId;
+        private Thread.State state;
+        private String callingStack;
+        private FrameDictionary frameDictionary;
+        private int[] frames;
+        private int stackDepth;
+        private final Set<ThreadReference> synchronizers = new HashSet<>();
+        private final Set<ThreadReference> holdingLocks = new LinkedHashSet<>();
+        private final Set<ThreadReference> waitingToLock = new LinkedHashSet<>();
+        private final Set<ThreadReference> parkingReasons = new LinkedHashSet<>();
+
+        protected void applyHeaderTo(final ThreadElement element) {
+            if (this.source != null) {
+                element.setSource(this.source);
+            }
+
+            element.setName(this.name);
+            element.setNumber(this.number);
+            element.setPriority(this.priority);
+            element.setOsPriority(this.osPriority);
+            element.setThreadId(this.threadId);
+
+            if (this.state != null) {
+                element.setState(this.state);
+            }
+        }
+
+        protected void applyLinesTo(final ThreadElement element) {
+            if (this.frames != null) {
+                element.setFrames(this.frameDictionary, this.frames);
+            } else if (this.callingStack != null) {
+                element.setCallingStack(this.callingStack);
+            }
+
+            element.setStackDepth(this.stackDepth);
+            element.setLockedSynchronizers(this.synchronizers);
+            element.setHoldingLocks(this.holdingLocks);
+            element.setWaitingToLock(this.waitingToLock);
+            element.setParkingReasons(this.parkingReasons);
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package io.twasyl.jstackfx.factory;
+
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A condition on the {@link Indicators indicators} of a virtual machine, triggering a burst of thread dumps when a
+ * {@link DumpWatcher watcher} finds it fulfilled. Rules can be combined with {@link #or(WatchRule)}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+@FunctionalInterface
+public interface WatchRule {
+
+    /**
+     * Indicates if this rule is fulfilled by the given indicators.
+     *
+     * @param indicators The indicators of the virtual machine.
+     * @return {@code true} if a burst of thread dumps must be captured, {@code false} otherwise.
+     */
+    boolean fires(Indicators indicators);
+
+    /**
+     * Get a rule fulfilled when this rule or the given one is fulfilled. The given rule is only evaluated when this one
+     * isn't fulfilled.
+     *
+     * @param other The other rule.
+     * @return The combined rule.
+     */
+    default WatchRule or(final WatchRule other) {
+        if (other == null) throw new NullPointerException("The other rule can not be null");
+        return indicators -> this.fires(indicators) || other.fires(indicators);
+    }
+
+    /**
+     * @param maximum The maximum number of live threads.
+     * @return A rule fulfilled when the virtual machine has more live threads than the given maximum.
+     */
+    static WatchRule threadCountAbove(final int maximum) {
+        return indicators -> indicators.getThreadCount() > maximum;
+    }
+
+    /**
+     * @param maximum The maximum number of blocked threads.
+     * @return A rule fulfilled when more threads than the given maximum are waiting to lock a monitor.
+     */
+    static WatchRule blockedThreadsAbove(final int maximum) {
+        return indicators -> indicators.getBlockedThreadCount() > maximum;
+    }
+
+    /**
+     * @return A rule fulfilled when threads are deadlocked, on monitors or on ownable synchronizers.
+     */
+    static WatchRule deadlock() {
+        return indicators -> indicators.getDeadlockedThreadCount() > 0;
+    }
+
+    /**
+     * The indicators of a virtual machine at a given poll of a {@link DumpWatcher watcher}. Each indicator is only
+     * requested to the {@link ThreadMXBean} the first time it is read, so that a poll only costs what its rule needs:
+     * the number of threads is almost free, the number of blocked threads requires the states of all threads but not
+     * their stacks, and finding deadlocks requires the virtual machine to walk the owners of the locks.
+     */
+    class Indicators {
+        private static final int UNKNOWN = -1;
+
+        private final ThreadMXBean threads;
+        private int threadCount = UNKNOWN;
+        private int blockedThreadCount = UNKNOWN;
+        private int deadlockedThreadCount = UNKNOWN;
+
+        public Indicators(final ThreadMXBean threads) {
+            if (threads == null) throw new NullPointerException("The ThreadMXBean can not be null");
+            this.threads = threads;
+        }
+
+        public int getThreadCount() {
+            if (this.threadCount == UNKNOWN) {
+                this.threadCount = this.threads.getThreadCount();
+            }
+
+            return this.threadCount;
+        }
+
+        public int getBlockedThreadCount() {
+            if (this.blockedThreadCount == UNKNOWN) {
+                // A depth of 0 returns the states of the threads without walking their stacks
+                final ThreadInfo[] infos = this.threads.getThreadInfo(this.threads.getAllThreadIds(), 0);
+                int count = 0;
+
+                for (final ThreadInfo info : infos) {
+                    if (info != null && info.getThreadState() == Thread.State.BLOCKED) count++;
+                }
+
+                this.blockedThreadCount = count;
+            }
+
+            return this.blockedThreadCount;
+        }
+
+        public int getDeadlockedThreadCount() {
+            if (this.deadlockedThreadCount == UNKNOWN) {
+                final long[] deadlocked = this.threads.isSynchronizerUsageSupported() ?
+                        this.threads.findDeadlockedThreads() : this.threads.findMonitorDeadlockedThreads();
+
+                this.deadlockedThreadCount = deadlocked == null ? 0 : deadlocked.length;
+            }
+
+            return this.deadlockedThreadCount;
+        }
+
+        /**
+         * Describe the indicators read so far, the other ones being omitted.
+         */
+        @Override
+        public String toString() {
+            final StringBuilder description = new StringBuilder();
+
+            if (this.threadCount != UNKNOWN) description.append(this.threadCount).append(" threads");
+            if (this.blockedThreadCount != UNKNOWN) append(description, this.blockedThreadCount + " blocked");
+            if (this.deadlockedThreadCount != UNKNOWN) append(description, this.deadlockedThreadCount + " deadlocked");
+
+            return description.toString();
+        }
+
+        private static void append(final StringBuilder description, final String indicator) {
+            if (description.length() > 0) description.append(", ");
+            description.append(indicator);
+        }
+    }
+}
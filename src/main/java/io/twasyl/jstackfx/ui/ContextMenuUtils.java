@@ -0,0 +1,35 @@
+package io.twasyl.jstackfx.ui;
+
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.DataFormat;
+import javafx.scene.text.Text;
+
+import java.util.Collections;
+
+/**
+ * Utility class providing methods for working with {@link ContextMenu}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class ContextMenuUtils {
+
+    /**
+     * Define a context menu allowing to copy the content of the given text to the clipboard.
+     *
+     * @param text The text to define the context menu for.
+     */
+    public static void defineCopyMenu(final Text text) {
+        final MenuItem copy = new MenuItem("Copy");
+        copy.setOnAction(event -> {
+            Clipboard.getSystemClipboard().setContent(Collections.singletonMap(DataFormat.PLAIN_TEXT, text.getText()));
+        });
+        final ContextMenu menu = new ContextMenu(copy);
+
+        text.setOnContextMenuRequested(event -> {
+            menu.show(text, event.getScreenX(), event.getScreenY());
+        });
+    }
+}
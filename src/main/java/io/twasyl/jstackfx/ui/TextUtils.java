@@ -0,0 +1,222 @@
+package io.twasyl.jstackfx.ui;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.LoadStatistics;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.beans.ThreadReference;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import static io.twasyl.jstackfx.beans.Dump.DATE_TIME_FORMATTER_OUTPUT;
+
+/**
+ * Utility class providing the {@link Text} representations of the model displayed by the UI.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class TextUtils {
+
+    /**
+     * Get the text representation of the given dump: its generation date, its process and the number of its threads.
+     *
+     * @param dump The dump.
+     * @return The texts representing the dump.
+     */
+    public static List<Text> asText(final Dump dump) {
+        final List<Text> texts = new ArrayList<>();
+
+        Text text = new Text("Generated at " + DATE_TIME_FORMATTER_OUTPUT.format(dump.getGenerationDateTime()));
+        text.setFont(Fonts.bold);
+        texts.add(text);
+
+        if (dump.getProcessId() >= 0) {
+            final String processName = dump.getProcessName() == null || dump.getProcessName().isEmpty() ? "" : " " + dump.getProcessName();
+            text = new Text("\nProcess " + dump.getProcessId() + processName);
+            text.setFont(Fonts.bold);
+            texts.add(text);
+        }
+
+        text = new Text("\n" + dump.getDescription() + "\n\n");
+        text.setFont(Fonts.normal);
+        texts.add(text);
+
+        appendCounter(texts, "# of threads:", dump.getElements().size());
+        appendCounter(texts, "# of threads w/o stack:", dump.countThreadsWithoutStack());
+        appendCounter(texts, "# of JNI references:", dump.getNumberOfJNIRefs());
+
+        return texts;
+    }
+
+    /**
+     * Get the text representation of the given thread: its identity, priorities, locks and calling stack. The values
+     * which can be copied have a context menu to do so.
+     *
+     * @param thread The thread.
+     * @return The texts representing the thread.
+     */
+    public static List<Text> asText(final ThreadElement thread) {
+        final List<Text> texts = new ArrayList<>();
+
+        Text text = new Text("#");
+        text.setFont(Fonts.bold);
+        texts.add(text);
+
+        text = new Text("" + thread.getNumber());
+        text.setFont(Fonts.bold);
+        ContextMenuUtils.defineCopyMenu(text);
+        texts.add(text);
+
+        text = new Text(" ");
+        text.setFont(Fonts.normal);
+        texts.add(text);
+
+        text = new Text(thread.getName());
+        text.setFont(Fonts.normal);
+        ContextMenuUtils.defineCopyMenu(text);
+        texts.add(text);
+
+        text = new Text(" (");
+        text.setFont(Fonts.normal);
+        texts.add(text);
+
+        text = new Text(thread.getThreadId());
+        text.setFont(Fonts.normal);
+        ContextMenuUtils.defineCopyMenu(text);
+        texts.add(text);
+
+        text = new Text(")\n\n");
+        text.setFont(Fonts.normal);
+        texts.add(text);
+
+        text = new Text("Priority:");
+        text.setFont(Fonts.bold);
+        texts.add(text);
+
+        text = new Text(" " + thread.getPriority() + " ");
+        text.setFont(Fonts.normal);
+        texts.add(text);
+
+        text = new Text("OS priority:");
+        text.setFont(Fonts.bold);
+        texts.add(text);
+
+        text = new Text(" " + thread.getOsPriority() + "\n\n");
+        text.setFont(Fonts.normal);
+        texts.add(text);
+
+        appendThreadReferences(texts, "Parking to wait for:", thread.getParkingReasons());
+        appendThreadReferences(texts, "Locked synchronizers:", thread.getLockedSynchronizers());
+        appendThreadReferences(texts, "Wait to acquire locks:", thread.getWaitingToLock());
+        appendThreadReferences(texts, "Holding locks on:", thread.getHoldingLocks());
+
+        if (thread.hasCallingStack()) {
+            text = new Text("Calling stack:\n\n");
+            text.setFont(Fonts.bold);
+            texts.add(text);
+
+            text = new Text(thread.getCallingStack());
+            text.setFont(Fonts.code);
+            ContextMenuUtils.defineCopyMenu(text);
+            texts.add(text);
+        }
+
+        return texts;
+    }
+
+    /**
+     * Get the text representation of the given statistics: the counters and the time of each phase of the loading.
+     *
+     * @param statistics The statistics of a loading.
+     * @return The texts representing the statistics.
+     */
+    public static List<Text> asText(final LoadStatistics statistics) {
+        final List<Text> texts = new ArrayList<>();
+
+        Text text = new Text("Loaded in " + milliseconds(statistics.getTotalNanos()) + "\n\n");
+        text.setFont(Fonts.bold);
+        texts.add(text);
+
+        appendCounter(texts, "# of bytes:", statistics.getBytes());
+        appendCounter(texts, "# of lines:", statistics.getLines());
+        appendCounter(texts, "# of threads:", statistics.getThreads());
+        appendCounter(texts, "# of frames:", statistics.getFrames());
+        appendCounter(texts, "# of locks:", statistics.getLocks());
+
+        texts.add(new Text("\n"));
+
+        for (final LoadStatistics.Phase phase : LoadStatistics.Phase.values()) {
+            text = new Text(phase.getLabel() + ":");
+            text.setFont(Fonts.bold);
+            texts.add(text);
+
+            text = new Text(" " + milliseconds(statistics.getNanos(phase)) + "\n");
+            text.setFont(Fonts.normal);
+            texts.add(text);
+        }
+
+        return texts;
+    }
+
+    private static void appendCounter(final List<Text> texts, final String label, final long value) {
+        Text text = new Text(label);
+        text.setFont(Fonts.bold);
+        texts.add(text);
+
+        text = new Text(" " + value + "\n");
+        text.setFont(Fonts.normal);
+        texts.add(text);
+    }
+
+    private static void appendThreadReferences(final List<Text> texts, final String label, final Collection<ThreadReference> references) {
+        if (!references.isEmpty()) {
+            Text text = new Text(label + "\n\n");
+            text.setFont(Fonts.bold);
+            texts.add(text);
+
+            for (final ThreadReference reference : references) {
+                text = new Text(reference.getThreadId());
+                text.setFont(Fonts.normal);
+                ContextMenuUtils.defineCopyMenu(text);
+                texts.add(text);
+
+                text = new Text(" (");
+                text.setFont(Fonts.normal);
+                texts.add(text);
+
+                text = new Text(reference.getClassName());
+                text.setFont(Fonts.code);
+                ContextMenuUtils.defineCopyMenu(text);
+                texts.add(text);
+
+                text = new Text(")\n");
+                text.setFont(Fonts.normal);
+                texts.add(text);
+            }
+
+            text = new Text("\n");
+            text.setFont(Fonts.normal);
+            texts.add(text);
+        }
+    }
+
+    private static String milliseconds(final long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000d);
+    }
+
+    /**
+     * Fonts of the text representations. They are only created when a text representation is built, because creating
+     * a font initializes the JavaFX toolkit.
+     */
+    private static final class Fonts {
+        static final Font bold = Font.font("Helvetica", FontWeight.BOLD, 12);
+        static final Font normal = Font.font("Helvetica", FontWeight.NORMAL, 12);
+        static final Font code = Font.font("Courier New", FontWeight.NORMAL, 12);
+    }
+}
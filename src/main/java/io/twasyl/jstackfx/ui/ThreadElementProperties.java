@@ -0,0 +1,184 @@
+package io.twasyl.jstackfx.ui;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+/**
+ * The JavaFX properties of a {@link ThreadElement}, which keeps its information in plain fields. Each property is
+ * only created the first time it is requested, initialized with the field of the thread, and each change of a
+ * property is written back to the thread. Adapters are meant to be created for the threads the UI shows, like the
+ * rows of the table of threads: changes made to the thread itself aren't reflected by the properties already created.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public final class ThreadElementProperties {
+    private final ThreadElement element;
+    private ObjectProperty<Dump> dump;
+    private StringProperty name;
+    private LongProperty number;
+    private ObjectProperty<Thread.State> state;
+    private StringProperty callingStack;
+    private IntegerProperty priority;
+    private IntegerProperty osPriority;
+    private StringProperty threadId;
+    private StringProperty source;
+    private BooleanProperty virtual;
+    private StringProperty container;
+    private LongProperty carrierNumber;
+
+    public ThreadElementProperties(final ThreadElement element) {
+        if (element == null) throw new NullPointerException("The element can not be null");
+        this.element = element;
+    }
+
+    public ThreadElement getElement() {
+        return element;
+    }
+
+    public ObjectProperty<Dump> dumpProperty() {
+        if (this.dump == null) {
+            this.dump = new SimpleObjectProperty<>(this.element, "dump", this.element.getDump());
+            this.dump.addListener((value, oldValue, newValue) -> this.element.setDump(newValue));
+        }
+
+        return this.dump;
+    }
+
+    public StringProperty nameProperty() {
+        if (this.name == null) {
+            this.name = new SimpleStringProperty(this.element, "name", this.element.getName());
+            this.name.addListener((value, oldValue, newValue) -> this.element.setName(newValue));
+        }
+
+        return this.name;
+    }
+
+    public LongProperty numberProperty() {
+        if (this.number == null) {
+            this.number = new SimpleLongProperty(this.element, "number", this.element.getNumber());
+            this.number.addListener((value, oldValue, newValue) -> this.element.setNumber(newValue.longValue()));
+        }
+
+        return this.number;
+    }
+
+    public ObjectProperty<Thread.State> stateProperty() {
+        if (this.state == null) {
+            this.state = new SimpleObjectProperty<>(this.element, "state", this.element.getState());
+            this.state.addListener((value, oldValue, newValue) -> this.element.setState(newValue));
+        }
+
+        return this.state;
+    }
+
+    public StringProperty callingStackProperty() {
+        if (this.callingStack == null) {
+            this.callingStack = new SimpleStringProperty(this.element, "callingStack", this.element.getCallingStack());
+            this.callingStack.addListener((value, oldValue, newValue) -> this.element.setCallingStack(newValue));
+        }
+
+        return this.callingStack;
+    }
+
+    public IntegerProperty priorityProperty() {
+        if (this.priority == null) {
+            this.priority = new SimpleIntegerProperty(this.element, "priority", this.element.getPriority());
+            this.priority.addListener((value, oldValue, newValue) -> this.element.setPriority(newValue.intValue()));
+        }
+
+        return this.priority;
+    }
+
+    public IntegerProperty osPriorityProperty() {
+        if (this.osPriority == null) {
+            this.osPriority = new SimpleIntegerProperty(this.element, "osPriority", this.element.getOsPriority());
+            this.osPriority.addListener((value, oldValue, newValue) -> this.element.setOsPriority(newValue.intValue()));
+        }
+
+        return this.osPriority;
+    }
+
+    public StringProperty threadIdProperty() {
+        if (this.threadId == null) {
+            this.threadId = new SimpleStringProperty(this.element, "threadId", this.element.getThreadId());
+            this.threadId.addListener((value, oldValue, newValue) -> this.element.setThreadId(newValue));
+        }
+
+        return this.threadId;
+    }
+
+    public StringProperty sourceProperty() {
+        if (this.source == null) {
+            this.source = new SimpleStringProperty(this.element, "source", this.element.getSource());
+            this.source.addListener((value, oldValue, newValue) -> this.element.setSource(newValue));
+        }
+
+        return this.source;
+    }
+
+    public BooleanProperty virtualProperty() {
+        if (this.virtual == null) {
+            this.virtual = new SimpleBooleanProperty(this.element, "virtual", this.element.isVirtual());
+            this.virtual.addListener((value, oldValue, newValue) -> this.element.setVirtual(newValue));
+        }
+
+        return this.virtual;
+    }
+
+    public StringProperty containerProperty() {
+        if (this.container == null) {
+            this.container = new SimpleStringProperty(this.element, "container", this.element.getContainer());
+            this.container.addListener((value, oldValue, newValue) -> this.element.setContainer(newValue));
+        }
+
+        return this.container;
+    }
+
+    public LongProperty carrierNumberProperty() {
+        if (this.carrierNumber == null) {
+            this.carrierNumber = new SimpleLongProperty(this.element, "carrierNumber", this.element.getCarrierNumber());
+            this.carrierNumber.addListener((value, oldValue, newValue) -> this.element.setCarrierNumber(newValue.longValue()));
+        }
+
+        return this.carrierNumber;
+    }
+
+    /**
+     * Get a property of the thread by its name, like {@code state} for {@link #stateProperty()}.
+     *
+     * @param property The name of the property.
+     * @return The property.
+     * @throws IllegalArgumentException If the thread has no such property.
+     */
+    public Property<?> property(final String property) {
+        if (property == null) throw new NullPointerException("The property can not be null");
+
+        switch (property) {
+            case "dump": return this.dumpProperty();
+            case "name": return this.nameProperty();
+            case "number": return this.numberProperty();
+            case "state": return this.stateProperty();
+            case "callingStack": return this.callingStackProperty();
+            case "priority": return this.priorityProperty();
+            case "osPriority": return this.osPriorityProperty();
+            case "threadId": return this.threadIdProperty();
+            case "source": return this.sourceProperty();
+            case "virtual": return this.virtualProperty();
+            case "container": return this.containerProperty();
+            case "carrierNumber": return this.carrierNumberProperty();
+            default: throw new IllegalArgumentException("Unknown property of a thread: " + property);
+        }
+    }
+}
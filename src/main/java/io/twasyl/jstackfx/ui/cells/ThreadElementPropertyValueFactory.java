@@ -0,0 +1,39 @@
+package io.twasyl.jstackfx.ui.cells;
+
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.ui.ThreadElementProperties;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+/**
+ * Factory providing the value of a cell of a table of {@link ThreadElement threads} as a property of the
+ * {@link ThreadElementProperties JavaFX properties} of the thread. The property is only created for the threads whose
+ * row is displayed.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class ThreadElementPropertyValueFactory<T> implements Callback<TableColumn.CellDataFeatures<ThreadElement, T>, ObservableValue<T>> {
+
+    private String property;
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * @param property The name of the property of the thread, like {@code state}.
+     */
+    public void setProperty(String property) {
+        this.property = property;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ObservableValue<T> call(TableColumn.CellDataFeatures<ThreadElement, T> features) {
+        if (features.getValue() == null) return null;
+
+        return (ObservableValue<T>) new ThreadElementProperties(features.getValue()).property(this.property);
+    }
+}
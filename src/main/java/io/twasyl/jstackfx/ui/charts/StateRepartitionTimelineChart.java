@@ -5,6 +5,8 @@ import io.twasyl.jstackfx.beans.DumpTimeline;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.chart.*;
 import javafx.util.StringConverter;
 
@@ -13,6 +15,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +29,7 @@ public class StateRepartitionTimelineChart extends LineChart<Number, Number> {
     protected static final DateTimeFormatter DATE_TIME_FORMATTER_OUTPUT = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss");
 
     private final ObjectProperty<DumpTimeline> dumpTimeline = new SimpleObjectProperty<>(null);
+    private final ListChangeListener<Dump> dumpsListener = this::dumpsChanged;
 
     private final Series newThreads = new Series();
     private final Series runnableThreads = new Series();
@@ -78,18 +82,62 @@ public class StateRepartitionTimelineChart extends LineChart<Number, Number> {
     }
 
     /**
-     * Initialize the {@link #dumpTimelineProperty()} to react to changes.
+     * Initialize the {@link #dumpTimelineProperty()} to react to changes. When the dumps of the timeline are kept in an
+     * {@link ObservableList}, they are also listened, so that the chart is updated when dumps are added to the timeline.
      */
+    @SuppressWarnings("unchecked")
     private void initializeDumpTimelineProperty() {
         this.dumpTimeline.addListener((value, oldTimeline, newTimeline) -> {
+            if (oldTimeline != null && oldTimeline.getDumps() instanceof ObservableList) {
+                ((ObservableList<Dump>) oldTimeline.getDumps()).removeListener(this.dumpsListener);
+            }
+
             this.clearSeries();
 
             if (newTimeline != null) {
                 this.populateSeries(newTimeline);
+
+                if (newTimeline.getDumps() instanceof ObservableList) {
+                    ((ObservableList<Dump>) newTimeline.getDumps()).addListener(this.dumpsListener);
+                }
             }
         });
     }
 
+    /**
+     * Update the series when the dumps of the timeline change. Dumps appended to the timeline are added to the series
+     * and the oldest dumps removed from a bounded timeline are removed from the series. Any other change populates the
+     * series again.
+     *
+     * @param change The change of the dumps of the timeline.
+     */
+    private void dumpsChanged(final ListChangeListener.Change<? extends Dump> change) {
+        boolean appended = true;
+        boolean removedFromHead = true;
+
+        while (change.next()) {
+            appended &= change.wasAdded() && !change.wasRemoved() && !change.wasPermutated() && change.getTo() == change.getList().size();
+            removedFromHead &= change.wasRemoved() && !change.wasAdded() && !change.wasPermutated() && change.getFrom() == 0;
+        }
+
+        if (appended) {
+            change.reset();
+
+            while (change.next()) {
+                change.getAddedSubList().forEach(this::addToSeries);
+            }
+        } else if (removedFromHead) {
+            change.reset();
+
+            while (change.next()) {
+                change.getRemoved().forEach(this::removeFromSeries);
+            }
+        } else {
+            this.clearSeries();
+            this.populateSeries(this.getDumpTimeline());
+        }
+    }
+
     /**
      * Set the value of all series to 0.
      */
@@ -107,41 +155,70 @@ public class StateRepartitionTimelineChart extends LineChart<Number, Number> {
      * @param dumpTimeline The timeline used to populate the series.
      */
     private void populateSeries(final DumpTimeline dumpTimeline) {
-        dumpTimeline.getDumps().forEach(dump -> {
-            final Map<Thread.State, Long> counters = dump.countNumberOfThreadsByState();
-            final ZoneOffset zoneOffset = ZoneId.systemDefault().getRules().getOffset(dump.getGenerationDateTime());
-            final long generationTimestamp = dump.getGenerationDateTime().toInstant(zoneOffset).toEpochMilli();
+        dumpTimeline.getDumps().forEach(this::addToSeries);
+    }
 
-            if(counters.containsKey(Thread.State.NEW)) {
-                this.newThreads.getData().add(new Data<>(generationTimestamp, counters.get(Thread.State.NEW)));
-            }
+    /**
+     * Add the values of the given dump to each serie of the chart.
+     *
+     * @param dump The dump to add to the series.
+     */
+    private void addToSeries(final Dump dump) {
+        final Map<Thread.State, Long> counters = dump.countNumberOfThreadsByState();
+        final long generationTimestamp = timestampOf(dump);
 
-            if(counters.containsKey(Thread.State.RUNNABLE)) {
-                this.runnableThreads.getData().add(new Data<>(generationTimestamp, counters.get(Thread.State.RUNNABLE)));
-            }
+        if(counters.containsKey(Thread.State.NEW)) {
+            this.newThreads.getData().add(new Data<>(generationTimestamp, counters.get(Thread.State.NEW)));
+        }
 
-            Data<Number, Number> waitingData = new Data<>(generationTimestamp, 0l);
+        if(counters.containsKey(Thread.State.RUNNABLE)) {
+            this.runnableThreads.getData().add(new Data<>(generationTimestamp, counters.get(Thread.State.RUNNABLE)));
+        }
 
-            if(counters.containsKey(Thread.State.WAITING)) {
-                waitingData.setYValue(counters.get(Thread.State.WAITING));
-            }
+        Data<Number, Number> waitingData = new Data<>(generationTimestamp, 0l);
 
-            if(counters.containsKey(Thread.State.TIMED_WAITING)) {
-                waitingData.setYValue(waitingData.getYValue().longValue() + counters.get(Thread.State.TIMED_WAITING));
-            }
+        if(counters.containsKey(Thread.State.WAITING)) {
+            waitingData.setYValue(counters.get(Thread.State.WAITING));
+        }
 
-            if(waitingData.getXValue().longValue() > 0) {
-                this.waitingThreads.getData().add(waitingData);
-            }
+        if(counters.containsKey(Thread.State.TIMED_WAITING)) {
+            waitingData.setYValue(waitingData.getYValue().longValue() + counters.get(Thread.State.TIMED_WAITING));
+        }
 
-            if(counters.containsKey(Thread.State.BLOCKED)) {
-                this.blockedThreads.getData().add(new Data<>(generationTimestamp, counters.get(Thread.State.BLOCKED)));
-            }
+        if(waitingData.getXValue().longValue() > 0) {
+            this.waitingThreads.getData().add(waitingData);
+        }
+
+        if(counters.containsKey(Thread.State.BLOCKED)) {
+            this.blockedThreads.getData().add(new Data<>(generationTimestamp, counters.get(Thread.State.BLOCKED)));
+        }
+
+        if(counters.containsKey(Thread.State.TERMINATED)) {
+            this.terminatedThreads.getData().add(new Data<>(generationTimestamp, counters.get(Thread.State.TERMINATED)));
+        }
+    }
+
+    /**
+     * Remove the values of the given dump from the series of the chart. The dump is expected to be the oldest one of
+     * the series.
+     *
+     * @param dump The dump to remove from the series.
+     */
+    private void removeFromSeries(final Dump dump) {
+        final long generationTimestamp = timestampOf(dump);
 
-            if(counters.containsKey(Thread.State.TERMINATED)) {
-                this.terminatedThreads.getData().add(new Data<>(generationTimestamp, counters.get(Thread.State.TERMINATED)));
+        for (final Series series : Arrays.asList(this.newThreads, this.runnableThreads, this.waitingThreads, this.blockedThreads, this.terminatedThreads)) {
+            final List<Data<Number, Number>> data = series.getData();
+
+            if (!data.isEmpty() && data.get(0).getXValue().longValue() == generationTimestamp) {
+                data.remove(0);
             }
-        });
+        }
+    }
+
+    private static long timestampOf(final Dump dump) {
+        final ZoneOffset zoneOffset = ZoneId.systemDefault().getRules().getOffset(dump.getGenerationDateTime());
+        return dump.getGenerationDateTime().toInstant(zoneOffset).toEpochMilli();
     }
 
     public ObjectProperty<DumpTimeline> dumpTimelineProperty() { return this.dumpTimeline; }
@@ -0,0 +1,162 @@
+package io.twasyl.jstackfx.agent;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpTimeline;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.factory.DumpFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpAgentTest {
+
+    private File spool;
+
+    @Before
+    public void createSpool() throws IOException {
+        this.spool = Files.createTempDirectory("jstackfx-spool").toFile();
+    }
+
+    @After
+    public void deleteSpool() {
+        final File[] files = this.spool.listFiles();
+        if (files != null) for (final File file : files) file.delete();
+        this.spool.delete();
+    }
+
+    @Test
+    public void snapshotsAreReadAsATimeline() throws Exception {
+        final Object monitor = new Object();
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread owner = new Thread(() -> {
+            synchronized (monitor) {
+                locked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // The test is finished
+                }
+            }
+        }, "agent-test-owner");
+
+        owner.start();
+        locked.await(5, TimeUnit.SECONDS);
+
+        try {
+            final DumpAgent agent = new DumpAgent(this.options());
+            assertNotNull(agent.snapshot());
+            assertNotNull(agent.snapshot());
+            assertEquals(2, agent.getNumberOfSnapshots());
+
+            final DumpTimeline timeline = DumpFactory.readTimeline(this.spool, false);
+            assertEquals(2, timeline.getDumps().size());
+
+            final Dump dump = timeline.getDumps().get(0);
+            assertNotNull(dump.getGenerationDateTime());
+            assertTrue(dump.getDescription().startsWith("Full thread dump"));
+
+            final ThreadElement ownerElement = dump.getElements().stream()
+                    .filter(thread -> "agent-test-owner".equals(thread.getName()))
+                    .findFirst().orElseThrow(AssertionError::new);
+
+            assertEquals(owner.getId(), ownerElement.getNumber());
+            assertEquals(Thread.State.TIMED_WAITING, ownerElement.getState());
+            assertEquals(1, ownerElement.getHoldingLocks().size());
+            assertEquals(Object.class.getName(), ownerElement.getHoldingLocks().iterator().next().getClassName());
+        } finally {
+            release.countDown();
+            owner.join();
+        }
+    }
+
+    @Test
+    public void oldestSnapshotsAreDeletedOverTheDiskBudget() {
+        final DumpAgentOptions options = this.options();
+        options.setDiskBudget(1);
+
+        final DumpAgent agent = new DumpAgent(options);
+        agent.snapshot();
+        final File last = agent.snapshot();
+
+        final File[] files = this.spool.listFiles();
+        assertEquals(1, files.length);
+        assertEquals(last, files[0]);
+        assertEquals(last.length(), agent.getSpoolSize());
+    }
+
+    @Test
+    public void signalTriggersASnapshot() throws Exception {
+        final DumpAgentOptions options = this.options();
+        options.setInterval(Duration.ZERO);
+        options.setSignal(new File(this.spool, ".signal"));
+
+        final DumpAgent agent = new DumpAgent(options);
+        agent.start();
+
+        try {
+            assertTrue(options.getSignal().createNewFile());
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (options.getSignal().exists() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertFalse(options.getSignal().exists());
+        } finally {
+            agent.close();
+        }
+
+        assertFalse(agent.isRunning());
+        assertEquals(1, agent.getNumberOfSnapshots());
+        assertEquals(1, DumpFactory.readTimeline(this.spool, false).getDumps().size());
+    }
+
+    @Test
+    public void parseArguments() {
+        final DumpAgentOptions options = DumpAgentOptions.parse("spool=/tmp/spool,interval=5,signal=/tmp/signal,disk=2,cpu=0.5,synchronizers=true", 42);
+
+        assertEquals(new File("/tmp/spool"), options.getSpool());
+        assertEquals(Duration.ofSeconds(5), options.getInterval());
+        assertEquals(new File("/tmp/signal"), options.getSignal());
+        assertEquals(2 * 1024 * 1024, options.getDiskBudget());
+        assertEquals(0.5, options.getCpuBudget(), 0);
+        assertTrue(options.isSynchronizers());
+    }
+
+    @Test
+    public void defaultArguments() {
+        final DumpAgentOptions options = DumpAgentOptions.parse(null, 42);
+
+        assertEquals("jstackfx-spool-42", options.getSpool().getName());
+        assertEquals(DumpAgentOptions.DEFAULT_INTERVAL, options.getInterval());
+        assertEquals(DumpAgentOptions.DEFAULT_DISK_BUDGET, options.getDiskBudget());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownArgument() {
+        DumpAgentOptions.parse("unknown=1", 42);
+    }
+
+    private DumpAgentOptions options() {
+        final DumpAgentOptions options = new DumpAgentOptions();
+        options.setSpool(this.spool);
+        return options;
+    }
+}
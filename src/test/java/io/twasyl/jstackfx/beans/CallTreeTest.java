@@ -0,0 +1,82 @@
+package io.twasyl.jstackfx.beans;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class CallTreeTest {
+
+    private static final String RUN = "at java.lang.Thread.run(Thread.java:748)";
+    private static final String COMPUTE = "at com.acme.Worker.compute(Worker.java:10)";
+    private static final String HASH = "at com.acme.Worker.hash(Worker.java:20)";
+    private static final String READ = "at java.net.SocketInputStream.read(SocketInputStream.java:100)";
+
+    @Test
+    public void stacksAreFoldedFromTheirBottom() {
+        final FrameDictionary dictionary = new FrameDictionary();
+        final InMemoryDump dump = new InMemoryDump();
+        dump.getElements().add(thread(dictionary, Thread.State.RUNNABLE, HASH, COMPUTE, RUN));
+        dump.getElements().add(thread(dictionary, Thread.State.RUNNABLE, COMPUTE, RUN));
+        dump.getElements().add(thread(dictionary, Thread.State.RUNNABLE, HASH, COMPUTE, RUN));
+        dump.getElements().add(thread(dictionary, Thread.State.RUNNABLE, READ, RUN));
+
+        final CallTree tree = new CallTree();
+        tree.add(dump);
+
+        assertEquals(1, tree.getNumberOfDumps());
+        assertEquals(4, tree.getNumberOfSamples());
+
+        final List<CallTree.Node> roots = tree.getRoot().getChildren();
+        assertEquals(1, roots.size());
+        assertEquals(RUN, roots.get(0).getFrame());
+        assertEquals(4, roots.get(0).getTotal());
+        assertEquals(0, roots.get(0).getSelf());
+
+        final List<CallTree.Node> children = roots.get(0).getChildren();
+        assertEquals(2, children.size());
+        assertEquals(COMPUTE, children.get(0).getFrame());
+        assertEquals(3, children.get(0).getTotal());
+        assertEquals(1, children.get(0).getSelf());
+        assertEquals(READ, children.get(1).getFrame());
+
+        final CallTree.Node hash = children.get(0).getChildren().get(0);
+        assertEquals(HASH, hash.getFrame());
+        assertEquals(2, hash.getTotal());
+        assertEquals(2, hash.getSelf());
+        assertEquals(children.get(0), hash.getParent());
+    }
+
+    @Test
+    public void onlyThreadsInTheStatesOfTheTreeAreAdded() {
+        final FrameDictionary dictionary = new FrameDictionary();
+        final InMemoryDump dump = new InMemoryDump();
+        dump.getElements().add(thread(dictionary, Thread.State.RUNNABLE, COMPUTE, RUN));
+        dump.getElements().add(thread(dictionary, Thread.State.WAITING, READ, RUN));
+        dump.getElements().add(thread(dictionary, Thread.State.BLOCKED, HASH, RUN));
+
+        final CallTree runnable = new CallTree();
+        runnable.add(dump);
+        assertEquals(1, runnable.getNumberOfSamples());
+
+        final CallTree waiting = new CallTree(EnumSet.of(Thread.State.WAITING, Thread.State.BLOCKED));
+        waiting.add(dump);
+        assertEquals(2, waiting.getNumberOfSamples());
+    }
+
+    private static ThreadElement thread(final FrameDictionary dictionary, final Thread.State state, final String... frames) {
+        final int[] ids = new int[frames.length];
+        for (int index = 0; index < frames.length; index++) ids[index] = dictionary.idOf(frames[index]);
+
+        final ThreadElement thread = new ThreadElement();
+        thread.setState(state);
+        thread.setFrames(dictionary, ids);
+        return thread;
+    }
+}
@@ -0,0 +1,48 @@
+package io.twasyl.jstackfx.beans;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpTimelineTest {
+
+    @Test
+    public void unboundedTimelineKeepsAllDumps() {
+        final DumpTimeline timeline = new DumpTimeline();
+
+        for (int index = 0; index < 10; index++) {
+            timeline.addDump(new InMemoryDump());
+        }
+
+        assertEquals(10, timeline.getDumps().size());
+    }
+
+    @Test
+    public void boundedTimelineRemovesOldestDumps() {
+        final DumpTimeline timeline = new DumpTimeline();
+        timeline.setMaximumNumberOfDumps(3);
+
+        final List<Dump> dumps = Arrays.asList(new InMemoryDump(), new InMemoryDump(), new InMemoryDump(), new InMemoryDump(), new InMemoryDump());
+        dumps.forEach(timeline::addDump);
+
+        assertEquals(dumps.subList(2, 5), timeline.getDumps());
+    }
+
+    @Test
+    public void boundingTimelineRemovesOldestDumps() {
+        final DumpTimeline timeline = new DumpTimeline();
+        final List<Dump> dumps = Arrays.asList(new InMemoryDump(), new InMemoryDump(), new InMemoryDump());
+        dumps.forEach(timeline::addDump);
+
+        timeline.setMaximumNumberOfDumps(1);
+
+        assertEquals(dumps.subList(2, 3), timeline.getDumps());
+    }
+}
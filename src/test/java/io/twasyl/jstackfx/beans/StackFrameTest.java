@@ -0,0 +1,81 @@
+package io.twasyl.jstackfx.beans;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class StackFrameTest {
+
+    @Test
+    public void parseFrameWithFileAndLine() {
+        final StackFrame frame = StackFrame.parse("at java.lang.Thread.run(Thread.java:745)");
+
+        assertNull(frame.getClassLoaderName());
+        assertNull(frame.getModuleName());
+        assertEquals("java.lang.Thread", frame.getClassName());
+        assertEquals("run", frame.getMethodName());
+        assertEquals("Thread.java", frame.getFileName());
+        assertEquals(745, frame.getLineNumber());
+        assertFalse(frame.isNativeMethod());
+    }
+
+    @Test
+    public void parseNativeFrameWithModule() {
+        final StackFrame frame = StackFrame.parse("\tat java.base@17.0.1/java.lang.Thread.sleep(Native Method)");
+
+        assertNull(frame.getClassLoaderName());
+        assertEquals("java.base@17.0.1", frame.getModuleName());
+        assertEquals("java.lang.Thread", frame.getClassName());
+        assertEquals("sleep", frame.getMethodName());
+        assertNull(frame.getFileName());
+        assertEquals(-1, frame.getLineNumber());
+        assertTrue(frame.isNativeMethod());
+    }
+
+    @Test
+    public void parseFrameWithClassLoaderAndUnnamedModule() {
+        final StackFrame frame = StackFrame.parse("at app//com.acme.Worker_2.run(Worker.java:12)");
+
+        assertEquals("app", frame.getClassLoaderName());
+        assertNull(frame.getModuleName());
+        assertEquals("com.acme.Worker_2", frame.getClassName());
+        assertEquals(12, frame.getLineNumber());
+    }
+
+    @Test
+    public void parseHiddenClassFrame() {
+        final StackFrame frame = StackFrame.parse("at com.acme.Main$$Lambda$14/0x0000000800066840.run(Unknown Source)");
+
+        assertNull(frame.getModuleName());
+        assertEquals("com.acme.Main$$Lambda$14/0x0000000800066840", frame.getClassName());
+        assertEquals("run", frame.getMethodName());
+        assertNull(frame.getFileName());
+        assertFalse(frame.isNativeMethod());
+    }
+
+    @Test
+    public void parseAnonymousClassFrame() {
+        final StackFrame frame = StackFrame.parse("at java.lang.UNIXProcess$$Lambda$21/1624329189.run(Unknown Source)");
+
+        assertNull(frame.getModuleName());
+        assertEquals("java.lang.UNIXProcess$$Lambda$21/1624329189", frame.getClassName());
+    }
+
+    @Test
+    public void parseInvalidFrame() {
+        assertNull(StackFrame.parse("- locked <0x00000000d376b1e0> (a java.lang.Object)"));
+        assertNull(StackFrame.parse("at run()"));
+    }
+
+    @Test
+    public void toStringIsTheOriginalFrame() {
+        for (final String frame : new String[]{"java.lang.Thread.run(Thread.java:745)", "java.base@17/java.lang.Thread.sleep(Native Method)",
+                "app//com.acme.Worker.run(Worker.java:12)", "app/acme@1.0/com.acme.Worker.run(Unknown Source)"}) {
+            assertEquals(frame, StackFrame.parse(frame).toString());
+        }
+    }
+}
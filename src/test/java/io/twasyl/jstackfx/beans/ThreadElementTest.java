@@ -0,0 +1,34 @@
+package io.twasyl.jstackfx.beans;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class ThreadElementTest {
+
+    @Test
+    public void referencesAreAddedOnce() {
+        final ThreadElement thread = new ThreadElement();
+        assertTrue(thread.getHoldingLocks().isEmpty());
+
+        thread.addHoldingLock(new ThreadReference("0x1", "java.lang.Object"));
+        thread.addHoldingLock(new ThreadReference("0x1", "java.lang.Object"));
+        thread.addHoldingLock(new ThreadReference("0x2", "java.lang.String"));
+
+        assertEquals(2, thread.getHoldingLocks().size());
+        assertTrue(thread.getHoldingLocks().contains(new ThreadReference("0x2", "java.lang.String")));
+        assertTrue(thread.getWaitingToLock().isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void referencesCanNotBeModifiedThroughTheirSet() {
+        final ThreadElement thread = new ThreadElement();
+        thread.addParkingReason(new ThreadReference("0x1", "java.util.concurrent.locks.ReentrantLock$NonfairSync"));
+
+        thread.getParkingReasons().add(new ThreadReference("0x2", "java.lang.Object"));
+    }
+}
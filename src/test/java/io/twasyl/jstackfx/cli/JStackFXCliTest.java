@@ -0,0 +1,90 @@
+package io.twasyl.jstackfx.cli;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JStackFXCliTest {
+
+    private static final String BLOCKED_DUMP = "src/test/resources/blocked.txt";
+
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+    private JStackFXCli cli;
+
+    @Before
+    public void setUp() {
+        this.out = new ByteArrayOutputStream();
+        this.err = new ByteArrayOutputStream();
+        this.cli = new JStackFXCli(new PrintStream(this.out, true), new PrintStream(this.err, true));
+    }
+
+    private String out() {
+        return new String(this.out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void summaryCountsThreadsPerState() {
+        assertEquals(JStackFXCli.SUCCESS, this.cli.run("summary", BLOCKED_DUMP));
+
+        final String output = out();
+        assertTrue(output, output.contains("Threads:      4"));
+        assertTrue(output, output.matches("(?s).*BLOCKED\\s+4.*"));
+    }
+
+    @Test
+    public void blockedPrintsDeadlocks() {
+        assertEquals(JStackFXCli.SUCCESS, this.cli.run("blocked", BLOCKED_DUMP));
+
+        final String output = out();
+        assertTrue(output, output.contains("\"DEADLOCK_TEST-1\" #4 BLOCKED"));
+        assertTrue(output, output.contains("waits for <0x00000007d58f5e60>"));
+        assertTrue(output, output.contains("DEADLOCK"));
+    }
+
+    @Test
+    public void topGroupsIdenticalCallingStacks() {
+        assertEquals(JStackFXCli.SUCCESS, this.cli.run("top", "--limit=1", "--depth=2", "--state=blocked", BLOCKED_DUMP));
+
+        final String output = out();
+        assertTrue(output, output.contains("4 thread(s)"));
+        assertTrue(output, output.contains("... 1 more"));
+        assertFalse(output, output.contains("VM Thread"));
+    }
+
+    @Test
+    public void reportContainsAllSections() {
+        assertEquals(JStackFXCli.SUCCESS, this.cli.run("report", BLOCKED_DUMP));
+
+        final String output = out();
+        assertTrue(output, output.contains("Threads:"));
+        assertTrue(output, output.contains("Blocked threads:"));
+        assertTrue(output, output.contains("Top calling stacks:"));
+    }
+
+    @Test
+    public void invalidCommandLinesPrintTheUsage() {
+        assertEquals(JStackFXCli.USAGE, this.cli.run());
+        assertEquals(JStackFXCli.USAGE, this.cli.run("unknown"));
+        assertEquals(JStackFXCli.USAGE, this.cli.run("summary"));
+        assertEquals(JStackFXCli.USAGE, this.cli.run("capture"));
+        assertEquals(JStackFXCli.USAGE, this.cli.run("top", "--limit=many", BLOCKED_DUMP));
+        assertEquals(JStackFXCli.USAGE, this.cli.run("top", "--state=sleeping", BLOCKED_DUMP));
+    }
+
+    @Test
+    public void missingFileIsAFailure() {
+        assertEquals(JStackFXCli.FAILURE, this.cli.run("summary", "src/test/resources/missing.txt"));
+    }
+}
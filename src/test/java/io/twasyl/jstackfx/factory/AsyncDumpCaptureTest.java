@@ -0,0 +1,135 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import io.twasyl.jstackfx.exceptions.DumpException;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class AsyncDumpCaptureTest {
+
+    /**
+     * A capture which never answers until it is aborted.
+     */
+    private static class HangingCapture extends AsyncDumpCapture {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch aborted = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        protected Dump captureDump(final Task task) throws DumpException {
+            task.onAbort(this.aborted::countDown);
+            task.setStage(Stage.READING);
+            this.started.countDown();
+
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                this.interrupted.countDown();
+            }
+
+            throw new DumpException("Aborted");
+        }
+    }
+
+    @Test
+    public void dumpIsCompletedInTheBackground() throws Exception {
+        final List<AsyncDumpCapture.Stage> stages = new CopyOnWriteArrayList<>();
+        final AsyncDumpCapture capture = new AsyncDumpCapture() {
+            @Override
+            protected Dump captureDump(final Task task) {
+                task.setStage(Stage.ATTACHING);
+                task.setStage(Stage.READING);
+                return new InMemoryDump();
+            }
+        };
+
+        final AsyncDumpCapture.Task task = capture.capture(42, Duration.ofSeconds(5), (t, stage) -> stages.add(stage));
+
+        assertTrue(task.get(5, TimeUnit.SECONDS) instanceof InMemoryDump);
+        assertEquals(42, task.getProcessId());
+        assertEquals(2, stages.size());
+        assertEquals(AsyncDumpCapture.Stage.ATTACHING, stages.get(0));
+        assertEquals(AsyncDumpCapture.Stage.READING, stages.get(1));
+    }
+
+    @Test
+    public void captureFailsAfterItsDeadline() throws Exception {
+        final HangingCapture capture = new HangingCapture();
+        final AsyncDumpCapture.Task task = capture.capture(42, Duration.ofMillis(200), null);
+
+        try {
+            task.get(5, TimeUnit.SECONDS);
+            fail("The capture should have timed out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DumpException);
+            assertTrue(e.getCause().getMessage().contains("200 ms"));
+        }
+
+        assertTrue(capture.aborted.await(5, TimeUnit.SECONDS));
+        assertTrue(capture.interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancellationAbortsTheCapture() throws Exception {
+        final HangingCapture capture = new HangingCapture();
+        final AsyncDumpCapture.Task task = capture.capture(42, Duration.ofSeconds(30), null);
+
+        assertTrue(capture.started.await(5, TimeUnit.SECONDS));
+        assertEquals(AsyncDumpCapture.Stage.READING, task.getStage());
+        assertTrue(task.cancel(true));
+
+        assertTrue(capture.aborted.await(5, TimeUnit.SECONDS));
+        assertTrue(capture.interrupted.await(5, TimeUnit.SECONDS));
+
+        try {
+            task.get();
+            fail("The capture should have been cancelled");
+        } catch (CancellationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void abortActionRunsWhenRegisteredAfterTheAbort() {
+        final AsyncDumpCapture.Task task = new AsyncDumpCapture.Task(42, null);
+        final CountDownLatch aborted = new CountDownLatch(1);
+
+        task.cancel(true);
+        task.onAbort(aborted::countDown);
+
+        assertEquals(0, aborted.getCount());
+    }
+
+    @Test
+    public void emptyDumpIsAFailure() throws Exception {
+        final AsyncDumpCapture capture = new AsyncDumpCapture() {
+            @Override
+            protected Dump captureDump(final Task task) {
+                return null;
+            }
+        };
+
+        try {
+            capture.capture(42).get(5, TimeUnit.SECONDS);
+            fail("An empty dump should be a failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DumpException);
+        }
+    }
+}
@@ -1,13 +1,33 @@
 package io.twasyl.jstackfx.factory;
 
 import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpTimeline;
+import io.twasyl.jstackfx.beans.FileDump;
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import io.twasyl.jstackfx.beans.LoadStatistics;
+import io.twasyl.jstackfx.beans.ThreadElement;
 import org.junit.Test;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Thierry Wasylczenko
@@ -127,4 +147,236 @@ public class DumpFactoryTests {
 
         assertEquals(new Long(1), counters.get(Thread.State.TERMINATED));
     }
+
+    @Test
+    public void parallelReadKeepsThreadsOrder() throws Exception {
+        final Dump sequential = DumpFactory.read(DUMP_FILE);
+        final Dump parallel = DumpFactory.read(DUMP_FILE, true);
+
+        assertEquals(sequential.getElements().size(), parallel.getElements().size());
+
+        for (int index = 0; index < sequential.getElements().size(); index++) {
+            assertEquals(sequential.getElements().get(index).getSource(), parallel.getElements().get(index).getSource());
+            assertSame(parallel, parallel.getElements().get(index).getDump());
+        }
+    }
+
+    @Test
+    public void parallelReadWithSmallPool() throws Exception {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+
+        try (final BufferedReader reader = Files.newBufferedReader(DUMP_FILE.toPath())) {
+            final Dump dump = new ParallelJStackDumpParser<>(new FileDump(), pool).parse(reader);
+
+            assertEquals(43, dump.getElements().size());
+            assertEquals(4957, dump.getNumberOfJNIRefs());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sourceIsReadFromTheFileWhenRequested() throws Exception {
+        final File file = File.createTempFile("jstackfx", ".txt");
+        file.deleteOnExit();
+
+        final String content = new String(Files.readAllBytes(new File("src/test/resources/blocked.txt").toPath()), StandardCharsets.UTF_8);
+        Files.write(file.toPath(), content.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+
+        final Dump expected = DumpFactory.read(Arrays.asList(content.split("\n")));
+        final Dump dump = DumpFactory.read(file);
+
+        assertEquals(expected.getElements().size(), dump.getElements().size());
+
+        for (int index = 0; index < dump.getElements().size(); index++) {
+            final ThreadElement thread = dump.getElements().get(index);
+
+            assertNotNull(thread.getSourceRange());
+            assertEquals(expected.getElements().get(index).getSource(), thread.getSource());
+            assertEquals(expected.getElements().get(index).getCallingStack(), thread.getCallingStack());
+        }
+    }
+
+    @Test
+    public void readTimelineFromConcatenatedDumps() throws Exception {
+        final File first = new File("src/test/resources/timeline_01.txt");
+        final File second = new File("src/test/resources/timeline_02.txt");
+        final File file = File.createTempFile("jstackfx", ".txt");
+        file.deleteOnExit();
+
+        try (final OutputStream output = Files.newOutputStream(file.toPath())) {
+            output.write("Capturing process 1234\n".getBytes(StandardCharsets.UTF_8));
+            Files.copy(first.toPath(), output);
+            output.write("Capturing process 1234\n".getBytes(StandardCharsets.UTF_8));
+            Files.copy(second.toPath(), output);
+        }
+
+        final DumpTimeline timeline = DumpFactory.readTimeline(file, false);
+
+        assertEquals(2, timeline.getDumps().size());
+        assertDumpEquals(DumpFactory.read(first), timeline.getDumps().get(0));
+        assertDumpEquals(DumpFactory.read(second), timeline.getDumps().get(1));
+    }
+
+    @Test
+    public void readStopsAfterTheFirstDump() throws Exception {
+        final File first = new File("src/test/resources/timeline_01.txt");
+        final File second = new File("src/test/resources/timeline_02.txt");
+        final File file = File.createTempFile("jstackfx", ".txt");
+        file.deleteOnExit();
+
+        try (final OutputStream output = Files.newOutputStream(file.toPath())) {
+            Files.copy(first.toPath(), output);
+
+            for (int index = 0; index < 400; index++) {
+                Files.copy(second.toPath(), output);
+            }
+        }
+
+        final Dump expected = DumpFactory.read(first);
+        final Dump dump = DumpFactory.read(file);
+
+        assertDumpEquals(expected, dump);
+        assertEquals(expected.getElements().size(), dump.getLoadStatistics().getThreads());
+        assertTrue(dump.getLoadStatistics().getBytes() < file.length() / 10);
+    }
+
+    @Test
+    public void framesAreSharedAcrossTheDumpsOfATimeline() throws Exception {
+        final File first = new File("src/test/resources/timeline_01.txt");
+        final File second = new File("src/test/resources/timeline_02.txt");
+        final File file = File.createTempFile("jstackfx", ".txt");
+        file.deleteOnExit();
+
+        try (final OutputStream output = Files.newOutputStream(file.toPath())) {
+            Files.copy(first.toPath(), output);
+            Files.copy(second.toPath(), output);
+        }
+
+        final DumpTimeline timeline = DumpFactory.readTimeline(file, true);
+        final Dump expected = DumpFactory.read(Arrays.asList(new String(Files.readAllBytes(first.toPath()), StandardCharsets.UTF_8).split("\n")));
+
+        assertEquals(2, timeline.getDumps().size());
+        assertSame(timeline.getFrameDictionary(), timeline.getDumps().get(0).getFrameDictionary());
+        assertSame(timeline.getFrameDictionary(), timeline.getDumps().get(1).getFrameDictionary());
+
+        final Dump dump = timeline.getDumps().get(0);
+
+        for (int index = 0; index < dump.getElements().size(); index++) {
+            final ThreadElement thread = dump.getElements().get(index);
+
+            assertNotNull(thread.getFrames());
+            assertEquals(thread.getStackDepth(), thread.getFrames().length);
+            assertEquals(expected.getElements().get(index).getCallingStack(), thread.getCallingStack());
+        }
+
+        final ThreadElement main = dump.getElements().get(0);
+        final ThreadElement nextMain = timeline.getDumps().get(1).getElements().stream().filter(thread -> main.getName().equals(thread.getName())).findFirst().get();
+
+        for (final int frame : main.getFrames()) {
+            assertEquals(frame, timeline.getFrameDictionary().idOf(timeline.getFrameDictionary().frameOf(frame)));
+        }
+
+        assertEquals(main.getCallingStack().equals(nextMain.getCallingStack()), main.hasSameCallingStack(nextMain));
+    }
+
+    private static void assertDumpEquals(final Dump expected, final Dump actual) {
+        assertEquals(expected.getGenerationDateTime(), actual.getGenerationDateTime());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getNumberOfJNIRefs(), actual.getNumberOfJNIRefs());
+        assertEquals(expected.getElements().size(), actual.getElements().size());
+
+        for (int index = 0; index < expected.getElements().size(); index++) {
+            assertEquals(expected.getElements().get(index).getSource(), actual.getElements().get(index).getSource());
+        }
+    }
+
+    @Test
+    public void readGzipCompressedDump() throws Exception {
+        final File file = File.createTempFile("jstackfx", ".txt.gz");
+        file.deleteOnExit();
+
+        try (final OutputStream output = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+            Files.copy(DUMP_FILE.toPath(), output);
+        }
+
+        assertDumpEquals(DumpFactory.read(DUMP_FILE), DumpFactory.read(file));
+    }
+
+    @Test
+    public void readZipArchiveAsTimeline() throws Exception {
+        final File first = new File("src/test/resources/timeline_01.txt");
+        final File second = new File("src/test/resources/timeline_02.txt");
+        final File file = File.createTempFile("jstackfx", ".zip");
+        file.deleteOnExit();
+
+        try (final ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(file.toPath()))) {
+            output.putNextEntry(new ZipEntry("snapshots/"));
+            output.closeEntry();
+
+            for (final File snapshot : Arrays.asList(first, second)) {
+                output.putNextEntry(new ZipEntry("snapshots/" + snapshot.getName()));
+                Files.copy(snapshot.toPath(), output);
+                output.closeEntry();
+            }
+        }
+
+        final DumpTimeline timeline = DumpFactory.readTimeline(file, true);
+
+        assertEquals(2, timeline.getDumps().size());
+        assertDumpEquals(DumpFactory.read(first), timeline.getDumps().get(0));
+        assertDumpEquals(DumpFactory.read(second), timeline.getDumps().get(1));
+        assertDumpEquals(DumpFactory.read(first), DumpFactory.read(file));
+    }
+
+    @Test
+    public void loadStatistics() throws Exception {
+        final Dump dump = DumpFactory.read(DUMP_FILE);
+        final LoadStatistics statistics = dump.getLoadStatistics();
+
+        assertNotNull(statistics);
+        assertEquals(DUMP_FILE.length(), statistics.getBytes());
+        assertEquals(Files.readAllLines(DUMP_FILE.toPath(), StandardCharsets.UTF_8).size(), statistics.getLines());
+        assertEquals(43, statistics.getThreads());
+        assertEquals(dump.getElements().stream().mapToInt(ThreadElement::getStackDepth).sum(), statistics.getFrames());
+        assertTrue(statistics.getLocks() > 0);
+        assertTrue(statistics.getTotalNanos() > 0);
+
+        for (final LoadStatistics.Phase phase : LoadStatistics.Phase.values()) {
+            assertTrue(phase.name(), statistics.getNanos(phase) >= 0);
+        }
+    }
+
+    @Test
+    public void loadStatisticsInParallel() throws Exception {
+        final LoadStatistics statistics = DumpFactory.read(DUMP_FILE, true).getLoadStatistics();
+
+        assertEquals(DUMP_FILE.length(), statistics.getBytes());
+        assertEquals(43, statistics.getThreads());
+        assertEquals(DumpFactory.read(DUMP_FILE).getLoadStatistics().getFrames(), statistics.getFrames());
+    }
+
+    @Test
+    public void timelineLoadStatisticsAreSharedByDumps() throws Exception {
+        final DumpTimeline timeline = DumpFactory.readTimeline(new File("src/test/resources/timeline_01.txt"), false);
+        final LoadStatistics statistics = timeline.getLoadStatistics();
+
+        assertEquals(new File("src/test/resources/timeline_01.txt").length(), statistics.getBytes());
+        assertEquals(timeline.getDumps().stream().mapToInt(dump -> dump.getElements().size()).sum(), statistics.getThreads());
+        timeline.getDumps().forEach(dump -> assertSame(statistics, dump.getLoadStatistics()));
+    }
+
+    @Test
+    public void readFromInputStream() throws Exception {
+        final InMemoryDump dump;
+
+        try (final InputStream input = new FileInputStream(DUMP_FILE)) {
+            dump = DumpFactory.read(input);
+        }
+
+        assertEquals(43, dump.getElements().size());
+        assertEquals(4957, dump.getNumberOfJNIRefs());
+        assertArrayEquals(Files.readAllBytes(DUMP_FILE.toPath()), dump.getContent().read(0, dump.getContent().size()));
+        assertEquals(DumpFactory.read(DUMP_FILE).getElements().get(5).getSource(), dump.getElements().get(5).getSource());
+    }
 }
@@ -0,0 +1,96 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.FileDump;
+import io.twasyl.jstackfx.beans.FrameDictionary;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpFileTailTest {
+
+    private static final File FIRST_DUMP = new File("src/test/resources/timeline_01.txt");
+    private static final File SECOND_DUMP = new File("src/test/resources/timeline_02.txt");
+
+    private static void append(final File file, final byte[] content, final int from, final int to) throws IOException {
+        Files.write(file.toPath(), Arrays.copyOfRange(content, from, to), StandardOpenOption.APPEND);
+    }
+
+    @Test
+    public void onlyAppendedBytesAreParsed() throws Exception {
+        final File file = File.createTempFile("jstackfx", ".txt");
+        file.deleteOnExit();
+
+        final byte[] first = Files.readAllBytes(FIRST_DUMP.toPath());
+        final byte[] second = Files.readAllBytes(SECOND_DUMP.toPath());
+        final List<FileDump> dumps = new ArrayList<>();
+
+        try (final DumpFileTail tail = new DumpFileTail(file, new FrameDictionary(), dumps::add)) {
+            assertEquals(0, tail.poll());
+
+            append(file, first, 0, first.length / 2);
+            assertEquals(0, tail.poll());
+
+            append(file, first, first.length / 2, first.length);
+            assertEquals(1, tail.poll());
+            assertEquals(first.length, tail.getPosition());
+
+            // The second dump is appended with a line which isn't completely written
+            final int middleOfALine = new String(second, "UTF-8").indexOf("java.lang.Thread.State") + 5;
+            append(file, second, 0, middleOfALine);
+            assertEquals(0, tail.poll());
+
+            append(file, second, middleOfALine, second.length);
+            assertEquals(1, tail.poll());
+            assertEquals(0, tail.poll());
+        }
+
+        assertEquals(2, dumps.size());
+        assertDumpEquals(DumpFactory.read(FIRST_DUMP), dumps.get(0));
+        assertDumpEquals(DumpFactory.read(SECOND_DUMP), dumps.get(1));
+        assertEquals(file, dumps.get(1).getFile());
+    }
+
+    @Test
+    public void truncatedFileIsFollowedFromItsBeginning() throws Exception {
+        final File file = File.createTempFile("jstackfx", ".txt");
+        file.deleteOnExit();
+
+        final List<FileDump> dumps = new ArrayList<>();
+
+        try (final DumpFileTail tail = new DumpFileTail(file, new FrameDictionary(), dumps::add)) {
+            Files.write(file.toPath(), Files.readAllBytes(FIRST_DUMP.toPath()));
+            Files.write(file.toPath(), Files.readAllBytes(SECOND_DUMP.toPath()), StandardOpenOption.APPEND);
+            assertEquals(2, tail.poll());
+
+            Files.write(file.toPath(), Files.readAllBytes(SECOND_DUMP.toPath()), StandardOpenOption.TRUNCATE_EXISTING);
+            assertEquals(1, tail.poll());
+        }
+
+        assertEquals(3, dumps.size());
+        assertDumpEquals(DumpFactory.read(SECOND_DUMP), dumps.get(2));
+    }
+
+    private static void assertDumpEquals(final Dump expected, final Dump actual) {
+        assertEquals(expected.getGenerationDateTime(), actual.getGenerationDateTime());
+        assertEquals(expected.getNumberOfJNIRefs(), actual.getNumberOfJNIRefs());
+        assertEquals(expected.getElements().size(), actual.getElements().size());
+
+        for (int index = 0; index < expected.getElements().size(); index++) {
+            assertEquals(expected.getElements().get(index).getSource(), actual.getElements().get(index).getSource());
+            assertEquals(expected.getElements().get(index).getCallingStack(), actual.getElements().get(index).getCallingStack());
+        }
+    }
+}
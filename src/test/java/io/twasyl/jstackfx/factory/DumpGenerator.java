@@ -0,0 +1,553 @@
+package io.twasyl.jstackfx.factory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates thread dumps in the format of {@code jstack}, as expected by {@link DumpFactory}, for testing and
+ * benchmarking at scale. The number of threads, the depth of their calling stacks, the repartition of their states,
+ * the density of the lock graph and the number of deadlocks can be chosen.
+ * <p>
+ * The generation is deterministic: a generator created with a given seed and configured the same way always writes
+ * the same dumps. Threads share a limited number of calling stacks, as threads of the same pool do in a real
+ * application. Monitors are held by a proportion of the threads given by the {@link #setLockDensity(double) lock
+ * density} and blocked threads wait for monitors held by other threads, without ever forming a cycle except the
+ * requested {@link #setNumberOfDeadlocks(int) deadlocks}.
+ *
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpGenerator {
+    public static final LocalDateTime DEFAULT_GENERATION_DATE_TIME = LocalDateTime.of(2017, 1, 1, 0, 0, 0);
+    public static final int MINIMUM_STACK_DEPTH = 5;
+
+    protected static final DateTimeFormatter GENERATION_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss");
+    protected static final String DESCRIPTION = "Full thread dump Java HotSpot(TM) 64-Bit Server VM (25.112-b16 mixed mode):";
+    protected static final int THREADS_PER_CALLING_STACK = 50;
+    protected static final long THREAD_BASE_ADDRESS = 0x00007f8465000000L;
+    protected static final long STACK_BASE_ADDRESS = 0x0000700000000000L;
+    protected static final long MONITOR_BASE_ADDRESS = 0x000000076ab00000L;
+    protected static final long SYNCHRONIZER_BASE_ADDRESS = 0x00000006c0000000L;
+    protected static final long OBJECT_BASE_ADDRESS = 0x00000007e0000000L;
+
+    private static final String[] PACKAGES = {"com.acme.orders", "com.acme.billing", "com.acme.inventory", "com.acme.shipping",
+            "org.eclipse.jetty.server", "org.springframework.web.servlet", "org.hibernate.internal", "com.zaxxer.hikari.pool"};
+    private static final String[] CLASSES = {"Service", "Repository", "Handler", "Dispatcher", "Cache", "Session", "Pool",
+            "Processor", "Controller", "Queue"};
+    private static final String[] METHODS = {"process", "handle", "execute", "invoke", "doFilter", "lookup", "load", "save",
+            "dispatch", "apply"};
+    private static final String[] THREAD_NAMES = {"http-nio-8080-exec-", "pool-1-thread-", "ForkJoinPool.commonPool-worker-",
+            "scheduler-", "kafka-consumer-"};
+    private static final String[] MONITOR_CLASSES = {"java.lang.Object", "com.acme.orders.OrderCache", "com.acme.billing.Ledger",
+            "com.acme.inventory.StockLevels", "java.util.HashMap", "org.hibernate.internal.SessionImpl"};
+    private static final String SYNCHRONIZER_CLASS = "java.util.concurrent.locks.ReentrantLock$NonfairSync";
+    private static final String CONDITION_CLASS = "java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject";
+    private static final String THREAD_RUN_FRAME = "java.lang.Thread.run(Thread.java:745)";
+
+    private final long seed;
+    private int numberOfThreads = 100;
+    private int stackDepth = 20;
+    private final Map<Thread.State, Integer> stateMix = new EnumMap<>(Thread.State.class);
+    private double lockDensity = 0.1;
+    private int numberOfDeadlocks = 0;
+    private int deadlockLength = 2;
+    private LocalDateTime generationDateTime = DEFAULT_GENERATION_DATE_TIME;
+
+    /**
+     * Creates a generator of 100 threads having calling stacks of 20 frames, 40% of them being runnable, 30% waiting,
+     * 20% timed waiting and 10% blocked.
+     *
+     * @param seed The seed of the generation.
+     */
+    public DumpGenerator(final long seed) {
+        this.seed = seed;
+        this.stateMix.put(Thread.State.RUNNABLE, 40);
+        this.stateMix.put(Thread.State.WAITING, 30);
+        this.stateMix.put(Thread.State.TIMED_WAITING, 20);
+        this.stateMix.put(Thread.State.BLOCKED, 10);
+    }
+
+    public long getSeed() { return seed; }
+
+    public int getNumberOfThreads() { return numberOfThreads; }
+
+    public void setNumberOfThreads(final int numberOfThreads) {
+        if (numberOfThreads < 0) throw new IllegalArgumentException("The number of threads can not be negative");
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    public int getStackDepth() { return stackDepth; }
+
+    /**
+     * Set the number of frames of the calling stack of each thread.
+     *
+     * @param stackDepth The number of frames, at least {@link #MINIMUM_STACK_DEPTH}.
+     */
+    public void setStackDepth(final int stackDepth) {
+        if (stackDepth < MINIMUM_STACK_DEPTH) throw new IllegalArgumentException("The stack depth must be at least " + MINIMUM_STACK_DEPTH);
+        this.stackDepth = stackDepth;
+    }
+
+    /**
+     * Set the relative weight of a state in the repartition of the states of the threads. A weight of {@code 0}
+     * removes the state from the repartition.
+     *
+     * @param state  The state, which can't be {@link Thread.State#NEW NEW} or {@link Thread.State#TERMINATED TERMINATED}
+     *               as such threads aren't part of a dump.
+     * @param weight The weight of the state.
+     */
+    public void setStateWeight(final Thread.State state, final int weight) {
+        if (state == null) throw new NullPointerException("The state can not be null");
+        if (state == Thread.State.NEW || state == Thread.State.TERMINATED) throw new IllegalArgumentException("A dump can not contain " + state + " threads");
+        if (weight < 0) throw new IllegalArgumentException("The weight can not be negative");
+
+        if (weight == 0) {
+            this.stateMix.remove(state);
+        } else {
+            this.stateMix.put(state, weight);
+        }
+    }
+
+    public int getStateWeight(final Thread.State state) {
+        return this.stateMix.getOrDefault(state, 0);
+    }
+
+    public double getLockDensity() { return lockDensity; }
+
+    /**
+     * Set the density of the lock graph, which is the probability for a thread to hold monitors or synchronizers, and
+     * for a parked thread to wait for a synchronizer held by another thread.
+     *
+     * @param lockDensity The density between {@code 0} and {@code 1}.
+     */
+    public void setLockDensity(final double lockDensity) {
+        if (lockDensity < 0 || lockDensity > 1) throw new IllegalArgumentException("The lock density must be between 0 and 1");
+        this.lockDensity = lockDensity;
+    }
+
+    public int getNumberOfDeadlocks() { return numberOfDeadlocks; }
+
+    public void setNumberOfDeadlocks(final int numberOfDeadlocks) {
+        if (numberOfDeadlocks < 0) throw new IllegalArgumentException("The number of deadlocks can not be negative");
+        this.numberOfDeadlocks = numberOfDeadlocks;
+    }
+
+    public int getDeadlockLength() { return deadlockLength; }
+
+    /**
+     * Set the number of threads involved in each deadlock, each of them waiting for a monitor held by the next one.
+     *
+     * @param deadlockLength The number of threads of each deadlock, at least {@code 2}.
+     */
+    public void setDeadlockLength(final int deadlockLength) {
+        if (deadlockLength < 2) throw new IllegalArgumentException("A deadlock involves at least 2 threads");
+        this.deadlockLength = deadlockLength;
+    }
+
+    public LocalDateTime getGenerationDateTime() { return generationDateTime; }
+
+    public void setGenerationDateTime(final LocalDateTime generationDateTime) {
+        if (generationDateTime == null) throw new NullPointerException("The generation date time can not be null");
+        this.generationDateTime = generationDateTime;
+    }
+
+    /**
+     * Writes a single dump in the given file.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file can not be written.
+     */
+    public void write(final File file) throws IOException {
+        this.writeTimeline(file, 1, Duration.ZERO);
+    }
+
+    /**
+     * Writes a single dump.
+     *
+     * @param output Where the dump is written.
+     * @throws IOException If the output can not be written.
+     */
+    public void write(final Appendable output) throws IOException {
+        this.writeTimeline(output, 1, Duration.ZERO);
+    }
+
+    /**
+     * Writes several dumps in the given file, as done by calling {@code jstack} in a loop.
+     *
+     * @param file           The file to write.
+     * @param numberOfDumps  The number of dumps.
+     * @param interval       The duration between the generation of two consecutive dumps.
+     * @throws IOException If the file can not be written.
+     */
+    public void writeTimeline(final File file, final int numberOfDumps, final Duration interval) throws IOException {
+        if (file == null) throw new NullPointerException("The file can not be null");
+
+        try (final Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            this.writeTimeline(writer, numberOfDumps, interval);
+        }
+    }
+
+    /**
+     * Writes several dumps, as done by calling {@code jstack} in a loop. The threads are the same in each dump but
+     * their states, and the locks they hold or wait for, change from one dump to the other. Deadlocked threads stay
+     * deadlocked.
+     *
+     * @param output         Where the dumps are written.
+     * @param numberOfDumps  The number of dumps.
+     * @param interval       The duration between the generation of two consecutive dumps.
+     * @throws IOException If the output can not be written.
+     */
+    public void writeTimeline(final Appendable output, final int numberOfDumps, final Duration interval) throws IOException {
+        if (output == null) throw new NullPointerException("The output can not be null");
+        if (interval == null) throw new NullPointerException("The interval can not be null");
+        if (numberOfDumps < 1) throw new IllegalArgumentException("The number of dumps must be at least 1");
+        if (this.stateMix.isEmpty()) throw new IllegalStateException("At least one state must have a weight");
+        if (this.numberOfDeadlocks * this.deadlockLength > this.numberOfThreads) {
+            throw new IllegalStateException("There are not enough threads for " + this.numberOfDeadlocks + " deadlocks");
+        }
+
+        final Random random = new Random(this.seed);
+        final List<String[]> callingStacks = this.generateCallingStacks(random);
+        final List<GeneratedThread> threads = this.generateThreads(random, callingStacks.size());
+
+        for (int dump = 0; dump < numberOfDumps; dump++) {
+            this.generateStates(random, threads);
+            this.writeDump(output, random, threads, callingStacks, this.generationDateTime.plus(interval.multipliedBy(dump)));
+        }
+    }
+
+    protected List<String[]> generateCallingStacks(final Random random) {
+        final int numberOfCallingStacks = Math.max(1, this.numberOfThreads / THREADS_PER_CALLING_STACK);
+        final List<String[]> callingStacks = new ArrayList<>(numberOfCallingStacks);
+
+        for (int index = 0; index < numberOfCallingStacks; index++) {
+            final String[] frames = new String[this.stackDepth];
+
+            for (int frame = 0; frame < frames.length; frame++) {
+                frames[frame] = generateFrame(random);
+            }
+
+            callingStacks.add(frames);
+        }
+
+        return callingStacks;
+    }
+
+    protected static String generateFrame(final Random random) {
+        final String packageName = PACKAGES[random.nextInt(PACKAGES.length)];
+        final String module = packageName.substring(packageName.lastIndexOf('.') + 1);
+        final String className = Character.toUpperCase(module.charAt(0)) + module.substring(1) + CLASSES[random.nextInt(CLASSES.length)];
+        final String methodName = METHODS[random.nextInt(METHODS.length)];
+
+        if (random.nextInt(20) == 0) {
+            return packageName + "." + className + "$$Lambda$" + (10 + random.nextInt(500)) + "/" + (100000000 + random.nextInt(900000000)) + "." + methodName + "(Unknown Source)";
+        }
+
+        return packageName + "." + className + "." + methodName + "(" + className + ".java:" + (20 + random.nextInt(900)) + ")";
+    }
+
+    protected List<GeneratedThread> generateThreads(final Random random, final int numberOfCallingStacks) {
+        final List<GeneratedThread> threads = new ArrayList<>(this.numberOfThreads);
+        final int firstDeadlockedThread = this.numberOfThreads - this.numberOfDeadlocks * this.deadlockLength;
+
+        for (int index = 0; index < this.numberOfThreads; index++) {
+            final GeneratedThread thread = new GeneratedThread();
+            thread.index = index;
+            thread.name = THREAD_NAMES[index % THREAD_NAMES.length] + (index / THREAD_NAMES.length + 1);
+            thread.daemon = random.nextBoolean();
+            thread.callingStack = random.nextInt(numberOfCallingStacks);
+            thread.deadlocked = index >= firstDeadlockedThread;
+            threads.add(thread);
+        }
+
+        return threads;
+    }
+
+    /**
+     * Draws the state of each thread and builds the lock graph of the dump.
+     */
+    protected void generateStates(final Random random, final List<GeneratedThread> threads) {
+        final int totalWeight = this.stateMix.values().stream().mapToInt(Integer::intValue).sum();
+        final List<Long> heldMonitors = new ArrayList<>();
+        final List<Long> ownedSynchronizers = new ArrayList<>();
+        long nextMonitor = 0;
+        long nextSynchronizer = 0;
+
+        for (final GeneratedThread thread : threads) {
+            thread.reset();
+            if (thread.deadlocked) continue;
+
+            thread.state = this.drawState(random, totalWeight);
+            thread.parking = thread.state == Thread.State.WAITING && random.nextBoolean();
+            thread.socketRead = thread.state == Thread.State.RUNNABLE && random.nextBoolean();
+
+            if (random.nextDouble() < this.lockDensity) {
+                final int numberOfMonitors = 1 + random.nextInt(2);
+
+                for (int monitor = 0; monitor < numberOfMonitors; monitor++) {
+                    thread.heldMonitors.add(nextMonitor++);
+                }
+
+                if (thread.state != Thread.State.BLOCKED) heldMonitors.addAll(thread.heldMonitors);
+            }
+
+            if (thread.state != Thread.State.WAITING && random.nextDouble() < this.lockDensity) {
+                thread.ownedSynchronizers.add(nextSynchronizer);
+                ownedSynchronizers.add(nextSynchronizer++);
+            }
+        }
+
+        // Blocked threads only wait for monitors held by threads which aren't blocked or which have been processed
+        // before, so that they never form a cycle
+        for (final GeneratedThread thread : threads) {
+            if (thread.deadlocked) continue;
+
+            if (thread.state == Thread.State.BLOCKED) {
+                thread.waitingMonitor = heldMonitors.isEmpty() ? nextMonitor++ : heldMonitors.get(random.nextInt(heldMonitors.size()));
+                heldMonitors.addAll(thread.heldMonitors);
+            } else if (thread.parking && !ownedSynchronizers.isEmpty() && random.nextDouble() < this.lockDensity) {
+                thread.parkingSynchronizer = ownedSynchronizers.get(random.nextInt(ownedSynchronizers.size()));
+            }
+        }
+
+        for (int index = this.numberOfThreads - this.numberOfDeadlocks * this.deadlockLength; index < this.numberOfThreads; index += this.deadlockLength) {
+            final long firstMonitor = nextMonitor;
+            nextMonitor += this.deadlockLength;
+
+            for (int position = 0; position < this.deadlockLength; position++) {
+                final GeneratedThread thread = threads.get(index + position);
+                thread.state = Thread.State.BLOCKED;
+                thread.heldMonitors.add(firstMonitor + position);
+                thread.waitingMonitor = firstMonitor + (position + 1) % this.deadlockLength;
+                thread.holder = threads.get(index + (position + 1) % this.deadlockLength);
+            }
+        }
+    }
+
+    private Thread.State drawState(final Random random, final int totalWeight) {
+        int draw = random.nextInt(totalWeight);
+
+        for (final Map.Entry<Thread.State, Integer> weight : this.stateMix.entrySet()) {
+            draw -= weight.getValue();
+            if (draw < 0) return weight.getKey();
+        }
+
+        throw new IllegalStateException("Can not draw a state");
+    }
+
+    protected void writeDump(final Appendable output, final Random random, final List<GeneratedThread> threads,
+                             final List<String[]> callingStacks, final LocalDateTime generationDateTime) throws IOException {
+        output.append(GENERATION_DATE_TIME_FORMATTER.format(generationDateTime)).append('\n');
+        output.append(DESCRIPTION).append('\n');
+        output.append('\n');
+
+        final List<List<String>> deadlockedThreads = new ArrayList<>();
+
+        for (final GeneratedThread thread : threads) {
+            final List<String> lines = this.threadLines(random, thread, callingStacks.get(thread.callingStack));
+
+            for (final String line : lines) output.append(line).append('\n');
+            output.append('\n');
+
+            if (thread.deadlocked) deadlockedThreads.add(lines);
+        }
+
+        output.append("\"VM Thread\" os_prio=31 tid=0x00007f84650dc000 nid=0x3c03 runnable \n\n");
+        output.append("\"GC task thread#0 (ParallelGC)\" os_prio=31 tid=0x00007f8464816800 nid=0x3203 runnable \n\n");
+        output.append("\"GC task thread#1 (ParallelGC)\" os_prio=31 tid=0x00007f8464817000 nid=0x3403 runnable \n\n");
+        output.append("\"VM Periodic Task Thread\" os_prio=31 tid=0x00007f846582c800 nid=0x5103 waiting on condition \n\n");
+        output.append("JNI global references: ").append(String.valueOf(1000 + threads.size())).append('\n');
+
+        if (this.numberOfDeadlocks > 0) {
+            this.writeDeadlocks(output, threads, deadlockedThreads);
+        }
+
+        output.append('\n');
+    }
+
+    /**
+     * Writes the description of the deadlocks which follows the threads in a dump.
+     */
+    protected void writeDeadlocks(final Appendable output, final List<GeneratedThread> threads, final List<List<String>> deadlockedThreads) throws IOException {
+        final int firstDeadlockedThread = this.numberOfThreads - this.numberOfDeadlocks * this.deadlockLength;
+
+        for (int deadlock = 0; deadlock < this.numberOfDeadlocks; deadlock++) {
+            final int first = firstDeadlockedThread + deadlock * this.deadlockLength;
+
+            output.append("\n\nFound one Java-level deadlock:\n=============================\n");
+
+            for (int index = first; index < first + this.deadlockLength; index++) {
+                final GeneratedThread thread = threads.get(index);
+
+                output.append('"').append(thread.name).append("\":\n");
+                output.append("  waiting to lock monitor ").append(address(THREAD_BASE_ADDRESS + 0x100000L + thread.waitingMonitor * 0x40))
+                        .append(" (object ").append(address(monitorAddress(thread.waitingMonitor)))
+                        .append(", a ").append(monitorClass(thread.waitingMonitor)).append("),\n");
+                output.append("  which is held by \"").append(thread.holder.name).append("\"\n");
+            }
+
+            output.append("\nJava stack information for the threads listed above:\n===================================================\n");
+
+            for (int index = first; index < first + this.deadlockLength; index++) {
+                final List<String> lines = deadlockedThreads.get(index - firstDeadlockedThread);
+
+                output.append('"').append(threads.get(index).name).append("\":\n");
+
+                for (final String line : lines.subList(2, lines.size())) {
+                    if (line.isEmpty()) break;
+                    output.append(line).append('\n');
+                }
+            }
+        }
+
+        output.append("\nFound ").append(String.valueOf(this.numberOfDeadlocks))
+                .append(this.numberOfDeadlocks == 1 ? " deadlock.\n" : " deadlocks.\n");
+    }
+
+    protected List<String> threadLines(final Random random, final GeneratedThread thread, final String[] callingStack) {
+        final List<String> lines = new ArrayList<>(this.stackDepth + 8);
+        final String status;
+        final String state;
+        final List<String> topFrames = new ArrayList<>(4);
+
+        switch (thread.state) {
+            case RUNNABLE:
+                status = "runnable";
+                state = "RUNNABLE";
+
+                if (thread.socketRead) {
+                    topFrames.add("\tat java.net.SocketInputStream.socketRead0(Native Method)");
+                    topFrames.add("\tat java.net.SocketInputStream.socketRead(SocketInputStream.java:116)");
+                }
+                break;
+            case TIMED_WAITING:
+                status = "waiting on condition";
+                state = "TIMED_WAITING (sleeping)";
+                topFrames.add("\tat java.lang.Thread.sleep(Native Method)");
+                break;
+            case WAITING:
+                if (thread.parking) {
+                    status = "waiting on condition";
+                    state = "WAITING (parking)";
+                    topFrames.add("\tat sun.misc.Unsafe.park(Native Method)");
+
+                    if (thread.parkingSynchronizer >= 0) {
+                        topFrames.add("\t- parking to wait for  <" + address(SYNCHRONIZER_BASE_ADDRESS + thread.parkingSynchronizer * 0x20) + "> (a " + SYNCHRONIZER_CLASS + ")");
+                        topFrames.add("\tat java.util.concurrent.locks.LockSupport.park(LockSupport.java:175)");
+                        topFrames.add("\tat java.util.concurrent.locks.AbstractQueuedSynchronizer.acquireQueued(AbstractQueuedSynchronizer.java:870)");
+                    } else {
+                        topFrames.add("\t- parking to wait for  <" + address(OBJECT_BASE_ADDRESS + thread.index * 0x20L) + "> (a " + CONDITION_CLASS + ")");
+                        topFrames.add("\tat java.util.concurrent.locks.LockSupport.park(LockSupport.java:175)");
+                        topFrames.add("\tat java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject.await(AbstractQueuedSynchronizer.java:2039)");
+                    }
+                } else {
+                    status = "in Object.wait()";
+                    state = "WAITING (on object monitor)";
+                    topFrames.add("\tat java.lang.Object.wait(Native Method)");
+                    topFrames.add("\t- waiting on <" + address(OBJECT_BASE_ADDRESS + thread.index * 0x20L) + "> (a java.lang.Object)");
+                    topFrames.add("\tat java.lang.Object.wait(Object.java:502)");
+                }
+                break;
+            case BLOCKED:
+                status = "waiting for monitor entry";
+                state = "BLOCKED (on object monitor)";
+                break;
+            default:
+                throw new IllegalStateException("Unsupported state " + thread.state);
+        }
+
+        lines.add(String.format("\"%s\" #%d%s prio=5 os_prio=31 tid=%s nid=0x%x %s [%s]", thread.name, thread.index + 10,
+                thread.daemon ? " daemon" : "", address(THREAD_BASE_ADDRESS + thread.index * 0x800L), 0x1003 + thread.index * 0x100,
+                status, address(STACK_BASE_ADDRESS + thread.index * 0x100000L)));
+        lines.add("   java.lang.Thread.State: " + state);
+        lines.addAll(topFrames);
+
+        int numberOfFrames = topFrames.stream().filter(line -> line.startsWith("\tat ")).mapToInt(line -> 1).sum();
+        final int applicationFrames = this.stackDepth - numberOfFrames - 1;
+
+        for (int frame = 0; frame < applicationFrames; frame++) {
+            lines.add("\tat " + callingStack[frame]);
+
+            if (frame == 0 && thread.waitingMonitor >= 0) {
+                lines.add("\t- waiting to lock <" + address(monitorAddress(thread.waitingMonitor)) + "> (a " + monitorClass(thread.waitingMonitor) + ")");
+            }
+
+            // Monitors are locked by the frames below the top one
+            for (int monitor = 0; monitor < thread.heldMonitors.size(); monitor++) {
+                if (frame == Math.min(applicationFrames - 1, monitor + 1)) {
+                    final long heldMonitor = thread.heldMonitors.get(monitor);
+                    lines.add("\t- locked <" + address(monitorAddress(heldMonitor)) + "> (a " + monitorClass(heldMonitor) + ")");
+                }
+            }
+        }
+
+        lines.add("\tat " + THREAD_RUN_FRAME);
+        lines.add("");
+        lines.add("   Locked ownable synchronizers:");
+
+        if (thread.ownedSynchronizers.isEmpty()) {
+            lines.add("\t- None");
+        } else {
+            for (final long synchronizer : thread.ownedSynchronizers) {
+                lines.add("\t- <" + address(SYNCHRONIZER_BASE_ADDRESS + synchronizer * 0x20) + "> (a " + SYNCHRONIZER_CLASS + ")");
+            }
+        }
+
+        return lines;
+    }
+
+    protected static long monitorAddress(final long monitor) {
+        return MONITOR_BASE_ADDRESS + monitor * 0x18;
+    }
+
+    protected static String monitorClass(final long monitor) {
+        return MONITOR_CLASSES[(int) (monitor % MONITOR_CLASSES.length)];
+    }
+
+    protected static String address(final long address) {
+        return String.format("0x%016x", address);
+    }
+
+    /**
+     * A thread of the generated dumps. Its identity and calling stack are the same in all dumps while its state and
+     * locks are generated for each dump.
+     */
+    protected static class GeneratedThread {
+        private int index;
+        private String name;
+        private boolean daemon;
+        private int callingStack;
+        private boolean deadlocked;
+
+        private Thread.State state;
+        private boolean parking;
+        private boolean socketRead;
+        private final List<Long> heldMonitors = new ArrayList<>();
+        private final List<Long> ownedSynchronizers = new ArrayList<>();
+        private long waitingMonitor;
+        private long parkingSynchronizer;
+        private GeneratedThread holder;
+
+        private void reset() {
+            this.state = null;
+            this.parking = false;
+            this.socketRead = false;
+            this.heldMonitors.clear();
+            this.ownedSynchronizers.clear();
+            this.waitingMonitor = -1;
+            this.parkingSynchronizer = -1;
+            this.holder = null;
+        }
+    }
+}
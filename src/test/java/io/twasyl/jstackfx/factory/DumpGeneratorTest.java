@@ -0,0 +1,127 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpTimeline;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpGeneratorTest {
+
+    private static String generate(final DumpGenerator generator) throws Exception {
+        final StringBuilder dump = new StringBuilder();
+        generator.write(dump);
+        return dump.toString();
+    }
+
+    private static Dump read(final DumpGenerator generator) throws Exception {
+        final File file = File.createTempFile("jstackfx", ".txt");
+        file.deleteOnExit();
+
+        generator.write(file);
+        return DumpFactory.read(file);
+    }
+
+    @Test
+    public void sameSeedGeneratesSameDump() throws Exception {
+        assertEquals(generate(new DumpGenerator(42)), generate(new DumpGenerator(42)));
+        assertNotEquals(generate(new DumpGenerator(42)), generate(new DumpGenerator(43)));
+    }
+
+    @Test
+    public void threadsHaveTheRequestedStackDepthAndStates() throws Exception {
+        final DumpGenerator generator = new DumpGenerator(1);
+        generator.setNumberOfThreads(500);
+        generator.setStackDepth(32);
+        generator.setStateWeight(Thread.State.RUNNABLE, 0);
+        generator.setStateWeight(Thread.State.BLOCKED, 0);
+
+        final Dump dump = read(generator);
+
+        assertEquals(500, dump.getElements().size());
+        assertEquals(500, dump.countNumberOfThreads(Thread.State.WAITING) + dump.countNumberOfThreads(Thread.State.TIMED_WAITING));
+        assertTrue(dump.countNumberOfThreads(Thread.State.WAITING) > 0);
+        assertTrue(dump.getElements().stream().allMatch(element -> element.getStackDepth() == 32));
+    }
+
+    @Test
+    public void blockedThreadsAreBlockedByOtherThreads() throws Exception {
+        final DumpGenerator generator = new DumpGenerator(7);
+        generator.setNumberOfThreads(300);
+        generator.setLockDensity(0.5);
+
+        final Dump dump = read(generator);
+
+        assertTrue(dump.countNumberOfThreads(Thread.State.BLOCKED) > 0);
+
+        for (final ThreadElement element : dump.getElements()) {
+            if (element.getState() == Thread.State.BLOCKED) {
+                assertEquals(element.getName(), 1, element.getWaitingToLock().size());
+                assertEquals(element.getName(), 1, element.getBlockingThreads().size());
+            }
+        }
+    }
+
+    @Test
+    public void deadlockedThreadsFormCycles() throws Exception {
+        final DumpGenerator generator = new DumpGenerator(3);
+        generator.setNumberOfThreads(100);
+        generator.setNumberOfDeadlocks(2);
+        generator.setDeadlockLength(3);
+
+        final Dump dump = read(generator);
+        final Set<ThreadElement> deadlocked = dump.getElements().stream()
+                .filter(element -> isDeadlocked(element))
+                .collect(Collectors.toSet());
+
+        assertEquals(100, dump.getElements().size());
+        assertEquals(6, deadlocked.size());
+    }
+
+    private static boolean isDeadlocked(final ThreadElement element) {
+        ThreadElement current = element;
+
+        for (int step = 0; step < 10; step++) {
+            final Set<ThreadElement> blocking = current.getBlockingThreads();
+            if (blocking.isEmpty()) return false;
+
+            current = blocking.iterator().next();
+            if (current == element) return true;
+        }
+
+        return false;
+    }
+
+    @Test
+    public void generateTimeline() throws Exception {
+        final File file = File.createTempFile("jstackfx", ".txt");
+        file.deleteOnExit();
+
+        final DumpGenerator generator = new DumpGenerator(5);
+        generator.setNumberOfThreads(50);
+        generator.setNumberOfDeadlocks(1);
+        generator.writeTimeline(file, 4, Duration.ofSeconds(10));
+
+        final DumpTimeline timeline = DumpFactory.readTimeline(file, false);
+
+        assertEquals(4, timeline.getDumps().size());
+
+        for (int index = 0; index < 4; index++) {
+            final Dump dump = timeline.getDumps().get(index);
+            assertEquals(50, dump.getElements().size());
+            assertEquals(DumpGenerator.DEFAULT_GENERATION_DATE_TIME.plusSeconds(10 * index), dump.getGenerationDateTime());
+        }
+    }
+}
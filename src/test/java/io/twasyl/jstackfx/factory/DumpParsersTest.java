@@ -0,0 +1,85 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.DumpTimeline;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpParsersTest {
+
+    private static String formatOf(final String resource) throws Exception {
+        try (final InputStream input = new BufferedInputStream(new FileInputStream(new File("src/test/resources", resource)))) {
+            return DumpParsers.sniff(input).getName();
+        }
+    }
+
+    @Test
+    public void parsersAreDiscovered() {
+        assertEquals("json, javacore, jstack", DumpParsers.getParsers().stream().map(DumpParser::getName).collect(Collectors.joining(", ")));
+    }
+
+    @Test
+    public void formatIsSniffedFromTheContent() throws Exception {
+        assertEquals("jstack", formatOf("intellij.txt"));
+        assertEquals("jstack", formatOf("jcmd_thread_print.txt"));
+        assertEquals("json", formatOf("jcmd.json"));
+        assertEquals("javacore", formatOf("javacore.txt"));
+    }
+
+    @Test
+    public void sniffingDoesNotConsumeTheInput() throws Exception {
+        try (final InputStream input = new BufferedInputStream(new FileInputStream("src/test/resources/javacore.txt"))) {
+            DumpParsers.sniff(input);
+            assertEquals('0', input.read());
+        }
+    }
+
+    @Test
+    public void unknownContentIsParsedAsJstackOutput() {
+        assertEquals("jstack", DumpParsers.select("Some log line\nAnother one").getName());
+    }
+
+    @Test
+    public void readJcmdThreadPrint() throws Exception {
+        final Dump dump = DumpFactory.read(new File("src/test/resources/jcmd_thread_print.txt"));
+
+        assertEquals(LocalDateTime.of(2017, 1, 1, 1, 0, 0), dump.getGenerationDateTime());
+        assertEquals("Full thread dump OpenJDK 64-Bit Server VM (17.0.1+12 mixed mode, sharing):", dump.getDescription());
+        assertEquals(3, dump.getElements().size());
+        assertEquals("main", dump.getElements().get(2).getName());
+        assertEquals(Thread.State.TIMED_WAITING, dump.getElements().get(2).getState());
+        assertEquals(7, dump.getNumberOfJNIRefs());
+    }
+
+    @Test
+    public void readDumpEmbeddedInALog() throws Exception {
+        final File file = File.createTempFile("jstackfx", ".log");
+        file.deleteOnExit();
+
+        final StringBuilder log = new StringBuilder("2017-01-01 00:59:59.123 INFO  [main] c.a.Main - Started\n");
+        log.append(new String(Files.readAllBytes(new File("src/test/resources/timeline_01.txt").toPath()), "UTF-8"));
+        log.append("2017-01-01 01:00:01.456 INFO  [main] c.a.Main - Still running\n");
+        Files.write(file.toPath(), log.toString().getBytes("UTF-8"));
+
+        final DumpTimeline timeline = DumpFactory.readTimeline(file, false);
+
+        assertEquals(1, timeline.getDumps().size());
+        assertTrue(timeline.getDumps().get(0).getElements().size() > 0);
+        assertEquals(DumpFactory.read(new File("src/test/resources/timeline_01.txt")).getElements().size(),
+                timeline.getDumps().get(0).getElements().size());
+    }
+}
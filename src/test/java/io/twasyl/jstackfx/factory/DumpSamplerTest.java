@@ -0,0 +1,88 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpSamplerTest {
+
+    private static class RecordingListener implements DumpSampler.Listener {
+        private final List<Dump> dumps = new CopyOnWriteArrayList<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        @Override
+        public void dumpCaptured(final Dump dump) {
+            this.dumps.add(dump);
+        }
+
+        @Override
+        public void finished() {
+            this.finished.countDown();
+        }
+    }
+
+    @Test
+    public void sampleDuringDuration() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        final DumpSampler sampler = new DumpSampler(1, processId -> new InMemoryDump(), listener);
+
+        sampler.start(Duration.ofMillis(100), Duration.ofMillis(500));
+
+        assertTrue(listener.finished.await(5, TimeUnit.SECONDS));
+        assertFalse(sampler.isRunning());
+        assertEquals(6, sampler.getNumberOfSamples() + sampler.getNumberOfOverruns());
+        assertEquals(sampler.getNumberOfSamples(), listener.dumps.size());
+        assertTrue(listener.dumps.stream().allMatch(dump -> dump.getGenerationDateTime() != null));
+    }
+
+    @Test
+    public void slowCapturesAreReportedAsOverruns() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        final DumpSampler sampler = new DumpSampler(1, processId -> {
+            try {
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new InMemoryDump();
+        }, listener);
+
+        sampler.start(Duration.ofMillis(100), Duration.ofSeconds(1));
+
+        assertTrue(listener.finished.await(5, TimeUnit.SECONDS));
+        assertTrue(sampler.getNumberOfOverruns() > 0);
+        assertEquals(11, sampler.getNumberOfSamples() + sampler.getNumberOfOverruns());
+        assertEquals(sampler.getNumberOfSamples(), listener.dumps.size());
+    }
+
+    @Test
+    public void closeStopsSampling() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        final DumpSampler sampler = new DumpSampler(1, processId -> new InMemoryDump(), listener);
+
+        sampler.start(Duration.ofMillis(100), Duration.ofHours(1));
+        sampler.close();
+
+        assertTrue(listener.finished.await(5, TimeUnit.SECONDS));
+        assertFalse(sampler.isRunning());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void intervalCanNotBeLessThanMinimum() {
+        new DumpSampler(1, processId -> new InMemoryDump(), dump -> {}).start(DumpSampler.MINIMUM_INTERVAL.minusMillis(1), Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,129 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.DumpTimeline;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class DumpWatcherTest {
+
+    @Test
+    public void burstIsCapturedWhenTheRuleFires() {
+        final List<DumpTimeline> bursts = new ArrayList<>();
+
+        try (final JmxDumpCapture capture = new JmxDumpCapture(ManagementFactory.getPlatformMBeanServer())) {
+            final DumpWatcher watcher = new DumpWatcher(42, capture, WatchRule.threadCountAbove(0), (indicators, burst) -> bursts.add(burst));
+            watcher.setBurstSize(3);
+            watcher.setBurstInterval(Duration.ofMillis(10));
+
+            watcher.poll();
+            // The second poll happens during the cooldown
+            watcher.poll();
+
+            assertEquals(1, bursts.size());
+            assertEquals(3, bursts.get(0).getDumps().size());
+            assertEquals(42, bursts.get(0).getDumps().get(0).getProcessId());
+            assertEquals(1, watcher.getNumberOfPolls());
+            assertEquals(1, watcher.getNumberOfBursts());
+        }
+    }
+
+    @Test
+    public void noBurstIsCapturedWhenTheRuleDoesNotFire() {
+        final List<DumpTimeline> bursts = new ArrayList<>();
+
+        try (final JmxDumpCapture capture = new JmxDumpCapture(ManagementFactory.getPlatformMBeanServer())) {
+            final DumpWatcher watcher = new DumpWatcher(42, capture,
+                    WatchRule.threadCountAbove(Integer.MAX_VALUE).or(WatchRule.deadlock()), (indicators, burst) -> bursts.add(burst));
+
+            watcher.poll();
+            watcher.poll();
+
+            assertTrue(bursts.isEmpty());
+            assertEquals(2, watcher.getNumberOfPolls());
+        }
+    }
+
+    @Test
+    public void blockedThreadsAreCounted() throws Exception {
+        final Object monitor = new Object();
+        final Thread blocked = new Thread(() -> {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }, "watcher-test-blocked");
+
+        synchronized (monitor) {
+            blocked.start();
+            waitForState(blocked, Thread.State.BLOCKED);
+
+            final WatchRule.Indicators indicators = new WatchRule.Indicators(ManagementFactory.getThreadMXBean());
+            assertTrue(WatchRule.blockedThreadsAbove(0).fires(indicators));
+            assertEquals(indicators.getBlockedThreadCount() + " blocked", indicators.toString());
+        }
+
+        blocked.join();
+    }
+
+    @Test
+    public void deadlockIsDetected() throws Exception {
+        final ReentrantLock first = new ReentrantLock();
+        final ReentrantLock second = new ReentrantLock();
+        final CountDownLatch locked = new CountDownLatch(2);
+        final Thread firstThread = new Thread(() -> lockBoth(first, second, locked), "watcher-test-first");
+        final Thread secondThread = new Thread(() -> lockBoth(second, first, locked), "watcher-test-second");
+
+        firstThread.start();
+        secondThread.start();
+
+        try {
+            waitForState(firstThread, Thread.State.WAITING);
+            waitForState(secondThread, Thread.State.WAITING);
+
+            final WatchRule.Indicators indicators = new WatchRule.Indicators(ManagementFactory.getThreadMXBean());
+            assertTrue(WatchRule.deadlock().fires(indicators));
+            assertEquals(2, indicators.getDeadlockedThreadCount());
+        } finally {
+            firstThread.interrupt();
+            secondThread.interrupt();
+            firstThread.join();
+            secondThread.join();
+        }
+    }
+
+    private static void lockBoth(final ReentrantLock first, final ReentrantLock second, final CountDownLatch locked) {
+        first.lock();
+
+        try {
+            locked.countDown();
+            locked.await(5, TimeUnit.SECONDS);
+            second.lockInterruptibly();
+            second.unlock();
+        } catch (InterruptedException e) {
+            // The test is finished
+        } finally {
+            first.unlock();
+        }
+    }
+
+    private static void waitForState(final Thread thread, final Thread.State state) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (thread.getState() != state && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
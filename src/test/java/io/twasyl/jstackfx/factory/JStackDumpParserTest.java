@@ -0,0 +1,94 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JStackDumpParserTest {
+
+    private static JStackDumpParser<InMemoryDump> parser(final String... lines) {
+        final JStackDumpParser<InMemoryDump> parser = new JStackDumpParser<>(new InMemoryDump());
+
+        for (final String line : lines) {
+            parser.parseLine(line);
+        }
+
+        return parser;
+    }
+
+    @Test
+    public void threadElementsAreEmittedWhenTheirBlockCloses() {
+        final JStackDumpParser<InMemoryDump> parser = parser(
+                "2016-11-22 20:30:25",
+                "Full thread dump OpenJDK 64-Bit Server VM (25.112-b2 mixed mode):",
+                "",
+                "\"main\" #1 prio=5 os_prio=31 tid=0x00007f8465003800 nid=0x1703 waiting on condition [0x0000700003ac1000]",
+                "   java.lang.Thread.State: TIMED_WAITING (sleeping)",
+                "\tat java.lang.Thread.sleep(Native Method)",
+                "");
+
+        assertEquals(0, parser.dump.getElements().size());
+
+        parser.parseLine("\"VM Thread\" os_prio=31 tid=0x00007f84650dc000 nid=0x3c03 runnable ");
+
+        assertEquals(1, parser.dump.getElements().size());
+        assertEquals("main", parser.dump.getElements().get(0).getName());
+    }
+
+    @Test
+    public void lastThreadIsParsedWithoutJniReferences() {
+        final Dump dump = parser(
+                "2016-11-22 20:30:25",
+                "Full thread dump OpenJDK 64-Bit Server VM (25.112-b2 mixed mode):",
+                "",
+                "\"main\" #1 prio=5 os_prio=31 tid=0x00007f8465003800 nid=0x1703 waiting on condition [0x0000700003ac1000]",
+                "   java.lang.Thread.State: TIMED_WAITING (sleeping)",
+                "\tat java.lang.Thread.sleep(Native Method)",
+                "").end();
+
+        assertEquals(1, dump.getElements().size());
+        assertEquals(Thread.State.TIMED_WAITING, dump.getElements().get(0).getState());
+        assertEquals(0, dump.getNumberOfJNIRefs());
+    }
+
+    @Test
+    public void trailingBlankLinesAreNotPartOfTheSource() {
+        final Dump dump = parser(
+                "2016-11-22 20:30:25",
+                "Full thread dump OpenJDK 64-Bit Server VM (25.112-b2 mixed mode):",
+                "",
+                "\"main\" #1 prio=5 os_prio=31 tid=0x00007f8465003800 nid=0x1703 runnable [0x0000700003ac1000]",
+                "   java.lang.Thread.State: RUNNABLE",
+                "",
+                "",
+                "JNI global references: 12").end();
+
+        assertEquals(1, dump.getElements().size());
+        assertEquals("\"main\" #1 prio=5 os_prio=31 tid=0x00007f8465003800 nid=0x1703 runnable [0x0000700003ac1000]\n" +
+                "   java.lang.Thread.State: RUNNABLE", dump.getElements().get(0).getSource());
+        assertEquals(12, dump.getNumberOfJNIRefs());
+    }
+
+    @Test
+    public void jniReferencesOfRecentJvmsCompleteTheDump() {
+        final JStackDumpParser<InMemoryDump> parser = parser(
+                "2024-01-15 10:37:16",
+                "Full thread dump OpenJDK 64-Bit Server VM (21.0.1+12-29 mixed mode, sharing):",
+                "",
+                "\"main\" #1 [4867] prio=5 os_prio=31 cpu=54.28ms elapsed=12.51s tid=0x000000012a808200 nid=4867 waiting on condition  [0x000000016f8f2000]",
+                "   java.lang.Thread.State: TIMED_WAITING (sleeping)",
+                "",
+                "JNI global refs: 15, weak refs: 3");
+
+        assertTrue(parser.isComplete());
+        assertEquals(1, parser.dump.getElements().size());
+        assertEquals(15, parser.end().getNumberOfJNIRefs());
+    }
+}
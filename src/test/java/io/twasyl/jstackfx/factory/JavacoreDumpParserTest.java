@@ -0,0 +1,69 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JavacoreDumpParserTest {
+
+    private static final File JAVACORE = new File("src/test/resources/javacore.txt");
+
+    @Test
+    public void convertFrames() {
+        assertEquals("at java.io.FileInputStream.read(FileInputStream.java:255)",
+                JavacoreDumpParser.convertFrame("at java/io/FileInputStream.read(FileInputStream.java:255(Compiled Code))"));
+        assertEquals("at sun.misc.Unsafe.park(Native Method)", JavacoreDumpParser.convertFrame("at sun/misc/Unsafe.park(Native Method)"));
+        assertEquals("at com.acme.Main$$Lambda$1/0x00000000e0c1.run(Bytecode PC:4)",
+                JavacoreDumpParser.convertFrame("at com/acme/Main$$Lambda$1/0x00000000e0c1.run(Bytecode PC:4)"));
+    }
+
+    @Test
+    public void readJavacore() throws Exception {
+        final Dump dump = DumpFactory.read(JAVACORE);
+
+        assertEquals(LocalDateTime.of(2017, 1, 1, 1, 0, 0), dump.getGenerationDateTime());
+        assertEquals("Full thread dump JRE 1.8.0 Linux amd64-64 (build 8.0.5.0 - pxa6480sr5-20170905_01(SR5)):", dump.getDescription());
+        assertEquals(4, dump.getElements().size());
+
+        final ThreadElement main = dump.getElements().get(0);
+        assertEquals("main", main.getName());
+        assertEquals(1, main.getNumber());
+        assertEquals(5, main.getPriority());
+        assertEquals(Thread.State.RUNNABLE, main.getState());
+        assertEquals(3, main.getStackDepth());
+        assertEquals("at java.io.FileInputStream.readBytes(Native Method)\n" +
+                "at java.io.FileInputStream.read(FileInputStream.java:255)\n" +
+                "at com.acme.Main.main(Main.java:21)", main.getCallingStack());
+        assertEquals("read", main.getStackFrames().get(1).getMethodName());
+        assertTrue(main.getSource().startsWith("3XMTHREADINFO      \"main\""));
+    }
+
+    @Test
+    public void statesAndLocks() throws Exception {
+        final Dump dump = DumpFactory.read(JAVACORE);
+        final ThreadElement blocked = dump.getElements().get(1);
+        final ThreadElement sleeping = dump.getElements().get(2);
+        final ThreadElement parked = dump.getElements().get(3);
+
+        assertEquals(Thread.State.BLOCKED, blocked.getState());
+        assertEquals(Thread.State.TIMED_WAITING, sleeping.getState());
+        assertEquals(Thread.State.WAITING, parked.getState());
+
+        assertEquals("0x00000000e0a0f0d8", blocked.getWaitingToLock().iterator().next().getThreadId());
+        assertEquals("java.lang.Object", blocked.getWaitingToLock().iterator().next().getClassName());
+        assertEquals(1, blocked.getBlockingThreads().size());
+        assertTrue(blocked.getBlockingThreads().contains(sleeping));
+        assertEquals("java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject",
+                parked.getParkingReasons().iterator().next().getClassName());
+    }
+}
@@ -0,0 +1,136 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.JmxDump;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.exceptions.DumpException;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JmxDumpCaptureTest {
+
+    @Test
+    public void blockedThreadIsLinkedToItsOwner() throws Exception {
+        final Object monitor = new Object();
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final Thread owner = new Thread(() -> {
+            synchronized (monitor) {
+                locked.countDown();
+                awaitQuietly(release);
+            }
+        }, "jmx-test-owner");
+        final Thread blocked = new Thread(() -> {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }, "jmx-test-blocked");
+
+        owner.start();
+        locked.await(5, TimeUnit.SECONDS);
+        blocked.start();
+        waitForState(blocked, Thread.State.BLOCKED);
+
+        try (final JmxDumpCapture capture = new JmxDumpCapture(ManagementFactory.getPlatformMBeanServer())) {
+            final Dump dump = capture.capture();
+
+            assertTrue(dump instanceof JmxDump);
+            assertTrue(dump.getDescription().startsWith("Full thread dump"));
+
+            final ThreadElement ownerElement = findThread(dump, owner);
+            final ThreadElement blockedElement = findThread(dump, blocked);
+
+            assertEquals(Thread.State.BLOCKED, blockedElement.getState());
+            assertEquals(1, ownerElement.getHoldingLocks().size());
+            assertEquals(Object.class.getName(), ownerElement.getHoldingLocks().iterator().next().getClassName());
+            assertTrue(blockedElement.getBlockingThreads().contains(ownerElement));
+            assertTrue(ownerElement.getBlockedThreads().contains(blockedElement));
+            assertTrue(blockedElement.getStackDepth() > 0);
+            assertTrue(blockedElement.getCallingStack().contains("at "));
+        } finally {
+            release.countDown();
+            owner.join();
+            blocked.join();
+        }
+    }
+
+    @Test
+    public void parkedThreadReferencesItsSynchronizer() throws Exception {
+        final ReentrantLock lock = new ReentrantLock();
+        final Thread parked = new Thread(() -> {
+            lock.lock();
+            lock.unlock();
+        }, "jmx-test-parked");
+
+        lock.lock();
+
+        try (final JmxDumpCapture capture = new JmxDumpCapture(ManagementFactory.getPlatformMBeanServer())) {
+            capture.setLockedSynchronizers(true);
+            parked.start();
+            waitForState(parked, Thread.State.WAITING);
+
+            final Dump dump = capture.capture();
+            final ThreadElement parkedElement = findThread(dump, parked);
+            final ThreadElement current = findThread(dump, Thread.currentThread());
+
+            assertEquals(1, parkedElement.getParkingReasons().size());
+            assertEquals(1, current.getLockedSynchronizers().size());
+            assertEquals(parkedElement.getParkingReasons(), current.getLockedSynchronizers());
+        } finally {
+            lock.unlock();
+            parked.join();
+        }
+    }
+
+    @Test
+    public void capturesShareTheirFrameDictionary() throws DumpException {
+        try (final JmxDumpCapture capture = new JmxDumpCapture(ManagementFactory.getPlatformMBeanServer())) {
+            final Dump first = capture.capture(42);
+            final Dump second = capture.capture(42);
+
+            assertSame(first.getFrameDictionary(), second.getFrameDictionary());
+            assertEquals(42, second.getProcessId());
+            assertNotNull(second.getLoadStatistics());
+            assertEquals(second.getElements().size(), second.getLoadStatistics().getThreads());
+        }
+    }
+
+    private static ThreadElement findThread(final Dump dump, final Thread thread) {
+        return dump.getElements().stream()
+                .filter(element -> element.getNumber() == thread.getId())
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("The thread " + thread.getName() + " is not in the dump"));
+    }
+
+    private static void waitForState(final Thread thread, final Thread.State state) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+
+        while (thread.getState() != state && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(state, thread.getState());
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
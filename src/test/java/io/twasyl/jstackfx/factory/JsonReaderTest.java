@@ -0,0 +1,72 @@
+package io.twasyl.jstackfx.factory;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JsonReaderTest {
+
+    @Test
+    public void readNestedValues() throws IOException {
+        final JsonReader reader = new JsonReader(new StringReader("{\"a\": [1, -2.5e3, true, null, \"x\"], \"b\": {}, \"c\": []}"));
+
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        reader.beginArray();
+        assertEquals(1, reader.nextLong());
+        assertEquals(JsonReader.Token.NUMBER, reader.peek());
+        assertEquals("-2.5e3", reader.nextString());
+        assertTrue(reader.nextBoolean());
+        assertNull(reader.nextStringOrNull());
+        assertEquals("x", reader.nextString());
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("b", reader.nextName());
+        reader.beginObject();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        assertEquals("c", reader.nextName());
+        reader.beginArray();
+        reader.endArray();
+        reader.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void readEscapedStrings() throws IOException {
+        final JsonReader reader = new JsonReader(new StringReader("[\"java.base\\/java.lang.Thread\", \"\\\"quoted\\\"\\t\\u00e9\\\\\"]"));
+
+        reader.beginArray();
+        assertEquals("java.base/java.lang.Thread", reader.nextString());
+        assertEquals("\"quoted\"\t\u00e9\\", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    public void skipNestedValues() throws IOException {
+        final JsonReader reader = new JsonReader(new StringReader("{\"skipped\": {\"a\": [1, {\"b\": [[]]}]}, \"kept\": \"value\"}"));
+
+        reader.beginObject();
+        assertEquals("skipped", reader.nextName());
+        reader.skipValue();
+        assertEquals("kept", reader.nextName());
+        assertEquals("value", reader.nextString());
+        reader.endObject();
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedDocument() throws IOException {
+        final JsonReader reader = new JsonReader(new StringReader("{\"a\" 1}"));
+
+        reader.beginObject();
+        reader.nextName();
+        reader.nextLong();
+    }
+}
@@ -0,0 +1,176 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.Dump;
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class JsonThreadDumpParserTest {
+
+    private static final File JSON_DUMP = new File("src/test/resources/jcmd.json");
+    private static final File JSON_DUMP_WITH_STATES = new File("src/test/resources/jcmd_jdk25.json");
+
+    private static ThreadElement thread(final Dump dump, final long number) {
+        return dump.getElements().stream().filter(thread -> thread.getNumber() == number).findFirst().get();
+    }
+
+    @Test
+    public void readJsonDump() throws Exception {
+        final Dump dump = DumpFactory.read(JSON_DUMP);
+
+        assertEquals(LocalDateTime.ofInstant(Instant.parse("2024-01-15T10:37:16.308017Z"), ZoneId.systemDefault()), dump.getGenerationDateTime());
+        assertEquals("Full thread dump of process 63406 (21.0.1+12-29):", dump.getDescription());
+        assertEquals(7, dump.getElements().size());
+        assertEquals(2, dump.getThreadContainers().size());
+        assertEquals("<root>", dump.getThreadContainers().get(1).getParent());
+        assertEquals(3, dump.getThreadContainers().get(1).getThreadCount());
+
+        final ThreadElement main = thread(dump, 1);
+        assertEquals("main", main.getName());
+        assertFalse(main.isVirtual());
+        assertEquals("<root>", main.getContainer());
+        assertEquals(3, main.getStackDepth());
+        assertEquals("at java.base/java.lang.Thread.sleep0(Native Method)", main.getCallingStack().split("\n")[0]);
+        assertEquals("java.base", main.getStackFrames().get(0).getModuleName());
+        assertEquals("app", main.getStackFrames().get(2).getClassLoaderName());
+    }
+
+    @Test
+    public void readJsonDumpWithByteOrderMark() throws Exception {
+        final File file = File.createTempFile("jstackfx", ".json");
+        file.deleteOnExit();
+
+        final byte[] content = Files.readAllBytes(JSON_DUMP.toPath());
+        final byte[] withByteOrderMark = new byte[content.length + 3];
+        withByteOrderMark[0] = (byte) 0xEF;
+        withByteOrderMark[1] = (byte) 0xBB;
+        withByteOrderMark[2] = (byte) 0xBF;
+        System.arraycopy(content, 0, withByteOrderMark, 3, content.length);
+        Files.write(file.toPath(), withByteOrderMark);
+
+        final Dump dump = DumpFactory.read(file);
+
+        assertEquals("Full thread dump of process 63406 (21.0.1+12-29):", dump.getDescription());
+        assertEquals(7, dump.getElements().size());
+    }
+
+    @Test
+    public void inferStateWhenMissing() throws Exception {
+        final Dump dump = DumpFactory.read(JSON_DUMP);
+
+        assertEquals(Thread.State.TIMED_WAITING, thread(dump, 1).getState());
+        assertEquals(Thread.State.RUNNABLE, thread(dump, 9).getState());
+        assertEquals(Thread.State.WAITING, thread(dump, 10).getState());
+        assertEquals(Thread.State.TIMED_WAITING, thread(dump, 21).getState());
+        assertEquals(Thread.State.WAITING, thread(dump, 23).getState());
+        assertEquals(Thread.State.RUNNABLE, thread(dump, 24).getState());
+    }
+
+    @Test
+    public void inferVirtualThreadsWhenMissing() throws Exception {
+        final Dump dump = DumpFactory.read(JSON_DUMP);
+
+        assertFalse(thread(dump, 1).isVirtual());
+        assertFalse(thread(dump, 21).isVirtual());
+
+        final ThreadElement parked = thread(dump, 23);
+        assertTrue(parked.isVirtual());
+        assertEquals(-1, parked.getCarrierNumber());
+        assertEquals("java.util.concurrent.ThreadPerTaskExecutor@4cc77c2e", parked.getContainer());
+        assertTrue(parked.getParkingReasons().isEmpty());
+
+        assertTrue(thread(dump, 24).isVirtual());
+        assertTrue(thread(dump, 25).isVirtual());
+        assertEquals(3, dump.getElements().stream().filter(ThreadElement::isVirtual).count());
+    }
+
+    @Test
+    public void readVirtualThreads() throws Exception {
+        final Dump dump = DumpFactory.read(JSON_DUMP_WITH_STATES);
+
+        assertEquals("Full thread dump of process 71204 (25+36-3489):", dump.getDescription());
+        assertEquals(Long.valueOf(1), dump.countNumberOfThreadsByState().get(Thread.State.BLOCKED));
+
+        final ThreadElement parked = thread(dump, 23);
+        assertTrue(parked.isVirtual());
+        assertEquals(-1, parked.getCarrierNumber());
+        assertEquals("java.util.concurrent.ThreadPerTaskExecutor@4cc77c2e", parked.getContainer());
+        assertEquals("java.util.concurrent.locks.ReentrantLock$NonfairSync", parked.getParkingReasons().iterator().next().getClassName());
+
+        final ThreadElement mounted = thread(dump, 24);
+        assertEquals("worker \"2\"", mounted.getName());
+        assertEquals(21, mounted.getCarrierNumber());
+        assertEquals(Thread.State.RUNNABLE, mounted.getState());
+
+        final ThreadElement blocked = thread(dump, 25);
+        assertEquals(Collections.singleton(mounted), blocked.getBlockingThreads());
+        assertTrue(blocked.getSource().startsWith("\"\" #25 virtual\n   java.lang.Thread.State: BLOCKED\n\tat app//com.acme.Worker.compute(Worker.java:28)"));
+    }
+
+    @Test(expected = IOException.class)
+    public void threadIdWhichIsNotANumber() throws Exception {
+        final String json = "{\"threadDump\": {\"processId\": \"1\", \"threadContainers\": [" +
+                "{\"container\": \"<root>\", \"threads\": [{\"tid\": \"main\", \"name\": \"main\", \"stack\": []}]}]}}";
+
+        new JsonThreadDumpParser<>(new InMemoryDump()).parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void threadsWithTheSameStackShareTheirFrames() throws Exception {
+        final int numberOfThreads = 20000;
+        final String header = "{\"threadDump\": {\"processId\": \"1\", \"time\": \"2024-01-15T10:37:16Z\", \"threadContainers\": [" +
+                "{\"container\": \"<root>\", \"parent\": null, \"owner\": null, \"threads\": [";
+        final String thread = "{\"tid\": \"%d\", \"name\": \"\", \"virtual\": true, \"stack\": [" +
+                "\"java.base\\/java.lang.VirtualThread.park(VirtualThread.java:596)\", \"app\\/\\/com.acme.Worker.run(Worker.java:%d)\"]}";
+
+        final Enumeration<InputStream> content = new Enumeration<InputStream>() {
+            private int index = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return index <= numberOfThreads;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                final String text;
+
+                if (index == -1) text = header;
+                else if (index == numberOfThreads) text = "], \"threadCount\": \"" + numberOfThreads + "\"}]}}";
+                else text = (index > 0 ? "," : "") + String.format(thread, index, index % 2);
+
+                index++;
+                return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+
+        final Dump dump = new JsonThreadDumpParser<>(new InMemoryDump()).parse(new SequenceInputStream(content));
+
+        assertEquals(numberOfThreads, dump.getElements().size());
+        assertEquals(3, dump.getFrameDictionary().size());
+        assertSame(dump.getElements().get(0).getFrames(), dump.getElements().get(2).getFrames());
+        assertTrue(dump.getElements().get(0).hasSameCallingStack(dump.getElements().get(numberOfThreads - 2)));
+        assertFalse(dump.getElements().get(0).hasSameCallingStack(dump.getElements().get(1)));
+        assertEquals(numberOfThreads, dump.countNumberOfThreads(Thread.State.WAITING));
+    }
+}
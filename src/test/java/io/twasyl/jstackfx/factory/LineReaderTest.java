@@ -0,0 +1,60 @@
+package io.twasyl.jstackfx.factory;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class LineReaderTest {
+
+    private static LineReader reader(final String content) {
+        return new LineReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void offsetsOfLines() throws IOException {
+        final LineReader reader = reader("first\r\n\nthird");
+
+        assertEquals("first", reader.readLine());
+        assertEquals(0, reader.getLineStart());
+        assertEquals(5, reader.getLineEnd());
+
+        assertEquals("", reader.readLine());
+        assertEquals(7, reader.getLineStart());
+        assertEquals(7, reader.getLineEnd());
+
+        assertEquals("third", reader.readLine());
+        assertEquals(8, reader.getLineStart());
+        assertEquals(13, reader.getLineEnd());
+
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    public void linesLongerThanTheBuffer() throws IOException {
+        final StringBuilder longLine = new StringBuilder();
+
+        while (longLine.length() < LineReader.BUFFER_SIZE * 2) {
+            longLine.append("at \u00e9.\u00fc(Native Method) ");
+        }
+
+        final LineReader reader = reader("short\n" + longLine + "\nlast\n");
+        final int longLineBytes = longLine.toString().getBytes(StandardCharsets.UTF_8).length;
+
+        assertEquals("short", reader.readLine());
+        assertEquals(longLine.toString(), reader.readLine());
+        assertEquals(6, reader.getLineStart());
+        assertEquals(6 + longLineBytes, reader.getLineEnd());
+        assertEquals("last", reader.readLine());
+        assertEquals(7 + longLineBytes, reader.getLineStart());
+        assertNull(reader.readLine());
+    }
+}
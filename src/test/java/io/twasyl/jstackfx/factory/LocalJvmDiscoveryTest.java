@@ -0,0 +1,54 @@
+package io.twasyl.jstackfx.factory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class LocalJvmDiscoveryTest {
+
+    @Rule
+    public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+    @Test
+    public void listFromPerfData() throws Exception {
+        final long processId = LocalJvmDiscovery.currentProcessId();
+        final File directory = temporaryDirectory.newFolder("hsperfdata_jstackfx");
+
+        final ByteArrayOutputStream perfData = new ByteArrayOutputStream();
+        perfData.write(new byte[]{(byte) 0xca, (byte) 0xfe, (byte) 0xc0, (byte) 0xc0, 0, 0, 0, 0});
+        perfData.write("sun.rt.javaCommand".getBytes(StandardCharsets.US_ASCII));
+        perfData.write(new byte[]{0, 0, 0});
+        perfData.write("com.example.Main --port=8080".getBytes(StandardCharsets.US_ASCII));
+        perfData.write(new byte[]{0, 0, 0, 0});
+
+        Files.write(new File(directory, String.valueOf(processId)).toPath(), perfData.toByteArray());
+        Files.write(new File(directory, "not-a-process").toPath(), new byte[0]);
+        temporaryDirectory.newFolder("not-perfdata");
+
+        final List<LocalJvm> jvms = LocalJvmDiscovery.listFromPerfData(temporaryDirectory.getRoot());
+
+        assertEquals(1, jvms.size());
+        assertEquals(processId, jvms.get(0).getProcessId());
+        assertEquals("com.example.Main --port=8080", jvms.get(0).getDisplayName());
+    }
+
+    @Test
+    public void currentProcessIsNotDiscovered() {
+        final long processId = LocalJvmDiscovery.currentProcessId();
+
+        assertFalse(LocalJvmDiscovery.discover().stream().anyMatch(jvm -> jvm.getProcessId() == processId));
+    }
+}
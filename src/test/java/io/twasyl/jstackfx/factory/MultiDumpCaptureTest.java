@@ -0,0 +1,112 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import io.twasyl.jstackfx.exceptions.DumpException;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class MultiDumpCaptureTest {
+
+    private static final List<LocalJvm> JVMS = Arrays.asList(new LocalJvm(10, "first"), new LocalJvm(20, "second"),
+            new LocalJvm(30, "third"), new LocalJvm(40, "fourth"));
+
+    @Test
+    public void capturesRunConcurrently() {
+        final CyclicBarrier allStarted = new CyclicBarrier(JVMS.size());
+        final MultiDumpCapture capture = new MultiDumpCapture(processId -> {
+            try {
+                allStarted.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new DumpException(e);
+            }
+            return new InMemoryDump();
+        }, 8, Duration.ofSeconds(10));
+
+        final List<MultiDumpCapture.Result> results = capture.captureAll(JVMS);
+
+        assertEquals(JVMS.size(), results.size());
+
+        for (int index = 0; index < JVMS.size(); index++) {
+            final MultiDumpCapture.Result result = results.get(index);
+
+            assertTrue(result.isSuccessful());
+            assertEquals(JVMS.get(index), result.getJvm());
+            assertEquals(JVMS.get(index).getProcessId(), result.getDump().getProcessId());
+            assertEquals(JVMS.get(index).getDisplayName(), result.getDump().getProcessName());
+        }
+
+        assertEquals(1, results.stream().map(result -> result.getDump().getGenerationDateTime()).distinct().count());
+    }
+
+    @Test
+    public void slowProcessesTimeOut() {
+        final MultiDumpCapture capture = new MultiDumpCapture(processId -> {
+            if (processId == 20) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    throw new DumpException(e);
+                }
+            }
+            return new InMemoryDump();
+        }, 8, Duration.ofMillis(200));
+
+        final long start = System.nanoTime();
+        final List<MultiDumpCapture.Result> results = capture.captureAll(JVMS);
+
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+        assertTrue(results.get(0).isSuccessful());
+        assertFalse(results.get(1).isSuccessful());
+        assertNull(results.get(1).getDump());
+        assertTrue(results.get(1).getError().getMessage().contains("200 ms"));
+        assertTrue(results.get(2).isSuccessful());
+    }
+
+    @Test
+    public void slowCapturesAreInterrupted() throws InterruptedException {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final MultiDumpCapture capture = new MultiDumpCapture(processId -> {
+            if (processId == 20) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new DumpException(e);
+                }
+            }
+            return new InMemoryDump();
+        }, 8, Duration.ofMillis(200));
+
+        capture.captureAll(JVMS);
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failuresAreReportedPerProcess() {
+        final MultiDumpCapture capture = new MultiDumpCapture(processId -> {
+            if (processId == 30) throw new DumpException("No such process");
+            return new InMemoryDump();
+        }, 2, Duration.ofSeconds(10));
+
+        final List<MultiDumpCapture.Result> results = capture.captureAll(JVMS);
+
+        assertEquals(3, results.stream().filter(MultiDumpCapture.Result::isSuccessful).count());
+        assertEquals("No such process", results.get(2).getError().getMessage());
+    }
+}
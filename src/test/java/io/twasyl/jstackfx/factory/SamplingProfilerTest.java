@@ -0,0 +1,77 @@
+package io.twasyl.jstackfx.factory;
+
+import io.twasyl.jstackfx.beans.CallTree;
+import io.twasyl.jstackfx.beans.InMemoryDump;
+import io.twasyl.jstackfx.beans.ThreadElement;
+import io.twasyl.jstackfx.exceptions.DumpException;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class SamplingProfilerTest {
+
+    @Test
+    public void samplesAreFoldedIntoTheCallTree() throws Exception {
+        final JmxDumpCapture capture = new JmxDumpCapture(ManagementFactory.getPlatformMBeanServer());
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicReference<CallTree> result = new AtomicReference<>();
+
+        final SamplingProfiler profiler = new SamplingProfiler(1, capture, new CallTree(), tree -> {
+            result.set(tree);
+            finished.countDown();
+        });
+
+        profiler.start(50, Duration.ofMillis(200));
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        capture.close();
+
+        final CallTree tree = result.get();
+        assertNotNull(tree);
+        assertTrue(tree.getNumberOfDumps() > 0);
+        assertEquals(profiler.getNumberOfSamples(), tree.getNumberOfDumps());
+        // The thread capturing the dumps is always runnable
+        assertTrue(tree.getNumberOfSamples() >= tree.getNumberOfDumps());
+    }
+
+    @Test
+    public void fallsBackOnceTheCaptureFails() throws Exception {
+        final CountDownLatch finished = new CountDownLatch(1);
+        final DumpCapture failing = processId -> {
+            throw new DumpException("No JMX");
+        };
+        final DumpCapture fallback = processId -> {
+            final InMemoryDump dump = new InMemoryDump();
+            final ThreadElement thread = new ThreadElement();
+            thread.setState(Thread.State.RUNNABLE);
+            thread.setFrames(dump.getFrameDictionary(), new int[]{dump.getFrameDictionary().idOf("at com.acme.Worker.run(Worker.java:1)")});
+            dump.getElements().add(thread);
+            return dump;
+        };
+
+        final SamplingProfiler profiler = new SamplingProfiler(1, failing.orElse(fallback), new CallTree(), tree -> finished.countDown());
+        profiler.start(100, Duration.ofMillis(100));
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(0, profiler.getNumberOfFailures());
+        assertEquals(profiler.getNumberOfSamples(), profiler.getCallTree().getNumberOfSamples());
+        assertEquals(1, profiler.getCallTree().getRoot().getChildren().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void frequencyMustBePositive() {
+        new SamplingProfiler(1, processId -> new InMemoryDump(), new CallTree(), tree -> {}).start(0, Duration.ofSeconds(1));
+    }
+}
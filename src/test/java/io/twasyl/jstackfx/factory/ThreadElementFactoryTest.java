@@ -1,12 +1,14 @@
 package io.twasyl.jstackfx.factory;
 
+import io.twasyl.jstackfx.beans.FrameDictionary;
+import io.twasyl.jstackfx.beans.StackFrame;
+import io.twasyl.jstackfx.beans.ThreadElement;
 import io.twasyl.jstackfx.beans.ThreadReference;
 import org.junit.Test;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Set;
+import java.io.File;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -356,4 +358,89 @@ public class ThreadElementFactoryTest {
 
         assertEquals(expected, ThreadElementFactory.buildSource(lines));
     }
+
+    @Test
+    public void singlePassBuildIsEquivalentToRegexBuildOnSampleDumps() throws Exception {
+        final File[] samples = new File("src/test/resources").listFiles((dir, name) -> name.endsWith(".txt"));
+
+        for (final File sample : samples) {
+            for (final ThreadElement thread : DumpFactory.read(sample).getElements()) {
+                assertEquivalentBuilds(Arrays.asList(thread.getSource().split("\n", -1)));
+            }
+        }
+    }
+
+    @Test
+    public void singlePassBuildIsEquivalentToRegexBuildOnUnusualLines() {
+        final List<String> lines = new ArrayList<>();
+
+        lines.add("\"pool-1-thread-1\" #12 prio=5 os_prio=0 tid=0x00007f3f151a8800 nid=0x637d waiting on condition [0x00007f3f01b3a000]");
+        lines.add("   java.lang.Thread.State: WAITING (parking)");
+        lines.add("\tat sun.misc.Unsafe.park(Native Method)");
+        lines.add("\tat com.acme.Worker_2.run(Worker.java:12)");
+        lines.add("  at java.lang.Thread.run(Thread.java:745)");
+        lines.add("\tat java.lang.Thread.run(Thread.java:745) ");
+        lines.add("\tat java.lang.Thread.run()");
+        lines.add("\t- parking to wait for<0x00000000d376b1e0> (a java.util.concurrent.SynchronousQueue$TransferStack)");
+        lines.add("\t- parking to wait for \t<0x00000000d376b1e1> (a java.util.concurrent.SynchronousQueue$TransferStack)");
+        lines.add("\t- locked <0x00000000D376B1E2> (a java.lang.Object)");
+        lines.add("\t- locked <0x00000000d376b1e3> (a java.lang.Object) ");
+        lines.add("\t- locked <0x00000000d376b1e4> (a com.acme.Lock1)");
+        lines.add("\t- locked <0x00000000d376b1e5>  (a java.lang.Object)");
+        lines.add("\t- waiting to lock <0x00000000d376b1e6> (a java.lang.Object)");
+        lines.add("\t- waiting to lock <> (a java.lang.Object)");
+        lines.add("");
+        lines.add("   Locked ownable synchronizers:");
+        lines.add("\t- <0x00000000cfa47920> (a java.util.concurrent.ThreadPoolExecutor$Worker)");
+        lines.add("\t-  <0x00000000cfa47921> (a java.util.concurrent.ThreadPoolExecutor$Worker)");
+        lines.add("\t- locked <0x00000000cfa47922> (a java.lang.Object)");
+        lines.add("\t- <0x00000000cfa47923> (a java.util.concurrent.ThreadPoolExecutor$Worker)");
+        lines.add("");
+        lines.add("\t- <0x00000000cfa47924> (a java.util.concurrent.ThreadPoolExecutor$Worker)");
+        lines.add("   Locked ownable synchronizers:");
+        lines.add("\t- <0x00000000cfa47925> (a java.util.concurrent.ThreadPoolExecutor$Worker)");
+
+        assertEquivalentBuilds(lines);
+    }
+
+    @Test
+    public void extractStackFramesWithModulesAndDigits() {
+        final List<String> lines = new ArrayList<>();
+
+        lines.add("\"main\" #1 prio=5 os_prio=0 cpu=52.21ms elapsed=12.47s tid=0x00007f3f14017800 nid=0x6341 waiting on condition  [0x00007f3f1c8fe000]");
+        lines.add("   java.lang.Thread.State: TIMED_WAITING (sleeping)");
+        lines.add("\tat java.lang.Thread.sleep(java.base@17.0.1/Native Method)");
+        lines.add("\tat java.base@17.0.1/java.lang.Thread.sleep(Native Method)");
+        lines.add("\tat app//com.acme.Worker_2.run(Worker2.java:12)");
+        lines.add("\tat com.acme.Main$$Lambda$14/0x0000000800066840.run(Unknown Source)");
+
+        final ThreadElement element = ThreadElementFactory.build(lines, null, new FrameDictionary());
+        final List<StackFrame> frames = element.getStackFrames();
+
+        assertEquals(4, element.getStackDepth());
+        assertEquals(4, frames.size());
+        assertEquals("java.base@17.0.1", frames.get(1).getModuleName());
+        assertTrue(frames.get(1).isNativeMethod());
+        assertEquals("com.acme.Worker_2", frames.get(2).getClassName());
+        assertEquals(12, frames.get(2).getLineNumber());
+        assertEquals("run", frames.get(3).getMethodName());
+        assertEquals(frames, ThreadElementFactory.build(lines).getStackFrames());
+    }
+
+    private static void assertEquivalentBuilds(final List<String> lines) {
+        final ThreadElement expected = ThreadElementFactory.buildWithRegex(lines);
+        final ThreadElement actual = ThreadElementFactory.build(lines);
+
+        assertEquals(expected.getCallingStack(), actual.getCallingStack());
+        assertEquals(describe(expected.getLockedSynchronizers()), describe(actual.getLockedSynchronizers()));
+        assertEquals(describe(expected.getHoldingLocks()), describe(actual.getHoldingLocks()));
+        assertEquals(describe(expected.getWaitingToLock()), describe(actual.getWaitingToLock()));
+        assertEquals(describe(expected.getParkingReasons()), describe(actual.getParkingReasons()));
+    }
+
+    private static Set<String> describe(final Set<ThreadReference> references) {
+        return references.stream()
+                .map(reference -> reference.getThreadId() + " " + reference.getClassName())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
 }
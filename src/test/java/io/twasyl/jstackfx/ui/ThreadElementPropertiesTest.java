@@ -0,0 +1,53 @@
+package io.twasyl.jstackfx.ui;
+
+import io.twasyl.jstackfx.beans.ThreadElement;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Thierry Wasylczenko
+ * @since JStackFX @@NEXT-VERSION@@
+ */
+public class ThreadElementPropertiesTest {
+
+    @Test
+    public void propertiesReflectTheFields() {
+        final ThreadElement thread = new ThreadElement();
+        thread.setName("main");
+        thread.setNumber(1);
+        thread.setState(Thread.State.RUNNABLE);
+
+        final ThreadElementProperties properties = new ThreadElementProperties(thread);
+        assertSame(thread, properties.getElement());
+        assertEquals("main", properties.nameProperty().get());
+        assertEquals(1, properties.numberProperty().get());
+        assertEquals(Thread.State.RUNNABLE, properties.stateProperty().get());
+        assertEquals(-1, properties.carrierNumberProperty().get());
+    }
+
+    @Test
+    public void propertyChangesAreWrittenToTheThread() {
+        final ThreadElement thread = new ThreadElement();
+        final ThreadElementProperties properties = new ThreadElementProperties(thread);
+
+        properties.stateProperty().set(Thread.State.BLOCKED);
+        properties.nameProperty().set("worker");
+
+        assertEquals(Thread.State.BLOCKED, thread.getState());
+        assertEquals("worker", thread.getName());
+    }
+
+    @Test
+    public void propertiesAreFoundByName() {
+        final ThreadElementProperties properties = new ThreadElementProperties(new ThreadElement());
+
+        assertSame(properties.stateProperty(), properties.property("state"));
+        assertSame(properties.carrierNumberProperty(), properties.property("carrierNumber"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPropertyIsRejected() {
+        new ThreadElementProperties(new ThreadElement()).property("unknown");
+    }
+}
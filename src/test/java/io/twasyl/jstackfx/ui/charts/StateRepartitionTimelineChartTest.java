@@ -7,6 +7,7 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.util.Arrays;
 
 /**
  * @author Thierry Wasylczenko
@@ -19,9 +20,9 @@ public class StateRepartitionTimelineChartTest extends Application {
     @Override
     public void start(Stage primaryStage) throws Exception {
         final DumpTimeline timeline = new DumpTimeline();
-        timeline.getDumps().addAll(
+        timeline.getDumps().addAll(Arrays.asList(
                 DumpFactory.read(TIMELINE_01),
-                DumpFactory.read(TIMELINE_02));
+                DumpFactory.read(TIMELINE_02)));
 
         final StateRepartitionTimelineChart chart = new StateRepartitionTimelineChart();
         chart.setDumpTimeline(timeline);